@@ -0,0 +1,14 @@
+package com.example.TicketFlix.Cache;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads the values for many ids from the source of truth in one query, keyed by id.
+ * Ids that do not exist are simply left out of the result.
+ */
+@FunctionalInterface
+public interface BulkCacheLoader<T> {
+
+    Map<Integer, T> loadAll(List<Integer> ids) throws Exception;
+}
@@ -0,0 +1,23 @@
+package com.example.TicketFlix.Cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cached value plus the time after which it should be refreshed in the background.
+ * The entry stays servable until the cache TTL expires it; refreshAt only starts the refresh-ahead window.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheEntry<T> {
+
+    private T value;
+
+    private long refreshAt;
+
+    public boolean isRefreshDue(long nowMillis) {
+        return nowMillis >= refreshAt;
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.TicketFlix.Cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Group invalidation for cached entries. Redis DEL does not expand globs, so groups are tracked explicitly:
+ * - tag sets: each cached key is added to "cache-tag::<tag>" sets and a whole group is unlinked in one call
+ * - generations: a namespace's keys embed the counter at "cache-gen::<namespace>", so one INCR orphans them all
+ *   and the old entries simply age out through their TTL
+ */
+@Component
+@Slf4j
+public class CacheInvalidationService {
+
+    private static final String TAG_KEY_PREFIX = "cache-tag::";
+    private static final String GENERATION_KEY_PREFIX = "cache-gen::";
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    public static String userTag(int userId) {
+        return "user:" + userId;
+    }
+
+    public static String showTag(int showId) {
+        return "show:" + showId;
+    }
+
+    public static String theaterTag(int theaterId) {
+        return "theater:" + theaterId;
+    }
+
+    /**
+     * Run an invalidation once the surrounding transaction commits; evicting earlier lets a concurrent read
+     * cache the uncommitted rows' old state again for a whole TTL. Without a transaction it runs at once.
+     */
+    public static void afterCommit(Runnable invalidation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidation.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidation.run();
+            }
+        });
+    }
+
+    /**
+     * Record that key belongs to every given tag. Tag sets live as long as the newest member.
+     */
+    public void tag(String key, Duration ttl, String... tags) {
+        if (tags.length == 0) {
+            return;
+        }
+        try {
+            pipelined(operations -> {
+                for (String tag : tags) {
+                    String tagKey = TAG_KEY_PREFIX + tag;
+                    operations.opsForSet().add(tagKey, key);
+                    operations.expire(tagKey, ttl.toMillis(), TimeUnit.MILLISECONDS);
+                }
+            });
+        } catch (Exception e) {
+            log.warn("Failed to tag cache key {} with {}: {}", key, Arrays.toString(tags), e.getMessage());
+        }
+    }
+
+    /**
+     * tag() for many keys at once, in a single pipeline
+     */
+    public void tagAll(Map<String, String[]> tagsByKey, Duration ttl) {
+        if (tagsByKey.isEmpty()) {
+            return;
+        }
+        try {
+            pipelined(operations -> {
+                Set<String> tagKeys = new LinkedHashSet<>();
+                tagsByKey.forEach((key, tags) -> {
+                    for (String tag : tags) {
+                        String tagKey = TAG_KEY_PREFIX + tag;
+                        operations.opsForSet().add(tagKey, key);
+                        tagKeys.add(tagKey);
+                    }
+                });
+                for (String tagKey : tagKeys) {
+                    operations.expire(tagKey, ttl.toMillis(), TimeUnit.MILLISECONDS);
+                }
+            });
+        } catch (Exception e) {
+            log.warn("Failed to tag {} cache keys: {}", tagsByKey.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Unlink every key recorded under the given tags, together with the tag sets themselves
+     */
+    public void invalidateTags(String... tags) {
+        if (tags.length == 0) {
+            return;
+        }
+        try {
+            List<String> tagKeys = Arrays.stream(tags).map(tag -> TAG_KEY_PREFIX + tag).collect(Collectors.toList());
+            List<Object> memberSets = pipelined(operations -> {
+                for (String tagKey : tagKeys) {
+                    operations.opsForSet().members(tagKey);
+                }
+            });
+
+            Set<String> keys = new LinkedHashSet<>(tagKeys);
+            for (Object members : memberSets) {
+                if (members instanceof Collection) {
+                    for (Object member : (Collection<?>) members) {
+                        keys.add(String.valueOf(member));
+                    }
+                }
+            }
+            redisTemplate.unlink(keys);
+            log.debug("Invalidated {} cache keys for tags {}", keys.size() - tagKeys.size(), tagKeys);
+        } catch (Exception e) {
+            log.warn("Failed to invalidate cache tags {}: {}", Arrays.toString(tags), e.getMessage());
+        }
+    }
+
+    /**
+     * Queue commands in one pipeline, returning their replies in order. SessionCallback hands over an
+     * untyped RedisOperations, which is the String template this service pipelines through.
+     */
+    private List<Object> pipelined(Consumer<RedisOperations<String, String>> commands) {
+        return redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                @SuppressWarnings("unchecked")
+                RedisOperations<String, String> stringOperations = (RedisOperations<String, String>) operations;
+                commands.accept(stringOperations);
+                return null;
+            }
+        });
+    }
+
+    public long currentGeneration(String namespace) {
+        return findGeneration(namespace).orElse(0L);
+    }
+
+    /**
+     * Like currentGeneration, but empty when Redis cannot be read, for callers that must not trust a default
+     */
+    public OptionalLong findGeneration(String namespace) {
+        try {
+            String generation = redisTemplate.opsForValue().get(GENERATION_KEY_PREFIX + namespace);
+            return OptionalLong.of(generation != null ? Long.parseLong(generation) : 0L);
+        } catch (Exception e) {
+            log.warn("Failed to read cache generation for {}: {}", namespace, e.getMessage());
+            return OptionalLong.empty();
+        }
+    }
+
+    /**
+     * Invalidate every key of a namespace in O(1) by moving it to a new generation
+     */
+    public void bumpGeneration(String namespace) {
+        try {
+            Long generation = redisTemplate.opsForValue().increment(GENERATION_KEY_PREFIX + namespace);
+            log.debug("Cache namespace {} moved to generation {}", namespace, generation);
+        } catch (Exception e) {
+            log.warn("Failed to bump cache generation for {}: {}", namespace, e.getMessage());
+        }
+    }
+
+    /**
+     * Build a key scoped to the namespace's current generation, e.g. "show-search::g3::..."
+     */
+    public String generationKey(String namespace, String suffix) {
+        return namespace + "::g" + currentGeneration(namespace) + "::" + suffix;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.TicketFlix.Cache;
+
+/**
+ * Loads a value from the source of truth on a cache miss or refresh
+ */
+@FunctionalInterface
+public interface CacheLoader<T> {
+
+    T load() throws Exception;
+}
@@ -0,0 +1,114 @@
+package com.example.TicketFlix.Cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hit/miss counters and a hit-ratio gauge per cache name:
+ * ticketflix.cache.requests{cache,result} and ticketflix.cache.hit.ratio{cache}.
+ * Two-level caches also report per level (l1 = in-process, l2 = Redis):
+ * ticketflix.cache.level.requests{cache,level,result} and ticketflix.cache.level.latency{cache,level}.
+ * Encoded value sizes written to Redis: ticketflix.cache.payload.bytes{cache}
+ */
+@Component
+public class CacheMetrics {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, CacheStats> stats = new ConcurrentHashMap<>();
+    private final Map<String, LevelStats> levelStats = new ConcurrentHashMap<>();
+
+    public void recordHit(String cacheName) {
+        statsFor(cacheName).hits.increment();
+    }
+
+    public void recordMiss(String cacheName) {
+        statsFor(cacheName).misses.increment();
+    }
+
+    public void recordDroppedWrite(String cacheName) {
+        statsFor(cacheName).droppedWrites.increment();
+    }
+
+    public void recordLevel(String cacheName, String level, boolean hit, long elapsedNanos) {
+        LevelStats counters = levelStats.computeIfAbsent(cacheName + "|" + level, k -> registerLevel(cacheName, level));
+        (hit ? counters.hits : counters.misses).increment();
+        counters.latency.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPayloadSize(String cacheName, int bytes) {
+        DistributionSummary.builder("ticketflix.cache.payload.bytes")
+                .baseUnit("bytes")
+                .tag("cache", cacheName)
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    public double hitRatio(String cacheName) {
+        return statsFor(cacheName).hitRatio();
+    }
+
+    private CacheStats statsFor(String cacheName) {
+        return stats.computeIfAbsent(cacheName, this::register);
+    }
+
+    private CacheStats register(String cacheName) {
+        CacheStats cacheStats = new CacheStats(
+                meterRegistry.counter("ticketflix.cache.requests", "cache", cacheName, "result", "hit"),
+                meterRegistry.counter("ticketflix.cache.requests", "cache", cacheName, "result", "miss"),
+                meterRegistry.counter("ticketflix.cache.writes.dropped", "cache", cacheName));
+        Gauge.builder("ticketflix.cache.hit.ratio", cacheStats, CacheStats::hitRatio)
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+        return cacheStats;
+    }
+
+    private LevelStats registerLevel(String cacheName, String level) {
+        return new LevelStats(
+                meterRegistry.counter("ticketflix.cache.level.requests", "cache", cacheName, "level", level, "result", "hit"),
+                meterRegistry.counter("ticketflix.cache.level.requests", "cache", cacheName, "level", level, "result", "miss"),
+                Timer.builder("ticketflix.cache.level.latency")
+                        .tag("cache", cacheName)
+                        .tag("level", level)
+                        .register(meterRegistry));
+    }
+
+    private static class CacheStats {
+        private final Counter hits;
+        private final Counter misses;
+        private final Counter droppedWrites;
+
+        private CacheStats(Counter hits, Counter misses, Counter droppedWrites) {
+            this.hits = hits;
+            this.misses = misses;
+            this.droppedWrites = droppedWrites;
+        }
+
+        private double hitRatio() {
+            double total = hits.count() + misses.count();
+            return total == 0 ? 0.0 : hits.count() / total;
+        }
+    }
+
+    private static class LevelStats {
+        private final Counter hits;
+        private final Counter misses;
+        private final Timer latency;
+
+        private LevelStats(Counter hits, Counter misses, Timer latency) {
+            this.hits = hits;
+            this.misses = misses;
+            this.latency = latency;
+        }
+    }
+}
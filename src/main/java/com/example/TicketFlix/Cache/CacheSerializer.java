@@ -0,0 +1,19 @@
+package com.example.TicketFlix.Cache;
+
+import java.util.List;
+
+/**
+ * Converts cached DTOs to and from the bytes stored in Redis.
+ * The namespace (cache name) selects how values are written; reads work for any namespace's payloads.
+ * Implementations must be thread-safe.
+ */
+public interface CacheSerializer {
+
+    byte[] serialize(String namespace, Object value) throws Exception;
+
+    <T> T deserialize(byte[] payload, Class<T> type) throws Exception;
+
+    <T> List<T> deserializeList(byte[] payload, Class<T> elementType) throws Exception;
+
+    <T> CacheEntry<T> deserializeEntry(byte[] payload, Class<T> valueType) throws Exception;
+}
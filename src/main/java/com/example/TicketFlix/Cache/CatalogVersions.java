@@ -0,0 +1,38 @@
+package com.example.TicketFlix.Cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.OptionalLong;
+
+/**
+ * Per-collection version counters for the catalog endpoints, used as HTTP validators.
+ * Every write that can change a collection's responses bumps it, so a version can be
+ * turned into an ETag without loading or serializing anything.
+ */
+@Component
+public class CatalogVersions {
+
+    public static final String MOVIES = "movies";
+    public static final String THEATERS = "theaters";
+    public static final String SCREENS = "screens";
+    public static final String SHOWS = "shows";
+
+    private static final String NAMESPACE_PREFIX = "catalog:";
+
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
+    /**
+     * Empty when Redis is unavailable; a missed bump could then go unnoticed, so no validator should be issued
+     */
+    public OptionalLong current(String collection) {
+        return cacheInvalidationService.findGeneration(NAMESPACE_PREFIX + collection);
+    }
+
+    public void bump(String... collections) {
+        for (String collection : collections) {
+            cacheInvalidationService.bumpGeneration(NAMESPACE_PREFIX + collection);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.TicketFlix.Cache;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisSentinelConnection;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Set;
+
+/**
+ * RedisConnectionFactory decorator that puts every RedisTemplate call behind RedisCircuitBreaker.
+ * getConnection() fails fast while the circuit is open; otherwise each command on the returned
+ * connection reports its outcome and latency to the breaker. Commands queued in a pipeline are
+ * reported once, when the pipeline is closed.
+ */
+public class CircuitBreakingRedisConnectionFactory implements RedisConnectionFactory {
+
+    // Connection methods that do not talk to Redis
+    private static final Set<String> LOCAL_METHODS = Set.of("close", "isClosed", "getNativeConnection",
+            "isQueueing", "isPipelined", "openPipeline", "isSubscribed", "getSubscription", "getSentinelConnection");
+
+    private final RedisConnectionFactory delegate;
+    private final RedisCircuitBreaker circuitBreaker;
+
+    public CircuitBreakingRedisConnectionFactory(RedisConnectionFactory delegate, RedisCircuitBreaker circuitBreaker) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public RedisConnection getConnection() {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            throw new RedisCircuitOpenException();
+        }
+        long start = System.nanoTime();
+        RedisConnection connection;
+        try {
+            connection = delegate.getConnection();
+        } catch (RuntimeException e) {
+            circuitBreaker.onError(System.nanoTime() - start);
+            throw e;
+        }
+        return (RedisConnection) Proxy.newProxyInstance(RedisConnection.class.getClassLoader(),
+                new Class<?>[]{RedisConnection.class}, new RecordingHandler(connection, connection));
+    }
+
+    @Override
+    public RedisClusterConnection getClusterConnection() {
+        return delegate.getClusterConnection();
+    }
+
+    @Override
+    public boolean getConvertPipelineAndTxResults() {
+        return delegate.getConvertPipelineAndTxResults();
+    }
+
+    @Override
+    public RedisSentinelConnection getSentinelConnection() {
+        return delegate.getSentinelConnection();
+    }
+
+    @Override
+    public DataAccessException translateExceptionIfPossible(RuntimeException ex) {
+        return delegate.translateExceptionIfPossible(ex);
+    }
+
+    private class RecordingHandler implements InvocationHandler {
+
+        private final Object target;
+        private final RedisConnection connection;
+
+        RecordingHandler(Object target, RedisConnection connection) {
+            this.target = target;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (method.getDeclaringClass() == Object.class) {
+                if (name.equals("equals")) {
+                    return proxy == args[0];
+                }
+                if (name.equals("hashCode")) {
+                    return System.identityHashCode(proxy);
+                }
+                return invokeTarget(method, args);
+            }
+            // stringCommands(), keyCommands() etc. return views whose calls must be recorded too
+            if (name.endsWith("Commands") && method.getReturnType().isInterface()) {
+                Object commands = invokeTarget(method, args);
+                return commands == null ? null : Proxy.newProxyInstance(method.getReturnType().getClassLoader(),
+                        new Class<?>[]{method.getReturnType()}, new RecordingHandler(commands, connection));
+            }
+            if (LOCAL_METHODS.contains(name) || (connection.isPipelined() && !name.equals("closePipeline"))) {
+                return invokeTarget(method, args);
+            }
+
+            long start = System.nanoTime();
+            try {
+                Object result = invokeTarget(method, args);
+                circuitBreaker.onSuccess(System.nanoTime() - start);
+                return result;
+            } catch (RuntimeException e) {
+                circuitBreaker.onError(System.nanoTime() - start);
+                throw e;
+            }
+        }
+
+        private Object invokeTarget(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
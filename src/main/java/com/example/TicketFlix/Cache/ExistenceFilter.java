@@ -0,0 +1,246 @@
+package com.example.TicketFlix.Cache;
+
+import com.example.TicketFlix.Repository.MovieRepository;
+import com.example.TicketFlix.Repository.ShowRepository;
+import com.example.TicketFlix.Repository.TicketRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBloomFilter;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Answers "this id cannot exist" without a database round trip, for lookups that already missed the cache:
+ * - a short-TTL negative entry ("missing::<entity>::<id>") for ids recently looked up and not found, or deleted
+ * - a Redis Bloom filter per entity ("bloom::<entity>") of every id ever created
+ * Bloom filters cannot remove ids, so deleted ids stay "maybe present" and are caught by the negative entry.
+ * A filter is only consulted once it has been fully populated ("bloom-ready::<entity>"); until then, and
+ * whenever Redis fails, every id is treated as possibly present. A filter that missed an add is dropped,
+ * along with its ready flag, and rebuilt by the next startup. Nodes re-read the ready flag every ready-ttl,
+ * so a filter dropped elsewhere stops being trusted before a restart can begin rebuilding it.
+ */
+@Component
+@Slf4j
+public class ExistenceFilter {
+
+    public static final String MOVIE = "movie";
+    public static final String SHOW = "show";
+    public static final String TICKET = "ticket";
+
+    private static final String BLOOM_KEY_PREFIX = "bloom::";
+    private static final String READY_KEY_PREFIX = "bloom-ready::";
+    private static final String MISSING_KEY_PREFIX = "missing::";
+    private static final int ID_SCAN_PAGE_SIZE = 10000;
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RedisCircuitBreaker redisCircuitBreaker;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private ShowRepository showRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Value("${ticketflix.bloom.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${ticketflix.bloom.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${ticketflix.cache.negative-ttl:60s}")
+    private Duration negativeTtl;
+
+    @Value("${ticketflix.bloom.ready-ttl:5s}")
+    private Duration readyTtl;
+
+    // When each filter's ready flag was last seen set, as System.nanoTime(); it is trusted for ready-ttl after
+    private final Map<String, Long> readySeenAt = new ConcurrentHashMap<>();
+
+    // Filters that missed an add on this node; never trusted again, even if their ready flag survives
+    private final Set<String> distrustedFilters = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Create and populate any filter that does not exist yet. Only the node whose tryInit wins populates it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        Map<String, BiFunction<Integer, Pageable, List<Integer>>> idSources = Map.of(
+                MOVIE, movieRepository::findIdsAfter,
+                SHOW, showRepository::findIdsAfter,
+                TICKET, ticketRepository::findIdsAfter);
+        idSources.forEach((entity, idSource) -> {
+            try {
+                RBloomFilter<Integer> filter = filter(entity);
+                if (filter.tryInit(expectedInsertions, falsePositiveRate)) {
+                    long loaded = populate(filter, idSource);
+                    redisTemplate.opsForValue().set(READY_KEY_PREFIX + entity, "1");
+                    log.info("Bloom filter {} populated with {} ids", entity, loaded);
+                }
+                registerGauges(entity);
+            } catch (Exception e) {
+                log.warn("Bloom filter {} unavailable, lookups will go to the database: {}", entity, e.getMessage());
+            }
+        });
+    }
+
+    private long populate(RBloomFilter<Integer> filter, BiFunction<Integer, Pageable, List<Integer>> idSource) {
+        long loaded = 0;
+        int afterId = 0;
+        List<Integer> ids;
+        do {
+            ids = idSource.apply(afterId, PageRequest.of(0, ID_SCAN_PAGE_SIZE));
+            if (!ids.isEmpty()) {
+                filter.add(ids);
+                loaded += ids.size();
+                afterId = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == ID_SCAN_PAGE_SIZE);
+        return loaded;
+    }
+
+    /**
+     * False only when the id is known not to exist; true means "look it up"
+     */
+    public boolean mightExist(String entity, int id) {
+        if (redisCircuitBreaker.isOpen()) {
+            return true;
+        }
+        try {
+            if (Boolean.TRUE.equals(redisTemplate.hasKey(missingKey(entity, id)))) {
+                meterRegistry.counter("ticketflix.negative-cache.hits", "entity", entity).increment();
+                return false;
+            }
+            if (isReady(entity) && !redisCircuitBreaker.execute(() -> filter(entity).contains(id))) {
+                meterRegistry.counter("ticketflix.bloom.rejections", "filter", entity).increment();
+                return false;
+            }
+        } catch (Exception e) {
+            log.debug("Existence check for {} {} failed, falling back to the database: {}", entity, id, e.getMessage());
+        }
+        return true;
+    }
+
+    /**
+     * Remember a lookup that found nothing, so repeats within the negative TTL skip the database
+     */
+    public void recordMissing(String entity, int id) {
+        try {
+            redisTemplate.opsForValue().set(missingKey(entity, id), "1", negativeTtl);
+        } catch (Exception e) {
+            log.debug("Failed to record missing {} {}: {}", entity, id, e.getMessage());
+        }
+    }
+
+    public void recordCreated(String entity, int id) {
+        recordCreated(entity, List.of(id));
+    }
+
+    public void recordCreated(String entity, Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.delete(ids.stream().map(id -> missingKey(entity, id)).collect(Collectors.toList()));
+            RBloomFilter<Integer> filter = filter(entity);
+            if (filter != null) {
+                redisCircuitBreaker.execute(() -> filter.add(ids));
+            }
+        } catch (Exception e) {
+            log.warn("Failed to add {} ids {} to bloom filter: {}", entity, ids, e.getMessage());
+            distrust(entity);
+        }
+    }
+
+    /**
+     * A missed add would be a false negative. Stop trusting the filter on this node and, if Redis allows,
+     * drop it and its ready flag so other nodes stop too and the next startup rebuilds it.
+     */
+    private void distrust(String entity) {
+        distrustedFilters.add(entity);
+        readySeenAt.remove(entity);
+        try {
+            redisTemplate.delete(READY_KEY_PREFIX + entity);
+            filter(entity).delete();
+        } catch (Exception e) {
+            log.warn("Failed to drop bloom filter {}, it stays distrusted on this node only: {}", entity, e.getMessage());
+        }
+    }
+
+    public void recordDeleted(String entity, int id) {
+        recordMissing(entity, id);
+    }
+
+    private boolean isReady(String entity) {
+        if (distrustedFilters.contains(entity)) {
+            return false;
+        }
+        Long seenAt = readySeenAt.get(entity);
+        long now = System.nanoTime();
+        if (seenAt != null && now - seenAt < readyTtl.toNanos()) {
+            return true;
+        }
+        if (Boolean.TRUE.equals(redisTemplate.hasKey(READY_KEY_PREFIX + entity))) {
+            readySeenAt.put(entity, now);
+            return true;
+        }
+        readySeenAt.remove(entity);
+        return false;
+    }
+
+    private RBloomFilter<Integer> filter(String entity) {
+        return redissonClient.getBloomFilter(BLOOM_KEY_PREFIX + entity);
+    }
+
+    private String missingKey(String entity, int id) {
+        return MISSING_KEY_PREFIX + entity + "::" + id;
+    }
+
+    private void registerGauges(String entity) {
+        gauge("ticketflix.bloom.size.bits", entity, () -> filter(entity).getSize());
+        gauge("ticketflix.bloom.expected.insertions", entity, () -> filter(entity).getExpectedInsertions());
+        gauge("ticketflix.bloom.false.positive.rate", entity, () -> filter(entity).getFalseProbability());
+        gauge("ticketflix.bloom.approximate.count", entity, () -> filter(entity).count());
+    }
+
+    private void gauge(String name, String entity, Supplier<Number> value) {
+        Gauge.builder(name, () -> {
+                    try {
+                        return value.get();
+                    } catch (Exception e) {
+                        return Double.NaN;
+                    }
+                })
+                .tag("filter", entity)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.TicketFlix.Cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Jackson-backed serializer with a codec per namespace, configured like the API's ObjectMapper so
+ * java.time fields keep the same format. Payloads are framed as [codec id][flags][body]; bodies larger
+ * than the compression threshold are deflated when that makes them smaller.
+ * Payloads starting with '{' or '[' predate the framing and are read as plain JSON.
+ *
+ * Codecs: "json" (readable, for namespaces worth inspecting with redis-cli) and "smile" (binary JSON,
+ * the default). Overrides are listed as ticketflix.cache.codec.namespaces=show-search=json,ticket=smile
+ */
+@Component
+public class JacksonCacheSerializer implements CacheSerializer {
+
+    static final byte JSON_CODEC_ID = 1;
+    static final byte SMILE_CODEC_ID = 2;
+
+    private static final int HEADER_LENGTH = 2;
+    private static final byte FLAG_DEFLATED = 1;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+    @Value("${ticketflix.cache.codec.default:smile}")
+    private String defaultCodecName;
+
+    @Value("${ticketflix.cache.codec.namespaces:}")
+    private String namespaceCodecNames;
+
+    @Value("${ticketflix.cache.codec.compression-threshold:1024}")
+    private int compressionThreshold;
+
+    private final Map<Byte, ValueCodec> codecsById = new HashMap<>();
+    private final Map<String, ValueCodec> codecsByNamespace = new HashMap<>();
+    private ValueCodec defaultCodec;
+
+    @PostConstruct
+    public void init() {
+        Map<String, ValueCodec> codecsByName = new HashMap<>();
+        for (ValueCodec codec : List.of(
+                new JacksonValueCodec(JSON_CODEC_ID, "json", objectMapper),
+                new JacksonValueCodec(SMILE_CODEC_ID, "smile", objectMapperBuilder.factory(new SmileFactory()).build()))) {
+            codecsById.put(codec.id(), codec);
+            codecsByName.put(codec.name(), codec);
+        }
+
+        defaultCodec = codecNamed(codecsByName, defaultCodecName);
+        for (String override : namespaceCodecNames.split(",")) {
+            if (override.isBlank()) {
+                continue;
+            }
+            String[] parts = override.split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalStateException("Invalid cache codec override: " + override);
+            }
+            codecsByNamespace.put(parts[0].trim(), codecNamed(codecsByName, parts[1].trim()));
+        }
+    }
+
+    private ValueCodec codecNamed(Map<String, ValueCodec> codecsByName, String name) {
+        ValueCodec codec = codecsByName.get(name);
+        if (codec == null) {
+            throw new IllegalStateException("Unknown cache codec: " + name);
+        }
+        return codec;
+    }
+
+    @Override
+    public byte[] serialize(String namespace, Object value) throws Exception {
+        ValueCodec codec = codecsByNamespace.getOrDefault(namespace, defaultCodec);
+        byte[] body = codec.encode(value);
+        byte flags = 0;
+        if (body.length > compressionThreshold) {
+            byte[] deflated = deflate(body);
+            if (deflated.length < body.length) {
+                body = deflated;
+                flags |= FLAG_DEFLATED;
+            }
+        }
+
+        byte[] payload = new byte[HEADER_LENGTH + body.length];
+        payload[0] = codec.id();
+        payload[1] = flags;
+        System.arraycopy(body, 0, payload, HEADER_LENGTH, body.length);
+        return payload;
+    }
+
+    @Override
+    public <T> T deserialize(byte[] payload, Class<T> type) throws Exception {
+        return decode(payload, objectMapper.constructType(type));
+    }
+
+    @Override
+    public <T> List<T> deserializeList(byte[] payload, Class<T> elementType) throws Exception {
+        return decode(payload, objectMapper.getTypeFactory().constructCollectionType(List.class, elementType));
+    }
+
+    @Override
+    public <T> CacheEntry<T> deserializeEntry(byte[] payload, Class<T> valueType) throws Exception {
+        return decode(payload, objectMapper.getTypeFactory().constructParametricType(CacheEntry.class, valueType));
+    }
+
+    private <T> T decode(byte[] payload, JavaType type) throws IOException, DataFormatException {
+        if (payload.length == 0) {
+            throw new IOException("Empty cache payload");
+        }
+        if (payload[0] == '{' || payload[0] == '[') {
+            return objectMapper.readValue(payload, type);
+        }
+        if (payload.length < HEADER_LENGTH) {
+            throw new IOException("Truncated cache payload");
+        }
+
+        ValueCodec codec = codecsById.get(payload[0]);
+        if (codec == null) {
+            throw new IOException("Unknown cache codec id " + payload[0]);
+        }
+        if ((payload[1] & FLAG_DEFLATED) != 0) {
+            byte[] body = inflate(payload, HEADER_LENGTH, payload.length - HEADER_LENGTH);
+            return codec.decode(body, 0, body.length, type);
+        }
+        return codec.decode(payload, HEADER_LENGTH, payload.length - HEADER_LENGTH, type);
+    }
+
+    private byte[] deflate(byte[] body) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(body);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private byte[] inflate(byte[] payload, int offset, int length) throws DataFormatException, IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(payload, offset, length);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(length * 4);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(buffer);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Truncated compressed cache payload");
+                }
+                out.write(buffer, 0, inflated);
+            }
+            return out.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+}
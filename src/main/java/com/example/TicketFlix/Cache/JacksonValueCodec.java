@@ -0,0 +1,42 @@
+package com.example.TicketFlix.Cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+
+/**
+ * ValueCodec over any Jackson data format (JSON, Smile, ...), configured like the API's ObjectMapper
+ */
+public class JacksonValueCodec implements ValueCodec {
+
+    private final byte id;
+    private final String name;
+    private final ObjectMapper objectMapper;
+
+    public JacksonValueCodec(byte id, String name, ObjectMapper objectMapper) {
+        this.id = id;
+        this.name = name;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public byte id() {
+        return id;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        return objectMapper.writeValueAsBytes(value);
+    }
+
+    @Override
+    public <T> T decode(byte[] body, int offset, int length, JavaType type) throws IOException {
+        return objectMapper.readValue(body, offset, length, type);
+    }
+}
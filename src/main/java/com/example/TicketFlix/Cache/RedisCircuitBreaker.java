@@ -0,0 +1,165 @@
+package com.example.TicketFlix.Cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker shared by every Redis client in the application, so a slow or unavailable Redis
+ * costs one timeout per open period instead of one per call:
+ * - CLOSED: calls go through; failure-threshold consecutive failures (errors, or calls slower than
+ *   slow-call-threshold) open the circuit
+ * - OPEN: calls are rejected immediately with RedisCircuitOpenException for open-duration
+ * - HALF_OPEN: one probe call is let through; success closes the circuit, failure reopens it
+ * RedisTemplate traffic is covered by CircuitBreakingRedisConnectionFactory; Redisson calls go through execute().
+ * Callers with a local fallback check isOpen() to skip Redis entirely.
+ */
+@Component
+@Slf4j
+public class RedisCircuitBreaker {
+
+    public enum State { CLOSED, HALF_OPEN, OPEN }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ticketflix.redis.circuit.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${ticketflix.redis.circuit.slow-call-threshold:500ms}")
+    private Duration slowCallThreshold;
+
+    @Value("${ticketflix.redis.circuit.open-duration:10s}")
+    private Duration openDuration;
+
+    private volatile State state = State.CLOSED;
+    private volatile long stateSince = System.nanoTime();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final List<Runnable> closeListeners = new CopyOnWriteArrayList<>();
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("ticketflix.redis.circuit.state", this, breaker -> breaker.state.ordinal())
+                .description("0 = closed, 1 = half open, 2 = open")
+                .register(meterRegistry);
+    }
+
+    /**
+     * True while the circuit is open and not yet due for a probe; no Redis call would be permitted
+     */
+    public boolean isOpen() {
+        return state == State.OPEN && System.nanoTime() - stateSince < openDuration.toNanos();
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Whether a Redis call may be made now. Past the open period, the first caller becomes the half-open probe;
+     * a probe that never reports back is replaced after another open period.
+     */
+    public boolean tryAcquirePermission() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        synchronized (this) {
+            if (state == State.CLOSED) {
+                return true;
+            }
+            if (System.nanoTime() - stateSince >= openDuration.toNanos()) {
+                transition(State.HALF_OPEN);
+                return true;
+            }
+        }
+        meterRegistry.counter("ticketflix.redis.circuit.rejected").increment();
+        return false;
+    }
+
+    public void onSuccess(long elapsedNanos) {
+        if (elapsedNanos > slowCallThreshold.toNanos()) {
+            onError(elapsedNanos);
+            return;
+        }
+        if (consecutiveFailures.get() != 0) {
+            consecutiveFailures.set(0);
+        }
+        if (state == State.HALF_OPEN) {
+            synchronized (this) {
+                if (state == State.HALF_OPEN) {
+                    transition(State.CLOSED);
+                }
+            }
+        }
+    }
+
+    public void onError(long elapsedNanos) {
+        int failures = consecutiveFailures.incrementAndGet();
+        if (state == State.HALF_OPEN || (state == State.CLOSED && failures >= failureThreshold)) {
+            synchronized (this) {
+                if (state != State.OPEN) {
+                    transition(State.OPEN);
+                }
+            }
+        }
+    }
+
+    /**
+     * Run a Redis call that does not go through the wrapped connection factory, such as a Redisson call
+     */
+    public <T> T execute(Supplier<T> call) {
+        if (!tryAcquirePermission()) {
+            throw new RedisCircuitOpenException();
+        }
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            onSuccess(System.nanoTime() - start);
+            return result;
+        } catch (RuntimeException e) {
+            onError(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    /**
+     * Run listener whenever the circuit closes again, e.g. to flush writes buffered while Redis was away.
+     * Listeners run on the thread that closed the circuit and should hand real work to an executor.
+     */
+    public void addCloseListener(Runnable listener) {
+        closeListeners.add(listener);
+    }
+
+    private void transition(State to) {
+        State from = state;
+        state = to;
+        stateSince = System.nanoTime();
+        consecutiveFailures.set(0);
+        meterRegistry.counter("ticketflix.redis.circuit.transitions",
+                "from", from.name().toLowerCase(), "to", to.name().toLowerCase()).increment();
+        if (to == State.OPEN) {
+            log.warn("Redis circuit {} -> OPEN, skipping Redis for {} ms", from, openDuration.toMillis());
+        } else {
+            log.info("Redis circuit {} -> {}", from, to);
+        }
+        if (to == State.CLOSED) {
+            for (Runnable listener : closeListeners) {
+                try {
+                    listener.run();
+                } catch (Exception e) {
+                    log.warn("Redis circuit close listener failed: {}", e.getMessage());
+                }
+            }
+        }
+    }
+}
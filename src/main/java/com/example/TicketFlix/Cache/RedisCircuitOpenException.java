@@ -0,0 +1,16 @@
+package com.example.TicketFlix.Cache;
+
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+/**
+ * Thrown instead of calling Redis while RedisCircuitBreaker is open. It is a RedisConnectionFailureException,
+ * so code that already tolerates Redis outages handles it unchanged, just without waiting for a timeout.
+ */
+public class RedisCircuitOpenException extends RedisConnectionFailureException {
+
+    private static final long serialVersionUID = 1L;
+
+    public RedisCircuitOpenException() {
+        super("Redis circuit is open");
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.TicketFlix.Cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis cache for response DTOs. Reads are synchronous; writes are handed to the bounded
+ * cacheWriteExecutor so a slow Redis never adds latency to the request that populated it.
+ * Redis failures are logged and treated as misses; while the Redis circuit is open, reads are
+ * plain misses and writes are skipped without touching Redis.
+ */
+@Component
+@Slf4j
+public class RedisDtoCache {
+
+    @Autowired
+    private RedisTemplate<String, byte[]> redisBinaryTemplate;
+
+    @Autowired
+    private CacheSerializer cacheSerializer;
+
+    @Autowired
+    private CacheMetrics cacheMetrics;
+
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Autowired
+    private RedisCircuitBreaker redisCircuitBreaker;
+
+    @Autowired
+    @Qualifier("cacheWriteExecutor")
+    private ThreadPoolTaskExecutor cacheWriteExecutor;
+
+    public <T> T get(String cacheName, String key, Class<T> type) {
+        if (redisCircuitBreaker.isOpen()) {
+            cacheMetrics.recordMiss(cacheName);
+            return null;
+        }
+        try {
+            byte[] payload = redisBinaryTemplate.opsForValue().get(key);
+            if (payload != null) {
+                T value = cacheSerializer.deserialize(payload, type);
+                cacheMetrics.recordHit(cacheName);
+                return value;
+            }
+        } catch (Exception e) {
+            log.warn("Failed to read cache key {}: {}", key, e.getMessage());
+        }
+        cacheMetrics.recordMiss(cacheName);
+        return null;
+    }
+
+    public <T> List<T> getList(String cacheName, String key, Class<T> elementType) {
+        if (redisCircuitBreaker.isOpen()) {
+            cacheMetrics.recordMiss(cacheName);
+            return null;
+        }
+        try {
+            byte[] payload = redisBinaryTemplate.opsForValue().get(key);
+            if (payload != null) {
+                List<T> value = cacheSerializer.deserializeList(payload, elementType);
+                cacheMetrics.recordHit(cacheName);
+                return value;
+            }
+        } catch (Exception e) {
+            log.warn("Failed to read cache key {}: {}", key, e.getMessage());
+        }
+        cacheMetrics.recordMiss(cacheName);
+        return null;
+    }
+
+    /**
+     * Read many keys with one MGET. Keys that are missing or cannot be decoded are absent from the result
+     */
+    public <T> Map<String, T> getAll(String cacheName, List<String> keys, Class<T> type) {
+        Map<String, T> values = new HashMap<>();
+        if (keys.isEmpty()) {
+            return values;
+        }
+        if (redisCircuitBreaker.isOpen()) {
+            keys.forEach(key -> cacheMetrics.recordMiss(cacheName));
+            return values;
+        }
+        try {
+            List<byte[]> payloads = redisBinaryTemplate.opsForValue().multiGet(keys);
+            if (payloads != null && payloads.size() == keys.size()) {
+                for (int i = 0; i < keys.size(); i++) {
+                    if (payloads.get(i) == null) {
+                        continue;
+                    }
+                    try {
+                        values.put(keys.get(i), cacheSerializer.deserialize(payloads.get(i), type));
+                    } catch (Exception e) {
+                        log.warn("Failed to read cache key {}: {}", keys.get(i), e.getMessage());
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to read {} keys from cache {}: {}", keys.size(), cacheName, e.getMessage());
+        }
+        for (String key : keys) {
+            if (values.containsKey(key)) {
+                cacheMetrics.recordHit(cacheName);
+            } else {
+                cacheMetrics.recordMiss(cacheName);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Queue a write, recording the key under the given invalidation tags.
+     * If the executor is saturated the write is dropped and counted, never blocking the caller
+     */
+    public void putAsync(String cacheName, String key, Object value, Duration ttl, String... tags) {
+        if (redisCircuitBreaker.isOpen()) {
+            return;
+        }
+        try {
+            cacheWriteExecutor.execute(() -> {
+                put(cacheName, key, value, ttl);
+                if (tags.length > 0) {
+                    cacheInvalidationService.tag(key, ttl, tags);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            cacheMetrics.recordDroppedWrite(cacheName);
+            log.debug("Cache write queue full, dropped write for {}", key);
+        }
+    }
+
+    public void put(String cacheName, String key, Object value, Duration ttl) {
+        try {
+            byte[] payload = cacheSerializer.serialize(cacheName, value);
+            redisBinaryTemplate.opsForValue().set(key, payload, ttl.toMillis(), TimeUnit.MILLISECONDS);
+            cacheMetrics.recordPayloadSize(cacheName, payload.length);
+        } catch (Exception e) {
+            log.warn("Failed to write cache key {}: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Queue one pipelined write of many entries, each recorded under its own invalidation tags (may be empty)
+     */
+    public void putAllAsync(String cacheName, Map<String, ?> values, Duration ttl, Map<String, String[]> tagsByKey) {
+        if (values.isEmpty() || redisCircuitBreaker.isOpen()) {
+            return;
+        }
+        try {
+            cacheWriteExecutor.execute(() -> {
+                putAll(cacheName, values, ttl);
+                if (!tagsByKey.isEmpty()) {
+                    cacheInvalidationService.tagAll(tagsByKey, ttl);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            cacheMetrics.recordDroppedWrite(cacheName);
+            log.debug("Cache write queue full, dropped write of {} keys", values.size());
+        }
+    }
+
+    /**
+     * Write many entries in a single pipeline, one round trip however many there are
+     */
+    public void putAll(String cacheName, Map<String, ?> values, Duration ttl) {
+        Map<String, byte[]> payloads = new LinkedHashMap<>();
+        for (Map.Entry<String, ?> entry : values.entrySet()) {
+            try {
+                payloads.put(entry.getKey(), cacheSerializer.serialize(cacheName, entry.getValue()));
+            } catch (Exception e) {
+                log.warn("Failed to write cache key {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+        if (payloads.isEmpty()) {
+            return;
+        }
+        try {
+            redisBinaryTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    // The operations of redisBinaryTemplate, handed over untyped
+                    @SuppressWarnings("unchecked")
+                    RedisOperations<String, byte[]> binaryOperations = (RedisOperations<String, byte[]>) operations;
+                    payloads.forEach((key, payload) ->
+                            binaryOperations.opsForValue().set(key, payload, ttl.toMillis(), TimeUnit.MILLISECONDS));
+                    return null;
+                }
+            });
+            payloads.values().forEach(payload -> cacheMetrics.recordPayloadSize(cacheName, payload.length));
+        } catch (Exception e) {
+            log.warn("Failed to write {} keys to cache {}: {}", payloads.size(), cacheName, e.getMessage());
+        }
+    }
+
+    public void evict(String... keys) {
+        try {
+            redisBinaryTemplate.delete(Arrays.asList(keys));
+        } catch (Exception e) {
+            log.warn("Failed to evict cache keys {}: {}", Arrays.toString(keys), e.getMessage());
+        }
+    }
+}
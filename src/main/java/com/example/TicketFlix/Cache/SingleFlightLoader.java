@@ -0,0 +1,276 @@
+package com.example.TicketFlix.Cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Cache-aside loading over TwoLevelCache that protects the database from stampedes on hot keys:
+ * - concurrent misses for the same key on this node share one load (single flight)
+ * - optionally, nodes take a short Redis lease (SET NX PX) so only one node loads while the others poll L2
+ * - entries inside their refresh-ahead window are served stale while one background reload runs
+ * loadAll is the bulk counterpart for list endpoints: one cache pass, one query and one write for the whole list.
+ */
+@Component
+@Slf4j
+public class SingleFlightLoader {
+
+    private static final String LEASE_KEY_PREFIX = "cache-lease::";
+    private static final long LEASE_POLL_INTERVAL_MS = 25;
+
+    @Autowired
+    private TwoLevelCache twoLevelCache;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("cacheRefreshExecutor")
+    private ThreadPoolTaskExecutor cacheRefreshExecutor;
+
+    @Value("${ticketflix.cache.single-flight.wait-timeout:5s}")
+    private Duration waitTimeout;
+
+    @Value("${ticketflix.cache.single-flight.distributed-lease:false}")
+    private boolean distributedLease;
+
+    @Value("${ticketflix.cache.single-flight.lease-ttl:3s}")
+    private Duration leaseTtl;
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Return the cached value for key, loading it at most once per key across concurrent callers
+     */
+    public <T> T load(String cacheName, String key, Class<T> type, Duration ttl, CacheLoader<T> loader) throws Exception {
+        CacheEntry<T> entry = twoLevelCache.getEntry(cacheName, key, type);
+        if (entry != null) {
+            if (entry.isRefreshDue(System.currentTimeMillis())) {
+                refreshInBackground(cacheName, key, type, ttl, loader);
+            }
+            return entry.getValue();
+        }
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            meterRegistry.counter("ticketflix.cache.loads.coalesced", "cache", cacheName).increment();
+            T shared = await(existing, type);
+            if (shared != null) {
+                return shared;
+            }
+            // The leader took too long; load independently rather than fail the request
+            return loader.load();
+        }
+
+        try {
+            T value = loadAndCache(cacheName, key, type, ttl, loader);
+            mine.complete(value);
+            return value;
+        } catch (Exception e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Values for ids in the given order, read from keyPrefix + id. Misses and entries due for refresh are
+     * loaded together with one loader call and written back in one pipelined write, so the number of
+     * round trips does not grow with the list. Ids the loader does not return are left out.
+     * Bulk loads are not coalesced with concurrent single-key loads; the loader is a single IN query anyway.
+     */
+    public <T> List<T> loadAll(String cacheName, String keyPrefix, List<Integer> ids, Class<T> type, Duration ttl,
+                               BulkCacheLoader<T> loader) throws Exception {
+        return loadAll(cacheName, keyPrefix, ids, type, ttl, loader, id -> null);
+    }
+
+    /**
+     * loadAll that records every loaded entry under the invalidation tags tagsById returns for its id (null
+     * for none). It is asked only after the loader ran, so the loader may collect the tags as it loads.
+     */
+    public <T> List<T> loadAll(String cacheName, String keyPrefix, List<Integer> ids, Class<T> type, Duration ttl,
+                               BulkCacheLoader<T> loader, Function<Integer, String[]> tagsById) throws Exception {
+        List<String> keys = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            keys.add(keyPrefix + id);
+        }
+        Map<String, CacheEntry<T>> cached = twoLevelCache.getAllEntries(cacheName, keys, type);
+
+        long now = System.currentTimeMillis();
+        List<Integer> toLoad = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            CacheEntry<T> entry = cached.get(keys.get(i));
+            if (entry == null || entry.isRefreshDue(now)) {
+                toLoad.add(ids.get(i));
+            }
+        }
+
+        Map<Integer, T> loaded = toLoad.isEmpty() ? Map.of() : loader.loadAll(toLoad);
+        if (!loaded.isEmpty()) {
+            Map<String, T> fresh = new LinkedHashMap<>();
+            Map<String, String[]> tagsByKey = new HashMap<>();
+            loaded.forEach((id, value) -> {
+                fresh.put(keyPrefix + id, value);
+                String[] tags = tagsById.apply(id);
+                if (tags != null && tags.length > 0) {
+                    tagsByKey.put(keyPrefix + id, tags);
+                }
+            });
+            twoLevelCache.putAll(cacheName, fresh, ttl, tagsByKey);
+            meterRegistry.counter("ticketflix.cache.bulk-loads", "cache", cacheName).increment(loaded.size());
+        }
+
+        List<T> values = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            T value = loaded.get(ids.get(i));
+            if (value == null) {
+                CacheEntry<T> entry = cached.get(keys.get(i));
+                value = entry != null ? entry.getValue() : null;
+            }
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    private <T> T await(CompletableFuture<Object> future, Class<T> type) throws Exception {
+        try {
+            return type.cast(future.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        } catch (TimeoutException e) {
+            log.warn("Timed out waiting for in-flight cache load after {}", waitTimeout);
+            return null;
+        }
+    }
+
+    private <T> T loadAndCache(String cacheName, String key, Class<T> type, Duration ttl,
+                               CacheLoader<T> loader) throws Exception {
+        if (!distributedLease) {
+            T value = loader.load();
+            twoLevelCache.put(cacheName, key, value, ttl);
+            return value;
+        }
+
+        String leaseKey = LEASE_KEY_PREFIX + key;
+        String token = UUID.randomUUID().toString();
+        if (acquireLease(leaseKey, token)) {
+            try {
+                T value = loader.load();
+                twoLevelCache.put(cacheName, key, value, ttl);
+                return value;
+            } finally {
+                releaseLease(leaseKey, token);
+            }
+        }
+
+        // Another node holds the lease: wait for its value to land in L2, up to the lease TTL
+        long deadline = System.currentTimeMillis() + leaseTtl.toMillis();
+        while (System.currentTimeMillis() < deadline) {
+            Thread.sleep(LEASE_POLL_INTERVAL_MS);
+            CacheEntry<T> loaded = twoLevelCache.getRemoteEntry(key, type);
+            if (loaded != null) {
+                meterRegistry.counter("ticketflix.cache.loads.coalesced", "cache", cacheName).increment();
+                return loaded.getValue();
+            }
+        }
+        T value = loader.load();
+        twoLevelCache.put(cacheName, key, value, ttl);
+        return value;
+    }
+
+    private boolean acquireLease(String leaseKey, String token) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue()
+                    .setIfAbsent(leaseKey, token, leaseTtl.toMillis(), TimeUnit.MILLISECONDS));
+        } catch (Exception e) {
+            // Without Redis there is nobody to coordinate with; load locally
+            log.warn("Failed to acquire cache lease {}: {}", leaseKey, e.getMessage());
+            return true;
+        }
+    }
+
+    private void releaseLease(String leaseKey, String token) {
+        try {
+            if (token.equals(redisTemplate.opsForValue().get(leaseKey))) {
+                redisTemplate.delete(leaseKey);
+            }
+        } catch (Exception e) {
+            log.debug("Failed to release cache lease {}: {}", leaseKey, e.getMessage());
+        }
+    }
+
+    /**
+     * Reload in the background; the in-flight map ensures one refresh per key, and a full
+     * refresh queue just means the stale value is served a little longer
+     */
+    private <T> void refreshInBackground(String cacheName, String key, Class<T> type, Duration ttl, CacheLoader<T> loader) {
+        CompletableFuture<Object> refresh = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, refresh) != null) {
+            return;
+        }
+        try {
+            cacheRefreshExecutor.execute(() -> {
+                try {
+                    // Loaders navigate lazy associations, so they need a session like the request thread had
+                    TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+                    readOnly.setReadOnly(true);
+                    T value = readOnly.execute(status -> {
+                        try {
+                            return loadAndCache(cacheName, key, type, ttl, loader);
+                        } catch (RuntimeException e) {
+                            throw e;
+                        } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                    });
+                    refresh.complete(value);
+                    meterRegistry.counter("ticketflix.cache.refreshes", "cache", cacheName, "result", "success").increment();
+                } catch (Exception e) {
+                    refresh.completeExceptionally(e);
+                    meterRegistry.counter("ticketflix.cache.refreshes", "cache", cacheName, "result", "failure").increment();
+                    log.warn("Background refresh of {} failed: {}", key, e.getMessage());
+                } finally {
+                    inFlight.remove(key, refresh);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            inFlight.remove(key, refresh);
+            log.debug("Cache refresh queue full, serving stale {}", key);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.TicketFlix.Cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caffeine (L1, per node) in front of Redis (L2, shared) for catalog DTOs, stored as CacheEntry.
+ * Evictions are broadcast on INVALIDATION_CHANNEL so every node drops its L1 copy;
+ * the short L1 TTL bounds staleness if a broadcast is missed. While the Redis circuit is open, only L1 is used.
+ * Cached DTOs are shared between callers and must be treated as read-only.
+ */
+@Component
+@Slf4j
+public class TwoLevelCache {
+
+    public static final String INVALIDATION_CHANNEL = "ticketflix:cache-invalidation";
+    private static final String MESSAGE_SEPARATOR = "|";
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private RedisTemplate<String, byte[]> redisBinaryTemplate;
+
+    @Autowired
+    private CacheSerializer cacheSerializer;
+
+    @Autowired
+    private RedisDtoCache redisDtoCache;
+
+    @Autowired
+    private CacheMetrics cacheMetrics;
+
+    @Autowired
+    private RedisCircuitBreaker redisCircuitBreaker;
+
+    @Value("${ticketflix.cache.l1.max-size:10000}")
+    private long l1MaxSize;
+
+    @Value("${ticketflix.cache.l1.ttl:5m}")
+    private Duration l1Ttl;
+
+    @Value("${ticketflix.cache.refresh-ahead-ratio:0.1}")
+    private double refreshAheadRatio;
+
+    private final Map<String, Cache<String, CacheEntry<?>>> localCaches = new ConcurrentHashMap<>();
+
+    public <T> T get(String cacheName, String key, Class<T> type) {
+        CacheEntry<T> entry = getEntry(cacheName, key, type);
+        return entry != null ? entry.getValue() : null;
+    }
+
+    /**
+     * Look up L1 then L2, returning the value together with its refresh-ahead deadline
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CacheEntry<T> getEntry(String cacheName, String key, Class<T> type) {
+        long start = System.nanoTime();
+        CacheEntry<?> local = localCache(cacheName).getIfPresent(key);
+        cacheMetrics.recordLevel(cacheName, "l1", local != null, System.nanoTime() - start);
+        if (local != null) {
+            cacheMetrics.recordHit(cacheName);
+            return (CacheEntry<T>) local;
+        }
+
+        start = System.nanoTime();
+        CacheEntry<T> remote = getRemoteEntry(key, type);
+        cacheMetrics.recordLevel(cacheName, "l2", remote != null, System.nanoTime() - start);
+
+        if (remote != null) {
+            localCache(cacheName).put(key, remote);
+            cacheMetrics.recordHit(cacheName);
+            return remote;
+        }
+        cacheMetrics.recordMiss(cacheName);
+        return null;
+    }
+
+    /**
+     * Read L2 only, without touching L1 or metrics; used while waiting on another node's load
+     */
+    <T> CacheEntry<T> getRemoteEntry(String key, Class<T> type) {
+        if (redisCircuitBreaker.isOpen()) {
+            return null;
+        }
+        try {
+            byte[] payload = redisBinaryTemplate.opsForValue().get(key);
+            if (payload != null) {
+                CacheEntry<T> entry = cacheSerializer.deserializeEntry(payload, type);
+                // Payloads written before entries were wrapped deserialize with no value; treat as a miss
+                return entry != null && entry.getValue() != null ? entry : null;
+            }
+        } catch (Exception e) {
+            log.warn("Failed to read cache key {}: {}", key, e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Bulk getEntry: L1 for every key, then a single MGET against L2 for the rest.
+     * Keys found in neither level are absent from the result.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Map<String, CacheEntry<T>> getAllEntries(String cacheName, List<String> keys, Class<T> type) {
+        Map<String, CacheEntry<T>> entries = new HashMap<>();
+        if (keys.isEmpty()) {
+            return entries;
+        }
+        Cache<String, CacheEntry<?>> local = localCache(cacheName);
+        List<String> remoteKeys = new ArrayList<>();
+        long start = System.nanoTime();
+        for (String key : keys) {
+            CacheEntry<?> entry = local.getIfPresent(key);
+            if (entry != null) {
+                entries.put(key, (CacheEntry<T>) entry);
+            } else {
+                remoteKeys.add(key);
+            }
+        }
+        // Level latency is recorded per key, amortized over the batch
+        long perKey = (System.nanoTime() - start) / keys.size();
+        for (String key : keys) {
+            cacheMetrics.recordLevel(cacheName, "l1", entries.containsKey(key), perKey);
+        }
+
+        if (!remoteKeys.isEmpty()) {
+            start = System.nanoTime();
+            Map<String, CacheEntry<T>> remote = getRemoteEntries(remoteKeys, type);
+            perKey = (System.nanoTime() - start) / remoteKeys.size();
+            for (String key : remoteKeys) {
+                cacheMetrics.recordLevel(cacheName, "l2", remote.containsKey(key), perKey);
+            }
+            remote.forEach((key, entry) -> {
+                local.put(key, entry);
+                entries.put(key, entry);
+            });
+        }
+
+        for (String key : keys) {
+            if (entries.containsKey(key)) {
+                cacheMetrics.recordHit(cacheName);
+            } else {
+                cacheMetrics.recordMiss(cacheName);
+            }
+        }
+        return entries;
+    }
+
+    private <T> Map<String, CacheEntry<T>> getRemoteEntries(List<String> keys, Class<T> type) {
+        Map<String, CacheEntry<T>> entries = new HashMap<>();
+        if (redisCircuitBreaker.isOpen()) {
+            return entries;
+        }
+        try {
+            List<byte[]> payloads = redisBinaryTemplate.opsForValue().multiGet(keys);
+            if (payloads == null || payloads.size() != keys.size()) {
+                return entries;
+            }
+            for (int i = 0; i < keys.size(); i++) {
+                if (payloads.get(i) == null) {
+                    continue;
+                }
+                try {
+                    CacheEntry<T> entry = cacheSerializer.deserializeEntry(payloads.get(i), type);
+                    if (entry != null && entry.getValue() != null) {
+                        entries.put(keys.get(i), entry);
+                    }
+                } catch (Exception e) {
+                    log.warn("Failed to read cache key {}: {}", keys.get(i), e.getMessage());
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to read {} cache keys: {}", keys.size(), e.getMessage());
+        }
+        return entries;
+    }
+
+    /**
+     * Populate L1 immediately and L2 asynchronously, recording the L2 key under the given invalidation tags.
+     * The entry becomes due for refresh once the last refreshAheadRatio of its TTL is reached. Invalidating
+     * a tag only unlinks L2, so L1 copies on other nodes live out the L1 TTL.
+     */
+    public void put(String cacheName, String key, Object value, Duration ttl, String... tags) {
+        long refreshAt = System.currentTimeMillis() + (long) (ttl.toMillis() * (1 - refreshAheadRatio));
+        CacheEntry<Object> entry = new CacheEntry<>(value, refreshAt);
+        localCache(cacheName).put(key, entry);
+        redisDtoCache.putAsync(cacheName, key, entry, ttl, tags);
+    }
+
+    public void putAll(String cacheName, Map<String, ?> values, Duration ttl) {
+        putAll(cacheName, values, ttl, Map.of());
+    }
+
+    /**
+     * Bulk put: L1 immediately, L2 in one pipelined write on the cache write executor, each key recorded
+     * under its own invalidation tags (may be empty)
+     */
+    public void putAll(String cacheName, Map<String, ?> values, Duration ttl, Map<String, String[]> tagsByKey) {
+        long refreshAt = System.currentTimeMillis() + (long) (ttl.toMillis() * (1 - refreshAheadRatio));
+        Map<String, CacheEntry<Object>> entries = new LinkedHashMap<>();
+        values.forEach((key, value) -> entries.put(key, new CacheEntry<>(value, refreshAt)));
+        localCache(cacheName).putAll(entries);
+        redisDtoCache.putAllAsync(cacheName, entries, ttl, tagsByKey);
+    }
+
+    /**
+     * Remove the entry from both levels and tell the other nodes to drop their L1 copy
+     */
+    public void evict(String cacheName, String key) {
+        evictLocal(cacheName, key);
+        redisDtoCache.evict(key);
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, cacheName + MESSAGE_SEPARATOR + key);
+        } catch (Exception e) {
+            log.warn("Failed to broadcast invalidation of {}: {}", key, e.getMessage());
+        }
+    }
+
+    public void evictLocal(String cacheName, String key) {
+        Cache<String, CacheEntry<?>> cache = localCaches.get(cacheName);
+        if (cache != null) {
+            cache.invalidate(key);
+        }
+    }
+
+    /**
+     * Handle a broadcast from RedisConfig's listener container, formatted as "cacheName|key"
+     */
+    public void onInvalidationMessage(String message) {
+        int separator = message.indexOf(MESSAGE_SEPARATOR);
+        if (separator <= 0) {
+            log.warn("Ignoring malformed cache invalidation message: {}", message);
+            return;
+        }
+        evictLocal(message.substring(0, separator), message.substring(separator + 1));
+    }
+
+    private Cache<String, CacheEntry<?>> localCache(String cacheName) {
+        return localCaches.computeIfAbsent(cacheName, name -> Caffeine.newBuilder()
+                .maximumSize(l1MaxSize)
+                .expireAfterWrite(l1Ttl)
+                .build());
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.TicketFlix.Cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+
+import java.io.IOException;
+
+/**
+ * Encodes cached values to bytes. The id is written into every payload header, so values stay
+ * readable after a namespace switches codecs; ids must never be reused.
+ * Implementations must be thread-safe.
+ */
+public interface ValueCodec {
+
+    byte id();
+
+    String name();
+
+    byte[] encode(Object value) throws IOException;
+
+    <T> T decode(byte[] body, int offset, int length, JavaType type) throws IOException;
+}
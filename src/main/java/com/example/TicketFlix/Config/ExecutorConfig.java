@@ -0,0 +1,127 @@
+package com.example.TicketFlix.Config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+public class ExecutorConfig {
+
+    @Value("${ticketflix.bulk-schedule.max-concurrent-jobs:2}")
+    private int bulkScheduleThreads;
+
+    @Value("${ticketflix.bulk-schedule.queue-capacity:10}")
+    private int bulkScheduleQueueCapacity;
+
+    @Value("${ticketflix.cache.write-threads:2}")
+    private int cacheWriteThreads;
+
+    @Value("${ticketflix.cache.write-queue-capacity:1000}")
+    private int cacheWriteQueueCapacity;
+
+    @Value("${ticketflix.cache.refresh-threads:2}")
+    private int cacheRefreshThreads;
+
+    @Value("${ticketflix.cache.refresh-queue-capacity:100}")
+    private int cacheRefreshQueueCapacity;
+
+    @Value("${ticketflix.cache.warmup.parallelism:4}")
+    private int cacheWarmupThreads;
+
+    @Value("${ticketflix.password.hashing-threads:4}")
+    private int passwordHashingThreads;
+
+    @Value("${ticketflix.password.hashing-queue-capacity:32}")
+    private int passwordHashingQueueCapacity;
+
+    /**
+     * Bounded executor for bulk show scheduling jobs.
+     * Submissions beyond the queue capacity are rejected instead of piling up.
+     */
+    @Bean(name = "bulkScheduleExecutor")
+    public ThreadPoolTaskExecutor bulkScheduleExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(bulkScheduleThreads);
+        executor.setMaxPoolSize(bulkScheduleThreads);
+        executor.setQueueCapacity(bulkScheduleQueueCapacity);
+        executor.setThreadNamePrefix("bulk-schedule-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Bounded executor for asynchronous cache writes, replacing CompletableFuture.runAsync on the common pool.
+     * When the queue is full RedisDtoCache drops the write rather than blocking the request thread.
+     */
+    @Bean(name = "cacheWriteExecutor")
+    public ThreadPoolTaskExecutor cacheWriteExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(cacheWriteThreads);
+        executor.setMaxPoolSize(cacheWriteThreads);
+        executor.setQueueCapacity(cacheWriteQueueCapacity);
+        executor.setThreadNamePrefix("cache-write-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Bounded executor for refresh-ahead reloads. When it is saturated the stale value keeps being served
+     * and the next read past refreshAt tries again.
+     */
+    @Bean(name = "cacheRefreshExecutor")
+    public ThreadPoolTaskExecutor cacheRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(cacheRefreshThreads);
+        executor.setMaxPoolSize(cacheRefreshThreads);
+        executor.setQueueCapacity(cacheRefreshQueueCapacity);
+        executor.setThreadNamePrefix("cache-refresh-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Startup cache warm-up. The pool size caps how many warm-up loads hit the database at once;
+     * the queue is unbounded because the warm-up plan is itself bounded.
+     */
+    @Bean(name = "cacheWarmupExecutor")
+    public ThreadPoolTaskExecutor cacheWarmupExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(cacheWarmupThreads);
+        executor.setMaxPoolSize(cacheWarmupThreads);
+        executor.setThreadNamePrefix("cache-warmup-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * BCrypt hashing and verification. The pool size caps the cores password hashing can occupy, and a full
+     * queue makes PasswordHashingService reject at once rather than leave request threads waiting behind it.
+     */
+    @Bean(name = "passwordHashingExecutor")
+    public ThreadPoolTaskExecutor passwordHashingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(passwordHashingThreads);
+        executor.setMaxPoolSize(passwordHashingThreads);
+        executor.setQueueCapacity(passwordHashingQueueCapacity);
+        executor.setThreadNamePrefix("password-hash-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs OutboxRelay. Batches are relayed one after another, so one thread is enough; other
+     * instances of the app relay in parallel by locking different rows.
+     */
+    @Bean(name = "outboxRelayScheduler")
+    public ThreadPoolTaskScheduler outboxRelayScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("outbox-relay-");
+        scheduler.initialize();
+        return scheduler;
+    }
+}
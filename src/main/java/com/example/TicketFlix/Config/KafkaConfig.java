@@ -0,0 +1,272 @@
+package com.example.TicketFlix.Config;
+
+import com.example.TicketFlix.Events.EventEnvelope;
+import com.example.TicketFlix.Events.EventType;
+import com.example.TicketFlix.Exception.BusinessException;
+import com.example.TicketFlix.Exception.ResourceNotFoundException;
+import com.example.TicketFlix.Exception.ValidationException;
+import com.example.TicketFlix.Kafka.EventEnvelopeDeserializer;
+import com.example.TicketFlix.Kafka.EventEnvelopeSerializer;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationBuilder;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Producer and consumer factories for EventEnvelope values, encoded as Smile. Connection and client
+ * settings still come from spring.kafka.* in application.yaml, and override the producer profile.
+ */
+@Configuration
+@EnableConfigurationProperties(KafkaProperties.class)
+public class KafkaConfig {
+
+    @Autowired
+    private KafkaProperties kafkaProperties;
+
+    @Autowired
+    private Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+    @Value("${ticketflix.kafka.batch.max-poll-records:500}")
+    private int batchMaxPollRecords;
+
+    // Redeliveries of a failing batch before its records go to the dead letter topics
+    @Value("${ticketflix.kafka.batch.retry-attempts:5}")
+    private int batchRetryAttempts;
+
+    @Value("${ticketflix.kafka.batch.retry-max-delay:30s}")
+    private Duration batchRetryMaxDelay;
+
+    @Value("${ticketflix.kafka.retry.attempts:5}")
+    private int retryAttempts;
+
+    @Value("${ticketflix.kafka.retry.initial-delay:1s}")
+    private Duration retryInitialDelay;
+
+    @Value("${ticketflix.kafka.retry.multiplier:5}")
+    private double retryMultiplier;
+
+    @Value("${ticketflix.kafka.retry.max-delay:5m}")
+    private Duration retryMaxDelay;
+
+    // Retry and dead-letter topics are created like the main topics in KafkaTopicConfig
+    @Value("${ticketflix.kafka.retry.partitions:3}")
+    private int retryTopicPartitions;
+
+    /**
+     * Topics consumed by batch listeners, which retry topics do not support. Their listeners hand failed
+     * records to a "-unbatched" topic, which is consumed one record at a time and retried like the rest.
+     */
+    static final List<String> BATCH_TOPICS = List.of(EventType.EMAIL_NOTIFICATION.getTopic(),
+            EventType.TICKET_BOOKED.getTopic(), EventType.TICKET_CANCELLED.getTopic(),
+            EventType.USER_REGISTERED.getTopic(), EventType.USER_CREATION.getTopic());
+
+    @Value("${ticketflix.kafka.producer.profile:balanced}")
+    private ProducerProfile producerProfile;
+
+    // Bounds how long the producer itself retries a record before EventPublisher sees the failure
+    @Value("${ticketflix.kafka.producer.delivery-timeout:120s}")
+    private Duration deliveryTimeout;
+
+    // How long send() may block on metadata or a full buffer; kept below the confirm-timeout callers wait for
+    @Value("${ticketflix.kafka.producer.send-block-timeout:3s}")
+    private Duration sendBlockTimeout;
+
+    /**
+     * Batching trade-offs for the producer. All of them compress with lz4, which costs little CPU
+     * and shrinks the repetitive Smile envelopes.
+     */
+    public enum ProducerProfile {
+        // Send as soon as a record arrives
+        LATENCY(0, 16 * 1024),
+        // Wait briefly so concurrent requests share a batch
+        BALANCED(5, 64 * 1024),
+        // Bulk jobs: fewer, larger requests
+        THROUGHPUT(20, 256 * 1024);
+
+        private final int lingerMs;
+        private final int batchSize;
+
+        ProducerProfile(int lingerMs, int batchSize) {
+            this.lingerMs = lingerMs;
+            this.batchSize = batchSize;
+        }
+    }
+
+    // Not a bean, so the API's ObjectMapper stays the only one in the context
+    private ObjectMapper eventMapper;
+
+    @PostConstruct
+    public void init() {
+        eventMapper = eventMapper(objectMapperBuilder);
+    }
+
+    /**
+     * Smile mapper configured like the API's ObjectMapper. Null fields are left out, as most events
+     * fill only part of their DTO.
+     */
+    public static ObjectMapper eventMapper(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return objectMapperBuilder.factory(new SmileFactory())
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .build();
+    }
+
+    /**
+     * Idempotent producer: broker-side de-duplication makes producer retries safe, and up to five
+     * in-flight requests per connection keep their order.
+     */
+    @Bean
+    public ProducerFactory<String, EventEnvelope<?>> producerFactory() {
+        return new DefaultKafkaProducerFactory<>(producerProperties(),
+                new StringSerializer(), new EventEnvelopeSerializer(eventMapper));
+    }
+
+    private Map<String, Object> producerProperties() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        properties.put(ProducerConfig.ACKS_CONFIG, "all");
+        properties.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        properties.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        properties.put(ProducerConfig.LINGER_MS_CONFIG, producerProfile.lingerMs);
+        properties.put(ProducerConfig.BATCH_SIZE_CONFIG, producerProfile.batchSize);
+        properties.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, (int) deliveryTimeout.toMillis());
+        properties.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, sendBlockTimeout.toMillis());
+        properties.putAll(kafkaProperties.buildProducerProperties());
+        return properties;
+    }
+
+    @Bean
+    public KafkaTemplate<String, EventEnvelope<?>> kafkaTemplate() {
+        return new KafkaTemplate<>(producerFactory());
+    }
+
+    @Bean
+    public ConsumerFactory<String, EventEnvelope<?>> consumerFactory() {
+        return consumerFactory(kafkaProperties.buildConsumerProperties());
+    }
+
+    private ConsumerFactory<String, EventEnvelope<?>> consumerFactory(Map<String, Object> properties) {
+        // A record that cannot be decoded is handed to the error handler (batch listeners: a null value)
+        // instead of failing every poll
+        return new DefaultKafkaConsumerFactory<>(properties,
+                new StringDeserializer(), new ErrorHandlingDeserializer<>(new EventEnvelopeDeserializer(eventMapper)));
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, EventEnvelope<?>> kafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, EventEnvelope<?>> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        return factory;
+    }
+
+    /**
+     * For high-volume topics: listeners get up to max-poll-records records per call and acknowledge them
+     * once their writes are committed. A listener that throws gets the whole batch redelivered, backing off
+     * up to retry-max-delay between attempts, and once the attempts run out every record of the batch goes
+     * to its "<topic>-dlt". Entries that fail on their own are forwarded to a record listener topic by the
+     * listener itself, since retry topics do not support batches.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, EventEnvelope<?>> batchKafkaListenerContainerFactory(
+            ConsumerRecordRecoverer batchDeadLetterRecoverer) {
+        Map<String, Object> properties = kafkaProperties.buildConsumerProperties();
+        properties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchMaxPollRecords);
+
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(batchRetryAttempts);
+        backOff.setInitialInterval(1000);
+        backOff.setMultiplier(2);
+        backOff.setMaxInterval(batchRetryMaxDelay.toMillis());
+
+        ConcurrentKafkaListenerContainerFactory<String, EventEnvelope<?>> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory(properties));
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(batchDeadLetterRecoverer, backOff));
+        return factory;
+    }
+
+    /**
+     * Publishes a record of a batch topic to "<topic>-dlt", where DeadLetterService can replay it. A record
+     * that could not be decoded keeps its original bytes. Waits for the broker and throws if the send fails,
+     * so the record is not committed without a copy.
+     */
+    @Bean
+    public ConsumerRecordRecoverer batchDeadLetterRecoverer(MeterRegistry meterRegistry) {
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(deadLetterKafkaTemplate(),
+                (record, exception) -> new TopicPartition(record.topic() + "-dlt", -1));
+        return (record, exception) -> {
+            recoverer.accept(record, exception);
+            meterRegistry.counter("ticketflix.kafka.dead-letters", "topic", record.topic() + "-dlt").increment();
+        };
+    }
+
+    /**
+     * Non-blocking retries for every record listener: a failed record is forwarded to the next
+     * "-retry-N" topic, whose consumer pauses only that partition until the backoff has passed, and after
+     * the last attempt to "<topic>-dlt" (see DeadLetterService). Business rejections skip the retries.
+     */
+    @Bean
+    public RetryTopicConfiguration retryTopicConfiguration() {
+        return RetryTopicConfigurationBuilder.newInstance()
+                .excludeTopics(BATCH_TOPICS)
+                .maxAttempts(retryAttempts)
+                .exponentialBackoff(retryInitialDelay.toMillis(), retryMultiplier, retryMaxDelay.toMillis())
+                .suffixTopicsWithIndexValues()
+                .notRetryOn(List.of(BusinessException.class, ValidationException.class, ResourceNotFoundException.class))
+                .traversingCauses()
+                .autoCreateTopicsWith(retryTopicPartitions, (short) 1)
+                .dltHandlerMethod("deadLetterService", "onDeadLetter")
+                .doNotRetryOnDltFailure()
+                .create(deadLetterKafkaTemplate());
+    }
+
+    /**
+     * Forwards records to retry and dead-letter topics. A record that could not be decoded is forwarded
+     * as its original bytes, which the envelope serializer cannot write.
+     */
+    @Bean
+    public ProducerFactory<String, Object> deadLetterProducerFactory() {
+        EventEnvelopeSerializer envelopeSerializer = new EventEnvelopeSerializer(eventMapper);
+        Serializer<Object> valueSerializer = (topic, value) -> value instanceof byte[]
+                ? (byte[]) value
+                : envelopeSerializer.serialize(topic, (EventEnvelope<?>) value);
+        return new DefaultKafkaProducerFactory<>(producerProperties(), new StringSerializer(), valueSerializer);
+    }
+
+    @Bean
+    public KafkaTemplate<String, Object> deadLetterKafkaTemplate() {
+        return new KafkaTemplate<>(deadLetterProducerFactory());
+    }
+}
@@ -24,6 +24,17 @@ public class KafkaTopicConfig {
         return new KafkaAdmin(configs);
     }
 
+    // Dead letter topics of the batch topics, which the retry topic configuration does not cover
+    @Bean
+    public KafkaAdmin.NewTopics batchDeadLetterTopics() {
+        return new KafkaAdmin.NewTopics(KafkaConfig.BATCH_TOPICS.stream()
+                .map(topic -> TopicBuilder.name(topic + "-dlt")
+                        .partitions(3)
+                        .replicas(1)
+                        .build())
+                .toArray(NewTopic[]::new));
+    }
+
     @Bean
     public NewTopic ticketBookingTopic() {
         return TopicBuilder.name("ticket-booking-events")
@@ -1,15 +1,26 @@
 package com.example.TicketFlix.Config;
 
+import com.example.TicketFlix.Cache.CircuitBreakingRedisConnectionFactory;
+import com.example.TicketFlix.Cache.RedisCircuitBreaker;
+import com.example.TicketFlix.Cache.TwoLevelCache;
+import com.example.TicketFlix.Service.TokenRevocationService;
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
 import org.redisson.config.Config;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
 @Configuration
 public class RedisConfig {
 
@@ -22,14 +33,27 @@ public class RedisConfig {
     @Value("${spring.data.redis.password}")
     private String redisPassword;
 
+    // Short timeouts and a single retry: RedisCircuitBreaker, not the client, decides when Redis is gone
+    @Value("${ticketflix.redis.timeout:1s}")
+    private Duration redisTimeout;
+
+    @Value("${ticketflix.redis.connect-timeout:1s}")
+    private Duration redisConnectTimeout;
+
+    @Value("${ticketflix.redis.retry-attempts:1}")
+    private int redisRetryAttempts;
+
+    @Value("${ticketflix.redis.retry-interval:200ms}")
+    private Duration redisRetryInterval;
+
     /**
      * RedisTemplate bean for Spring Data Redis operations
-     * Uses connection factory from Spring Boot auto-configuration
+     * Uses connection factory from Spring Boot auto-configuration, behind the Redis circuit breaker
      */
     @Bean
-    public RedisTemplate<String, String> redisTemplate(RedisConnectionFactory factory) {
+    public RedisTemplate<String, String> redisTemplate(RedisConnectionFactory factory, RedisCircuitBreaker circuitBreaker) {
         RedisTemplate<String, String> redisTemplate = new RedisTemplate<>();
-        redisTemplate.setConnectionFactory(factory);
+        redisTemplate.setConnectionFactory(new CircuitBreakingRedisConnectionFactory(factory, circuitBreaker));
         redisTemplate.setKeySerializer(new StringRedisSerializer());
         redisTemplate.setValueSerializer(new StringRedisSerializer());
         redisTemplate.setHashKeySerializer(new StringRedisSerializer());
@@ -38,6 +62,19 @@ public class RedisConfig {
         return redisTemplate;
     }
 
+    /**
+     * RedisTemplate with raw byte[] values, for cached DTOs encoded by CacheSerializer
+     */
+    @Bean
+    public RedisTemplate<String, byte[]> redisBinaryTemplate(RedisConnectionFactory factory, RedisCircuitBreaker circuitBreaker) {
+        RedisTemplate<String, byte[]> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(new CircuitBreakingRedisConnectionFactory(factory, circuitBreaker));
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(RedisSerializer.byteArray());
+        redisTemplate.afterPropertiesSet();
+        return redisTemplate;
+    }
+
     /**
      * RedissonClient bean for distributed locks and advanced Redis features
      * Uses the same Redis connection details from application.yaml
@@ -51,8 +88,32 @@ public class RedisConfig {
                 .setPassword(redisPassword)
                 .setConnectionMinimumIdleSize(5)
                 .setConnectionPoolSize(10)
-                .setConnectTimeout(3000)
-                .setTimeout(3000);
+                .setConnectTimeout((int) redisConnectTimeout.toMillis())
+                .setTimeout((int) redisTimeout.toMillis())
+                .setRetryAttempts(redisRetryAttempts)
+                .setRetryInterval((int) redisRetryInterval.toMillis());
         return Redisson.create(config);
     }
+
+    /**
+     * Subscribes to cache invalidation broadcasts so this node drops stale L1 entries, and to token
+     * revocation broadcasts so it rejects revoked tokens without asking Redis.
+     * Uses the raw factory: the subscription blocks for its lifetime and must not count as a slow call.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "ticketflix.cache.invalidation.pubsub-enabled", havingValue = "true", matchIfMissing = true)
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory factory,
+                                                                           TwoLevelCache twoLevelCache,
+                                                                           TokenRevocationService tokenRevocationService) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        container.addMessageListener(
+                (message, pattern) -> twoLevelCache.onInvalidationMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(TwoLevelCache.INVALIDATION_CHANNEL));
+        container.addMessageListener(
+                (message, pattern) -> tokenRevocationService.onRevocationMessage(
+                        new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(TokenRevocationService.REVOCATION_CHANNEL));
+        return container;
+    }
 }
@@ -1,6 +1,8 @@
 package com.example.TicketFlix.Config;
 
 import com.example.TicketFlix.Filters.JwtAuthenticationFilter;
+import com.example.TicketFlix.Filters.RateLimitFilter;
+import com.example.TicketFlix.Service.PasswordHashingService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,8 +14,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
@@ -25,19 +25,21 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
     @Autowired
     private UserDetailsService userDetailsService;
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
+    // The PasswordEncoder bean: BCrypt with a calibrated cost, on a bounded executor
+    @Autowired
+    private PasswordHashingService passwordHashingService;
 
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordHashingService);
         return authProvider;
     }
 
@@ -56,12 +58,14 @@ public class SecurityConfig {
                 .antMatchers("/auth/**").permitAll()
                 .antMatchers("/swagger-ui/**", "/swagger-resources/**", "/v3/api-docs/**", "/v2/api-docs/**", "/webjars/**").permitAll()
                 .antMatchers("/user/add").permitAll() // Registration is public
+                .antMatchers("/actuator/health", "/actuator/health/**").permitAll() // Liveness and readiness probes
                 // Admin only endpoints
                 .antMatchers("/user/delete/**", "/user/update/**").hasRole("ADMIN")
+                .antMatchers("/admin/**").hasRole("ADMIN")
                 .antMatchers("/movies/add", "/movies/update/**", "/movies/delete/**").hasAnyRole("ADMIN", "THEATER_OWNER")
                 .antMatchers("/theater/add", "/theater/update/**", "/theater/delete/**").hasAnyRole("ADMIN", "THEATER_OWNER")
                 .antMatchers("/screens/add", "/screens/update/**", "/screens/delete/**").hasAnyRole("ADMIN", "THEATER_OWNER")
-                .antMatchers("/shows/add", "/shows/update/**", "/shows/delete/**").hasAnyRole("ADMIN", "THEATER_OWNER")
+                .antMatchers("/shows/add", "/shows/update/**", "/shows/delete/**", "/shows/bulk-schedule/**").hasAnyRole("ADMIN", "THEATER_OWNER")
                 // Authenticated endpoints
                 .antMatchers("/tickets/**", "/payments/**").authenticated()
                 .antMatchers("/account/**").authenticated()
@@ -70,7 +74,8 @@ public class SecurityConfig {
                 .anyRequest().authenticated()
             .and()
             .authenticationProvider(authenticationProvider())
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -0,0 +1,20 @@
+package com.example.TicketFlix.Config;
+
+import com.example.TicketFlix.Filters.CatalogConditionalGetInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private CatalogConditionalGetInterceptor catalogConditionalGetInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(catalogConditionalGetInterceptor)
+                .addPathPatterns("/movies/**", "/theater/**", "/screens/**", "/shows/**");
+    }
+}
@@ -1,10 +1,14 @@
 package com.example.TicketFlix.Controller;
 
 import com.example.TicketFlix.EntryDTOs.LoginRequestDTO;
+import com.example.TicketFlix.EntryDTOs.RefreshTokenRequestDTO;
 import com.example.TicketFlix.EntryDTOs.UserEntryDTO;
+import com.example.TicketFlix.Exception.AuthenticationException;
 import com.example.TicketFlix.Response.AuthResponseDTO;
 import com.example.TicketFlix.Service.AuthService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -21,6 +25,8 @@ public class AuthController {
         try {
             AuthResponseDTO response = authService.register(userEntryDTO);
             return new ResponseEntity<>(response, HttpStatus.CREATED);
+        } catch (TaskRejectedException e) {
+            return overloaded(e);
         } catch (Exception e) {
             AuthResponseDTO errorResponse = AuthResponseDTO.builder()
                     .message("Registration failed: " + e.getMessage())
@@ -34,6 +40,8 @@ public class AuthController {
         try {
             AuthResponseDTO response = authService.login(loginRequestDTO);
             return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (TaskRejectedException e) {
+            return overloaded(e);
         } catch (Exception e) {
             AuthResponseDTO errorResponse = AuthResponseDTO.builder()
                     .message("Login failed: " + e.getMessage())
@@ -42,6 +50,40 @@ public class AuthController {
         }
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponseDTO> refresh(@RequestBody RefreshTokenRequestDTO request) {
+        try {
+            AuthResponseDTO response = authService.refresh(request.getRefreshToken());
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (AuthenticationException e) {
+            AuthResponseDTO errorResponse = AuthResponseDTO.builder()
+                    .message("Refresh failed: " + e.getMessage())
+                    .build();
+            return new ResponseEntity<>(errorResponse, HttpStatus.UNAUTHORIZED);
+        } catch (Exception e) {
+            AuthResponseDTO errorResponse = AuthResponseDTO.builder()
+                    .message("Refresh unavailable: " + e.getMessage())
+                    .build();
+            return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<String> logout(@RequestHeader("Authorization") String authHeader,
+                                         @RequestParam(defaultValue = "false") boolean allDevices) {
+        try {
+            if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                authService.logout(authHeader.substring(7), allDevices);
+                return new ResponseEntity<>("Logged out successfully", HttpStatus.OK);
+            }
+            return new ResponseEntity<>("Authorization header missing", HttpStatus.BAD_REQUEST);
+        } catch (AuthenticationException e) {
+            return new ResponseEntity<>("Logout failed: " + e.getMessage(), HttpStatus.UNAUTHORIZED);
+        } catch (Exception e) {
+            return new ResponseEntity<>("Error logging out: " + e.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
     @GetMapping("/validate")
     public ResponseEntity<String> validateToken(@RequestHeader("Authorization") String authHeader) {
         try {
@@ -59,6 +101,16 @@ public class AuthController {
             return new ResponseEntity<>("Error validating token: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
-}
-
 
+    /**
+     * Password hashing is saturated; a quick 503 lets clients back off instead of queueing behind it
+     */
+    private ResponseEntity<AuthResponseDTO> overloaded(TaskRejectedException e) {
+        AuthResponseDTO errorResponse = AuthResponseDTO.builder()
+                .message(e.getMessage())
+                .build();
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.TicketFlix.Controller;
+
+import com.example.TicketFlix.Exception.ServiceUnavailableException;
+import com.example.TicketFlix.Exception.ValidationException;
+import com.example.TicketFlix.Kafka.DeadLetterService;
+import com.example.TicketFlix.Response.ApiResponse;
+import com.example.TicketFlix.Response.DeadLetterReplayResponseDTO;
+import com.example.TicketFlix.Response.ResponseFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletRequest;
+
+@RestController
+@RequestMapping("/admin/dead-letters")
+public class DeadLetterController {
+
+    @Autowired
+    DeadLetterService deadLetterService;
+
+    /**
+     * Re-publish dead letters, e.g. POST /admin/dead-letters/ticket-booking-requests-dlt/replay?max=100
+     */
+    @PostMapping("/{deadLetterTopic}/replay")
+    public ResponseEntity<ApiResponse<DeadLetterReplayResponseDTO>> replay(@PathVariable String deadLetterTopic,
+                                                                          @RequestParam(defaultValue = "100") int max,
+                                                                          HttpServletRequest request) {
+        try {
+            DeadLetterReplayResponseDTO result = deadLetterService.replay(deadLetterTopic, max);
+            return new ResponseEntity<>(ResponseFactory.success(result, "Dead letters replayed", request), HttpStatus.OK);
+        } catch (ValidationException e) {
+            return new ResponseEntity<>(failure(e.getMessage(), request), HttpStatus.BAD_REQUEST);
+        } catch (ServiceUnavailableException e) {
+            return new ResponseEntity<>(failure(e.getMessage(), request), HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    private static ApiResponse<DeadLetterReplayResponseDTO> failure(String message, HttpServletRequest request) {
+        return ApiResponse.<DeadLetterReplayResponseDTO>builder()
+                .success(false)
+                .message(message)
+                .path(request.getRequestURI())
+                .build();
+    }
+}
@@ -1,15 +1,23 @@
 package com.example.TicketFlix.Controller;
 
+import com.example.TicketFlix.EntryDTOs.BulkShowScheduleEntryDTO;
 import com.example.TicketFlix.EntryDTOs.ShowEntryDTO;
+import com.example.TicketFlix.Genres.Language;
+import com.example.TicketFlix.Genres.ShowType;
 import com.example.TicketFlix.Response.ApiResponse;
+import com.example.TicketFlix.Response.BulkShowScheduleStatusDTO;
 import com.example.TicketFlix.Response.ResponseFactory;
+import com.example.TicketFlix.Response.ShowSearchResponseDTO;
+import com.example.TicketFlix.Service.BulkShowScheduleService;
 import com.example.TicketFlix.Service.ShowService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import javax.servlet.http.HttpServletRequest;
+import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 
@@ -20,6 +28,9 @@ public class ShowController {
     @Autowired
     ShowService showService;
 
+    @Autowired
+    BulkShowScheduleService bulkShowScheduleService;
+
     @PostMapping("/add")
     public ResponseEntity<ApiResponse<Void>> addShow(@RequestBody ShowEntryDTO showEntryDTO, HttpServletRequest request){
         try{
@@ -32,6 +43,38 @@ public class ShowController {
         }
     }
 
+    @PostMapping("/bulk-schedule")
+    public ResponseEntity<ApiResponse<BulkShowScheduleStatusDTO>> bulkSchedule(@RequestBody BulkShowScheduleEntryDTO bulkShowScheduleEntryDTO, HttpServletRequest request){
+        try{
+            BulkShowScheduleStatusDTO status = bulkShowScheduleService.scheduleShows(bulkShowScheduleEntryDTO);
+            return new ResponseEntity<>(ResponseFactory.success(status, "Bulk schedule accepted", request), HttpStatus.ACCEPTED);
+        }catch (Exception e){
+            ApiResponse<BulkShowScheduleStatusDTO> body = ApiResponse.<BulkShowScheduleStatusDTO>builder()
+                    .success(false)
+                    .message(e.getMessage())
+                    .data(null)
+                    .path(request.getRequestURI())
+                    .build();
+            return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/bulk-schedule/{jobId}")
+    public ResponseEntity<ApiResponse<BulkShowScheduleStatusDTO>> getBulkScheduleStatus(@PathVariable String jobId, HttpServletRequest request){
+        try{
+            BulkShowScheduleStatusDTO status = bulkShowScheduleService.getJobStatus(jobId);
+            return new ResponseEntity<>(ResponseFactory.success(status, "Bulk schedule status fetched successfully", request), HttpStatus.OK);
+        }catch (Exception e){
+            ApiResponse<BulkShowScheduleStatusDTO> body = ApiResponse.<BulkShowScheduleStatusDTO>builder()
+                    .success(false)
+                    .message("Bulk schedule job not found")
+                    .data(null)
+                    .path(request.getRequestURI())
+                    .build();
+            return new ResponseEntity<>(body, HttpStatus.NOT_FOUND);
+        }
+    }
+
     @GetMapping("/get-all")
     public ResponseEntity<ApiResponse<List<ShowEntryDTO>>> getAllShows(HttpServletRequest request){
         try{
@@ -48,6 +91,30 @@ public class ShowController {
         }
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<ShowSearchResponseDTO>> searchShows(@RequestParam String city,
+                                                                         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+                                                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+                                                                         @RequestParam(required = false) Integer movieId,
+                                                                         @RequestParam(required = false) Language language,
+                                                                         @RequestParam(required = false) ShowType showType,
+                                                                         @RequestParam(required = false) String cursor,
+                                                                         @RequestParam(required = false) Integer size,
+                                                                         HttpServletRequest request){
+        try{
+            ShowSearchResponseDTO result = showService.searchShows(city, fromDate, toDate, movieId, language, showType, cursor, size);
+            return new ResponseEntity<>(ResponseFactory.success(result, "Shows fetched successfully", request), HttpStatus.OK);
+        }catch (Exception e){
+            ApiResponse<ShowSearchResponseDTO> body = ApiResponse.<ShowSearchResponseDTO>builder()
+                    .success(false)
+                    .message(e.getMessage())
+                    .data(null)
+                    .path(request.getRequestURI())
+                    .build();
+            return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        }
+    }
+
     @GetMapping("/get/{showId}")
     public ResponseEntity<ApiResponse<ShowEntryDTO>> getShowById(@PathVariable int showId, HttpServletRequest request){
         try{
@@ -2,6 +2,7 @@ package com.example.TicketFlix.Controller;
 
 import com.example.TicketFlix.EntryDTOs.DeleteTicketEntryDTO;
 import com.example.TicketFlix.EntryDTOs.TicketEntryDTO;
+import com.example.TicketFlix.Exception.ServiceUnavailableException;
 import com.example.TicketFlix.Response.ApiResponse;
 import com.example.TicketFlix.Response.TicketResponseDTO;
 import com.example.TicketFlix.Response.ResponseFactory;
@@ -28,6 +29,9 @@ public class TicketController {
             String response = ticketService.addTicket(ticketEntryDTO);
             ApiResponse<Void> body = ResponseFactory.ack(response, request);
             return new ResponseEntity<>(body, HttpStatus.ACCEPTED);
+        }catch (ServiceUnavailableException e){
+            ApiResponse<Void> body = ResponseFactory.failure(e.getMessage(), request);
+            return new ResponseEntity<>(body, HttpStatus.SERVICE_UNAVAILABLE);
         }catch (Exception e){
             ApiResponse<Void> body = ResponseFactory.failure(e.getMessage(), request);
             return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
@@ -40,6 +44,9 @@ public class TicketController {
             String response = ticketService.cancelTicket(deleteTicketEntryDto);
             ApiResponse<Void> body = ResponseFactory.ack(response, request);
             return new ResponseEntity<>(body, HttpStatus.ACCEPTED);
+        }catch (ServiceUnavailableException e){
+            ApiResponse<Void> body = ResponseFactory.failure(e.getMessage(), request);
+            return new ResponseEntity<>(body, HttpStatus.SERVICE_UNAVAILABLE);
         }catch (Exception e){
             ApiResponse<Void> body = ResponseFactory.failure(e.getMessage(), request);
             return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
@@ -1,6 +1,7 @@
 package com.example.TicketFlix.Controller;
 
 import com.example.TicketFlix.EntryDTOs.UserEntryDTO;
+import com.example.TicketFlix.Exception.ServiceUnavailableException;
 import com.example.TicketFlix.Response.ApiResponse;
 import com.example.TicketFlix.Response.ResponseFactory;
 import com.example.TicketFlix.Service.UserService;
@@ -27,6 +28,9 @@ public class UserController {
             String resultMessage = userService.addUser(userEntryDTO);
             ApiResponse<Void> body = ResponseFactory.ack(resultMessage, request);
             return new ResponseEntity<>(body, HttpStatus.ACCEPTED);
+        }catch (ServiceUnavailableException e){
+            ApiResponse<Void> body = ResponseFactory.failure("User not added: " + e.getMessage(), request);
+            return new ResponseEntity<>(body, HttpStatus.SERVICE_UNAVAILABLE);
         }catch (Exception e){
             ApiResponse<Void> body = ResponseFactory.failure("User not added: " + e.getMessage(), request);
             return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
@@ -0,0 +1,38 @@
+package com.example.TicketFlix.EntryDTOs;
+
+import com.example.TicketFlix.Genres.ShowType;
+import lombok.Data;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recurring schedule for one movie in one theater: every screen in screenIds gets a show
+ * at every time in showTimes on every date from startDate to endDate (optionally limited to daysOfWeek).
+ */
+@Data
+public class BulkShowScheduleEntryDTO {
+
+    private int movieId;
+
+    private int theaterId;
+
+    private List<Integer> screenIds = new ArrayList<>();
+
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    private List<DayOfWeek> daysOfWeek = new ArrayList<>(); // Empty means every day
+
+    private List<LocalTime> showTimes = new ArrayList<>();
+
+    private ShowType showType;
+
+    private int classSeatPrice;
+
+    private int premiumSeatPrice;
+}
@@ -2,11 +2,15 @@ package com.example.TicketFlix.EntryDTOs;
 
 import com.example.TicketFlix.Genres.Genre;
 import com.example.TicketFlix.Genres.Language;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
 @Builder
+@AllArgsConstructor
+@NoArgsConstructor
 public class MovieEntryDTO {
 
     private String movieName;
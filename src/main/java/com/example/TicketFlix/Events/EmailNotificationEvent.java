@@ -0,0 +1,19 @@
+package com.example.TicketFlix.Events;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Mail for the email consumer to send
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmailNotificationEvent {
+    private String email;
+    private String subject;
+    private String body;
+}
@@ -0,0 +1,30 @@
+package com.example.TicketFlix.Events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Every Kafka message value: what happened (type and schema version), when, a unique event id
+ * consumers can deduplicate on, the id of the entity it concerns (null for creations and
+ * notifications) and the typed payload (null when the entity id says it all, e.g. deletions).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventEnvelope<T> {
+    // Written as 16 raw bytes by the Smile serializer
+    private UUID eventId;
+    private EventType type;
+    private int version;
+    private long timestamp;
+    private Integer entityId;
+    private T payload;
+
+    public static <T> EventEnvelope<T> of(EventType type, Integer entityId, T payload) {
+        return new EventEnvelope<>(UUID.randomUUID(), type, type.getVersion(),
+                System.currentTimeMillis(), entityId, payload);
+    }
+}
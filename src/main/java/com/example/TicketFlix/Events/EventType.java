@@ -0,0 +1,87 @@
+package com.example.TicketFlix.Events;
+
+import com.example.TicketFlix.EntryDTOs.MovieEntryDTO;
+import com.example.TicketFlix.EntryDTOs.ScreenEntryDTO;
+import com.example.TicketFlix.EntryDTOs.ShowEntryDTO;
+import com.example.TicketFlix.EntryDTOs.TheaterEntryDTO;
+import com.example.TicketFlix.EntryDTOs.UserEntryDTO;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One constant per topic: the payload class its envelopes carry and the current schema version.
+ * Bump the version when a payload changes incompatibly; new optional fields need no bump, since
+ * unknown properties are ignored on read.
+ */
+public enum EventType {
+    EMAIL_NOTIFICATION("email-notification", EmailNotificationEvent.class, 1),
+    TICKET_BOOKED("ticket-booking-events", TicketActivityEvent.class, 1),
+    TICKET_CANCELLED("ticket-cancellation-events", TicketActivityEvent.class, 1),
+    USER_REGISTERED("user-registration-events", UserRegisteredEvent.class, 1),
+    USER_CREATION("user-creation-events", UserEntryDTO.class, 1),
+    USER_UPDATE("user-update-events", UserEntryDTO.class, 1),
+    USER_DELETION("user-deletion-events", Void.class, 1),
+    MOVIE_CREATION("movie-creation-events", MovieEntryDTO.class, 1),
+    MOVIE_UPDATE("movie-update-events", MovieEntryDTO.class, 1),
+    MOVIE_DELETION("movie-deletion-events", Void.class, 1),
+    THEATER_CREATION("theater-creation-events", TheaterEntryDTO.class, 1),
+    THEATER_UPDATE("theater-update-events", TheaterEntryDTO.class, 1),
+    THEATER_DELETION("theater-deletion-events", Void.class, 1),
+    SHOW_CREATION("show-creation-events", ShowEntryDTO.class, 1),
+    SHOW_UPDATE("show-update-events", ShowEntryDTO.class, 1),
+    SHOW_DELETION("show-deletion-events", Void.class, 1),
+    TICKET_BOOKING_REQUEST("ticket-booking-requests", TicketBookingRequestEvent.class, 1),
+    TICKET_CANCELLATION_REQUEST("ticket-cancellation-requests", Void.class, 1),
+    PAYMENT_REQUEST("payment-requests", PaymentRequestEvent.class, 1),
+    PAYMENT_RESULT("payment-result-events", PaymentResultEvent.class, 1),
+    SCREEN_CREATION("screen-creation-events", ScreenEntryDTO.class, 1),
+    SCREEN_UPDATE("screen-update-events", ScreenEntryDTO.class, 1),
+    SCREEN_DELETION("screen-deletion-events", Void.class, 1);
+
+    private static final Map<String, EventType> BY_TOPIC = new HashMap<>();
+
+    static {
+        for (EventType type : values()) {
+            BY_TOPIC.put(type.topic, type);
+        }
+    }
+
+    private final String topic;
+    private final Class<?> payloadType;
+    private final int version;
+
+    EventType(String topic, Class<?> payloadType, int version) {
+        this.topic = topic;
+        this.payloadType = payloadType;
+        this.version = version;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public Class<?> getPayloadType() {
+        return payloadType;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * The event type published to topic, also matching derived topics such as "<topic>-retry" or "<topic>-dlt"
+     */
+    public static EventType forTopic(String topic) {
+        EventType type = BY_TOPIC.get(topic);
+        if (type != null) {
+            return type;
+        }
+        for (EventType candidate : values()) {
+            if (topic.startsWith(candidate.topic + "-") && (type == null || candidate.topic.length() > type.topic.length())) {
+                type = candidate;
+            }
+        }
+        return type;
+    }
+}
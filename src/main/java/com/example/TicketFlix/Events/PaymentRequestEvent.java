@@ -0,0 +1,20 @@
+package com.example.TicketFlix.Events;
+
+import com.example.TicketFlix.EntryDTOs.PaymentRequestDTO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Payment to process, keyed by its idempotency key
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PaymentRequestEvent {
+    private String paymentId;
+    private String idempotencyKey;
+    private PaymentRequestDTO request;
+}
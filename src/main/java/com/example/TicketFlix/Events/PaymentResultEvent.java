@@ -0,0 +1,23 @@
+package com.example.TicketFlix.Events;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a processed payment
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PaymentResultEvent {
+    private String paymentId;
+    private String idempotencyKey;
+    private String status;
+    private double amount;
+    private int userId;
+    private int ticketId;
+    private boolean success;
+}
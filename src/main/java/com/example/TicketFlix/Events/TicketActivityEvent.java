@@ -0,0 +1,23 @@
+package com.example.TicketFlix.Events;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A ticket was booked or cancelled; for analytics consumers
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TicketActivityEvent {
+    private String ticketId;
+    private String movieName;
+    private int userId;
+    private String userName;
+    private String userEmail;
+    private String bookedSeats;
+    private int totalAmount;
+}
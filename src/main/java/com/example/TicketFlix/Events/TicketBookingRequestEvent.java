@@ -0,0 +1,19 @@
+package com.example.TicketFlix.Events;
+
+import com.example.TicketFlix.EntryDTOs.TicketEntryDTO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Booking to persist; validRequest is false when the booking was rejected up front
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TicketBookingRequestEvent {
+    private TicketEntryDTO ticket;
+    private boolean validRequest;
+}
@@ -0,0 +1,20 @@
+package com.example.TicketFlix.Events;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A user row was created; for analytics and welcome mails
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserRegisteredEvent {
+    private int userId;
+    private String name;
+    private String email;
+    private int age;
+}
@@ -0,0 +1,13 @@
+package com.example.TicketFlix.Exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Exception for requests that could not be handed to a backing service (Kafka, etc.); safe to retry
+ */
+public class ServiceUnavailableException extends TicketFlixException {
+
+    public ServiceUnavailableException(String message, Throwable cause) {
+        super(message, "SERVICE_UNAVAILABLE", HttpStatus.SERVICE_UNAVAILABLE.value(), cause);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.TicketFlix.Filters;
+
+import com.example.TicketFlix.Response.ApiResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the ETag and Cache-Control chosen by CatalogConditionalGetInterceptor, but only to successful
+ * responses so that browsers never cache a 404 or a failure.
+ */
+@ControllerAdvice
+public class CatalogCacheHeadersAdvice implements ResponseBodyAdvice<Object> {
+
+    @Autowired
+    private CatalogConditionalGetInterceptor catalogConditionalGetInterceptor;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest) || !(body instanceof ApiResponse)
+                || !((ApiResponse<?>) body).isSuccess()) {
+            return body;
+        }
+        Object etag = ((ServletServerHttpRequest) request).getServletRequest()
+                .getAttribute(CatalogConditionalGetInterceptor.ETAG_ATTRIBUTE);
+        if (etag != null) {
+            response.getHeaders().setETag(etag.toString());
+            response.getHeaders().set(HttpHeaders.CACHE_CONTROL, catalogConditionalGetInterceptor.cacheControl());
+            response.getHeaders().set(HttpHeaders.VARY, HttpHeaders.AUTHORIZATION);
+        }
+        return body;
+    }
+}
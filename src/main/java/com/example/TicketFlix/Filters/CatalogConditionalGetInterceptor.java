@@ -0,0 +1,114 @@
+package com.example.TicketFlix.Filters;
+
+import com.example.TicketFlix.Cache.CatalogVersions;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Conditional GET for the catalog read endpoints. The ETag is the version of the collection the
+ * endpoint reads from, so a matching If-None-Match is answered with 304 before the controller runs:
+ * no database, cache or JSON work. Bodies carry a per-request id and timestamp, hence weak ETags.
+ * Validators are only issued while the version can be read; successful responses get their headers
+ * from CatalogCacheHeadersAdvice. These endpoints require authentication, so responses are private to
+ * the browser and vary by Authorization: a CDN or shared proxy must not hand them to other users.
+ */
+@Component
+public class CatalogConditionalGetInterceptor implements HandlerInterceptor {
+
+    static final String ETAG_ATTRIBUTE = CatalogConditionalGetInterceptor.class.getName() + ".etag";
+
+    private static final Map<String, String> COLLECTIONS_BY_PATH = new LinkedHashMap<>();
+
+    static {
+        COLLECTIONS_BY_PATH.put("/movies/get", CatalogVersions.MOVIES);
+        COLLECTIONS_BY_PATH.put("/theater/get", CatalogVersions.THEATERS);
+        COLLECTIONS_BY_PATH.put("/screens/get", CatalogVersions.SCREENS);
+        COLLECTIONS_BY_PATH.put("/shows/get", CatalogVersions.SHOWS);
+        COLLECTIONS_BY_PATH.put("/shows/search", CatalogVersions.SHOWS);
+    }
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ticketflix.http-cache.max-age:60s}")
+    private Duration maxAge;
+
+    @Value("${ticketflix.http-cache.stale-while-revalidate:30s}")
+    private Duration staleWhileRevalidate;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+        String collection = collectionFor(request.getRequestURI().substring(request.getContextPath().length()));
+        if (collection == null) {
+            return true;
+        }
+        OptionalLong version = catalogVersions.current(collection);
+        if (version.isEmpty()) {
+            return true;
+        }
+
+        String etag = "W/\"" + collection + "-" + version.getAsLong() + "\"";
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl());
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.AUTHORIZATION);
+            meterRegistry.counter("ticketflix.http.not-modified", "collection", collection).increment();
+            return false;
+        }
+        request.setAttribute(ETAG_ATTRIBUTE, etag);
+        return true;
+    }
+
+    String cacheControl() {
+        return CacheControl.maxAge(maxAge)
+                .staleWhileRevalidate(staleWhileRevalidate)
+                .cachePrivate()
+                .getHeaderValue();
+    }
+
+    private String collectionFor(String path) {
+        for (Map.Entry<String, String> entry : COLLECTIONS_BY_PATH.entrySet()) {
+            if (path.startsWith(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * If-None-Match uses weak comparison, so W/ prefixes on either side are ignored
+     */
+    private boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaqueTag = etag.substring(2);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
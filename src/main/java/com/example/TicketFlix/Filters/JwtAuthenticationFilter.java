@@ -2,6 +2,8 @@ package com.example.TicketFlix.Filters;
 
 import com.example.TicketFlix.Service.CustomUserDetailsService;
 import com.example.TicketFlix.Service.JwtService;
+import com.example.TicketFlix.Service.TokenRevocationService;
+import com.example.TicketFlix.Service.VerifiedToken;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -18,6 +20,12 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+/**
+ * Authenticates Bearer access tokens. Each token is verified once by JwtService.verify, and tokens
+ * carrying a userId claim resolve their principal through the principal cache, so an authenticated
+ * request normally costs no signature check and no database query. Revoked tokens are rejected by
+ * TokenRevocationService from memory.
+ */
 @Component
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -28,33 +36,36 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
         final String authHeader = request.getHeader("Authorization");
-        String email = null;
-        String jwt = null;
+        VerifiedToken token = null;
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwt = authHeader.substring(7);
             try {
-                email = jwtService.extractEmail(jwt);
+                token = jwtService.verify(authHeader.substring(7));
             } catch (Exception e) {
-                log.error("Error extracting email from token: {}", e.getMessage());
+                log.error("Error verifying token: {}", e.getMessage());
             }
         }
 
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        // Refresh tokens are only accepted by the auth endpoints, never as API credentials
+        if (token != null && token.isAccessToken() && !tokenRevocationService.isRevoked(token)
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
             try {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+                UserDetails userDetails = token.getUserId() != null
+                        ? userDetailsService.loadPrincipal(token.getUserId(), token.getEmail())
+                        : userDetailsService.loadUserByUsername(token.getEmail());
 
-                if (Boolean.TRUE.equals(jwtService.validateToken(jwt))) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities());
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        userDetails, null, userDetails.getAuthorities());
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
             } catch (Exception e) {
                 log.error("Error setting authentication: {}", e.getMessage());
             }
@@ -0,0 +1,80 @@
+package com.example.TicketFlix.Filters;
+
+import com.example.TicketFlix.Response.ApiResponse;
+import com.example.TicketFlix.Service.CustomUserDetailsService.CustomUserPrincipal;
+import com.example.TicketFlix.Service.RateLimitService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Rate limits login, booking and payment requests with RateLimitService, answering 429 with Retry-After.
+ * Runs after JwtAuthenticationFilter so authenticated clients are limited per user and everyone else
+ * per IP; one client exhausting its bucket does not affect anyone else's.
+ * Behind a proxy, set server.forward-headers-strategy so the remote address is the client's.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Map<String, String> ROUTES_BY_PATH = Map.of(
+            "/auth/login", RateLimitService.LOGIN,
+            "/tickets/book", RateLimitService.BOOKING,
+            "/payments/process", RateLimitService.PAYMENT);
+
+    @Autowired
+    private RateLimitService rateLimitService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${ticketflix.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !HttpMethod.POST.matches(request.getMethod()) || routeFor(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long waitMillis = rateLimitService.tryAcquire(routeFor(request), clientOf(request));
+        if (waitMillis == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf((waitMillis + 999) / 1000));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        ApiResponse<Void> body = ApiResponse.error("Too many requests, retry later", "RATE_LIMITED");
+        body.setPath(request.getRequestURI());
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private String routeFor(HttpServletRequest request) {
+        return ROUTES_BY_PATH.get(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof CustomUserPrincipal) {
+            return "user:" + ((CustomUserPrincipal) authentication.getPrincipal()).getUserId();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.TicketFlix.Kafka;
+
+import com.example.TicketFlix.Events.EventEnvelope;
+import com.example.TicketFlix.Events.EventType;
+import com.example.TicketFlix.Exception.ServiceUnavailableException;
+import com.example.TicketFlix.Exception.ValidationException;
+import com.example.TicketFlix.Response.DeadLetterReplayResponseDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Dead-letter topics ("<topic>-dlt"): records that failed every retry (see KafkaConfig) are logged and
+ * counted as they arrive, and replayed on request to the topic they were first published to.
+ */
+@Service
+@Slf4j
+public class DeadLetterService {
+
+    // Replay progress per dead-letter topic is this group's committed offset
+    static final String REPLAY_GROUP = "ticketflix-dlt-replay";
+    private static final String DLT_SUFFIX = "-dlt";
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+
+    @Autowired
+    private ConsumerFactory<String, EventEnvelope<?>> consumerFactory;
+
+    @Autowired
+    private EventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ticketflix.kafka.dlt.replay-timeout:30s}")
+    private Duration replayTimeout;
+
+    /**
+     * Dead-letter listener registered by KafkaConfig for every retried topic
+     */
+    public void onDeadLetter(ConsumerRecord<String, EventEnvelope<?>> record) {
+        meterRegistry.counter("ticketflix.kafka.dead-letters", "topic", record.topic()).increment();
+        EventEnvelope<?> envelope = record.value();
+        log.error("Event {} ({}, key {}) moved to {} after failing on {}: {}",
+                envelope != null ? envelope.getEventId() : null, envelope != null ? envelope.getType() : null,
+                record.key(), record.topic(), header(record, KafkaHeaders.DLT_ORIGINAL_TOPIC),
+                header(record, KafkaHeaders.DLT_EXCEPTION_MESSAGE));
+    }
+
+    private static String header(ConsumerRecord<?, ?> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+
+    /**
+     * Publish up to maxRecords dead letters of deadLetterTopic, oldest first, to their original topic.
+     * Offsets are committed only once every replayed event is acknowledged, so a failed replay can be
+     * repeated; events replayed twice carry the same event id.
+     */
+    public synchronized DeadLetterReplayResponseDTO replay(String deadLetterTopic, int maxRecords)
+            throws ValidationException, ServiceUnavailableException {
+        EventType type = deadLetterTopic.endsWith(DLT_SUFFIX) ? EventType.forTopic(deadLetterTopic) : null;
+        if (type == null) {
+            throw new ValidationException("deadLetterTopic", "not a dead-letter topic: " + deadLetterTopic);
+        }
+        if (maxRecords <= 0) {
+            throw new ValidationException("maxRecords", "must be positive");
+        }
+
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        overrides.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Math.min(maxRecords, 500));
+
+        try (Consumer<String, EventEnvelope<?>> consumer = consumerFactory.createConsumer(REPLAY_GROUP, null, null, overrides)) {
+            List<PartitionInfo> partitionInfos = consumer.partitionsFor(deadLetterTopic);
+            if (partitionInfos == null || partitionInfos.isEmpty()) {
+                return DeadLetterReplayResponseDTO.builder()
+                        .deadLetterTopic(deadLetterTopic).targetTopic(type.getTopic()).build();
+            }
+            List<TopicPartition> partitions = partitionInfos.stream()
+                    .map(info -> new TopicPartition(info.topic(), info.partition()))
+                    .collect(Collectors.toList());
+            consumer.assign(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+
+            Map<TopicPartition, OffsetAndMetadata> processed = new HashMap<>();
+            List<CompletableFuture<RecordMetadata>> deliveries = new ArrayList<>();
+            int skipped = 0;
+            // An empty poll does not mean the end was reached (e.g. during a rebalance of the brokers), so
+            // this polls until every partition is at the end offset it had when the replay started
+            long deadline = System.nanoTime() + replayTimeout.toNanos();
+            while (deliveries.size() + skipped < maxRecords && !reachedEnd(consumer, endOffsets)) {
+                if (System.nanoTime() - deadline > 0) {
+                    log.warn("Replay of {} stopped after {} before reaching the end of the topic", deadLetterTopic,
+                            replayTimeout);
+                    break;
+                }
+                ConsumerRecords<String, EventEnvelope<?>> records = consumer.poll(POLL_TIMEOUT);
+                for (ConsumerRecord<String, EventEnvelope<?>> record : records) {
+                    if (deliveries.size() + skipped >= maxRecords) {
+                        // Left uncommitted for the next replay
+                        break;
+                    }
+                    if (record.value() == null) {
+                        log.warn("Skipping undecodable dead letter {}-{}@{}", record.topic(), record.partition(), record.offset());
+                        skipped++;
+                    } else {
+                        deliveries.add(eventPublisher.publish(type.getTopic(), record.key(), record.value()));
+                    }
+                    processed.put(new TopicPartition(record.topic(), record.partition()),
+                            new OffsetAndMetadata(record.offset() + 1));
+                }
+            }
+
+            awaitDeliveries(deliveries, deadLetterTopic);
+            if (!processed.isEmpty()) {
+                consumer.commitSync(processed);
+            }
+            log.info("Replayed {} dead letters from {} to {}, skipped {}", deliveries.size(), deadLetterTopic,
+                    type.getTopic(), skipped);
+            meterRegistry.counter("ticketflix.kafka.dead-letters.replayed", "topic", deadLetterTopic)
+                    .increment(deliveries.size());
+            return DeadLetterReplayResponseDTO.builder()
+                    .deadLetterTopic(deadLetterTopic)
+                    .targetTopic(type.getTopic())
+                    .replayed(deliveries.size())
+                    .skipped(skipped)
+                    .build();
+        }
+    }
+
+    private static boolean reachedEnd(Consumer<?, ?> consumer, Map<TopicPartition, Long> endOffsets) {
+        return endOffsets.entrySet().stream().allMatch(end -> consumer.position(end.getKey()) >= end.getValue());
+    }
+
+    private void awaitDeliveries(List<CompletableFuture<RecordMetadata>> deliveries, String deadLetterTopic)
+            throws ServiceUnavailableException {
+        try {
+            CompletableFuture.allOf(deliveries.toArray(CompletableFuture<?>[]::new))
+                    .get(replayTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new ServiceUnavailableException("Replay of " + deadLetterTopic + " was not acknowledged, please retry", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Replay of " + deadLetterTopic + " was interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.TicketFlix.Kafka;
+
+import com.example.TicketFlix.Events.EventEnvelope;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Writes event envelopes as Smile, Jackson's binary JSON, with a mapper configured like the API's
+ */
+public class EventEnvelopeSerializer implements Serializer<EventEnvelope<?>> {
+
+    private final ObjectMapper smileMapper;
+
+    public EventEnvelopeSerializer(ObjectMapper smileMapper) {
+        this.smileMapper = smileMapper;
+    }
+
+    @Override
+    public byte[] serialize(String topic, EventEnvelope<?> envelope) {
+        if (envelope == null) {
+            return null;
+        }
+        try {
+            return smileMapper.writeValueAsBytes(envelope);
+        } catch (Exception e) {
+            throw new SerializationException("Failed to serialize " + envelope.getType() + " event for topic " + topic, e);
+        }
+    }
+}
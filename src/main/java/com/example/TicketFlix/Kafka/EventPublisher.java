@@ -0,0 +1,121 @@
+package com.example.TicketFlix.Kafka;
+
+import com.example.TicketFlix.Events.EventEnvelope;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.KafkaException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaProducerException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends event envelopes and follows every send to its outcome. At most max-pending-sends sends are
+ * unacknowledged at once; past that publish waits up to max-block for a slot and then fails rather than
+ * let the producer buffer grow. The producer itself retries retriable errors until its delivery timeout
+ * (see KafkaConfig), so a failure that reaches the callback is final: it is logged at ERROR with the event
+ * id and counted for alerting, never sent again here.
+ */
+@Component
+@Slf4j
+public class EventPublisher {
+
+    @Autowired
+    private KafkaTemplate<String, EventEnvelope<?>> kafkaTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ticketflix.kafka.producer.max-pending-sends:10000}")
+    private int maxPendingSends;
+
+    @Value("${ticketflix.kafka.producer.max-block:1s}")
+    private Duration maxBlock;
+
+    private Semaphore pendingSends;
+
+    @PostConstruct
+    public void init() {
+        pendingSends = new Semaphore(maxPendingSends);
+        Gauge.builder("ticketflix.kafka.publish.pending", pendingSends,
+                permits -> maxPendingSends - permits.availablePermits()).register(meterRegistry);
+    }
+
+    /**
+     * Send an envelope; the future completes once the broker has acknowledged it, or with the last error.
+     * Callbacks run on the producer's network thread, so callers must not block in them.
+     */
+    public CompletableFuture<RecordMetadata> publish(String topic, String key, EventEnvelope<?> envelope) {
+        CompletableFuture<RecordMetadata> delivery = new CompletableFuture<>();
+        if (!acquireSlot()) {
+            fail(topic, key, envelope, "backpressure",
+                    new KafkaException(maxPendingSends + " sends already pending"), delivery);
+            return delivery;
+        }
+
+        long start = System.nanoTime();
+        delivery.whenComplete((metadata, error) -> {
+            pendingSends.release();
+            Timer.builder("ticketflix.kafka.publish.latency")
+                    .tag("topic", topic)
+                    .tag("result", error == null ? "success" : "failure")
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        });
+        send(topic, key, envelope, delivery);
+        return delivery;
+    }
+
+    private boolean acquireSlot() {
+        try {
+            return pendingSends.tryAcquire(maxBlock.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void send(String topic, String key, EventEnvelope<?> envelope, CompletableFuture<RecordMetadata> delivery) {
+        ListenableFuture<SendResult<String, EventEnvelope<?>>> future;
+        try {
+            future = kafkaTemplate.send(topic, key, envelope);
+        } catch (Exception e) {
+            // Serialization errors and metadata timeouts (max.block.ms) are thrown rather than reported to the callback
+            onFailure(topic, key, envelope, e, delivery);
+            return;
+        }
+        future.addCallback(
+                result -> {
+                    log.debug("Delivered event {} to {}-{}@{}", envelope.getEventId(), topic,
+                            result.getRecordMetadata().partition(), result.getRecordMetadata().offset());
+                    delivery.complete(result.getRecordMetadata());
+                },
+                error -> onFailure(topic, key, envelope, error, delivery));
+    }
+
+    private void onFailure(String topic, String key, EventEnvelope<?> envelope, Throwable error,
+                           CompletableFuture<RecordMetadata> delivery) {
+        Throwable cause = error instanceof KafkaProducerException && error.getCause() != null ? error.getCause() : error;
+        fail(topic, key, envelope, cause.getClass().getSimpleName(), cause, delivery);
+    }
+
+    private void fail(String topic, String key, EventEnvelope<?> envelope, String reason, Throwable cause,
+                      CompletableFuture<RecordMetadata> delivery) {
+        meterRegistry.counter("ticketflix.kafka.publish.failures", "topic", topic, "reason", reason).increment();
+        log.error("Event {} ({}, key {}) was not delivered to {}: {}",
+                envelope.getEventId(), envelope.getType(), key, topic, cause.getMessage());
+        delivery.completeExceptionally(cause);
+    }
+}
@@ -1,28 +1,73 @@
 package com.example.TicketFlix.Kafka;
 
-import com.example.TicketFlix.Convertors.UserConvertor;
+import com.example.TicketFlix.Cache.CacheInvalidationService;
+import com.example.TicketFlix.Cache.CatalogVersions;
+import com.example.TicketFlix.Cache.ExistenceFilter;
+import com.example.TicketFlix.Cache.TwoLevelCache;
+import com.example.TicketFlix.EntryDTOs.MovieEntryDTO;
+import com.example.TicketFlix.EntryDTOs.ScreenEntryDTO;
+import com.example.TicketFlix.EntryDTOs.ShowEntryDTO;
+import com.example.TicketFlix.EntryDTOs.TheaterEntryDTO;
 import com.example.TicketFlix.EntryDTOs.UserEntryDTO;
+import com.example.TicketFlix.Events.EmailNotificationEvent;
+import com.example.TicketFlix.Events.EventEnvelope;
+import com.example.TicketFlix.Events.PaymentRequestEvent;
+import com.example.TicketFlix.Events.PaymentResultEvent;
+import com.example.TicketFlix.Events.TicketActivityEvent;
+import com.example.TicketFlix.Events.TicketBookingRequestEvent;
+import com.example.TicketFlix.Events.UserRegisteredEvent;
+import com.example.TicketFlix.Exception.BusinessException;
+import com.example.TicketFlix.Exception.ConcurrencyException;
+import com.example.TicketFlix.Exception.ResourceNotFoundException;
+import com.example.TicketFlix.Exception.ValidationException;
 import com.example.TicketFlix.Models.User;
 import com.example.TicketFlix.EntryDTOs.TicketEntryDTO;
 import com.example.TicketFlix.Repository.MovieRepository;
 import com.example.TicketFlix.Repository.ShowRepository;
 import com.example.TicketFlix.Repository.TheaterRepository;
 import com.example.TicketFlix.Repository.UserRepository;
+import com.example.TicketFlix.Service.CustomUserDetailsService;
 import com.example.TicketFlix.Service.MailService;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.TicketFlix.Service.PasswordHashingService;
+import com.example.TicketFlix.Service.TokenRevocationService;
+import com.example.TicketFlix.Service.UserService;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.ListenerUtils;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
 import org.springframework.stereotype.Service;
 
+import javax.mail.MessagingException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class KafkaConsumerService {
 
+    // Record-at-a-time topics for entries of a batch that failed; batch listeners cannot use the retry topics
+    static final String UNBATCHED_EMAIL_NOTIFICATION_TOPIC = "email-notification-unbatched";
+    static final String UNBATCHED_USER_CREATION_TOPIC = "user-creation-events-unbatched";
+
+    private static final LogAccessor LOG_ACCESSOR = new LogAccessor(KafkaConsumerService.class);
+
     @Autowired
     private MailService mailService;
 
@@ -30,7 +75,7 @@ public class KafkaConsumerService {
     private UserRepository userRepository;
 
     @Autowired
-    private org.springframework.security.crypto.password.PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     @Autowired
     private MovieRepository movieRepository;
@@ -51,581 +96,617 @@ public class KafkaConsumerService {
     private com.example.TicketFlix.Service.TicketService ticketService;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private KafkaProducerService kafkaProducerService;
 
     @Autowired
-    private KafkaProducerService kafkaProducerService;
+    private EventPublisher eventPublisher;
 
     @Autowired
     private org.springframework.data.redis.core.RedisTemplate<String, String> redisTemplate;
 
-    // Consumer for email notifications
-    @KafkaListener(topics = "email-notification", groupId = "email-group")
-    public void consumeEmailNotification(String message) {
-        log.info("Received email notification: {}", message);
-        
-        try {
-            // Parse the message: format is "email|subject|body"
-            String[] parts = message.split("\\|", 3);
-            if (parts.length == 3) {
-                String email = parts[0];
-                String subject = parts[1];
-                String body = parts[2];
-                
-                log.info("Sending email to: {} with subject: {}", email, subject);
-                mailService.sendSimpleMail(email, subject, body);
-                log.info("Email sent successfully to: {}", email);
-            } else {
-                log.error("Invalid email notification format: {}", message);
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Autowired
+    private TwoLevelCache twoLevelCache;
+
+    @Autowired
+    private ExistenceFilter existenceFilter;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ConsumerRecordRecoverer batchDeadLetterRecoverer;
+
+    /**
+     * Keep the decodable records of a batch, dropping events delivered more than once (same event id).
+     * Undecodable records are published to the dead letter topic as their original bytes; if that fails
+     * the batch is redelivered.
+     */
+    private <T> List<EventEnvelope<T>> distinctEvents(List<ConsumerRecord<String, EventEnvelope<T>>> records) {
+        Map<UUID, EventEnvelope<T>> events = new LinkedHashMap<>();
+        for (ConsumerRecord<String, EventEnvelope<T>> record : records) {
+            if (record.value() == null) {
+                log.error("Moving undecodable record {}-{}@{} to the dead letter topic",
+                        record.topic(), record.partition(), record.offset());
+                DeserializationException cause = ListenerUtils.getExceptionFromHeader(record,
+                        SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, LOG_ACCESSOR);
+                batchDeadLetterRecoverer.accept(record,
+                        cause != null ? cause : new IllegalStateException("Record has no value"));
+                continue;
             }
-        } catch (Exception e) {
-            log.error("Error processing email notification: {}", e.getMessage());
+            events.putIfAbsent(record.value().getEventId(), record.value());
         }
+        return new ArrayList<>(events.values());
+    }
+
+    /**
+     * Hand the entries of a batch that could not be processed to their record-at-a-time topic, where they go
+     * through the retry topics and end up in a dead letter topic instead of being dropped. Waits for the
+     * broker so the batch is only acknowledged once they are safe; if forwarding fails the batch is redelivered.
+     */
+    private <T> void forwardUnbatched(String topic, List<EventEnvelope<T>> events, Function<T, String> key) {
+        if (events.isEmpty()) {
+            return;
+        }
+        CompletableFuture.allOf(events.stream()
+                .map(event -> eventPublisher.publish(topic, key.apply(event.getPayload()), event))
+                .toArray(CompletableFuture[]::new)).join();
+        log.warn("Forwarded {} failed events to {} for retry", events.size(), topic);
+    }
+
+    // Consumer for email notifications; one SMTP connection per batch
+    @KafkaListener(topics = "email-notification", groupId = "email-group", containerFactory = "batchKafkaListenerContainerFactory")
+    public void consumeEmailNotifications(List<ConsumerRecord<String, EventEnvelope<EmailNotificationEvent>>> records,
+                                          Acknowledgment acknowledgment) {
+        List<EventEnvelope<EmailNotificationEvent>> events = distinctEvents(records);
+        log.info("Received {} email notifications ({} records)", events.size(), records.size());
+
+        List<EventEnvelope<EmailNotificationEvent>> failed = events;
+        if (!events.isEmpty()) {
+            try {
+                Set<EmailNotificationEvent> failedNotifications = Collections.newSetFromMap(new IdentityHashMap<>());
+                failedNotifications.addAll(mailService.sendSimpleMails(events.stream()
+                        .map(EventEnvelope::getPayload)
+                        .collect(Collectors.toList())));
+                failed = events.stream()
+                        .filter(event -> failedNotifications.contains(event.getPayload()))
+                        .collect(Collectors.toList());
+                log.info("Emails sent: {}, failed: {}", events.size() - failed.size(), failed.size());
+            } catch (Exception e) {
+                log.error("Error processing email notifications: {}", e.getMessage());
+            }
+        }
+        forwardUnbatched(UNBATCHED_EMAIL_NOTIFICATION_TOPIC, failed, EmailNotificationEvent::getEmail);
+        acknowledgment.acknowledge();
+    }
+
+    // Retries one email from a batch that could not be sent; failures go through the retry topics
+    @KafkaListener(topics = UNBATCHED_EMAIL_NOTIFICATION_TOPIC, groupId = "email-group")
+    public void consumeUnbatchedEmailNotification(EventEnvelope<EmailNotificationEvent> event) throws MessagingException {
+        EmailNotificationEvent notification = event.getPayload();
+        mailService.sendSimpleMail(notification.getEmail(), notification.getSubject(), notification.getBody());
     }
 
     // Consumer for ticket booking events
-    @KafkaListener(topics = "ticket-booking-events", groupId = "ticket-analytics-group")
-    public void consumeTicketBookingEvent(String message) {
-        log.info("Ticket booking event received: {}", message);
+    @KafkaListener(topics = "ticket-booking-events", groupId = "ticket-analytics-group", containerFactory = "batchKafkaListenerContainerFactory")
+    public void consumeTicketBookingEvents(List<ConsumerRecord<String, EventEnvelope<TicketActivityEvent>>> records,
+                                           Acknowledgment acknowledgment) {
+        List<EventEnvelope<TicketActivityEvent>> events = distinctEvents(records);
+        log.info("Ticket booking events received: {}, amount: {}", events.size(),
+                events.stream().mapToLong(event -> event.getPayload().getTotalAmount()).sum());
         // Here we can add analytics processing, logging to a separate database, etc.
         // For example: update dashboards, trigger push notifications, etc.
+        acknowledgment.acknowledge();
     }
 
     // Consumer for ticket cancellation events
-    @KafkaListener(topics = "ticket-cancellation-events", groupId = "ticket-analytics-group")
-    public void consumeTicketCancellationEvent(String message) {
-        log.info("Ticket cancellation event received: {}", message);
+    @KafkaListener(topics = "ticket-cancellation-events", groupId = "ticket-analytics-group", containerFactory = "batchKafkaListenerContainerFactory")
+    public void consumeTicketCancellationEvents(List<ConsumerRecord<String, EventEnvelope<TicketActivityEvent>>> records,
+                                                Acknowledgment acknowledgment) {
+        List<EventEnvelope<TicketActivityEvent>> events = distinctEvents(records);
+        log.info("Ticket cancellation events received: {}, refund amount: {}", events.size(),
+                events.stream().mapToLong(event -> event.getPayload().getTotalAmount()).sum());
         // Here we can add analytics processing, revenue tracking, etc.
+        acknowledgment.acknowledge();
     }
 
-    // Consumer for user creation events - Performs actual DB persistence
-    @KafkaListener(topics = "user-creation-events", groupId = "user-analytics-group")
-    public void consumeUserCreationEvent(String message) {
-        log.info("User creation event received: {}", message);
-        
-        try {
-            TypeReference<Map<String, Object>> typeRef = new TypeReference<Map<String, Object>>() {};
-            Map<String, Object> eventData = objectMapper.readValue(message, typeRef);
-
-            // Convert UserEntryDTO from Map to object
-            @SuppressWarnings("unchecked")
-            Map<String, Object> userEntryMap = (Map<String, Object>) eventData.get("userEntryDTO");
-            UserEntryDTO userEntryDTO = objectMapper.convertValue(userEntryMap, UserEntryDTO.class);
-
-            // Check if user already exists (idempotency check)
-            if (userEntryDTO.getEmail() != null) {
-                Optional<User> existingUser = userRepository.findByEmail(userEntryDTO.getEmail());
-                if (existingUser.isPresent()) {
-                    log.warn("User with email {} already exists in DB, skipping creation", userEntryDTO.getEmail());
-                    return;
-                }
+    // Consumer for user creation events - Performs actual DB persistence, one batch of inserts per poll
+    @KafkaListener(topics = "user-creation-events", groupId = "user-analytics-group", containerFactory = "batchKafkaListenerContainerFactory")
+    public void consumeUserCreationEvents(List<ConsumerRecord<String, EventEnvelope<UserEntryDTO>>> records,
+                                          Acknowledgment acknowledgment) {
+        // One entry per email; a retried registration arrives under a new event id
+        Map<String, EventEnvelope<UserEntryDTO>> eventsByEmail = new LinkedHashMap<>();
+        for (EventEnvelope<UserEntryDTO> event : distinctEvents(records)) {
+            UserEntryDTO userEntryDTO = event.getPayload();
+            if (userEntryDTO == null || userEntryDTO.getEmail() == null) {
+                log.error("Skipping user creation event {} without an email", event.getEventId());
+                continue;
+            }
+            if (eventsByEmail.putIfAbsent(userEntryDTO.getEmail(), event) != null) {
+                log.warn("Duplicate user creation for email {} in batch, keeping the first", userEntryDTO.getEmail());
             }
+        }
+        log.info("User creation events received: {} records, {} distinct users", records.size(), eventsByEmail.size());
+
+        try {
+            createUsers(eventsByEmail.values().stream().map(EventEnvelope::getPayload).collect(Collectors.toList()));
+        } catch (Exception e) {
+            // e.g. the database is unavailable; retry each user on its own rather than lose the batch
+            log.error("Failed to create batch of {} users: {}", eventsByEmail.size(), e.getMessage());
+            forwardUnbatched(UNBATCHED_USER_CREATION_TOPIC, new ArrayList<>(eventsByEmail.values()), UserEntryDTO::getEmail);
+        }
+        acknowledgment.acknowledge();
+    }
 
+    // Retries one user from a batch that could not be created; failures go through the retry topics
+    @KafkaListener(topics = UNBATCHED_USER_CREATION_TOPIC, groupId = "user-analytics-group")
+    public void consumeUnbatchedUserCreationEvent(EventEnvelope<UserEntryDTO> event) {
+        createUsers(List.of(event.getPayload()));
+    }
+
+    private void createUsers(List<UserEntryDTO> userEntryDTOs) {
+        // Idempotency check for the whole batch in one query
+        Map<String, UserEntryDTO> entriesByEmail = new LinkedHashMap<>();
+        userEntryDTOs.forEach(userEntryDTO -> entriesByEmail.put(userEntryDTO.getEmail(), userEntryDTO));
+        if (!entriesByEmail.isEmpty()) {
+            Set<String> existingEmails = userRepository.findExistingEmails(entriesByEmail.keySet());
+            existingEmails.forEach(email -> {
+                log.warn("User with email {} already exists in DB, skipping creation", email);
+                entriesByEmail.remove(email);
+            });
+        }
+
+        // Encode into copies so a retried event still carries the password it was sent with
+        List<UserEntryDTO> newUsers = new ArrayList<>();
+        for (UserEntryDTO userEntryDTO : entriesByEmail.values()) {
             // Encrypt password before saving (if password is provided)
             if (userEntryDTO.getPassword() != null && !userEntryDTO.getPassword().isEmpty()) {
-                userEntryDTO.setPassword(passwordEncoder.encode(userEntryDTO.getPassword()));
+                newUsers.add(userEntryDTO.toBuilder()
+                        .password(passwordHashingService.encodeOnCallerThread(userEntryDTO.getPassword())).build());
             } else {
                 // If no password provided, generate a temporary one (shouldn't happen in normal flow)
                 log.warn("No password provided for user creation, generating temporary password");
-                userEntryDTO.setPassword(passwordEncoder.encode("TEMP_PASSWORD_" + System.currentTimeMillis()));
+                newUsers.add(userEntryDTO.toBuilder()
+                        .password(passwordHashingService.encodeOnCallerThread("TEMP_PASSWORD_" + System.currentTimeMillis())).build());
             }
+        }
 
-            User user = UserConvertor.convertDtoToEntity(userEntryDTO);
-            User savedUser = userRepository.save(user);
-            log.info("User created successfully in DB - ID: {}, Name: {}, Email: {}", 
-                    savedUser.getId(), savedUser.getName(), savedUser.getEmail());
+        List<User> savedUsers = saveUsers(newUsers);
+        log.info("Users created successfully in DB: {}", savedUsers.size());
 
-            // Publish registration event for analytics/welcome emails (separate topic)
-            kafkaProducerService.publishUserRegistrationEvent(savedUser);
+        // Publish registration events for analytics/welcome emails (separate topic)
+        savedUsers.forEach(kafkaProducerService::publishUserRegistrationEvent);
+    }
 
-            // Additional processing can be added here:
-            // - Send welcome emails
-            // - Analytics and demographics tracking
-            // - Trigger marketing campaigns
-            // - User onboarding workflows
-            
-        } catch (Exception e) {
-            log.error("Error processing user creation event: {}", e.getMessage(), e);
-            // In production, consider sending to Dead Letter Queue (DLQ) for retry
+    /**
+     * Insert the batch in one transaction. If a row violates a constraint (e.g. a user created since the
+     * existence check, or a taken mobile number), fall back to one transaction per user so only that user is skipped.
+     * Any other failure propagates and the batch is redelivered; the existence check makes that safe.
+     */
+    private List<User> saveUsers(List<UserEntryDTO> userEntryDTOs) {
+        if (userEntryDTOs.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return userService.createUsersInDB(userEntryDTOs);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Batch insert of {} users hit a constraint, inserting one at a time: {}", userEntryDTOs.size(), e.getMessage());
+        }
+        List<User> savedUsers = new ArrayList<>();
+        for (UserEntryDTO userEntryDTO : userEntryDTOs) {
+            try {
+                savedUsers.addAll(userService.createUsersInDB(List.of(userEntryDTO)));
+            } catch (DataIntegrityViolationException e) {
+                log.error("Skipping user creation for email {}: {}", userEntryDTO.getEmail(), e.getMessage());
+            }
         }
+        return savedUsers;
     }
 
     // Consumer for user registration events (analytics/notifications)
-    @KafkaListener(topics = "user-registration-events", groupId = "user-analytics-group")
-    public void consumeUserRegistrationEvent(String message) {
-        log.info("User registration event received: {}", message);
+    @KafkaListener(topics = "user-registration-events", groupId = "user-analytics-group", containerFactory = "batchKafkaListenerContainerFactory")
+    public void consumeUserRegistrationEvents(List<ConsumerRecord<String, EventEnvelope<UserRegisteredEvent>>> records,
+                                              Acknowledgment acknowledgment) {
+        log.info("User registration events received: {}", distinctEvents(records).size());
         // Here we can add analytics processing, send welcome emails, etc.
+        acknowledgment.acknowledge();
     }
 
     // Consumer for user deletion events - Performs actual DB deletion
     @KafkaListener(topics = "user-deletion-events", groupId = "user-analytics-group")
-    public void consumeUserDeletionEvent(String message) {
-        log.info("User deletion event received: {}", message);
+    public void consumeUserDeletionEvent(EventEnvelope<Void> event) {
+        log.info("User deletion event received: {}", event.getEventId());
         
-        try {
-            // Parse JSON message
-            TypeReference<Map<String, Object>> typeRef = new TypeReference<Map<String, Object>>() {};
-            Map<String, Object> eventData = objectMapper.readValue(message, typeRef);
-            int userId = (Integer) eventData.get("userId");
-            Optional<User> userOptional = userRepository.findById(userId);
-            if (userOptional.isEmpty()) {
-                log.warn("User with ID {} not found in DB during deletion", userId);
-                return;
-            }
-            
-            User user = userOptional.get();
-            log.info("Deleting user - ID: {}, Name: {}, Email: {}", userId, user.getName(), user.getEmail());
-
-            userRepository.deleteById(userId);
-            log.info("User deleted successfully from DB - ID: {}", userId);
-            
-            // Additional processing can be added here:
-            // - Analytics for user churn tracking
-            // - Cleanup related data (tickets, preferences, etc.)
-            // - Audit logging to separate database
-            // - Notify other services about user deletion
-            // - Trigger data retention policies
-            
-        } catch (Exception e) {
-            log.error("Error processing user deletion event: {}", e.getMessage(), e);
-            // In production, consider sending to Dead Letter Queue (DLQ) for retry
+        int userId = event.getEntityId();
+
+        // Revoke the user's tokens and drop their cached principal, tickets and ticket pages first: all of it is
+        // idempotent, and a retry after the row is gone must still get here if Redis failed the first time
+        tokenRevocationService.revokeAllForUser(userId);
+        customUserDetailsService.evictPrincipal(userId);
+        cacheInvalidationService.invalidateTags(CacheInvalidationService.userTag(userId));
+
+        Optional<User> userOptional = userRepository.findById(userId);
+        if (userOptional.isEmpty()) {
+            log.warn("User with ID {} not found in DB during deletion", userId);
+            return;
         }
+        
+        User user = userOptional.get();
+        log.info("Deleting user - ID: {}, Name: {}, Email: {}", userId, user.getName(), user.getEmail());
+
+        userRepository.deleteById(userId);
+        log.info("User deleted successfully from DB - ID: {}", userId);
+        
+        // Additional processing can be added here:
+        // - Analytics for user churn tracking
+        // - Cleanup related data (tickets, preferences, etc.)
+        // - Audit logging to separate database
+        // - Notify other services about user deletion
+        // - Trigger data retention policies
     }
 
     @KafkaListener(topics = "user-update-events", groupId = "user-analytics-group")
-    public void consumeUserUpdateEvent(String message) {
-        log.info("User update event received: {}", message);
+    public void consumeUserUpdateEvent(EventEnvelope<UserEntryDTO> event) {
+        log.info("User update event received: {}", event.getEventId());
         
-        try {
-            TypeReference<Map<String, Object>> typeRef = new TypeReference<Map<String, Object>>() {};
-            Map<String, Object> eventData = objectMapper.readValue(message, typeRef);
-            int userId = (Integer) eventData.get("userId");
-
-            // Convert UserEntryDTO from Map to object
-            @SuppressWarnings("unchecked")
-            Map<String, Object> userEntryMap = (Map<String, Object>) eventData.get("userEntryDTO");
-            UserEntryDTO userEntryDTO = objectMapper.convertValue(userEntryMap, UserEntryDTO.class);
-
-            Optional<User> userOptional = userRepository.findById(userId);
-            if (userOptional.isEmpty()) {
-                log.warn("User with ID {} not found in DB during update", userId);
-                return;
-            }
-            
-            User user = userOptional.get();
-            StringBuilder changes = new StringBuilder();
-
-            if (userEntryDTO.getName() != null && !userEntryDTO.getName().isEmpty()) {
-                if (!userEntryDTO.getName().equals(user.getName())) {
-                    changes.append("Name: ").append(user.getName()).append(" -> ").append(userEntryDTO.getName()).append("; ");
-                }
-                user.setName(userEntryDTO.getName());
-            }
-            if (userEntryDTO.getAge() > 0) {
-                if (userEntryDTO.getAge() != user.getAge()) {
-                    changes.append("Age: ").append(user.getAge()).append(" -> ").append(userEntryDTO.getAge()).append("; ");
-                }
-                user.setAge(userEntryDTO.getAge());
-            }
-            if (userEntryDTO.getEmail() != null && !userEntryDTO.getEmail().isEmpty()) {
-                if (!userEntryDTO.getEmail().equals(user.getEmail())) {
-                    changes.append("Email: ").append(user.getEmail()).append(" -> ").append(userEntryDTO.getEmail()).append("; ");
-                }
-                user.setEmail(userEntryDTO.getEmail());
+        int userId = event.getEntityId();
+
+        UserEntryDTO userEntryDTO = event.getPayload();
+
+        Optional<User> userOptional = userRepository.findById(userId);
+        if (userOptional.isEmpty()) {
+            log.warn("User with ID {} not found in DB during update", userId);
+            return;
+        }
+        
+        User user = userOptional.get();
+        StringBuilder changes = new StringBuilder();
+
+        if (userEntryDTO.getName() != null && !userEntryDTO.getName().isEmpty()) {
+            if (!userEntryDTO.getName().equals(user.getName())) {
+                changes.append("Name: ").append(user.getName()).append(" -> ").append(userEntryDTO.getName()).append("; ");
             }
-            if (userEntryDTO.getMobileNumber() != null && !userEntryDTO.getMobileNumber().isEmpty()) {
-                if (!userEntryDTO.getMobileNumber().equals(user.getMobileNumber())) {
-                    changes.append("Mobile: ").append(user.getMobileNumber()).append(" -> ").append(userEntryDTO.getMobileNumber()).append("; ");
-                }
-                user.setMobileNumber(userEntryDTO.getMobileNumber());
+            user.setName(userEntryDTO.getName());
+        }
+        if (userEntryDTO.getAge() > 0) {
+            if (userEntryDTO.getAge() != user.getAge()) {
+                changes.append("Age: ").append(user.getAge()).append(" -> ").append(userEntryDTO.getAge()).append("; ");
             }
-            if (userEntryDTO.getAddress() != null && !userEntryDTO.getAddress().isEmpty()) {
-                if (!userEntryDTO.getAddress().equals(user.getAddress())) {
-                    changes.append("Address: ").append(user.getAddress()).append(" -> ").append(userEntryDTO.getAddress()).append("; ");
-                }
-                user.setAddress(userEntryDTO.getAddress());
+            user.setAge(userEntryDTO.getAge());
+        }
+        if (userEntryDTO.getEmail() != null && !userEntryDTO.getEmail().isEmpty()) {
+            if (!userEntryDTO.getEmail().equals(user.getEmail())) {
+                changes.append("Email: ").append(user.getEmail()).append(" -> ").append(userEntryDTO.getEmail()).append("; ");
             }
-            
-            // Handle password update (if provided)
-            if (userEntryDTO.getPassword() != null && !userEntryDTO.getPassword().isEmpty()) {
-                user.setPassword(passwordEncoder.encode(userEntryDTO.getPassword()));
-                changes.append("Password updated; ");
+            user.setEmail(userEntryDTO.getEmail());
+        }
+        if (userEntryDTO.getMobileNumber() != null && !userEntryDTO.getMobileNumber().isEmpty()) {
+            if (!userEntryDTO.getMobileNumber().equals(user.getMobileNumber())) {
+                changes.append("Mobile: ").append(user.getMobileNumber()).append(" -> ").append(userEntryDTO.getMobileNumber()).append("; ");
             }
-            
-            // Handle role update (if provided) - only for admin users
-            if (userEntryDTO.getRole() != null) {
-                user.setRole(userEntryDTO.getRole());
-                changes.append("Role: ").append(user.getRole()).append("; ");
+            user.setMobileNumber(userEntryDTO.getMobileNumber());
+        }
+        if (userEntryDTO.getAddress() != null && !userEntryDTO.getAddress().isEmpty()) {
+            if (!userEntryDTO.getAddress().equals(user.getAddress())) {
+                changes.append("Address: ").append(user.getAddress()).append(" -> ").append(userEntryDTO.getAddress()).append("; ");
             }
-            
-            userRepository.save(user);
-            
-            String changeLog = !changes.isEmpty() ? changes.toString() : "No changes detected";
-            log.info("User updated successfully in DB - ID: {}, Changes: {}", userId, changeLog);
-            
-            // Additional processing can be added here:
-            // - Audit logging (track what changed)
-            // - Sync data to other services (recommendation engine, marketing platform)
-            // - Analytics on profile changes
-            // - Trigger email notifications for sensitive changes (email, phone)
-            // - Update search indexes if using search functionality
-            
-        } catch (Exception e) {
-            log.error("Error processing user update event: {}", e.getMessage(), e);
-            // In production, consider sending to Dead Letter Queue (DLQ) for retry
+            user.setAddress(userEntryDTO.getAddress());
+        }
+        
+        // Handle password update (if provided)
+        boolean passwordChanged = false;
+        if (userEntryDTO.getPassword() != null && !userEntryDTO.getPassword().isEmpty()) {
+            user.setPassword(passwordHashingService.encodeOnCallerThread(userEntryDTO.getPassword()));
+            changes.append("Password updated; ");
+            passwordChanged = true;
         }
+        
+        // Handle role update (if provided) - only for admin users
+        if (userEntryDTO.getRole() != null) {
+            user.setRole(userEntryDTO.getRole());
+            changes.append("Role: ").append(user.getRole()).append("; ");
+        }
+        
+        userRepository.save(user);
+        customUserDetailsService.evictPrincipal(userId);
+        if (passwordChanged) {
+            // Sessions opened with the old password end with it
+            tokenRevocationService.revokeAllForUser(userId);
+        }
+        
+        String changeLog = !changes.isEmpty() ? changes.toString() : "No changes detected";
+        log.info("User updated successfully in DB - ID: {}, Changes: {}", userId, changeLog);
+        
+        // Additional processing can be added here:
+        // - Audit logging (track what changed)
+        // - Sync data to other services (recommendation engine, marketing platform)
+        // - Analytics on profile changes
+        // - Trigger email notifications for sensitive changes (email, phone)
+        // - Update search indexes if using search functionality
     }
 
     // ========== MOVIE CONSUMERS ==========
     @KafkaListener(topics = "movie-creation-events", groupId = "movie-analytics-group")
-    public void consumeMovieCreationEvent(String message) {
-        log.info("Movie creation event received: {}", message);
+    public void consumeMovieCreationEvent(EventEnvelope<MovieEntryDTO> event) {
+        log.info("Movie creation event received: {}", event.getEventId());
         
-        try {
-            TypeReference<Map<String, Object>> typeRef = new TypeReference<Map<String, Object>>() {};
-            Map<String, Object> eventData = objectMapper.readValue(message, typeRef);
-
-            @SuppressWarnings("unchecked")
-            Map<String, Object> movieEntryMap = (Map<String, Object>) eventData.get("movieEntryDTO");
-            com.example.TicketFlix.EntryDTOs.MovieEntryDTO movieEntryDTO = objectMapper.convertValue(movieEntryMap, com.example.TicketFlix.EntryDTOs.MovieEntryDTO.class);
-
-            // Check if movie already exists (idempotency)
-            Optional<com.example.TicketFlix.Models.Movie> existingMovie = movieRepository.findByMovieName(movieEntryDTO.getMovieName());
-            if (existingMovie.isPresent()) {
-                log.warn("Movie with name {} already exists in DB, skipping creation", movieEntryDTO.getMovieName());
-                return;
-            }
-
-            // Convert DTO to Entity and save
-            com.example.TicketFlix.Models.Movie movie = com.example.TicketFlix.Convertors.MovieConvertor.convertDtoToEntity(movieEntryDTO);
-            com.example.TicketFlix.Models.Movie savedMovie = movieRepository.save(movie);
-            log.info("Movie created successfully in DB - ID: {}, Name: {}", savedMovie.getId(), savedMovie.getMovieName());
+        MovieEntryDTO movieEntryDTO = event.getPayload();
 
-            // Invalidate cache
-            String cacheKey = "movie::" + savedMovie.getId();
-            redisTemplate.delete(cacheKey);
-            
-        } catch (Exception e) {
-            log.error("Error processing movie creation event: {}", e.getMessage(), e);
+        // Check if movie already exists (idempotency)
+        Optional<com.example.TicketFlix.Models.Movie> existingMovie = movieRepository.findByMovieName(movieEntryDTO.getMovieName());
+        if (existingMovie.isPresent()) {
+            log.warn("Movie with name {} already exists in DB, skipping creation", movieEntryDTO.getMovieName());
+            return;
         }
+
+        // Convert DTO to Entity and save
+        com.example.TicketFlix.Models.Movie movie = com.example.TicketFlix.Convertors.MovieConvertor.convertDtoToEntity(movieEntryDTO);
+        com.example.TicketFlix.Models.Movie savedMovie = movieRepository.save(movie);
+        log.info("Movie created successfully in DB - ID: {}, Name: {}", savedMovie.getId(), savedMovie.getMovieName());
+        existenceFilter.recordCreated(ExistenceFilter.MOVIE, savedMovie.getId());
+        catalogVersions.bump(CatalogVersions.MOVIES);
+
+        // Invalidate cache
+        String cacheKey = "movie::" + savedMovie.getId();
+        redisTemplate.delete(cacheKey);
     }
 
     @KafkaListener(topics = "movie-update-events", groupId = "movie-analytics-group")
-    public void consumeMovieUpdateEvent(String message) {
-        log.info("Movie update event received: {}", message);
+    public void consumeMovieUpdateEvent(EventEnvelope<MovieEntryDTO> event) {
+        log.info("Movie update event received: {}", event.getEventId());
         
-        try {
-            TypeReference<Map<String, Object>> typeRef = new TypeReference<Map<String, Object>>() {};
-            Map<String, Object> eventData = objectMapper.readValue(message, typeRef);
-            int movieId = (Integer) eventData.get("movieId");
-
-            @SuppressWarnings("unchecked")
-            Map<String, Object> movieEntryMap = (Map<String, Object>) eventData.get("movieEntryDTO");
-            com.example.TicketFlix.EntryDTOs.MovieEntryDTO movieEntryDTO = objectMapper.convertValue(movieEntryMap, com.example.TicketFlix.EntryDTOs.MovieEntryDTO.class);
-
-            Optional<com.example.TicketFlix.Models.Movie> movieOptional = movieRepository.findById(movieId);
-            if (movieOptional.isEmpty()) {
-                log.warn("Movie with ID {} not found in DB during update", movieId);
-                return;
-            }
+        int movieId = event.getEntityId();
 
-            com.example.TicketFlix.Models.Movie movie = movieOptional.get();
-            
-            // Update fields
-            if (movieEntryDTO.getMovieName() != null && !movieEntryDTO.getMovieName().isEmpty()) {
-                movie.setMovieName(movieEntryDTO.getMovieName());
-            }
-            if (movieEntryDTO.getRating() > 0) {
-                movie.setRating(movieEntryDTO.getRating());
-            }
-            if (movieEntryDTO.getDuration() > 0) {
-                movie.setDuration(movieEntryDTO.getDuration());
-            }
-            if (movieEntryDTO.getGenre() != null) {
-                movie.setGenre(movieEntryDTO.getGenre());
-            }
-            if (movieEntryDTO.getLanguage() != null) {
-                movie.setLanguage(movieEntryDTO.getLanguage());
-            }
+        MovieEntryDTO movieEntryDTO = event.getPayload();
 
-            movieRepository.save(movie);
-            log.info("Movie updated successfully in DB - ID: {}", movieId);
+        Optional<com.example.TicketFlix.Models.Movie> movieOptional = movieRepository.findById(movieId);
+        if (movieOptional.isEmpty()) {
+            log.warn("Movie with ID {} not found in DB during update", movieId);
+            return;
+        }
 
-            // Invalidate cache
-            String cacheKey = "movie::" + movieId;
-            redisTemplate.delete(cacheKey);
-            
-        } catch (Exception e) {
-            log.error("Error processing movie update event: {}", e.getMessage(), e);
+        com.example.TicketFlix.Models.Movie movie = movieOptional.get();
+        
+        // Update fields
+        if (movieEntryDTO.getMovieName() != null && !movieEntryDTO.getMovieName().isEmpty()) {
+            movie.setMovieName(movieEntryDTO.getMovieName());
+        }
+        if (movieEntryDTO.getRating() > 0) {
+            movie.setRating(movieEntryDTO.getRating());
         }
+        if (movieEntryDTO.getDuration() > 0) {
+            movie.setDuration(movieEntryDTO.getDuration());
+        }
+        if (movieEntryDTO.getGenre() != null) {
+            movie.setGenre(movieEntryDTO.getGenre());
+        }
+        if (movieEntryDTO.getLanguage() != null) {
+            movie.setLanguage(movieEntryDTO.getLanguage());
+        }
+
+        movieRepository.save(movie);
+        log.info("Movie updated successfully in DB - ID: {}", movieId);
+
+        // Invalidate cache; show responses and search results carry the movie name and language
+        twoLevelCache.evict("movie", "movie::" + movieId);
+        showService.invalidateSearchCache();
+        catalogVersions.bump(CatalogVersions.MOVIES, CatalogVersions.SHOWS);
     }
 
     @KafkaListener(topics = "movie-deletion-events", groupId = "movie-analytics-group")
-    public void consumeMovieDeletionEvent(String message) {
-        log.info("Movie deletion event received: {}", message);
+    public void consumeMovieDeletionEvent(EventEnvelope<Void> event) {
+        log.info("Movie deletion event received: {}", event.getEventId());
         
-        try {
-            TypeReference<Map<String, Object>> typeRef = new TypeReference<Map<String, Object>>() {};
-            Map<String, Object> eventData = objectMapper.readValue(message, typeRef);
-            int movieId = (Integer) eventData.get("movieId");
-
-            Optional<com.example.TicketFlix.Models.Movie> movieOptional = movieRepository.findById(movieId);
-            if (movieOptional.isEmpty()) {
-                log.warn("Movie with ID {} not found in DB during deletion", movieId);
-                return;
-            }
-
-            movieRepository.deleteById(movieId);
-            log.info("Movie deleted successfully from DB - ID: {}", movieId);
+        int movieId = event.getEntityId();
 
-            // Invalidate cache
-            String cacheKey = "movie::" + movieId;
-            redisTemplate.delete(cacheKey);
-            
-        } catch (Exception e) {
-            log.error("Error processing movie deletion event: {}", e.getMessage(), e);
+        Optional<com.example.TicketFlix.Models.Movie> movieOptional = movieRepository.findById(movieId);
+        if (movieOptional.isEmpty()) {
+            log.warn("Movie with ID {} not found in DB during deletion", movieId);
+            return;
         }
+
+        movieRepository.deleteById(movieId);
+        log.info("Movie deleted successfully from DB - ID: {}", movieId);
+        existenceFilter.recordDeleted(ExistenceFilter.MOVIE, movieId);
+
+        // Invalidate cache; search results carry the movie name and language
+        twoLevelCache.evict("movie", "movie::" + movieId);
+        showService.invalidateSearchCache();
+        catalogVersions.bump(CatalogVersions.MOVIES, CatalogVersions.SHOWS);
     }
 
     // ========== THEATER CONSUMERS ==========
     @KafkaListener(topics = "theater-creation-events", groupId = "theater-analytics-group")
-    public void consumeTheaterCreationEvent(String message) {
-        log.info("Theater creation event received: {}", message);
+    public void consumeTheaterCreationEvent(EventEnvelope<TheaterEntryDTO> event) {
+        log.info("Theater creation event received: {}", event.getEventId());
         
-        try {
-            TypeReference<Map<String, Object>> typeRef = new TypeReference<Map<String, Object>>() {};
-            Map<String, Object> eventData = objectMapper.readValue(message, typeRef);
+        TheaterEntryDTO theaterEntryDTO = event.getPayload();
 
-            @SuppressWarnings("unchecked")
-            Map<String, Object> theaterEntryMap = (Map<String, Object>) eventData.get("theaterEntryDTO");
-            com.example.TicketFlix.EntryDTOs.TheaterEntryDTO theaterEntryDTO = objectMapper.convertValue(theaterEntryMap, com.example.TicketFlix.EntryDTOs.TheaterEntryDTO.class);
+        // Create theater in DB (this includes creating theater seats)
+        theaterService.createTheaterInDB(theaterEntryDTO);
+        log.info("Theater created successfully in DB - Name: {}", theaterEntryDTO.getName());
 
-            // Create theater in DB (this includes creating theater seats)
-            theaterService.createTheaterInDB(theaterEntryDTO);
-            log.info("Theater created successfully in DB - Name: {}", theaterEntryDTO.getName());
-
-            // Invalidate cache if needed
-            String cacheKey = "theater::*";
-            redisTemplate.delete(cacheKey);
-            
-        } catch (Exception e) {
-            log.error("Error processing theater creation event: {}", e.getMessage(), e);
-        }
+        // A new theater has no shows yet, so no cached entry can reference it
+        catalogVersions.bump(CatalogVersions.THEATERS);
     }
 
     @KafkaListener(topics = "theater-update-events", groupId = "theater-analytics-group")
-    public void consumeTheaterUpdateEvent(String message) {
-        log.info("Theater update event received: {}", message);
+    public void consumeTheaterUpdateEvent(EventEnvelope<TheaterEntryDTO> event) {
+        log.info("Theater update event received: {}", event.getEventId());
         
-        try {
-            TypeReference<Map<String, Object>> typeRef = new TypeReference<Map<String, Object>>() {};
-            Map<String, Object> eventData = objectMapper.readValue(message, typeRef);
-            int theaterId = (Integer) eventData.get("theaterId");
-
-            @SuppressWarnings("unchecked")
-            Map<String, Object> theaterEntryMap = (Map<String, Object>) eventData.get("theaterEntryDTO");
-            com.example.TicketFlix.EntryDTOs.TheaterEntryDTO theaterEntryDTO = objectMapper.convertValue(theaterEntryMap, com.example.TicketFlix.EntryDTOs.TheaterEntryDTO.class);
-
-            Optional<com.example.TicketFlix.Models.Theater> theaterOptional = theaterRepository.findById(theaterId);
-            if (theaterOptional.isEmpty()) {
-                log.warn("Theater with ID {} not found in DB during update", theaterId);
-                return;
-            }
+        int theaterId = event.getEntityId();
 
-            com.example.TicketFlix.Models.Theater theater = theaterOptional.get();
-            
-            // Update fields
-            if (theaterEntryDTO.getName() != null && !theaterEntryDTO.getName().isEmpty()) {
-                theater.setName(theaterEntryDTO.getName());
-            }
-            if (theaterEntryDTO.getLocation() != null && !theaterEntryDTO.getLocation().isEmpty()) {
-                theater.setLocation(theaterEntryDTO.getLocation());
-            }
+        TheaterEntryDTO theaterEntryDTO = event.getPayload();
 
-            theaterRepository.save(theater);
-            log.info("Theater updated successfully in DB - ID: {}", theaterId);
+        Optional<com.example.TicketFlix.Models.Theater> theaterOptional = theaterRepository.findById(theaterId);
+        if (theaterOptional.isEmpty()) {
+            log.warn("Theater with ID {} not found in DB during update", theaterId);
+            return;
+        }
 
-            // Invalidate cache
-            String cacheKey = "theater::" + theaterId;
-            redisTemplate.delete(cacheKey);
-            
-        } catch (Exception e) {
-            log.error("Error processing theater update event: {}", e.getMessage(), e);
+        com.example.TicketFlix.Models.Theater theater = theaterOptional.get();
+        
+        // Update fields
+        if (theaterEntryDTO.getName() != null && !theaterEntryDTO.getName().isEmpty()) {
+            theater.setName(theaterEntryDTO.getName());
+        }
+        if (theaterEntryDTO.getLocation() != null && !theaterEntryDTO.getLocation().isEmpty()) {
+            theater.setLocation(theaterEntryDTO.getLocation());
         }
+
+        theaterRepository.save(theater);
+        log.info("Theater updated successfully in DB - ID: {}", theaterId);
+
+        // Invalidate cache; screen responses and search results carry the theater name and location
+        twoLevelCache.evict("theater", "theater::" + theaterId);
+        screenService.invalidateScreensOfTheater(theaterId);
+        showService.invalidateSearchCache();
+        catalogVersions.bump(CatalogVersions.THEATERS, CatalogVersions.SCREENS, CatalogVersions.SHOWS);
     }
 
     @KafkaListener(topics = "theater-deletion-events", groupId = "theater-analytics-group")
-    public void consumeTheaterDeletionEvent(String message) {
-        log.info("Theater deletion event received: {}", message);
+    public void consumeTheaterDeletionEvent(EventEnvelope<Void> event) {
+        log.info("Theater deletion event received: {}", event.getEventId());
         
-        try {
-            TypeReference<Map<String, Object>> typeRef = new TypeReference<Map<String, Object>>() {};
-            Map<String, Object> eventData = objectMapper.readValue(message, typeRef);
-            int theaterId = (Integer) eventData.get("theaterId");
-
-            Optional<com.example.TicketFlix.Models.Theater> theaterOptional = theaterRepository.findById(theaterId);
-            if (theaterOptional.isEmpty()) {
-                log.warn("Theater with ID {} not found in DB during deletion", theaterId);
-                return;
-            }
-
-            theaterRepository.deleteById(theaterId);
-            log.info("Theater deleted successfully from DB - ID: {}", theaterId);
+        int theaterId = event.getEntityId();
 
-            // Invalidate cache
-            String cacheKey = "theater::" + theaterId;
-            redisTemplate.delete(cacheKey);
-            
-        } catch (Exception e) {
-            log.error("Error processing theater deletion event: {}", e.getMessage(), e);
+        Optional<com.example.TicketFlix.Models.Theater> theaterOptional = theaterRepository.findById(theaterId);
+        if (theaterOptional.isEmpty()) {
+            log.warn("Theater with ID {} not found in DB during deletion", theaterId);
+            return;
         }
+
+        theaterRepository.deleteById(theaterId);
+        log.info("Theater deleted successfully from DB - ID: {}", theaterId);
+
+        // Invalidate cache; search results carry the theater name and location
+        twoLevelCache.evict("theater", "theater::" + theaterId);
+        cacheInvalidationService.invalidateTags(CacheInvalidationService.theaterTag(theaterId));
+        showService.invalidateSearchCache();
+        catalogVersions.bump(CatalogVersions.THEATERS, CatalogVersions.SCREENS, CatalogVersions.SHOWS);
     }
 
     // ========== SHOW CONSUMERS ==========
     @KafkaListener(topics = "show-creation-events", groupId = "show-analytics-group")
-    public void consumeShowCreationEvent(String message) {
-        log.info("Show creation event received: {}", message);
+    public void consumeShowCreationEvent(EventEnvelope<ShowEntryDTO> event) {
+        log.info("Show creation event received: {}", event.getEventId());
         
-        try {
-            TypeReference<Map<String, Object>> typeRef = new TypeReference<Map<String, Object>>() {};
-            Map<String, Object> eventData = objectMapper.readValue(message, typeRef);
-
-            @SuppressWarnings("unchecked")
-            Map<String, Object> showEntryMap = (Map<String, Object>) eventData.get("showEntryDTO");
-            com.example.TicketFlix.EntryDTOs.ShowEntryDTO showEntryDTO = objectMapper.convertValue(showEntryMap, com.example.TicketFlix.EntryDTOs.ShowEntryDTO.class);
-
-            // Create show in DB
-            showService.createShowInDB(showEntryDTO);
-            log.info("Show created successfully in DB - Movie ID: {}, Theater ID: {}", 
-                    showEntryDTO.getMovieId(), showEntryDTO.getTheaterId());
-
-            // Invalidate cache if needed
-            String cacheKey = "show::*";
-            redisTemplate.delete(cacheKey);
-            
-        } catch (Exception e) {
-            log.error("Error processing show creation event: {}", e.getMessage(), e);
-        }
+        ShowEntryDTO showEntryDTO = event.getPayload();
+
+        // Create show in DB
+        showService.createShowInDB(showEntryDTO);
+        log.info("Show created successfully in DB - Movie ID: {}, Theater ID: {}", 
+                showEntryDTO.getMovieId(), showEntryDTO.getTheaterId());
+
+        // The new show may belong on any cached search page
+        showService.invalidateSearchCache();
+        catalogVersions.bump(CatalogVersions.SHOWS);
     }
 
     @KafkaListener(topics = "show-update-events", groupId = "show-analytics-group")
-    public void consumeShowUpdateEvent(String message) {
-        log.info("Show update event received: {}", message);
+    public void consumeShowUpdateEvent(EventEnvelope<ShowEntryDTO> event) {
+        log.info("Show update event received: {}", event.getEventId());
         
-        try {
-            TypeReference<Map<String, Object>> typeRef = new TypeReference<Map<String, Object>>() {};
-            Map<String, Object> eventData = objectMapper.readValue(message, typeRef);
-            int showId = (Integer) eventData.get("showId");
-
-            @SuppressWarnings("unchecked")
-            Map<String, Object> showEntryMap = (Map<String, Object>) eventData.get("showEntryDTO");
-            com.example.TicketFlix.EntryDTOs.ShowEntryDTO showEntryDTO = objectMapper.convertValue(showEntryMap, com.example.TicketFlix.EntryDTOs.ShowEntryDTO.class);
-
-            Optional<com.example.TicketFlix.Models.Show> showOptional = showRepository.findById(showId);
-            if (showOptional.isEmpty()) {
-                log.warn("Show with ID {} not found in DB during update", showId);
-                return;
-            }
+        int showId = event.getEntityId();
 
-            com.example.TicketFlix.Models.Show show = showOptional.get();
-            
-            // Update fields
-            if (showEntryDTO.getLocalDate() != null) {
-                show.setShowDate(showEntryDTO.getLocalDate());
-            }
-            if (showEntryDTO.getLocalTime() != null) {
-                show.setShowTime(showEntryDTO.getLocalTime());
-            }
-            if (showEntryDTO.getShowType() != null) {
-                show.setShowType(showEntryDTO.getShowType());
-            }
+        ShowEntryDTO showEntryDTO = event.getPayload();
 
-            showRepository.save(show);
-            log.info("Show updated successfully in DB - ID: {}", showId);
+        Optional<com.example.TicketFlix.Models.Show> showOptional = showRepository.findById(showId);
+        if (showOptional.isEmpty()) {
+            log.warn("Show with ID {} not found in DB during update", showId);
+            return;
+        }
 
-            // Invalidate cache
-            String cacheKey = "show::" + showId;
-            redisTemplate.delete(cacheKey);
-            
-        } catch (Exception e) {
-            log.error("Error processing show update event: {}", e.getMessage(), e);
+        com.example.TicketFlix.Models.Show show = showOptional.get();
+        
+        // Update fields
+        if (showEntryDTO.getLocalDate() != null) {
+            show.setShowDate(showEntryDTO.getLocalDate());
+        }
+        if (showEntryDTO.getLocalTime() != null) {
+            show.setShowTime(showEntryDTO.getLocalTime());
+        }
+        if (showEntryDTO.getShowType() != null) {
+            show.setShowType(showEntryDTO.getShowType());
         }
+
+        showRepository.save(show);
+        log.info("Show updated successfully in DB - ID: {}", showId);
+
+        // Invalidate cache
+        twoLevelCache.evict("show", "show::" + showId);
+        showService.invalidateSearchCache();
+        catalogVersions.bump(CatalogVersions.SHOWS);
     }
 
     @KafkaListener(topics = "show-deletion-events", groupId = "show-analytics-group")
-    public void consumeShowDeletionEvent(String message) {
-        log.info("Show deletion event received: {}", message);
+    public void consumeShowDeletionEvent(EventEnvelope<Void> event) {
+        log.info("Show deletion event received: {}", event.getEventId());
         
-        try {
-            TypeReference<Map<String, Object>> typeRef = new TypeReference<Map<String, Object>>() {};
-            Map<String, Object> eventData = objectMapper.readValue(message, typeRef);
-            int showId = (Integer) eventData.get("showId");
-
-            Optional<com.example.TicketFlix.Models.Show> showOptional = showRepository.findById(showId);
-            if (showOptional.isEmpty()) {
-                log.warn("Show with ID {} not found in DB during deletion", showId);
-                return;
-            }
-
-            showRepository.deleteById(showId);
-            log.info("Show deleted successfully from DB - ID: {}", showId);
+        int showId = event.getEntityId();
 
-            // Invalidate cache
-            String cacheKey = "show::" + showId;
-            redisTemplate.delete(cacheKey);
-            
-        } catch (Exception e) {
-            log.error("Error processing show deletion event: {}", e.getMessage(), e);
+        Optional<com.example.TicketFlix.Models.Show> showOptional = showRepository.findById(showId);
+        if (showOptional.isEmpty()) {
+            log.warn("Show with ID {} not found in DB during deletion", showId);
+            return;
         }
+
+        showRepository.deleteById(showId);
+        log.info("Show deleted successfully from DB - ID: {}", showId);
+        existenceFilter.recordDeleted(ExistenceFilter.SHOW, showId);
+
+        // Invalidate cache
+        twoLevelCache.evict("show", "show::" + showId);
+        cacheInvalidationService.invalidateTags(CacheInvalidationService.showTag(showId));
+        showService.invalidateSearchCache();
+        catalogVersions.bump(CatalogVersions.SHOWS);
     }
 
     // ========== TICKET CONSUMERS ==========
     @KafkaListener(topics = "ticket-booking-requests", groupId = "ticket-booking-group")
-    public void consumeTicketBookingRequest(String message) {
-        log.info("Ticket booking request received: {}", message);
+    public void consumeTicketBookingRequest(EventEnvelope<TicketBookingRequestEvent> event) throws ConcurrencyException {
+        log.info("Ticket booking request received: {}", event.getEventId());
         
-        try {
-            TypeReference<Map<String, Object>> typeRef = new TypeReference<Map<String, Object>>() {};
-            Map<String, Object> eventData = objectMapper.readValue(message, typeRef);
+        TicketEntryDTO ticketEntryDTO = event.getPayload().getTicket();
 
-            @SuppressWarnings("unchecked")
-            Map<String, Object> ticketEntryMap = (Map<String, Object>) eventData.get("ticketEntryDTO");
-            TicketEntryDTO ticketEntryDTO = objectMapper.convertValue(ticketEntryMap, TicketEntryDTO.class);
-
-            Boolean isValidRequest = (Boolean) eventData.get("isValidRequest");
-            if (isValidRequest == null || !isValidRequest) {
-                log.warn("Ticket booking request was invalid, skipping DB operation");
-                return;
-            }
+        if (!event.getPayload().isValidRequest()) {
+            log.warn("Ticket booking request was invalid, skipping DB operation");
+            return;
+        }
 
-            // Create ticket in DB (this includes seat locking, validation, and save)
-            ticketService.createTicketInDB(ticketEntryDTO);
-            log.info("Ticket created successfully in DB for user ID: {}, show ID: {}", 
-                    ticketEntryDTO.getUserId(), ticketEntryDTO.getShowId());
-            
-        } catch (Exception e) {
-            log.error("Error processing ticket booking request: {}", e.getMessage(), e);
-            // In production, consider sending to Dead Letter Queue (DLQ) for retry
+        // Create ticket in DB (this includes seat locking, validation, and save). A rejected booking is final;
+        // anything else (seat lock contention, a database hiccup) propagates and is retried on the retry topics
+        try {
+            ticketService.createTicketInDatabase(ticketEntryDTO);
+        } catch (BusinessException | ValidationException | ResourceNotFoundException e) {
+            log.warn("Ticket booking rejected for user ID: {}, show ID: {}: {}",
+                    ticketEntryDTO.getUserId(), ticketEntryDTO.getShowId(), e.getMessage());
+            return;
         }
+        log.info("Ticket created successfully in DB for user ID: {}, show ID: {}",
+                ticketEntryDTO.getUserId(), ticketEntryDTO.getShowId());
     }
 
     @KafkaListener(topics = "ticket-cancellation-requests", groupId = "ticket-cancellation-group")
-    public void consumeTicketCancellationRequest(String message) {
-        log.info("Ticket cancellation request received: {}", message);
+    public void consumeTicketCancellationRequest(EventEnvelope<Void> event) throws Exception {
+        log.info("Ticket cancellation request received: {}", event.getEventId());
         
-        try {
-            TypeReference<Map<String, Object>> typeRef = new TypeReference<Map<String, Object>>() {};
-            Map<String, Object> eventData = objectMapper.readValue(message, typeRef);
-            int ticketId = (Integer) eventData.get("ticketId");
-
-            // Cancel ticket in DB
-            ticketService.cancelTicketInDB(ticketId);
-            log.info("Ticket cancelled successfully in DB - Ticket ID: {}", ticketId);
-            
-        } catch (Exception e) {
-            log.error("Error processing ticket cancellation request: {}", e.getMessage(), e);
-            // In production, consider sending to Dead Letter Queue (DLQ) for retry
-        }
+        int ticketId = event.getEntityId();
+
+        // Cancel ticket in DB
+        ticketService.cancelTicketInDB(ticketId);
+        log.info("Ticket cancelled successfully in DB - Ticket ID: {}", ticketId);
     }
 
     // ========== PAYMENT CONSUMERS ==========
@@ -634,55 +715,34 @@ public class KafkaConsumerService {
     private com.example.TicketFlix.Service.PaymentService paymentService;
 
     @KafkaListener(topics = "payment-requests", groupId = "payment-processing-group")
-    public void consumePaymentRequest(String message) {
-        log.info("Payment request received: {}", message);
+    public void consumePaymentRequest(EventEnvelope<PaymentRequestEvent> event) throws Exception {
+        log.info("Payment request received: {}", event.getEventId());
         
-        try {
-            TypeReference<Map<String, Object>> typeRef = new TypeReference<Map<String, Object>>() {};
-            Map<String, Object> eventData = objectMapper.readValue(message, typeRef);
-
-            @SuppressWarnings("unchecked")
-            Map<String, Object> paymentRequestMap = (Map<String, Object>) eventData.get("paymentRequestDTO");
-            com.example.TicketFlix.EntryDTOs.PaymentRequestDTO paymentRequestDTO = 
-                    objectMapper.convertValue(paymentRequestMap, com.example.TicketFlix.EntryDTOs.PaymentRequestDTO.class);
-
-            String paymentId = (String) eventData.get("paymentId");
-            String idempotencyKey = (String) eventData.get("idempotencyKey");
-
-            // Process payment in DB (simulates payment gateway)
-            paymentService.processPaymentInDB(paymentId, paymentRequestDTO);
-            log.info("Payment processed successfully for payment ID: {}, idempotency key: {}", 
-                    paymentId, idempotencyKey);
-            
-        } catch (Exception e) {
-            log.error("Error processing payment request: {}", e.getMessage(), e);
-            // In production, consider sending to Dead Letter Queue (DLQ) for retry
-        }
+        com.example.TicketFlix.EntryDTOs.PaymentRequestDTO paymentRequestDTO = event.getPayload().getRequest();
+        String paymentId = event.getPayload().getPaymentId();
+        String idempotencyKey = event.getPayload().getIdempotencyKey();
+
+        // Process payment in DB (simulates payment gateway)
+        paymentService.processPaymentInDB(paymentId, paymentRequestDTO);
+        log.info("Payment processed successfully for payment ID: {}, idempotency key: {}", 
+                paymentId, idempotencyKey);
     }
 
     @KafkaListener(topics = "payment-result-events", groupId = "payment-events-group")
-    public void consumePaymentResultEvent(String message) {
-        log.info("Payment result event received: {}", message);
+    public void consumePaymentResultEvent(EventEnvelope<PaymentResultEvent> event) {
+        log.info("Payment result event received: {}", event.getEventId());
         
-        try {
-            TypeReference<Map<String, Object>> typeRef = new TypeReference<Map<String, Object>>() {};
-            Map<String, Object> eventData = objectMapper.readValue(message, typeRef);
-
-            String paymentId = (String) eventData.get("paymentId");
-            String status = (String) eventData.get("status");
-            Boolean success = (Boolean) eventData.get("success");
-
-            log.info("Payment result - ID: {}, Status: {}, Success: {}", paymentId, status, success);
-            
-            // Additional processing can be added here:
-            // - Send payment confirmation emails
-            // - Update analytics
-            // - Trigger refunds if needed
-            // - Notify external systems
-            
-        } catch (Exception e) {
-            log.error("Error processing payment result event: {}", e.getMessage(), e);
-        }
+        String paymentId = event.getPayload().getPaymentId();
+        String status = event.getPayload().getStatus();
+        boolean success = event.getPayload().isSuccess();
+
+        log.info("Payment result - ID: {}, Status: {}, Success: {}", paymentId, status, success);
+        
+        // Additional processing can be added here:
+        // - Send payment confirmation emails
+        // - Update analytics
+        // - Trigger refunds if needed
+        // - Notify external systems
     }
 
     // ========== SCREEN CONSUMERS ==========
@@ -691,68 +751,43 @@ public class KafkaConsumerService {
     private com.example.TicketFlix.Service.ScreenService screenService;
 
     @KafkaListener(topics = "screen-creation-events", groupId = "screen-creation-group")
-    public void consumeScreenCreationEvent(String message) {
-        log.info("Screen creation event received: {}", message);
+    public void consumeScreenCreationEvent(EventEnvelope<ScreenEntryDTO> event) {
+        log.info("Screen creation event received: {}", event.getEventId());
         
-        try {
-            TypeReference<Map<String, Object>> typeRef = new TypeReference<Map<String, Object>>() {};
-            Map<String, Object> eventData = objectMapper.readValue(message, typeRef);
-
-            @SuppressWarnings("unchecked")
-            Map<String, Object> screenEntryMap = (Map<String, Object>) eventData.get("screenEntryDTO");
-            com.example.TicketFlix.EntryDTOs.ScreenEntryDTO screenEntryDTO = 
-                    objectMapper.convertValue(screenEntryMap, com.example.TicketFlix.EntryDTOs.ScreenEntryDTO.class);
-
-            // Create screen in DB
-            screenService.createScreenInDB(screenEntryDTO);
-            log.info("Screen created successfully in DB for theater ID: {}, screen number: {}", 
-                    screenEntryDTO.getTheaterId(), screenEntryDTO.getScreenNumber());
-            
-        } catch (Exception e) {
-            log.error("Error processing screen creation event: {}", e.getMessage(), e);
-        }
+        ScreenEntryDTO screenEntryDTO = event.getPayload();
+
+        // Create screen in DB
+        screenService.createScreenInDB(screenEntryDTO);
+        log.info("Screen created successfully in DB for theater ID: {}, screen number: {}", 
+                screenEntryDTO.getTheaterId(), screenEntryDTO.getScreenNumber());
+
+        // Theater responses carry seat counts summed over their screens; bumped after the commit
+        catalogVersions.bump(CatalogVersions.SCREENS, CatalogVersions.THEATERS);
     }
 
     @KafkaListener(topics = "screen-update-events", groupId = "screen-update-group")
-    public void consumeScreenUpdateEvent(String message) {
-        log.info("Screen update event received: {}", message);
+    public void consumeScreenUpdateEvent(EventEnvelope<ScreenEntryDTO> event) {
+        log.info("Screen update event received: {}", event.getEventId());
         
-        try {
-            TypeReference<Map<String, Object>> typeRef = new TypeReference<Map<String, Object>>() {};
-            Map<String, Object> eventData = objectMapper.readValue(message, typeRef);
-
-            Integer screenId = (Integer) eventData.get("screenId");
-            @SuppressWarnings("unchecked")
-            Map<String, Object> screenEntryMap = (Map<String, Object>) eventData.get("screenEntryDTO");
-            com.example.TicketFlix.EntryDTOs.ScreenEntryDTO screenEntryDTO = 
-                    objectMapper.convertValue(screenEntryMap, com.example.TicketFlix.EntryDTOs.ScreenEntryDTO.class);
-
-            // Update screen in DB
-            screenService.updateScreenInDB(screenId, screenEntryDTO);
-            log.info("Screen updated successfully in DB for screen ID: {}", screenId);
-            
-        } catch (Exception e) {
-            log.error("Error processing screen update event: {}", e.getMessage(), e);
-        }
+        Integer screenId = event.getEntityId();
+        ScreenEntryDTO screenEntryDTO = event.getPayload();
+
+        // Update screen in DB
+        screenService.updateScreenInDB(screenId, screenEntryDTO);
+        log.info("Screen updated successfully in DB for screen ID: {}", screenId);
+        catalogVersions.bump(CatalogVersions.SCREENS, CatalogVersions.THEATERS);
     }
 
     @KafkaListener(topics = "screen-deletion-events", groupId = "screen-deletion-group")
-    public void consumeScreenDeletionEvent(String message) {
-        log.info("Screen deletion event received: {}", message);
+    public void consumeScreenDeletionEvent(EventEnvelope<Void> event) {
+        log.info("Screen deletion event received: {}", event.getEventId());
         
-        try {
-            TypeReference<Map<String, Object>> typeRef = new TypeReference<Map<String, Object>>() {};
-            Map<String, Object> eventData = objectMapper.readValue(message, typeRef);
-
-            Integer screenId = (Integer) eventData.get("screenId");
+        Integer screenId = event.getEntityId();
 
-            // Delete screen from DB
-            screenService.deleteScreenInDB(screenId);
-            log.info("Screen deleted successfully from DB for screen ID: {}", screenId);
-            
-        } catch (Exception e) {
-            log.error("Error processing screen deletion event: {}", e.getMessage(), e);
-        }
+        // Delete screen from DB
+        screenService.deleteScreenInDB(screenId);
+        log.info("Screen deleted successfully from DB for screen ID: {}", screenId);
+        catalogVersions.bump(CatalogVersions.SCREENS, CatalogVersions.THEATERS);
     }
 }
 
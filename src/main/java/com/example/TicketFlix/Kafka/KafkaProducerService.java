@@ -2,400 +2,223 @@ package com.example.TicketFlix.Kafka;
 
 import com.example.TicketFlix.EntryDTOs.*;
 import com.example.TicketFlix.EntryDTOs.PaymentRequestDTO;
+import com.example.TicketFlix.Events.EmailNotificationEvent;
+import com.example.TicketFlix.Events.EventEnvelope;
+import com.example.TicketFlix.Events.EventType;
+import com.example.TicketFlix.Events.PaymentRequestEvent;
+import com.example.TicketFlix.Events.PaymentResultEvent;
+import com.example.TicketFlix.Events.TicketActivityEvent;
+import com.example.TicketFlix.Events.TicketBookingRequestEvent;
+import com.example.TicketFlix.Events.UserRegisteredEvent;
+import com.example.TicketFlix.Exception.ServiceUnavailableException;
 import com.example.TicketFlix.Models.Ticket;
 import com.example.TicketFlix.Models.User;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.RecordMetadata;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
-import java.util.Map;
-
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes every event as a typed EventEnvelope (see EventType for the payload of each topic).
+ * Each publish method returns the delivery future from EventPublisher, which already logs and counts failures;
+ * callers that answer a client only after the event is durable pass it to awaitDelivery. The stage methods
+ * instead write the event to the outbox in the caller's transaction, for events that follow a DB write.
+ */
 @Service
 @Slf4j
 public class KafkaProducerService {
 
     @Autowired
-    private KafkaTemplate<String, String> kafkaTemplate;
+    private EventPublisher eventPublisher;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private TransactionalOutbox transactionalOutbox;
 
-    // Publish ticket booking event
-    public void publishTicketBookingEvent(Ticket ticket, User user) {
+    @Value("${ticketflix.kafka.producer.confirm-timeout:5s}")
+    private Duration confirmTimeout;
+
+    private CompletableFuture<RecordMetadata> publish(EventType type, String key, Integer entityId, Object payload) {
+        return eventPublisher.publish(type.getTopic(), key, EventEnvelope.of(type, entityId, payload));
+    }
+
+    private void stage(EventType type, String key, Integer entityId, Object payload) {
+        transactionalOutbox.append(type.getTopic(), key, EventEnvelope.of(type, entityId, payload));
+    }
+
+    /**
+     * Block until the broker has acknowledged a send, for at most confirm-timeout. On a timeout the send may
+     * still go through, so a client that retries can cause the request to be processed twice.
+     */
+    public void awaitDelivery(CompletableFuture<RecordMetadata> delivery, String what) throws ServiceUnavailableException {
         try {
-            String message = String.format(
-                "Ticket booked - ID: %s, Movie: %s, User: %s (%s), Seats: %s, Amount: %d",
-                ticket.getTicketId(),
-                ticket.getMovieName(),
-                user.getName(),
-                user.getEmail(),
-                ticket.getBookedSeat(),
-                ticket.getTotalAmount()
-            );
-            
-            kafkaTemplate.send("ticket-booking-events", ticket.getTicketId(), message);
-            log.info("Published ticket booking event for ticket ID: {}", ticket.getTicketId());
-        } catch (Exception e) {
-            log.error("Error publishing ticket booking event: {}", e.getMessage());
+            delivery.get(confirmTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ServiceUnavailableException(what + " could not be confirmed in time, please retry", e);
+        } catch (ExecutionException e) {
+            throw new ServiceUnavailableException(what + " could not be submitted, please retry", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException(what + " was interrupted, please retry", e);
         }
     }
 
+    private static TicketActivityEvent ticketActivity(Ticket ticket, User user) {
+        return TicketActivityEvent.builder()
+                .ticketId(ticket.getTicketId())
+                .movieName(ticket.getMovieName())
+                .userId(user.getId())
+                .userName(user.getName())
+                .userEmail(user.getEmail())
+                .bookedSeats(ticket.getBookedSeat())
+                .totalAmount(ticket.getTotalAmount())
+                .build();
+    }
+
+    // Publish ticket booking event
+    public CompletableFuture<RecordMetadata> publishTicketBookingEvent(Ticket ticket, User user) {
+        return publish(EventType.TICKET_BOOKED, ticket.getTicketId(), null, ticketActivity(ticket, user));
+    }
+
+    // Stage ticket booking event with the booking's transaction
+    public void stageTicketBookingEvent(Ticket ticket, User user) {
+        stage(EventType.TICKET_BOOKED, ticket.getTicketId(), null, ticketActivity(ticket, user));
+    }
+
     // Publish ticket cancellation event
-    public void publishTicketCancellationEvent(Ticket ticket, User user) {
-        try {
-            String message = String.format(
-                "Ticket cancelled - ID: %s, Movie: %s, User: %s (%s), Seats: %s, Refund Amount: %d",
-                ticket.getTicketId(),
-                ticket.getMovieName(),
-                user.getName(),
-                user.getEmail(),
-                ticket.getBookedSeat(),
-                ticket.getTotalAmount()
-            );
-            
-            kafkaTemplate.send("ticket-cancellation-events", ticket.getTicketId(), message);
-            log.info("Published ticket cancellation event for ticket ID: {}", ticket.getTicketId());
-        } catch (Exception e) {
-            log.error("Error publishing ticket cancellation event: {}", e.getMessage());
-        }
+    public CompletableFuture<RecordMetadata> publishTicketCancellationEvent(Ticket ticket, User user) {
+        return publish(EventType.TICKET_CANCELLED, ticket.getTicketId(), null, ticketActivity(ticket, user));
     }
 
     // Publish email notification
-    public void publishEmailNotification(String email, String subject, String body) {
-        try {
-            String message = String.format("%s|%s|%s", email, subject, body);
-            kafkaTemplate.send("email-notification", email, message);
-            log.info("Published email notification for: {}", email);
-        } catch (Exception e) {
-            log.error("Error publishing email notification: {}", e.getMessage());
-        }
+    public CompletableFuture<RecordMetadata> publishEmailNotification(String email, String subject, String body) {
+        return publish(EventType.EMAIL_NOTIFICATION, email, null, new EmailNotificationEvent(email, subject, body));
+    }
+
+    public void stageEmailNotification(String email, String subject, String body) {
+        stage(EventType.EMAIL_NOTIFICATION, email, null, new EmailNotificationEvent(email, subject, body));
     }
 
     // Publish user creation event with UserEntryDTO (consumer will persist to DB)
-    public void publishUserCreationEvent(UserEntryDTO userEntryDTO) {
-        try {
-            Map<String, Object> eventData = new HashMap<>();
-            eventData.put("userEntryDTO", userEntryDTO);
-            eventData.put("timestamp", System.currentTimeMillis());
-            
-            String message = objectMapper.writeValueAsString(eventData);
-            
-            // Use email as key for partitioning
-            String key = userEntryDTO.getEmail() != null ? userEntryDTO.getEmail() : "unknown";
-            kafkaTemplate.send("user-creation-events", key, message);
-            log.info("Published user creation event for email: {}", userEntryDTO.getEmail());
-        } catch (Exception e) {
-            log.error("Error publishing user creation event: {}", e.getMessage());
-        }
+    public CompletableFuture<RecordMetadata> publishUserCreationEvent(UserEntryDTO userEntryDTO) {
+        // Use email as key for partitioning
+        String key = userEntryDTO.getEmail() != null ? userEntryDTO.getEmail() : "unknown";
+        return publish(EventType.USER_CREATION, key, null, userEntryDTO);
     }
 
-    public void publishUserRegistrationEvent(User user) {
-        try {
-            String message = String.format(
-                "User registered - Name: %s, Email: %s, Age: %d",
-                user.getName(),
-                user.getEmail(),
-                user.getAge()
-            );
-            
-            kafkaTemplate.send("user-registration-events", user.getEmail(), message);
-            log.info("Published user registration event for: {}", user.getEmail());
-        } catch (Exception e) {
-            log.error("Error publishing user registration event: {}", e.getMessage());
-        }
+    public CompletableFuture<RecordMetadata> publishUserRegistrationEvent(User user) {
+        return publish(EventType.USER_REGISTERED, user.getEmail(), user.getId(),
+                new UserRegisteredEvent(user.getId(), user.getName(), user.getEmail(), user.getAge()));
     }
 
     // Publish user deletion event with userId only (consumer will fetch user data and delete)
-    public void publishUserDeletionEvent(int userId) {
-        try {
-            Map<String, Object> eventData = new HashMap<>();
-            eventData.put("userId", userId);
-            eventData.put("timestamp", System.currentTimeMillis());
-            
-            String message = objectMapper.writeValueAsString(eventData);
-            
-            kafkaTemplate.send("user-deletion-events", String.valueOf(userId), message);
-            log.info("Published user deletion event for user ID: {}", userId);
-        } catch (Exception e) {
-            log.error("Error publishing user deletion event: {}", e.getMessage());
-        }
+    public CompletableFuture<RecordMetadata> publishUserDeletionEvent(int userId) {
+        return publish(EventType.USER_DELETION, String.valueOf(userId), userId, null);
     }
 
     // Publish user update event with userId and UserEntryDTO (consumer will persist to DB)
-    public void publishUserUpdateEvent(int userId, UserEntryDTO userEntryDTO) {
-        try {
-            Map<String, Object> eventData = new HashMap<>();
-            eventData.put("userId", userId);
-            eventData.put("userEntryDTO", userEntryDTO);
-            eventData.put("timestamp", System.currentTimeMillis());
-            
-            String message = objectMapper.writeValueAsString(eventData);
-            
-            kafkaTemplate.send("user-update-events", String.valueOf(userId), message);
-            log.info("Published user update event for user ID: {}", userId);
-        } catch (Exception e) {
-            log.error("Error publishing user update event: {}", e.getMessage());
-        }
+    public CompletableFuture<RecordMetadata> publishUserUpdateEvent(int userId, UserEntryDTO userEntryDTO) {
+        return publish(EventType.USER_UPDATE, String.valueOf(userId), userId, userEntryDTO);
     }
 
     // ========== MOVIE EVENTS ==========
-    public void publishMovieCreationEvent(MovieEntryDTO movieEntryDTO) {
-        try {
-            Map<String, Object> eventData = new HashMap<>();
-            eventData.put("movieEntryDTO", movieEntryDTO);
-            eventData.put("timestamp", System.currentTimeMillis());
-            
-            String message = objectMapper.writeValueAsString(eventData);
-            String key = movieEntryDTO.getMovieName() != null ? movieEntryDTO.getMovieName() : "unknown";
-            kafkaTemplate.send("movie-creation-events", key, message);
-            log.info("Published movie creation event for: {}", movieEntryDTO.getMovieName());
-        } catch (Exception e) {
-            log.error("Error publishing movie creation event: {}", e.getMessage());
-        }
+    public CompletableFuture<RecordMetadata> publishMovieCreationEvent(MovieEntryDTO movieEntryDTO) {
+        String key = movieEntryDTO.getMovieName() != null ? movieEntryDTO.getMovieName() : "unknown";
+        return publish(EventType.MOVIE_CREATION, key, null, movieEntryDTO);
     }
 
-    public void publishMovieUpdateEvent(int movieId, MovieEntryDTO movieEntryDTO) {
-        try {
-            Map<String, Object> eventData = new HashMap<>();
-            eventData.put("movieId", movieId);
-            eventData.put("movieEntryDTO", movieEntryDTO);
-            eventData.put("timestamp", System.currentTimeMillis());
-            
-            String message = objectMapper.writeValueAsString(eventData);
-            kafkaTemplate.send("movie-update-events", String.valueOf(movieId), message);
-            log.info("Published movie update event for movie ID: {}", movieId);
-        } catch (Exception e) {
-            log.error("Error publishing movie update event: {}", e.getMessage());
-        }
+    public CompletableFuture<RecordMetadata> publishMovieUpdateEvent(int movieId, MovieEntryDTO movieEntryDTO) {
+        return publish(EventType.MOVIE_UPDATE, String.valueOf(movieId), movieId, movieEntryDTO);
     }
 
-    public void publishMovieDeletionEvent(int movieId) {
-        try {
-            Map<String, Object> eventData = new HashMap<>();
-            eventData.put("movieId", movieId);
-            eventData.put("timestamp", System.currentTimeMillis());
-            
-            String message = objectMapper.writeValueAsString(eventData);
-            kafkaTemplate.send("movie-deletion-events", String.valueOf(movieId), message);
-            log.info("Published movie deletion event for movie ID: {}", movieId);
-        } catch (Exception e) {
-            log.error("Error publishing movie deletion event: {}", e.getMessage());
-        }
+    public CompletableFuture<RecordMetadata> publishMovieDeletionEvent(int movieId) {
+        return publish(EventType.MOVIE_DELETION, String.valueOf(movieId), movieId, null);
     }
 
     // ========== THEATER EVENTS ==========
-    public void publishTheaterCreationEvent(TheaterEntryDTO theaterEntryDTO) {
-        try {
-            Map<String, Object> eventData = new HashMap<>();
-            eventData.put("theaterEntryDTO", theaterEntryDTO);
-            eventData.put("timestamp", System.currentTimeMillis());
-            
-            String message = objectMapper.writeValueAsString(eventData);
-            String key = theaterEntryDTO.getName() != null ? theaterEntryDTO.getName() : "unknown";
-            kafkaTemplate.send("theater-creation-events", key, message);
-            log.info("Published theater creation event for: {}", theaterEntryDTO.getName());
-        } catch (Exception e) {
-            log.error("Error publishing theater creation event: {}", e.getMessage());
-        }
+    public CompletableFuture<RecordMetadata> publishTheaterCreationEvent(TheaterEntryDTO theaterEntryDTO) {
+        String key = theaterEntryDTO.getName() != null ? theaterEntryDTO.getName() : "unknown";
+        return publish(EventType.THEATER_CREATION, key, null, theaterEntryDTO);
     }
 
-    public void publishTheaterUpdateEvent(int theaterId, TheaterEntryDTO theaterEntryDTO) {
-        try {
-            Map<String, Object> eventData = new HashMap<>();
-            eventData.put("theaterId", theaterId);
-            eventData.put("theaterEntryDTO", theaterEntryDTO);
-            eventData.put("timestamp", System.currentTimeMillis());
-            
-            String message = objectMapper.writeValueAsString(eventData);
-            kafkaTemplate.send("theater-update-events", String.valueOf(theaterId), message);
-            log.info("Published theater update event for theater ID: {}", theaterId);
-        } catch (Exception e) {
-            log.error("Error publishing theater update event: {}", e.getMessage());
-        }
+    public CompletableFuture<RecordMetadata> publishTheaterUpdateEvent(int theaterId, TheaterEntryDTO theaterEntryDTO) {
+        return publish(EventType.THEATER_UPDATE, String.valueOf(theaterId), theaterId, theaterEntryDTO);
     }
 
-    public void publishTheaterDeletionEvent(int theaterId) {
-        try {
-            Map<String, Object> eventData = new HashMap<>();
-            eventData.put("theaterId", theaterId);
-            eventData.put("timestamp", System.currentTimeMillis());
-            
-            String message = objectMapper.writeValueAsString(eventData);
-            kafkaTemplate.send("theater-deletion-events", String.valueOf(theaterId), message);
-            log.info("Published theater deletion event for theater ID: {}", theaterId);
-        } catch (Exception e) {
-            log.error("Error publishing theater deletion event: {}", e.getMessage());
-        }
+    public CompletableFuture<RecordMetadata> publishTheaterDeletionEvent(int theaterId) {
+        return publish(EventType.THEATER_DELETION, String.valueOf(theaterId), theaterId, null);
     }
 
     // ========== SHOW EVENTS ==========
-    public void publishShowCreationEvent(ShowEntryDTO showEntryDTO) {
-        try {
-            Map<String, Object> eventData = new HashMap<>();
-            eventData.put("showEntryDTO", showEntryDTO);
-            eventData.put("timestamp", System.currentTimeMillis());
-            
-            String message = objectMapper.writeValueAsString(eventData);
-            String key = showEntryDTO.getMovieId() + "-" + showEntryDTO.getTheaterId();
-            kafkaTemplate.send("show-creation-events", key, message);
-            log.info("Published show creation event for movie ID: {}, theater ID: {}", 
-                    showEntryDTO.getMovieId(), showEntryDTO.getTheaterId());
-        } catch (Exception e) {
-            log.error("Error publishing show creation event: {}", e.getMessage());
-        }
+    public CompletableFuture<RecordMetadata> publishShowCreationEvent(ShowEntryDTO showEntryDTO) {
+        String key = showEntryDTO.getMovieId() + "-" + showEntryDTO.getTheaterId();
+        return publish(EventType.SHOW_CREATION, key, null, showEntryDTO);
     }
 
-    public void publishShowUpdateEvent(int showId, ShowEntryDTO showEntryDTO) {
-        try {
-            Map<String, Object> eventData = new HashMap<>();
-            eventData.put("showId", showId);
-            eventData.put("showEntryDTO", showEntryDTO);
-            eventData.put("timestamp", System.currentTimeMillis());
-            
-            String message = objectMapper.writeValueAsString(eventData);
-            kafkaTemplate.send("show-update-events", String.valueOf(showId), message);
-            log.info("Published show update event for show ID: {}", showId);
-        } catch (Exception e) {
-            log.error("Error publishing show update event: {}", e.getMessage());
-        }
+    public CompletableFuture<RecordMetadata> publishShowUpdateEvent(int showId, ShowEntryDTO showEntryDTO) {
+        return publish(EventType.SHOW_UPDATE, String.valueOf(showId), showId, showEntryDTO);
     }
 
-    public void publishShowDeletionEvent(int showId) {
-        try {
-            Map<String, Object> eventData = new HashMap<>();
-            eventData.put("showId", showId);
-            eventData.put("timestamp", System.currentTimeMillis());
-            
-            String message = objectMapper.writeValueAsString(eventData);
-            kafkaTemplate.send("show-deletion-events", String.valueOf(showId), message);
-            log.info("Published show deletion event for show ID: {}", showId);
-        } catch (Exception e) {
-            log.error("Error publishing show deletion event: {}", e.getMessage());
-        }
+    public CompletableFuture<RecordMetadata> publishShowDeletionEvent(int showId) {
+        return publish(EventType.SHOW_DELETION, String.valueOf(showId), showId, null);
     }
 
     // ========== TICKET EVENTS (for DB persistence) ==========
     // Note: publishTicketBookingEvent and publishTicketCancellationEvent already exist for analytics
     // These new methods are for actual DB operations
     
-    public void publishTicketBookingRequest(TicketEntryDTO ticketEntryDTO, boolean isValidRequest) {
-        try {
-            Map<String, Object> eventData = new HashMap<>();
-            eventData.put("ticketEntryDTO", ticketEntryDTO);
-            eventData.put("isValidRequest", isValidRequest);
-            eventData.put("timestamp", System.currentTimeMillis());
-            
-            String message = objectMapper.writeValueAsString(eventData);
-            String key = ticketEntryDTO.getUserId() + "-" + ticketEntryDTO.getShowId();
-            kafkaTemplate.send("ticket-booking-requests", key, message);
-            log.info("Published ticket booking request for user ID: {}, show ID: {}", 
-                    ticketEntryDTO.getUserId(), ticketEntryDTO.getShowId());
-        } catch (Exception e) {
-            log.error("Error publishing ticket booking request: {}", e.getMessage());
-        }
+    public CompletableFuture<RecordMetadata> publishTicketBookingRequest(TicketEntryDTO ticketEntryDTO, boolean isValidRequest) {
+        String key = ticketEntryDTO.getUserId() + "-" + ticketEntryDTO.getShowId();
+        return publish(EventType.TICKET_BOOKING_REQUEST, key, null, new TicketBookingRequestEvent(ticketEntryDTO, isValidRequest));
     }
 
-    public void publishTicketCancellationRequest(int ticketId) {
-        try {
-            Map<String, Object> eventData = new HashMap<>();
-            eventData.put("ticketId", ticketId);
-            eventData.put("timestamp", System.currentTimeMillis());
-            
-            String message = objectMapper.writeValueAsString(eventData);
-            kafkaTemplate.send("ticket-cancellation-requests", String.valueOf(ticketId), message);
-            log.info("Published ticket cancellation request for ticket ID: {}", ticketId);
-        } catch (Exception e) {
-            log.error("Error publishing ticket cancellation request: {}", e.getMessage());
-        }
+    public void stageTicketBookingRequest(TicketEntryDTO ticketEntryDTO, boolean isValidRequest) {
+        String key = ticketEntryDTO.getUserId() + "-" + ticketEntryDTO.getShowId();
+        stage(EventType.TICKET_BOOKING_REQUEST, key, null, new TicketBookingRequestEvent(ticketEntryDTO, isValidRequest));
+    }
+
+    public CompletableFuture<RecordMetadata> publishTicketCancellationRequest(int ticketId) {
+        return publish(EventType.TICKET_CANCELLATION_REQUEST, String.valueOf(ticketId), ticketId, null);
     }
 
     // ========== PAYMENT EVENTS ==========
     
-    public void publishPaymentRequest(PaymentRequestDTO paymentRequestDTO, String paymentId, String idempotencyKey) {
-        try {
-            Map<String, Object> eventData = new HashMap<>();
-            eventData.put("paymentRequestDTO", paymentRequestDTO);
-            eventData.put("paymentId", paymentId);
-            eventData.put("idempotencyKey", idempotencyKey);
-            eventData.put("timestamp", System.currentTimeMillis());
-            
-            String message = objectMapper.writeValueAsString(eventData);
-            kafkaTemplate.send("payment-requests", idempotencyKey, message);
-            log.info("Published payment request for payment ID: {}, idempotency key: {}", paymentId, idempotencyKey);
-        } catch (Exception e) {
-            log.error("Error publishing payment request: {}", e.getMessage());
-        }
+    // Stage payment request with the transaction that records the PENDING payment
+    public void stagePaymentRequest(PaymentRequestDTO paymentRequestDTO, String paymentId, String idempotencyKey) {
+        stage(EventType.PAYMENT_REQUEST, idempotencyKey, null,
+                new PaymentRequestEvent(paymentId, idempotencyKey, paymentRequestDTO));
     }
 
-    public void publishPaymentResultEvent(com.example.TicketFlix.Models.Payment payment, boolean success) {
-        try {
-            Map<String, Object> eventData = new HashMap<>();
-            eventData.put("paymentId", payment.getPaymentId());
-            eventData.put("idempotencyKey", payment.getIdempotencyKey());
-            eventData.put("status", payment.getStatus().name());
-            eventData.put("amount", payment.getAmount());
-            eventData.put("userId", payment.getUser().getId());
-            eventData.put("ticketId", payment.getTicketId());
-            eventData.put("success", success);
-            eventData.put("timestamp", System.currentTimeMillis());
-            
-            String message = objectMapper.writeValueAsString(eventData);
-            kafkaTemplate.send("payment-result-events", payment.getPaymentId(), message);
-            log.info("Published payment result event for payment ID: {}, status: {}", 
-                    payment.getPaymentId(), payment.getStatus());
-        } catch (Exception e) {
-            log.error("Error publishing payment result event: {}", e.getMessage());
-        }
+    public void stagePaymentResultEvent(com.example.TicketFlix.Models.Payment payment, boolean success) {
+        PaymentResultEvent result = PaymentResultEvent.builder()
+                .paymentId(payment.getPaymentId())
+                .idempotencyKey(payment.getIdempotencyKey())
+                .status(payment.getStatus().name())
+                .amount(payment.getAmount())
+                .userId(payment.getUser().getId())
+                .ticketId(payment.getTicketId())
+                .success(success)
+                .build();
+        stage(EventType.PAYMENT_RESULT, payment.getPaymentId(), null, result);
     }
 
     // ========== SCREEN EVENTS ==========
     
-    public void publishScreenCreationEvent(com.example.TicketFlix.EntryDTOs.ScreenEntryDTO screenEntryDTO) {
-        try {
-            Map<String, Object> eventData = new HashMap<>();
-            eventData.put("screenEntryDTO", screenEntryDTO);
-            eventData.put("timestamp", System.currentTimeMillis());
-            
-            String message = objectMapper.writeValueAsString(eventData);
-            kafkaTemplate.send("screen-creation-events", 
-                    String.valueOf(screenEntryDTO.getTheaterId()), message);
-            log.info("Published screen creation event for theater ID: {}, screen number: {}", 
-                    screenEntryDTO.getTheaterId(), screenEntryDTO.getScreenNumber());
-        } catch (Exception e) {
-            log.error("Error publishing screen creation event: {}", e.getMessage());
-        }
+    public CompletableFuture<RecordMetadata> publishScreenCreationEvent(com.example.TicketFlix.EntryDTOs.ScreenEntryDTO screenEntryDTO) {
+        return publish(EventType.SCREEN_CREATION, String.valueOf(screenEntryDTO.getTheaterId()), null, screenEntryDTO);
     }
 
-    public void publishScreenUpdateEvent(int screenId, com.example.TicketFlix.EntryDTOs.ScreenEntryDTO screenEntryDTO) {
-        try {
-            Map<String, Object> eventData = new HashMap<>();
-            eventData.put("screenId", screenId);
-            eventData.put("screenEntryDTO", screenEntryDTO);
-            eventData.put("timestamp", System.currentTimeMillis());
-            
-            String message = objectMapper.writeValueAsString(eventData);
-            kafkaTemplate.send("screen-update-events", String.valueOf(screenId), message);
-            log.info("Published screen update event for screen ID: {}", screenId);
-        } catch (Exception e) {
-            log.error("Error publishing screen update event: {}", e.getMessage());
-        }
+    public CompletableFuture<RecordMetadata> publishScreenUpdateEvent(int screenId, com.example.TicketFlix.EntryDTOs.ScreenEntryDTO screenEntryDTO) {
+        return publish(EventType.SCREEN_UPDATE, String.valueOf(screenId), screenId, screenEntryDTO);
     }
 
-    public void publishScreenDeletionEvent(int screenId) {
-        try {
-            Map<String, Object> eventData = new HashMap<>();
-            eventData.put("screenId", screenId);
-            eventData.put("timestamp", System.currentTimeMillis());
-            
-            String message = objectMapper.writeValueAsString(eventData);
-            kafkaTemplate.send("screen-deletion-events", String.valueOf(screenId), message);
-            log.info("Published screen deletion event for screen ID: {}", screenId);
-        } catch (Exception e) {
-            log.error("Error publishing screen deletion event: {}", e.getMessage());
-        }
+    public CompletableFuture<RecordMetadata> publishScreenDeletionEvent(int screenId) {
+        return publish(EventType.SCREEN_DELETION, String.valueOf(screenId), screenId, null);
     }
 }
-
@@ -0,0 +1,250 @@
+package com.example.TicketFlix.Kafka;
+
+import com.example.TicketFlix.Events.EventEnvelope;
+import com.example.TicketFlix.Models.OutboxEvent;
+import com.example.TicketFlix.Repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes the outbox (see TransactionalOutbox): every poll-interval it claims up to batch-size unsent
+ * events in a short transaction, sends them all at once through EventPublisher with no transaction open,
+ * and then marks the acknowledged ones as sent, repeating while full batches go out. Events that fail are
+ * retried after an exponential backoff, so a broker outage delays them rather than using up their retries,
+ * and abandoned only once they are older than max-age; events that cannot be decoded are abandoned at once.
+ * Delivery is at least once: an event whose acknowledgement is lost is sent again, and consumers must
+ * tolerate the duplicate.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TransactionalOutbox transactionalOutbox;
+
+    @Autowired
+    private EventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("outboxRelayScheduler")
+    private ThreadPoolTaskScheduler outboxRelayScheduler;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ticketflix.outbox.relay.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ticketflix.outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${ticketflix.outbox.relay.poll-interval:500ms}")
+    private Duration pollInterval;
+
+    // How long a batch waits for the broker before leaving its unacknowledged events for a later batch
+    @Value("${ticketflix.outbox.relay.send-timeout:30s}")
+    private Duration sendTimeout;
+
+    // How long other relays leave claimed events alone; longer than the producer's delivery timeout, so an
+    // event still in flight when send-timeout passed is not sent again meanwhile
+    @Value("${ticketflix.outbox.relay.claim-timeout:3m}")
+    private Duration claimTimeout;
+
+    // Delay before a failed event is retried, doubled with every attempt up to retry-max-backoff
+    @Value("${ticketflix.outbox.relay.retry-backoff:1s}")
+    private Duration retryBackoff;
+
+    @Value("${ticketflix.outbox.relay.retry-max-backoff:5m}")
+    private Duration retryMaxBackoff;
+
+    // How long an event keeps being retried before it is abandoned; outlasts any broker outage worth riding out
+    @Value("${ticketflix.outbox.relay.max-age:24h}")
+    private Duration maxAge;
+
+    @Value("${ticketflix.outbox.retention:7d}")
+    private Duration retention;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        if (!enabled) {
+            log.info("Outbox relay is disabled");
+            return;
+        }
+        outboxRelayScheduler.scheduleWithFixedDelay(this::drain, pollInterval);
+        outboxRelayScheduler.scheduleWithFixedDelay(this::purgeSent, Instant.now().plus(Duration.ofMinutes(1)),
+                Duration.ofHours(1));
+    }
+
+    /**
+     * Relay batches until the outbox has no more than a partial batch left or a send fails
+     */
+    public void drain() {
+        try {
+            while (relayBatch()) {
+                // Keep going while full batches go out
+            }
+        } catch (Exception e) {
+            log.error("Outbox relay failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Relay one batch, returning whether it was a full batch that went out without send failures
+     */
+    boolean relayBatch() {
+        List<OutboxEvent> events = transactionTemplate.execute(status -> claimBatch());
+        if (events == null || events.isEmpty()) {
+            return false;
+        }
+
+        Map<Long, CompletableFuture<RecordMetadata>> deliveries = new LinkedHashMap<>();
+        List<Long> abandoned = new ArrayList<>();
+        for (OutboxEvent event : events) {
+            EventEnvelope<?> envelope;
+            try {
+                envelope = transactionalOutbox.decode(event);
+            } catch (Exception e) {
+                log.error("Cannot decode outbox event {} for {}, abandoning it: {}", event.getId(), event.getTopic(),
+                        e.getMessage());
+                abandoned.add(event.getId());
+                continue;
+            }
+            deliveries.put(event.getId(), eventPublisher.publish(event.getTopic(), event.getMessageKey(), envelope));
+        }
+        awaitDeliveries(deliveries.values());
+
+        Date now = new Date();
+        Date expired = new Date(now.getTime() - maxAge.toMillis());
+        List<Long> acknowledged = new ArrayList<>();
+        Map<Date, List<Long>> retries = new TreeMap<>();
+        int failed = 0;
+        for (OutboxEvent event : events) {
+            CompletableFuture<RecordMetadata> delivery = deliveries.get(event.getId());
+            if (delivery == null) {
+                continue;
+            }
+            if (delivery.isDone() && !delivery.isCompletedExceptionally()) {
+                acknowledged.add(event.getId());
+                continue;
+            }
+            failed++;
+            if (!delivery.isDone()) {
+                // A send still in flight keeps its claim, so it is not sent again before the producer gives up
+                continue;
+            }
+            if (event.getCreatedAt() != null && !event.getCreatedAt().after(expired)) {
+                log.error("Abandoning outbox event {} for {}, still unsent after {} attempts since {}", event.getId(),
+                        event.getTopic(), event.getAttempts(), event.getCreatedAt());
+                abandoned.add(event.getId());
+            } else {
+                retries.computeIfAbsent(new Date(now.getTime() + backoff(event.getAttempts()).toMillis()),
+                        retryAt -> new ArrayList<>()).add(event.getId());
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!acknowledged.isEmpty()) {
+                outboxEventRepository.markSent(acknowledged, now);
+            }
+            if (!abandoned.isEmpty()) {
+                outboxEventRepository.markAbandoned(abandoned, now);
+            }
+            retries.forEach((retryAt, ids) -> outboxEventRepository.release(ids, retryAt));
+        });
+
+        meterRegistry.counter("ticketflix.outbox.relayed", "result", "sent").increment(acknowledged.size());
+        if (!abandoned.isEmpty()) {
+            meterRegistry.counter("ticketflix.outbox.relayed", "result", "abandoned").increment(abandoned.size());
+        }
+        if (failed > 0) {
+            meterRegistry.counter("ticketflix.outbox.relayed", "result", "failed").increment(failed);
+            log.warn("Relayed {} outbox events, {} left for a later batch", acknowledged.size(), failed);
+        } else {
+            log.debug("Relayed {} outbox events", acknowledged.size());
+        }
+        return events.size() == batchSize && failed == 0;
+    }
+
+    /**
+     * Lock the oldest claimable events and claim them for claim-timeout. The claim is written when the
+     * transaction commits and outlives it, so no lock is held while the batch is sent.
+     */
+    private List<OutboxEvent> claimBatch() {
+        Date now = new Date();
+        Date claimedUntil = new Date(now.getTime() + claimTimeout.toMillis());
+        List<OutboxEvent> events = outboxEventRepository.lockClaimable(now, PageRequest.of(0, batchSize));
+        for (OutboxEvent event : events) {
+            event.setClaimedUntil(claimedUntil);
+            event.setAttempts(event.getAttempts() + 1);
+        }
+        return events;
+    }
+
+    /**
+     * retry-backoff doubled for every attempt after the first, capped at retry-max-backoff
+     */
+    private Duration backoff(int attempts) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 30);
+        Duration backoff = retryBackoff.multipliedBy(1L << doublings);
+        return backoff.compareTo(retryMaxBackoff) > 0 ? retryMaxBackoff : backoff;
+    }
+
+    private void awaitDeliveries(Collection<CompletableFuture<RecordMetadata>> deliveries) {
+        try {
+            CompletableFuture.allOf(deliveries.toArray(CompletableFuture<?>[]::new))
+                    .get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            // The caller checks each event's own future for whether it was acknowledged
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Delete events sent longer ago than the retention, which is kept for tracing what was published
+     */
+    public void purgeSent() {
+        try {
+            Date cutoff = Date.from(Instant.now().minus(retention));
+            Integer deleted = transactionTemplate.execute(status -> outboxEventRepository.deleteSentBefore(cutoff));
+            if (deleted != null && deleted > 0) {
+                log.info("Purged {} sent outbox events", deleted);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to purge sent outbox events: {}", e.getMessage());
+        }
+    }
+}
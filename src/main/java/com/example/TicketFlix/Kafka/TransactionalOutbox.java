@@ -0,0 +1,54 @@
+package com.example.TicketFlix.Kafka;
+
+import com.example.TicketFlix.Config.KafkaConfig;
+import com.example.TicketFlix.Events.EventEnvelope;
+import com.example.TicketFlix.Models.OutboxEvent;
+import com.example.TicketFlix.Repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * Events that must not be lost when the transaction that caused them commits. They are stored in the
+ * outbox table as part of that transaction, encoded exactly as they are sent, and OutboxRelay publishes them.
+ */
+@Component
+public class TransactionalOutbox {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+    private EventEnvelopeSerializer serializer;
+    private EventEnvelopeDeserializer deserializer;
+
+    @PostConstruct
+    public void init() {
+        ObjectMapper eventMapper = KafkaConfig.eventMapper(objectMapperBuilder);
+        serializer = new EventEnvelopeSerializer(eventMapper);
+        deserializer = new EventEnvelopeDeserializer(eventMapper);
+    }
+
+    /**
+     * Store an event with the caller's transaction; there must be one, or the event could outlive a rollback
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(String topic, String key, EventEnvelope<?> envelope) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .topic(topic)
+                .messageKey(key)
+                .payload(serializer.serialize(topic, envelope))
+                .build());
+    }
+
+    EventEnvelope<?> decode(OutboxEvent event) {
+        return deserializer.deserialize(event.getTopic(), event.getPayload());
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.TicketFlix.Models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import javax.persistence.*;
+import java.util.Date;
+
+/**
+ * An event written in the same transaction as the change it describes, and published later by OutboxRelay
+ */
+@Entity
+@Table(name = "outbox_events", indexes = @Index(name = "idx_outbox_events_sent_at", columnList = "sent_at, id"))
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Column(nullable = false)
+    private String topic;
+
+    private String messageKey;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] payload; // Smile-encoded EventEnvelope, as it is sent to Kafka
+
+    @CreationTimestamp
+    private Date createdAt;
+
+    @Column(name = "sent_at")
+    private Date sentAt; // Null until the broker has acknowledged the event
+
+    private Date claimedUntil; // Set while a relay is sending the event, or until its next retry; relays skip it until then
+
+    @Column(nullable = false)
+    private int attempts; // Sends claimed so far
+
+    private Date abandonedAt; // Set when the event cannot be decoded or is still unsent after max-age; it is not sent again
+}
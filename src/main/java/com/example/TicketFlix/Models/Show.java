@@ -16,15 +16,21 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "shows")
+@Table(name = "shows", indexes = {
+        // Backs the city/date show search: theater first (resolved from location), then the date range
+        @Index(name = "idx_shows_theater_date_time", columnList = "theater_id, show_date, show_time"),
+        @Index(name = "idx_shows_movie_date", columnList = "movie_id, show_date")
+})
 public class Show {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private int id;
 
+    @Column(name = "show_date")
     private LocalDate showDate;
 
+    @Column(name = "show_time")
     private LocalTime showTime;
 
     @CreationTimestamp
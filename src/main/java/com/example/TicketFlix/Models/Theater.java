@@ -12,7 +12,7 @@ import java.util.List;
 @NoArgsConstructor
 @Builder
 @AllArgsConstructor
-@Table(name = "Theater")
+@Table(name = "Theater", indexes = @Index(name = "idx_theater_location", columnList = "location"))
 public class Theater {
 
     @Id
@@ -1,12 +1,22 @@
 package com.example.TicketFlix.Repository;
 
 import com.example.TicketFlix.Models.Movie;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface MovieRepository extends JpaRepository<Movie, Integer> {
     Optional<Movie> findByMovieName(String movieName);
+
+    @Query("SELECT m.id FROM Movie m ORDER BY m.id")
+    List<Integer> findAllIds();
+
+    @Query("SELECT m.id FROM Movie m WHERE m.id > :afterId ORDER BY m.id")
+    List<Integer> findIdsAfter(@Param("afterId") int afterId, Pageable pageable);
 }
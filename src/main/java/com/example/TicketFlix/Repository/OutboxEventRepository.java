@@ -0,0 +1,51 @@
+package com.example.TicketFlix.Repository;
+
+import com.example.TicketFlix.Models.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Oldest events waiting to be sent, locked until the end of the transaction. Rows another relay has locked
+     * are skipped rather than waited for (FOR UPDATE SKIP LOCKED on MySQL), and rows another relay has claimed
+     * are left to it until the claim expires, so several instances can relay in parallel without sending twice.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2")) // LockOptions.SKIP_LOCKED
+    @Query("SELECT e FROM OutboxEvent e WHERE e.sentAt IS NULL AND e.abandonedAt IS NULL"
+            + " AND (e.claimedUntil IS NULL OR e.claimedUntil < :now) ORDER BY e.id")
+    List<OutboxEvent> lockClaimable(@Param("now") Date now, Pageable pageable);
+
+    /**
+     * Leave events that failed to send alone until retryAt, when any relay may claim them again
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.claimedUntil = :retryAt WHERE e.id IN :ids")
+    int release(@Param("ids") Collection<Long> ids, @Param("retryAt") Date retryAt);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.sentAt = :sentAt WHERE e.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") Date sentAt);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.abandonedAt = :abandonedAt WHERE e.id IN :ids")
+    int markAbandoned(@Param("ids") Collection<Long> ids, @Param("abandonedAt") Date abandonedAt);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") Date cutoff);
+}
@@ -3,6 +3,7 @@ package com.example.TicketFlix.Repository;
 import com.example.TicketFlix.Models.Screen;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,6 +12,9 @@ import java.util.Optional;
 @Repository
 public interface ScreenRepository extends JpaRepository<Screen, Integer> {
     List<Screen> findByTheaterId(int theaterId);
+
+    @Query("SELECT s.id FROM Screen s WHERE s.theater.id = :theaterId ORDER BY s.id")
+    List<Integer> findIdsByTheaterId(@Param("theaterId") int theaterId);
     
     @Query(value = "SELECT s FROM Screen s WHERE s.theater.id = :theaterId AND s.screenNumber = :screenNumber")
     Optional<Screen> findByTheaterIdAndScreenNumber(int theaterId, int screenNumber);
@@ -1,7 +1,95 @@
 package com.example.TicketFlix.Repository;
 
+import com.example.TicketFlix.Genres.Language;
+import com.example.TicketFlix.Genres.ShowType;
 import com.example.TicketFlix.Models.Show;
+import com.example.TicketFlix.Response.ShowSearchResultDTO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
 
 public interface ShowRepository extends JpaRepository<Show,Integer> {
+
+    boolean existsByScreenId(int screenId);
+
+    @Query("SELECT s.id FROM Show s WHERE s.id > :afterId ORDER BY s.id")
+    List<Integer> findIdsAfter(@Param("afterId") int afterId, Pageable pageable);
+
+    @Query("SELECT s.id FROM Show s WHERE s.theater.id = :theaterId ORDER BY s.id")
+    List<Integer> findIdsByTheaterId(@Param("theaterId") int theaterId);
+
+    /**
+     * Shows with everything ShowConvertor reads, in one statement
+     */
+    @Query("SELECT DISTINCT s FROM Show s JOIN FETCH s.movie JOIN FETCH s.theater LEFT JOIN FETCH s.screen " +
+            "LEFT JOIN FETCH s.listOfShowSeats WHERE s.id IN :ids")
+    List<Show> findAllForDtoByIdIn(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * (screenId, showDate, showTime) of every show already scheduled on the given screens in a date range
+     */
+    @Query("SELECT s.screen.id, s.showDate, s.showTime FROM Show s " +
+            "WHERE s.screen.id IN :screenIds AND s.showDate BETWEEN :fromDate AND :toDate")
+    List<Object[]> findScheduledSlots(@Param("screenIds") Collection<Integer> screenIds,
+                                      @Param("fromDate") LocalDate fromDate,
+                                      @Param("toDate") LocalDate toDate);
+
+    /**
+     * (showId, movieId, theaterId, screenId, city, showDate, showTime) of shows in a date range, soonest first
+     */
+    @Query("SELECT s.id, m.id, t.id, sc.id, t.location, s.showDate, s.showTime " +
+            "FROM Show s JOIN s.movie m JOIN s.theater t LEFT JOIN s.screen sc " +
+            "WHERE s.showDate BETWEEN :fromDate AND :toDate ORDER BY s.showDate, s.showTime")
+    List<Object[]> findScheduleBetween(@Param("fromDate") LocalDate fromDate,
+                                       @Param("toDate") LocalDate toDate,
+                                       Pageable pageable);
+
+    String SEARCH_SELECT = "SELECT new com.example.TicketFlix.Response.ShowSearchResultDTO(" +
+            "s.id, s.showDate, s.showTime, s.showType, m.id, m.movieName, m.language, " +
+            "t.id, t.name, t.location, sc.id, sc.name) " +
+            "FROM Show s JOIN s.theater t JOIN s.movie m LEFT JOIN s.screen sc ";
+
+    String SEARCH_FILTERS = "WHERE t.location = :city " +
+            "AND s.showDate BETWEEN :fromDate AND :toDate " +
+            "AND (:movieId IS NULL OR m.id = :movieId) " +
+            "AND (:language IS NULL OR m.language = :language) " +
+            "AND (:showType IS NULL OR s.showType = :showType) ";
+
+    String SEARCH_ORDER = "ORDER BY s.showDate, s.showTime, s.id";
+
+    /**
+     * First page of a show search, ordered by (date, time, id) so it can be continued with keyset paging
+     */
+    @Query(SEARCH_SELECT + SEARCH_FILTERS + SEARCH_ORDER)
+    List<ShowSearchResultDTO> searchShows(@Param("city") String city,
+                                          @Param("fromDate") LocalDate fromDate,
+                                          @Param("toDate") LocalDate toDate,
+                                          @Param("movieId") Integer movieId,
+                                          @Param("language") Language language,
+                                          @Param("showType") ShowType showType,
+                                          Pageable pageable);
+
+    /**
+     * Next page of a show search, starting strictly after the (date, time, id) of the last row already returned
+     */
+    @Query(SEARCH_SELECT + SEARCH_FILTERS +
+            "AND (s.showDate > :afterDate OR (s.showDate = :afterDate AND " +
+            "(s.showTime > :afterTime OR (s.showTime = :afterTime AND s.id > :afterId)))) " +
+            SEARCH_ORDER)
+    List<ShowSearchResultDTO> searchShowsAfter(@Param("city") String city,
+                                               @Param("fromDate") LocalDate fromDate,
+                                               @Param("toDate") LocalDate toDate,
+                                               @Param("movieId") Integer movieId,
+                                               @Param("language") Language language,
+                                               @Param("showType") ShowType showType,
+                                               @Param("afterDate") LocalDate afterDate,
+                                               @Param("afterTime") LocalTime afterTime,
+                                               @Param("afterId") int afterId,
+                                               Pageable pageable);
 }
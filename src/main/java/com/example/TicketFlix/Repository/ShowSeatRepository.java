@@ -0,0 +1,31 @@
+package com.example.TicketFlix.Repository;
+
+import com.example.TicketFlix.Models.ShowSeat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+
+public interface ShowSeatRepository extends JpaRepository<ShowSeat, Integer> {
+
+    /**
+     * Count how many of the given seats are already booked for a show,
+     * without loading the show's seat collection
+     */
+    @Query("SELECT COUNT(ss) FROM ShowSeat ss WHERE ss.show.id = :showId " +
+            "AND ss.seatNumber IN :seatNumbers AND ss.isBooked = true")
+    long countBookedSeats(@Param("showId") int showId, @Param("seatNumbers") Collection<String> seatNumbers);
+
+    /**
+     * Lock the given seats of a show (SELECT ... FOR UPDATE) until the transaction ends, in seat order so
+     * concurrent bookings of overlapping seats cannot deadlock. Every booking takes these, with or without Redis locks.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT ss FROM ShowSeat ss WHERE ss.show.id = :showId AND ss.seatNumber IN :seatNumbers " +
+            "ORDER BY ss.seatNumber")
+    List<ShowSeat> lockSeatsForBooking(@Param("showId") int showId, @Param("seatNumbers") Collection<String> seatNumbers);
+}
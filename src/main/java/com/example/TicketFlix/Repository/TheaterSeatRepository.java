@@ -4,7 +4,11 @@ import com.example.TicketFlix.Models.TheaterSeats;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface TheaterSeatRepository extends JpaRepository<TheaterSeats, Integer> {
 
+    List<TheaterSeats> findByScreenIdIn(Collection<Integer> screenIds);
 }
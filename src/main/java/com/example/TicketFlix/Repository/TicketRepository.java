@@ -1,19 +1,37 @@
 package com.example.TicketFlix.Repository;
 
 import com.example.TicketFlix.Models.Ticket;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface TicketRepository extends JpaRepository<Ticket,Integer> {
     @Query("SELECT t FROM Ticket t WHERE t.user.id = :userId")
     List<Ticket> findByUserId(@Param("userId") int userId);
+
+    @Query("SELECT t FROM Ticket t WHERE t.user.id = :userId ORDER BY t.id DESC")
+    List<Ticket> findByUserId(@Param("userId") int userId, Pageable pageable);
     
     @Query("SELECT t FROM Ticket t WHERE t.show.id = :showId")
     List<Ticket> findByShowId(@Param("showId") int showId);
+
+    @Query("SELECT t.id FROM Ticket t WHERE t.show.id = :showId ORDER BY t.id")
+    List<Integer> findIdsByShowId(@Param("showId") int showId);
+
+    /**
+     * Tickets with their user and show, which TicketConvertor and the cache tags read, in one statement
+     */
+    @Query("SELECT t FROM Ticket t LEFT JOIN FETCH t.user LEFT JOIN FETCH t.show s LEFT JOIN FETCH s.movie " +
+            "LEFT JOIN FETCH s.theater LEFT JOIN FETCH s.screen WHERE t.id IN :ids")
+    List<Ticket> findAllForDtoByIdIn(@Param("ids") Collection<Integer> ids);
     
     Optional<Ticket> findByTicketId(String ticketId);
+
+    @Query("SELECT t.id FROM Ticket t WHERE t.id > :afterId ORDER BY t.id")
+    List<Integer> findIdsAfter(@Param("afterId") int afterId, Pageable pageable);
 }
@@ -2,11 +2,28 @@ package com.example.TicketFlix.Repository;
 
 import com.example.TicketFlix.Models.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface UserRepository extends JpaRepository<User,Integer> {
     Optional<User> findByEmail(String email);
+
+    List<User> findByEmailIn(Collection<String> emails);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    Set<String> findExistingEmails(Collection<String> emails);
+
+    // Compare-and-set, so a rehash never overwrites a password changed in the meantime
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :userId AND u.password = :oldHash")
+    int updatePasswordIfUnchanged(int userId, String oldHash, String newHash);
 }
@@ -11,6 +11,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class AuthResponseDTO {
     private String token;
+    private String refreshToken;
     private String email;
     private int userId;
     private String name;
@@ -0,0 +1,24 @@
+package com.example.TicketFlix.Response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkShowScheduleStatusDTO {
+    private String jobId;
+    private String status; // QUEUED, RUNNING, COMPLETED, FAILED
+    private int requestedShows;
+    private int skippedShows; // Slots that already had a show on that screen
+    private int createdShows;
+    private long createdSeats;
+    private String message;
+    private LocalDateTime submittedAt;
+    private LocalDateTime finishedAt;
+}
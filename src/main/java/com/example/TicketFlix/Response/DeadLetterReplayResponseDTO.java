@@ -0,0 +1,17 @@
+package com.example.TicketFlix.Response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DeadLetterReplayResponseDTO {
+    private String deadLetterTopic;
+    private String targetTopic;
+    private int replayed;
+    private int skipped; // Undecodable records, left in the dead-letter topic
+}
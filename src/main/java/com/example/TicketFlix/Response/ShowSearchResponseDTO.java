@@ -0,0 +1,21 @@
+package com.example.TicketFlix.Response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShowSearchResponseDTO {
+    @Builder.Default
+    private List<ShowSearchResultDTO> shows = new ArrayList<>();
+
+    // Opaque keyset cursor for the next page, null when there are no more results
+    private String nextCursor;
+}
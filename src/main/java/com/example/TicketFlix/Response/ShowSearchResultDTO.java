@@ -0,0 +1,35 @@
+package com.example.TicketFlix.Response;
+
+import com.example.TicketFlix.Genres.Language;
+import com.example.TicketFlix.Genres.ShowType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Flat projection of a show for search results.
+ * Built directly by the JPQL constructor expression in ShowRepository,
+ * so the constructor argument order must match the select list.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShowSearchResultDTO {
+    private int showId;
+    private LocalDate showDate;
+    private LocalTime showTime;
+    private ShowType showType;
+    private int movieId;
+    private String movieName;
+    private Language language;
+    private int theaterId;
+    private String theaterName;
+    private String location;
+    private Integer screenId;
+    private String screenName;
+}
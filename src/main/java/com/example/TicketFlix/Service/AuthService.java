@@ -11,11 +11,13 @@ import com.example.TicketFlix.Response.AuthResponseDTO;
 import com.example.TicketFlix.Validation.PasswordValidator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
 import java.util.Optional;
+import java.util.UUID;
 
 @Service
 @Slf4j
@@ -33,6 +35,15 @@ public class AuthService {
     @Autowired
     private PasswordValidator passwordValidator;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+
     /**
      * Register a new user
      */
@@ -65,13 +76,11 @@ public class AuthService {
 
         user = userRepository.save(user);
 
-        // Generate JWT token
-        String token = jwtService.generateAccessToken(user.getEmail(), user.getId(), user.getRole().name());
+        AuthResponseDTO.AuthResponseDTOBuilder response = startSession(user.getEmail(), user.getId(), user.getRole().name());
 
         log.info("User registered successfully: {}", user.getEmail());
 
-        return AuthResponseDTO.builder()
-                .token(token)
+        return response
                 .email(user.getEmail())
                 .userId(user.getId())
                 .name(user.getName())
@@ -105,13 +114,18 @@ public class AuthService {
             throw AuthenticationException.invalidCredentials();
         }
 
-        // Generate JWT token
-        String token = jwtService.generateAccessToken(user.getEmail(), user.getId(), user.getRole().name());
+        // The configured BCrypt cost went up since this hash was made; the plain password is only available now
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            userRepository.updatePasswordIfUnchanged(user.getId(), user.getPassword(),
+                    passwordEncoder.encode(loginRequestDTO.getPassword()));
+            log.info("Rehashed password of user {} with the current BCrypt cost", user.getId());
+        }
+
+        AuthResponseDTO.AuthResponseDTOBuilder response = startSession(user.getEmail(), user.getId(), user.getRole().name());
 
         log.info("User logged in successfully: {}", user.getEmail());
 
-        return AuthResponseDTO.builder()
-                .token(token)
+        return response
                 .email(user.getEmail())
                 .userId(user.getId())
                 .name(user.getName())
@@ -124,7 +138,84 @@ public class AuthService {
      * Validate JWT token
      */
     public boolean validateToken(String token) {
-        return jwtService.validateToken(token);
+        return jwtService.validateToken(token) && !tokenRevocationService.isRevoked(jwtService.verify(token));
+    }
+
+    /**
+     * Issue an access token and the first refresh token of a new session. Without Redis the session
+     * cannot be tracked, so only the access token is issued and the client logs in again when it expires.
+     */
+    private AuthResponseDTO.AuthResponseDTOBuilder startSession(String email, int userId, String role) {
+        String familyId = UUID.randomUUID().toString();
+        String refreshToken = null;
+        try {
+            refreshToken = refreshTokenService.startFamily(email, userId, familyId);
+        } catch (Exception e) {
+            log.warn("Failed to start refresh token session for user {}: {}", userId, e.getMessage());
+            familyId = null;
+        }
+        return AuthResponseDTO.builder()
+                .token(jwtService.generateAccessToken(email, userId, role, familyId))
+                .refreshToken(refreshToken);
+    }
+
+    /**
+     * Exchange a refresh token for a new access token and the next refresh token of the session.
+     * Costs a Redis round trip and a principal cache lookup instead of a password check.
+     */
+    public AuthResponseDTO refresh(String refreshToken) throws Exception {
+        VerifiedToken presented;
+        try {
+            presented = jwtService.verify(refreshToken);
+        } catch (SecurityException e) {
+            throw new AuthenticationException("Invalid refresh token");
+        }
+        if (!presented.isRefreshToken() || presented.getFamilyId() == null || presented.getUserId() == null
+                || tokenRevocationService.isRevoked(presented)) {
+            throw new AuthenticationException("Invalid refresh token");
+        }
+
+        // Checked before rotating so a deleted or disabled user's session ends instead of living on
+        CustomUserDetailsService.CustomUserPrincipal principal;
+        try {
+            principal = customUserDetailsService.loadPrincipal(presented.getUserId(), presented.getEmail());
+        } catch (UsernameNotFoundException e) {
+            refreshTokenService.revokeFamily(presented.getFamilyId());
+            throw new AuthenticationException(e.getMessage());
+        }
+
+        String nextRefreshToken = refreshTokenService.rotate(presented);
+        return AuthResponseDTO.builder()
+                .token(jwtService.generateAccessToken(principal.getEmail(), principal.getUserId(),
+                        principal.getRole(), presented.getFamilyId()))
+                .refreshToken(nextRefreshToken)
+                .email(principal.getEmail())
+                .userId(principal.getUserId())
+                .name(principal.getName())
+                .role(principal.getRole())
+                .message("Token refreshed")
+                .build();
+    }
+
+    /**
+     * Revoke the presented token, or every token of its user when allDevices is set
+     */
+    public void logout(String token, boolean allDevices) throws AuthenticationException {
+        VerifiedToken verified;
+        try {
+            verified = jwtService.verify(token);
+        } catch (SecurityException e) {
+            throw new AuthenticationException("Invalid token");
+        }
+        if (allDevices && verified.getUserId() != null) {
+            tokenRevocationService.revokeAllForUser(verified.getUserId());
+        } else {
+            tokenRevocationService.revokeToken(verified);
+        }
+        if (verified.getFamilyId() != null) {
+            refreshTokenService.revokeFamily(verified.getFamilyId());
+        }
+        log.info("User {} logged out{}", verified.getEmail(), allDevices ? " from all devices" : "");
     }
 
     /**
@@ -0,0 +1,348 @@
+package com.example.TicketFlix.Service;
+
+import com.example.TicketFlix.Cache.CatalogVersions;
+import com.example.TicketFlix.Cache.ExistenceFilter;
+import com.example.TicketFlix.EntryDTOs.BulkShowScheduleEntryDTO;
+import com.example.TicketFlix.Exception.BusinessException;
+import com.example.TicketFlix.Exception.ResourceNotFoundException;
+import com.example.TicketFlix.Exception.ValidationException;
+import com.example.TicketFlix.Genres.SeatType;
+import com.example.TicketFlix.Models.Movie;
+import com.example.TicketFlix.Models.Screen;
+import com.example.TicketFlix.Models.Show;
+import com.example.TicketFlix.Models.Theater;
+import com.example.TicketFlix.Models.TheaterSeats;
+import com.example.TicketFlix.Repository.MovieRepository;
+import com.example.TicketFlix.Repository.ScreenRepository;
+import com.example.TicketFlix.Repository.ShowRepository;
+import com.example.TicketFlix.Repository.TheaterRepository;
+import com.example.TicketFlix.Repository.TheaterSeatRepository;
+import com.example.TicketFlix.Response.BulkShowScheduleStatusDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.CollectionUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Schedules many shows at once from a recurrence (screens x dates x times).
+ * Entities are validated once up front; the job then runs on a bounded executor, inserting shows
+ * through JPA and their seats with JDBC batch inserts, committing one chunk of shows per transaction.
+ */
+@Service
+@Slf4j
+public class BulkShowScheduleService {
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private TheaterRepository theaterRepository;
+
+    @Autowired
+    private ScreenRepository screenRepository;
+
+    @Autowired
+    private ShowRepository showRepository;
+
+    @Autowired
+    private TheaterSeatRepository theaterSeatRepository;
+
+    @Autowired
+    private ShowService showService;
+
+    @Autowired
+    private ExistenceFilter existenceFilter;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("bulkScheduleExecutor")
+    private ThreadPoolTaskExecutor bulkScheduleExecutor;
+
+    private static final int MAX_SCHEDULE_DAYS = 31;
+    private static final int MAX_SHOWS_PER_REQUEST = 5000;
+    private static final int SHOWS_PER_CHUNK = 50;
+    private static final int JOB_RETENTION_MINUTES = 60;
+
+    private static final String INSERT_SHOW_SEAT_SQL =
+            "INSERT INTO show_seat (price, is_booked, seat_number, seat_type, show_id) VALUES (?, ?, ?, ?, ?)";
+
+    private final Map<String, BulkScheduleJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Validate the schedule and queue it; returns immediately with the job's initial status
+     */
+    public BulkShowScheduleStatusDTO scheduleShows(BulkShowScheduleEntryDTO request)
+            throws ValidationException, ResourceNotFoundException, BusinessException {
+        validateRequest(request);
+
+        Movie movie = movieRepository.findById(request.getMovieId())
+                .orElseThrow(() -> new ResourceNotFoundException("Movie", String.valueOf(request.getMovieId())));
+        Theater theater = theaterRepository.findById(request.getTheaterId())
+                .orElseThrow(() -> new ResourceNotFoundException("Theater", String.valueOf(request.getTheaterId())));
+
+        List<Integer> screenIds = request.getScreenIds().stream().distinct().collect(Collectors.toList());
+        List<Screen> screens = screenRepository.findAllById(screenIds);
+        if (screens.size() != screenIds.size()) {
+            Set<Integer> found = screens.stream().map(Screen::getId).collect(Collectors.toSet());
+            String missing = screenIds.stream().filter(id -> !found.contains(id))
+                    .map(String::valueOf).collect(Collectors.joining(","));
+            throw new ResourceNotFoundException("Screen", missing);
+        }
+        for (Screen screen : screens) {
+            if (screen.getTheater() == null || screen.getTheater().getId() != theater.getId()) {
+                throw new ValidationException("screenIds", "Screen " + screen.getId() + " does not belong to theater " + theater.getId());
+            }
+        }
+
+        List<LocalDate> dates = expandDates(request);
+        if (dates.isEmpty()) {
+            throw new ValidationException("daysOfWeek", "No dates in range match the selected days of week");
+        }
+        List<LocalTime> showTimes = request.getShowTimes().stream().distinct().sorted().collect(Collectors.toList());
+
+        int requestedShows = screenIds.size() * dates.size() * showTimes.size();
+        if (requestedShows > MAX_SHOWS_PER_REQUEST) {
+            throw new ValidationException("Schedule would create " + requestedShows
+                    + " shows, the limit per request is " + MAX_SHOWS_PER_REQUEST);
+        }
+
+        pruneFinishedJobs();
+        BulkScheduleJob job = new BulkScheduleJob(UUID.randomUUID().toString(), requestedShows);
+        jobs.put(job.jobId, job);
+
+        try {
+            bulkScheduleExecutor.execute(() -> runJob(job, request, movie.getId(), theater.getId(), screenIds, dates, showTimes));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.jobId);
+            throw new BusinessException("Too many bulk schedules in progress, please retry later");
+        }
+
+        log.info("Bulk schedule {} queued: movie {}, theater {}, {} screens x {} dates x {} times",
+                job.jobId, movie.getId(), theater.getId(), screenIds.size(), dates.size(), showTimes.size());
+        return job.toStatus();
+    }
+
+    public BulkShowScheduleStatusDTO getJobStatus(String jobId) throws ResourceNotFoundException {
+        BulkScheduleJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Bulk schedule job", jobId);
+        }
+        return job.toStatus();
+    }
+
+    private void runJob(BulkScheduleJob job, BulkShowScheduleEntryDTO request, int movieId, int theaterId,
+                        List<Integer> screenIds, List<LocalDate> dates, List<LocalTime> showTimes) {
+        job.status = "RUNNING";
+        try {
+            // Seat layout for every screen in one query
+            Map<Integer, List<TheaterSeats>> seatsByScreen = theaterSeatRepository.findByScreenIdIn(screenIds).stream()
+                    .collect(Collectors.groupingBy(seat -> seat.getScreen().getId()));
+
+            // Slots already taken on these screens, so re-running a schedule does not double-book a screen
+            Set<String> takenSlots = new HashSet<>();
+            for (Object[] row : showRepository.findScheduledSlots(screenIds, dates.get(0), dates.get(dates.size() - 1))) {
+                takenSlots.add(slotKey((Integer) row[0], (LocalDate) row[1], (LocalTime) row[2]));
+            }
+
+            List<Slot> slots = new ArrayList<>();
+            for (LocalDate date : dates) {
+                for (LocalTime time : showTimes) {
+                    for (Integer screenId : screenIds) {
+                        if (takenSlots.contains(slotKey(screenId, date, time))) {
+                            job.skippedShows.incrementAndGet();
+                        } else {
+                            slots.add(new Slot(screenId, date, time));
+                        }
+                    }
+                }
+            }
+
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            for (int from = 0; from < slots.size(); from += SHOWS_PER_CHUNK) {
+                List<Slot> chunk = slots.subList(from, Math.min(from + SHOWS_PER_CHUNK, slots.size()));
+                Long seats = transactionTemplate.execute(status -> insertChunk(chunk, request, movieId, theaterId, seatsByScreen));
+                job.createdShows.addAndGet(chunk.size());
+                job.createdSeats.addAndGet(seats != null ? seats : 0);
+            }
+
+            job.finish("COMPLETED", "Created " + job.createdShows.get() + " shows, skipped "
+                    + job.skippedShows.get() + " already scheduled");
+            log.info("Bulk schedule {} completed: {} shows, {} seats, {} skipped",
+                    job.jobId, job.createdShows.get(), job.createdSeats.get(), job.skippedShows.get());
+        } catch (Exception e) {
+            job.finish("FAILED", "Failed after " + job.createdShows.get() + " shows: " + e.getMessage());
+            log.error("Bulk schedule {} failed", job.jobId, e);
+        }
+
+        // Committed chunks are visible even when a later chunk fails
+        if (job.createdShows.get() > 0) {
+            showService.invalidateSearchCache();
+            catalogVersions.bump(CatalogVersions.SHOWS);
+        }
+    }
+
+    private long insertChunk(List<Slot> chunk, BulkShowScheduleEntryDTO request, int movieId, int theaterId,
+                             Map<Integer, List<TheaterSeats>> seatsByScreen) {
+        Movie movie = movieRepository.getReferenceById(movieId);
+        Theater theater = theaterRepository.getReferenceById(theaterId);
+
+        List<Show> shows = new ArrayList<>(chunk.size());
+        for (Slot slot : chunk) {
+            shows.add(Show.builder()
+                    .showDate(slot.date)
+                    .showTime(slot.time)
+                    .showType(request.getShowType())
+                    .movie(movie)
+                    .theater(theater)
+                    .screen(screenRepository.getReferenceById(slot.screenId))
+                    .build());
+        }
+        shows = showRepository.saveAll(shows);
+        showRepository.flush();
+        existenceFilter.recordCreated(ExistenceFilter.SHOW, shows.stream().map(Show::getId).collect(Collectors.toList()));
+
+        // Seats are inserted set-based rather than cascaded one entity at a time
+        List<Object[]> seatRows = new ArrayList<>();
+        for (int i = 0; i < shows.size(); i++) {
+            int showId = shows.get(i).getId();
+            for (TheaterSeats seat : seatsByScreen.getOrDefault(chunk.get(i).screenId, Collections.emptyList())) {
+                int price = seat.getSeatType() == SeatType.CLASSIC ? request.getClassSeatPrice() : request.getPremiumSeatPrice();
+                seatRows.add(new Object[]{price, false, seat.getSeatNumber(), seat.getSeatType().name(), showId});
+            }
+        }
+        if (!seatRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SHOW_SEAT_SQL, seatRows);
+        }
+        return seatRows.size();
+    }
+
+    private void validateRequest(BulkShowScheduleEntryDTO request) throws ValidationException {
+        if (request == null) {
+            throw new ValidationException("Bulk schedule request is required");
+        }
+        if (request.getMovieId() <= 0) {
+            throw new ValidationException("movieId", "Valid movie ID is required");
+        }
+        if (request.getTheaterId() <= 0) {
+            throw new ValidationException("theaterId", "Valid theater ID is required");
+        }
+        if (CollectionUtils.isEmpty(request.getScreenIds()) || request.getScreenIds().stream().anyMatch(Objects::isNull)) {
+            throw new ValidationException("screenIds", "At least one screen is required");
+        }
+        if (CollectionUtils.isEmpty(request.getShowTimes()) || request.getShowTimes().stream().anyMatch(Objects::isNull)) {
+            throw new ValidationException("showTimes", "At least one show time is required");
+        }
+        if (request.getShowType() == null) {
+            throw new ValidationException("showType", "Show type is required");
+        }
+        if (request.getClassSeatPrice() <= 0 || request.getPremiumSeatPrice() <= 0) {
+            throw new ValidationException("price", "Seat prices must be positive");
+        }
+        if (request.getStartDate() == null) {
+            throw new ValidationException("startDate", "Start date is required");
+        }
+        if (request.getStartDate().isBefore(LocalDate.now())) {
+            throw new ValidationException("startDate", "Start date cannot be in the past");
+        }
+        LocalDate endDate = request.getEndDate() != null ? request.getEndDate() : request.getStartDate();
+        if (endDate.isBefore(request.getStartDate())) {
+            throw new ValidationException("endDate", "End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(request.getStartDate(), endDate) >= MAX_SCHEDULE_DAYS) {
+            throw new ValidationException("endDate", "Schedule cannot span more than " + MAX_SCHEDULE_DAYS + " days");
+        }
+    }
+
+    private List<LocalDate> expandDates(BulkShowScheduleEntryDTO request) {
+        LocalDate endDate = request.getEndDate() != null ? request.getEndDate() : request.getStartDate();
+        List<LocalDate> dates = new ArrayList<>();
+        for (LocalDate date = request.getStartDate(); !date.isAfter(endDate); date = date.plusDays(1)) {
+            if (CollectionUtils.isEmpty(request.getDaysOfWeek()) || request.getDaysOfWeek().contains(date.getDayOfWeek())) {
+                dates.add(date);
+            }
+        }
+        return dates;
+    }
+
+    private void pruneFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(JOB_RETENTION_MINUTES);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private static String slotKey(int screenId, LocalDate date, LocalTime time) {
+        return screenId + "|" + date + "|" + time;
+    }
+
+    private static class Slot {
+        private final int screenId;
+        private final LocalDate date;
+        private final LocalTime time;
+
+        private Slot(int screenId, LocalDate date, LocalTime time) {
+            this.screenId = screenId;
+            this.date = date;
+            this.time = time;
+        }
+    }
+
+    private static class BulkScheduleJob {
+        private final String jobId;
+        private final int requestedShows;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final AtomicInteger skippedShows = new AtomicInteger();
+        private final AtomicInteger createdShows = new AtomicInteger();
+        private final AtomicLong createdSeats = new AtomicLong();
+        private volatile String status = "QUEUED";
+        private volatile String message;
+        private volatile LocalDateTime finishedAt;
+
+        private BulkScheduleJob(String jobId, int requestedShows) {
+            this.jobId = jobId;
+            this.requestedShows = requestedShows;
+        }
+
+        private void finish(String status, String message) {
+            this.message = message;
+            this.finishedAt = LocalDateTime.now();
+            this.status = status;
+        }
+
+        private BulkShowScheduleStatusDTO toStatus() {
+            return BulkShowScheduleStatusDTO.builder()
+                    .jobId(jobId)
+                    .status(status)
+                    .requestedShows(requestedShows)
+                    .skippedShows(skippedShows.get())
+                    .createdShows(createdShows.get())
+                    .createdSeats(createdSeats.get())
+                    .message(message)
+                    .submittedAt(submittedAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+    }
+}
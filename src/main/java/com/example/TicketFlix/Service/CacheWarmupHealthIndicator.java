@@ -0,0 +1,30 @@
+package com.example.TicketFlix.Service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * "cacheWarmup" health component, part of the readiness group: OUT_OF_SERVICE while the startup
+ * warm-up is pending or running, UP once it has completed, timed out, failed or is disabled.
+ */
+@Component
+public class CacheWarmupHealthIndicator implements HealthIndicator {
+
+    @Autowired
+    private CacheWarmupService cacheWarmupService;
+
+    @Override
+    public Health health() {
+        CacheWarmupService.State state = cacheWarmupService.getState();
+        Health.Builder builder = state == CacheWarmupService.State.PENDING || state == CacheWarmupService.State.RUNNING
+                ? Health.outOfService()
+                : Health.up();
+        return builder
+                .withDetail("state", state)
+                .withDetail("loaded", cacheWarmupService.getLoaded())
+                .withDetail("failed", cacheWarmupService.getFailed())
+                .build();
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.TicketFlix.Service;
+
+import com.example.TicketFlix.Cache.CacheLoader;
+import com.example.TicketFlix.Repository.ShowRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Preloads the caches after startup so a fresh node does not send its first minutes of traffic to MySQL.
+ * The plan is every show starting within the horizon, the movies, theaters and screens they reference,
+ * and the first search page for each (city, date). Entries go through the normal cached getters, so
+ * anything another node already put in Redis is only copied into L1 and costs no query. The warm-up
+ * executor's pool size bounds concurrent loads; CacheWarmupHealthIndicator keeps the node out of
+ * readiness until the plan completes or the timeout passes.
+ */
+@Service
+@Slf4j
+public class CacheWarmupService {
+
+    public enum State { PENDING, RUNNING, COMPLETED, TIMED_OUT, FAILED, DISABLED }
+
+    @Autowired
+    private ShowRepository showRepository;
+
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private TheaterService theaterService;
+
+    @Autowired
+    private ScreenService screenService;
+
+    @Autowired
+    private ShowService showService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("cacheWarmupExecutor")
+    private ThreadPoolTaskExecutor cacheWarmupExecutor;
+
+    @Value("${ticketflix.cache.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ticketflix.cache.warmup.horizon:48h}")
+    private Duration horizon;
+
+    @Value("${ticketflix.cache.warmup.max-shows:5000}")
+    private int maxShows;
+
+    @Value("${ticketflix.cache.warmup.timeout:2m}")
+    private Duration timeout;
+
+    private volatile State state = State.PENDING;
+    private volatile boolean stopped;
+    private final AtomicInteger loaded = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            state = State.DISABLED;
+            return;
+        }
+        warmUp();
+    }
+
+    public CompletableFuture<Void> warmUp() {
+        state = State.RUNNING;
+        long start = System.nanoTime();
+        return CompletableFuture.supplyAsync(this::plan, cacheWarmupExecutor)
+                .thenCompose(tasks -> CompletableFuture.allOf(tasks.stream()
+                        .map(task -> CompletableFuture.runAsync(() -> run(task), cacheWarmupExecutor))
+                        .toArray(CompletableFuture[]::new)))
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((ignored, error) -> finish(error, System.nanoTime() - start));
+    }
+
+    List<CacheLoader<?>> plan() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(horizon);
+        List<Object[]> schedule = showRepository.findScheduleBetween(now.toLocalDate(), until.toLocalDate(),
+                PageRequest.of(0, maxShows));
+
+        Set<Integer> movieIds = new LinkedHashSet<>();
+        Set<Integer> theaterIds = new LinkedHashSet<>();
+        Set<Integer> screenIds = new LinkedHashSet<>();
+        List<Integer> showIds = new ArrayList<>();
+        Set<Map.Entry<String, LocalDate>> searches = new LinkedHashSet<>();
+        for (Object[] row : schedule) {
+            LocalDateTime startsAt = LocalDateTime.of((LocalDate) row[5], (LocalTime) row[6]);
+            if (startsAt.isBefore(now) || startsAt.isAfter(until)) {
+                continue;
+            }
+            showIds.add((Integer) row[0]);
+            movieIds.add((Integer) row[1]);
+            theaterIds.add((Integer) row[2]);
+            if (row[3] != null) {
+                screenIds.add((Integer) row[3]);
+            }
+            searches.add(Map.entry((String) row[4], (LocalDate) row[5]));
+        }
+
+        // Reference data first, so show and search loads find it cached
+        List<CacheLoader<?>> tasks = new ArrayList<>();
+        movieIds.forEach(id -> tasks.add(() -> movieService.getMovieById(id)));
+        theaterIds.forEach(id -> tasks.add(() -> theaterService.getTheaterById(id)));
+        screenIds.forEach(id -> tasks.add(() -> screenService.getScreenById(id)));
+        showIds.forEach(id -> tasks.add(() -> showService.getShowById(id)));
+        searches.forEach(search -> tasks.add(() -> showService.searchShows(search.getKey(), search.getValue(),
+                search.getValue(), null, null, null, null, null)));
+        log.info("Cache warm-up planned: {} shows, {} movies, {} theaters, {} screens, {} search pages",
+                showIds.size(), movieIds.size(), theaterIds.size(), screenIds.size(), searches.size());
+        return tasks;
+    }
+
+    private void run(CacheLoader<?> task) {
+        // After a timeout the node is already serving traffic; queued loads would only add database load
+        if (stopped) {
+            return;
+        }
+        try {
+            task.load();
+            loaded.incrementAndGet();
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            log.debug("Cache warm-up load failed: {}", e.getMessage());
+        }
+    }
+
+    private void finish(Throwable error, long elapsedNanos) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause == null) {
+            state = State.COMPLETED;
+        } else if (cause instanceof TimeoutException) {
+            stopped = true;
+            state = State.TIMED_OUT;
+        } else {
+            state = State.FAILED;
+            log.warn("Cache warm-up failed, serving with cold caches: {}", cause.getMessage());
+        }
+        meterRegistry.timer("ticketflix.cache.warmup", "result", state.name().toLowerCase())
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        log.info("Cache warm-up {} after {} ms: {} loaded, {} failed", state, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                loaded.get(), failed.get());
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public int getLoaded() {
+        return loaded.get();
+    }
+
+    public int getFailed() {
+        return failed.get();
+    }
+}
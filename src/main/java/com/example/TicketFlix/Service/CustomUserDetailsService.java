@@ -1,9 +1,16 @@
 package com.example.TicketFlix.Service;
 
+import com.example.TicketFlix.Cache.SingleFlightLoader;
+import com.example.TicketFlix.Cache.TwoLevelCache;
 import com.example.TicketFlix.Models.User;
 import com.example.TicketFlix.Repository.UserRepository;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -11,20 +18,35 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Optional;
 
 /**
- * Custom UserDetailsService implementation for Spring Security
+ * Custom UserDetailsService implementation for Spring Security.
+ * Login goes through loadUserByUsername; authenticated requests use loadPrincipal, which serves the
+ * principal from the "principal" cache keyed by user id. Cached principals carry no password hash and
+ * are evicted by the user update and deletion consumers.
  */
 @Service
 @Slf4j
 public class CustomUserDetailsService implements UserDetailsService {
 
+    public static final String PRINCIPAL_CACHE = "principal";
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private SingleFlightLoader singleFlightLoader;
+
+    @Autowired
+    private TwoLevelCache twoLevelCache;
+
+    @Value("${ticketflix.cache.principal.ttl:15m}")
+    private Duration principalTtl;
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         log.debug("Loading user by email: {}", email);
@@ -47,30 +69,98 @@ public class CustomUserDetailsService implements UserDetailsService {
     }
 
     /**
-     * Custom UserPrincipal implementation
+     * Principal for an authenticated request, given the userId and subject claims of its token.
+     * A cached principal whose email differs from the token's is reloaded once before the token is rejected.
+     */
+    public CustomUserPrincipal loadPrincipal(int userId, String email) throws Exception {
+        String key = principalKey(userId);
+        CustomUserPrincipal principal = singleFlightLoader.load(PRINCIPAL_CACHE, key, CustomUserPrincipal.class,
+                principalTtl, () -> loadPrincipalFromDatabase(userId));
+        if (!principal.getEmail().equals(email)) {
+            principal = loadPrincipalFromDatabase(userId);
+            twoLevelCache.put(PRINCIPAL_CACHE, key, principal, principalTtl);
+            if (!principal.getEmail().equals(email)) {
+                throw new UsernameNotFoundException("Token subject does not match user: " + userId);
+            }
+        }
+        if (!principal.isEnabled()) {
+            throw new UsernameNotFoundException("User account is disabled");
+        }
+        return principal;
+    }
+
+    /**
+     * Drop the cached principal on every node, after the user is changed or deleted
+     */
+    public void evictPrincipal(int userId) {
+        twoLevelCache.evict(PRINCIPAL_CACHE, principalKey(userId));
+    }
+
+    private CustomUserPrincipal loadPrincipalFromDatabase(int userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + userId));
+        return CustomUserPrincipal.withoutPassword(user);
+    }
+
+    private static String principalKey(int userId) {
+        return PRINCIPAL_CACHE + "::" + userId;
+    }
+
+    /**
+     * Custom UserPrincipal implementation: a snapshot of the user, so it can be cached and shared across requests
      */
+    @JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY,
+            getterVisibility = JsonAutoDetect.Visibility.NONE,
+            isGetterVisibility = JsonAutoDetect.Visibility.NONE)
     public static class CustomUserPrincipal implements UserDetails {
-        private final User user;
+        private final Integer userId;
+        private final String name;
+        private final String email;
+        private final String role;
+        private final boolean enabled;
+
+        @JsonIgnore
+        private final String password;
 
         public CustomUserPrincipal(User user) {
-            this.user = user;
+            this(user.getId(), user.getName(), user.getEmail(), user.getRole().name(), user.isEnabled(), user.getPassword());
+        }
+
+        @JsonCreator
+        public CustomUserPrincipal(@JsonProperty("userId") Integer userId, @JsonProperty("name") String name,
+                                   @JsonProperty("email") String email, @JsonProperty("role") String role,
+                                   @JsonProperty("enabled") boolean enabled) {
+            this(userId, name, email, role, enabled, null);
+        }
+
+        private CustomUserPrincipal(Integer userId, String name, String email, String role, boolean enabled, String password) {
+            this.userId = userId;
+            this.name = name;
+            this.email = email;
+            this.role = role;
+            this.enabled = enabled;
+            this.password = password;
+        }
+
+        static CustomUserPrincipal withoutPassword(User user) {
+            return new CustomUserPrincipal(user.getId(), user.getName(), user.getEmail(), user.getRole().name(), user.isEnabled());
         }
 
         @Override
         public Collection<? extends GrantedAuthority> getAuthorities() {
             Collection<GrantedAuthority> authorities = new ArrayList<>();
-            authorities.add(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + role));
             return authorities;
         }
 
         @Override
         public String getPassword() {
-            return user.getPassword();
+            return password;
         }
 
         @Override
         public String getUsername() {
-            return user.getEmail();
+            return email;
         }
 
         @Override
@@ -90,27 +180,23 @@ public class CustomUserDetailsService implements UserDetailsService {
 
         @Override
         public boolean isEnabled() {
-            return user.isEnabled();
-        }
-
-        public User getUser() {
-            return user;
+            return enabled;
         }
 
         public Integer getUserId() {
-            return user.getId();
+            return userId;
         }
 
         public String getName() {
-            return user.getName();
+            return name;
         }
 
         public String getEmail() {
-            return user.getEmail();
+            return email;
         }
 
         public String getRole() {
-            return user.getRole().name();
+            return role;
         }
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,10 @@
 package com.example.TicketFlix.Service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -9,20 +13,30 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 /**
- * Improved JWT service with better security practices
+ * Improved JWT service with better security practices.
+ * The signing key and parser are built once. verify() parses a token exactly once into a VerifiedToken
+ * and remembers it, keyed by the token's SHA-256, until the token expires, so a client reusing its token
+ * is not re-verified on every request. The extract and validate helpers all go through verify().
  */
 @Service
 @Slf4j
 public class JwtService {
 
+    private static final String ISSUED_AT_MILLIS_CLAIM = "iatMs";
+
     @Value("${jwt.secret:}")
     private String secretKey;
 
@@ -32,7 +46,59 @@ public class JwtService {
     @Value("${jwt.refresh.expiration:604800000}") // 7 days
     private Long refreshExpiration;
 
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private long verifiedCacheMaxSize;
+
+    // Published last by initialize(), so a non-null key means the parser and cache are ready too
+    private volatile SecretKey signingKey;
+    private JwtParser parser;
+    private Cache<String, VerifiedToken> verifiedTokens;
+
     private SecretKey getSigningKey() {
+        if (signingKey == null) {
+            initialize();
+        }
+        return signingKey;
+    }
+
+    /**
+     * Build the key, parser and verified-token cache once. Lazy rather than @PostConstruct so the
+     * service also works when constructed directly.
+     */
+    private synchronized void initialize() {
+        if (signingKey != null) {
+            return;
+        }
+        SecretKey key = buildSigningKey();
+        parser = Jwts.parserBuilder().setSigningKey(key).build();
+        if (verifiedCacheMaxSize > 0) {
+            verifiedTokens = Caffeine.newBuilder()
+                    .maximumSize(verifiedCacheMaxSize)
+                    .expireAfter(new Expiry<String, VerifiedToken>() {
+                        @Override
+                        public long expireAfterCreate(String tokenHash, VerifiedToken token, long currentTime) {
+                            long remainingMillis = token.getExpiration().getTime() - System.currentTimeMillis();
+                            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+                        }
+
+                        @Override
+                        public long expireAfterUpdate(String tokenHash, VerifiedToken token, long currentTime,
+                                                      long currentDuration) {
+                            return currentDuration;
+                        }
+
+                        @Override
+                        public long expireAfterRead(String tokenHash, VerifiedToken token, long currentTime,
+                                                    long currentDuration) {
+                            return currentDuration;
+                        }
+                    })
+                    .build();
+        }
+        signingKey = key;
+    }
+
+    private SecretKey buildSigningKey() {
         if (secretKey == null || secretKey.trim().isEmpty()) {
             // Generate a secure random key if none provided
             byte[] keyBytes = new byte[64]; // 512 bits
@@ -46,51 +112,106 @@ public class JwtService {
     }
 
     public String generateAccessToken(String email, int userId, String role) {
+        return generateAccessToken(email, userId, role, null);
+    }
+
+    /**
+     * Access token for a session whose refresh tokens belong to familyId, so logout can end the whole session
+     */
+    public String generateAccessToken(String email, int userId, String role, String familyId) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
         claims.put("role", role);
         claims.put("type", "ACCESS");
-        return createToken(claims, email, expiration);
+        if (familyId != null) {
+            claims.put("fam", familyId);
+        }
+        return createToken(claims, email, expiration, UUID.randomUUID().toString());
     }
 
     public String generateRefreshToken(String email, int userId) {
+        return generateRefreshToken(email, userId, UUID.randomUUID().toString(), UUID.randomUUID().toString());
+    }
+
+    /**
+     * Refresh token with a caller-chosen id, so RefreshTokenService can record it as its family's current token
+     */
+    public String generateRefreshToken(String email, int userId, String familyId, String tokenId) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
         claims.put("type", "REFRESH");
-        return createToken(claims, email, refreshExpiration);
+        claims.put("fam", familyId);
+        return createToken(claims, email, refreshExpiration, tokenId);
+    }
+
+    public long getRefreshExpirationMillis() {
+        return refreshExpiration;
     }
 
-    private String createToken(Map<String, Object> claims, String subject, Long validity) {
+    private String createToken(Map<String, Object> claims, String subject, Long validity, String tokenId) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(tokenId)
                 .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + validity))
+                .setIssuedAt(new Date(now))
+                // iat has whole seconds only; TokenRevocationService compares issue times to the millisecond
+                .claim(ISSUED_AT_MILLIS_CLAIM, now)
+                .setExpiration(new Date(now + validity))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS512)
                 .compact();
     }
 
+    /**
+     * Check the token's signature and expiry, parsing it at most once while it stays in the verified cache.
+     * Throws SecurityException if the token is malformed, forged or expired.
+     */
+    public VerifiedToken verify(String token) {
+        getSigningKey();
+        Cache<String, VerifiedToken> cache = verifiedTokens;
+        String cacheKey = null;
+        if (cache != null) {
+            cacheKey = sha256(token);
+            VerifiedToken cached = cache.getIfPresent(cacheKey);
+            if (cached != null && !cached.isExpired()) {
+                return cached;
+            }
+        }
+
+        Claims claims = extractAllClaims(token);
+        VerifiedToken verified = new VerifiedToken(claims.getId(), claims.getSubject(),
+                claims.get("userId", Integer.class), claims.get("role", String.class), claims.get("type", String.class),
+                claims.get("fam", String.class), issuedAt(claims), claims.getExpiration());
+        if (cache != null && verified.getExpiration() != null) {
+            cache.put(cacheKey, verified);
+        }
+        return verified;
+    }
+
+    // Tokens issued before the millisecond claim was added fall back to iat
+    private static Date issuedAt(Claims claims) {
+        Long issuedAtMillis = claims.get(ISSUED_AT_MILLIS_CLAIM, Long.class);
+        return issuedAtMillis != null ? new Date(issuedAtMillis) : claims.getIssuedAt();
+    }
+
     public String extractEmail(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).getEmail();
     }
 
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return verify(token).getExpiration();
     }
 
     public Integer extractUserId(String token) {
-        Claims claims = extractAllClaims(token);
-        return claims.get("userId", Integer.class);
+        return verify(token).getUserId();
     }
 
     public String extractRole(String token) {
-        Claims claims = extractAllClaims(token);
-        return claims.get("role", String.class);
+        return verify(token).getRole();
     }
 
     public String extractTokenType(String token) {
-        Claims claims = extractAllClaims(token);
-        return claims.get("type", String.class);
+        return verify(token).getType();
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -100,9 +221,8 @@ public class JwtService {
 
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
+            getSigningKey();
+            return parser
                     .parseClaimsJws(token)
                     .getBody();
         } catch (Exception e) {
@@ -111,17 +231,18 @@ public class JwtService {
         }
     }
 
-    private Boolean isTokenExpired(String token) {
+    private static String sha256(String token) {
         try {
-            return extractExpiration(token).before(new Date());
-        } catch (Exception e) {
-            return true; // Consider expired if we can't parse
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
 
     public Boolean validateToken(String token) {
         try {
-            return !isTokenExpired(token);
+            return !verify(token).isExpired();
         } catch (Exception e) {
             log.error("Error validating token: {}", e.getMessage());
             return false;
@@ -130,8 +251,8 @@ public class JwtService {
 
     public Boolean validateAccessToken(String token) {
         try {
-            String tokenType = extractTokenType(token);
-            return "ACCESS".equals(tokenType) && !isTokenExpired(token);
+            VerifiedToken verified = verify(token);
+            return verified.isAccessToken() && !verified.isExpired();
         } catch (Exception e) {
             log.error("Error validating access token: {}", e.getMessage());
             return false;
@@ -140,8 +261,8 @@ public class JwtService {
 
     public Boolean validateRefreshToken(String token) {
         try {
-            String tokenType = extractTokenType(token);
-            return "REFRESH".equals(tokenType) && !isTokenExpired(token);
+            VerifiedToken verified = verify(token);
+            return verified.isRefreshToken() && !verified.isExpired();
         } catch (Exception e) {
             log.error("Error validating refresh token: {}", e.getMessage());
             return false;
@@ -150,8 +271,8 @@ public class JwtService {
 
     public Boolean validateToken(String token, String email) {
         try {
-            final String tokenEmail = extractEmail(token);
-            return (tokenEmail.equals(email) && !isTokenExpired(token));
+            VerifiedToken verified = verify(token);
+            return (verified.getEmail().equals(email) && !verified.isExpired());
         } catch (Exception e) {
             log.error("Error validating token for email {}: {}", email, e.getMessage());
             return false;
@@ -1,15 +1,19 @@
 package com.example.TicketFlix.Service;
 
+import com.example.TicketFlix.Events.EmailNotificationEvent;
 import com.example.TicketFlix.Models.Ticket;
 import com.example.TicketFlix.Models.User;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
 import javax.mail.MessagingException;
 import javax.mail.internet.MimeMessage;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 @Slf4j
@@ -32,6 +36,42 @@ public class MailService {
         log.info("Email sent successfully to: {}", to);
     }
 
+    /**
+     * Send a batch of notifications over one SMTP connection. Mails that cannot be sent are logged
+     * and returned rather than failing the rest.
+     */
+    public List<EmailNotificationEvent> sendSimpleMails(List<EmailNotificationEvent> notifications) throws MessagingException {
+        MimeMessage[] mimeMessages = new MimeMessage[notifications.size()];
+        for (int i = 0; i < notifications.size(); i++) {
+            EmailNotificationEvent notification = notifications.get(i);
+            mimeMessages[i] = javaMailSender.createMimeMessage();
+            MimeMessageHelper mimeMessageHelper = new MimeMessageHelper(mimeMessages[i], true);
+            mimeMessageHelper.setFrom("azmaan000@gmail.com");
+            mimeMessageHelper.setTo(notification.getEmail());
+            mimeMessageHelper.setText(notification.getBody());
+            mimeMessageHelper.setSubject(notification.getSubject());
+        }
+        try {
+            javaMailSender.send(mimeMessages);
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                log.error("Failed to send {} emails: {}", mimeMessages.length, e.getMessage());
+                return notifications;
+            }
+            List<EmailNotificationEvent> failed = new ArrayList<>();
+            for (int i = 0; i < mimeMessages.length; i++) {
+                Exception failure = e.getFailedMessages().get(mimeMessages[i]);
+                if (failure != null) {
+                    log.error("Failed to send email to {}: {}", notifications.get(i).getEmail(), failure.getMessage());
+                    failed.add(notifications.get(i));
+                }
+            }
+            return failed;
+        }
+        log.info("Sent {} emails", mimeMessages.length);
+        return List.of();
+    }
+
     public String sendMail(User user, Ticket ticket, String allottedSeats) throws MessagingException {
         String body = "Hi, " + user.getName() + "\n\nThis is to confirm your ticket booking for the movie:- " + ticket.getMovieName()
                 + "\nTicket id - " + ticket.getTicketId() + "\nBooked Seats - " + allottedSeats + "\nAmount of rupees - "
@@ -1,5 +1,7 @@
 package com.example.TicketFlix.Service;
 
+import com.example.TicketFlix.Cache.ExistenceFilter;
+import com.example.TicketFlix.Cache.SingleFlightLoader;
 import com.example.TicketFlix.Convertors.MovieConvertor;
 import com.example.TicketFlix.EntryDTOs.MovieEntryDTO;
 import com.example.TicketFlix.Kafka.KafkaProducerService;
@@ -7,12 +9,13 @@ import com.example.TicketFlix.Models.Movie;
 import com.example.TicketFlix.Repository.MovieRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -25,11 +28,15 @@ public class MovieService {
     RedisService redisService;
 
     @Autowired
-    RedisTemplate<String, String> redisTemplate;
+    SingleFlightLoader singleFlightLoader;
+
+    @Autowired
+    ExistenceFilter existenceFilter;
 
     @Autowired
     KafkaProducerService kafkaProducerService;
 
+    private static final String MOVIE_CACHE = "movie";
     private static final String MOVIE_CACHE_KEY = "movie::";
     private static final int CACHE_TTL_HOURS = 24;
 
@@ -70,40 +77,32 @@ public class MovieService {
         return "Movie deletion request submitted successfully";
     }
 
+    /**
+     * Ids come from the database so the list is always current; the DTOs come from the per-movie cache,
+     * with misses loaded in one IN query
+     */
+    @Transactional(readOnly = true)
     public List<MovieEntryDTO> getAllMovies() throws Exception {
-        List<Movie> movies = movieRepository.findAll();
-        // Optimized: Use Stream API for cleaner code
-        return movies.stream()
-                .map(MovieConvertor::convertEntityToDto)
-                .collect(java.util.stream.Collectors.toList());
+        return singleFlightLoader.loadAll(MOVIE_CACHE, MOVIE_CACHE_KEY, movieRepository.findAllIds(),
+                MovieEntryDTO.class, Duration.ofHours(CACHE_TTL_HOURS),
+                ids -> movieRepository.findAllById(ids).stream()
+                        .collect(Collectors.toMap(Movie::getId, MovieConvertor::convertEntityToDto)));
     }
 
+    @Transactional(readOnly = true)
     public MovieEntryDTO getMovieById(int movieId) throws Exception {
-        // Check Redis cache first
-        String cacheKey = MOVIE_CACHE_KEY + movieId;
-        String cachedData = redisTemplate.opsForValue().get(cacheKey);
-        
-        if (cachedData != null) {
-            log.info("Movie found in cache for ID: {}", movieId);
-            // Parse from cache if needed (for now, fetch from DB)
-        }
-
-        Optional<Movie> movieOptional = movieRepository.findById(movieId);
-        if (movieOptional.isEmpty()) {
-            throw new Exception("Movie not found with id: " + movieId);
-        }
-
-        Movie movie = movieOptional.get();
-        MovieEntryDTO movieEntryDTO = MovieConvertor.convertEntityToDto(movie);
-
-        // Cache the movie data
-        try {
-            redisTemplate.opsForValue().set(cacheKey, movie.getMovieName(), CACHE_TTL_HOURS, TimeUnit.HOURS);
-        } catch (Exception e) {
-            log.warn("Failed to cache movie data: {}", e.getMessage());
-        }
-
-        return movieEntryDTO;
+        return singleFlightLoader.load(MOVIE_CACHE, MOVIE_CACHE_KEY + movieId, MovieEntryDTO.class,
+                Duration.ofHours(CACHE_TTL_HOURS), () -> {
+            if (!existenceFilter.mightExist(ExistenceFilter.MOVIE, movieId)) {
+                throw new Exception("Movie not found with id: " + movieId);
+            }
+            Optional<Movie> movieOptional = movieRepository.findById(movieId);
+            if (movieOptional.isEmpty()) {
+                existenceFilter.recordMissing(ExistenceFilter.MOVIE, movieId);
+                throw new Exception("Movie not found with id: " + movieId);
+            }
+            return MovieConvertor.convertEntityToDto(movieOptional.get());
+        });
     }
 
     public Set<String> getTrendingMovies(int limit) {
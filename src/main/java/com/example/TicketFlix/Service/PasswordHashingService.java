@@ -0,0 +1,161 @@
+package com.example.TicketFlix.Service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * The application's PasswordEncoder: BCrypt run on the bounded passwordHashingExecutor, so a burst of
+ * logins occupies at most hashing-threads cores. When the queue is full, or a hash does not finish within
+ * the timeout, callers get TaskRejectedException at once. Kafka consumers hash with encodeOnCallerThread
+ * instead, so their backlog neither competes for the executor nor gets rejected by it.
+ *
+ * The BCrypt cost is calibrated at startup to the highest cost whose hash stays within target-latency,
+ * clamped to [min-cost, max-cost], unless bcrypt.cost fixes it. upgradeEncoding() reports hashes made with
+ * a lower cost so logins can rehash them; hashes with a higher cost are left alone, so nodes that calibrate
+ * differently never rehash back and forth.
+ */
+@Service
+@Slf4j
+public class PasswordHashingService implements PasswordEncoder {
+
+    private static final int CALIBRATION_COST = 10;
+
+    @Autowired
+    @Qualifier("passwordHashingExecutor")
+    private ThreadPoolTaskExecutor passwordHashingExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ticketflix.password.bcrypt.cost:0}")
+    private int configuredCost;
+
+    @Value("${ticketflix.password.bcrypt.target-latency:250ms}")
+    private Duration targetLatency;
+
+    @Value("${ticketflix.password.bcrypt.min-cost:10}")
+    private int minCost;
+
+    @Value("${ticketflix.password.bcrypt.max-cost:14}")
+    private int maxCost;
+
+    @Value("${ticketflix.password.hashing-timeout:5s}")
+    private Duration hashingTimeout;
+
+    private volatile int cost;
+    private volatile BCryptPasswordEncoder encoder;
+
+    @PostConstruct
+    public void init() {
+        cost = configuredCost > 0 ? configuredCost : calibrate();
+        encoder = new BCryptPasswordEncoder(cost);
+        log.info("Using BCrypt cost {}", cost);
+
+        Gauge.builder("ticketflix.password.bcrypt.cost", this, service -> service.cost).register(meterRegistry);
+        Gauge.builder("ticketflix.password.hashing.queue-depth", passwordHashingExecutor,
+                executor -> executor.getThreadPoolExecutor().getQueue().size()).register(meterRegistry);
+        Gauge.builder("ticketflix.password.hashing.active", passwordHashingExecutor,
+                ThreadPoolTaskExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    /**
+     * Each BCrypt cost step doubles the work, so one timed hash at CALIBRATION_COST predicts the others
+     */
+    int calibrate() {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(CALIBRATION_COST);
+        probe.encode("calibration-warm-up");
+        long start = System.nanoTime();
+        probe.encode("calibration");
+        long elapsedNanos = Math.max(System.nanoTime() - start, 1);
+
+        int steps = (int) Math.floor(Math.log((double) targetLatency.toNanos() / elapsedNanos) / Math.log(2));
+        int calibrated = Math.max(minCost, Math.min(maxCost, CALIBRATION_COST + steps));
+        log.info("BCrypt cost {} took {} ms; calibrated cost {} for a {} ms target", CALIBRATION_COST,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), calibrated, targetLatency.toMillis());
+        return calibrated;
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run("encode", () -> encoder.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run("matches", () -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return encodedPassword != null && encoder.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * encode() without the executor, for Kafka consumers: their listener concurrency already bounds the
+     * cores they use, and a rejection would push the event through the retry topics for no reason
+     */
+    public String encodeOnCallerThread(CharSequence rawPassword) {
+        return timed("encode", () -> encoder.encode(rawPassword));
+    }
+
+    private <T> T timed(String operation, Supplier<T> hashing) {
+        long start = System.nanoTime();
+        try {
+            return hashing.get();
+        } finally {
+            Timer.builder("ticketflix.password.hash")
+                    .tag("operation", operation)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private <T> T run(String operation, Supplier<T> hashing) {
+        Future<T> future;
+        try {
+            future = passwordHashingExecutor.submit(() -> timed(operation, hashing));
+        } catch (TaskRejectedException e) {
+            meterRegistry.counter("ticketflix.password.hashing.rejected", "reason", "queue-full").increment();
+            throw new TaskRejectedException("Password hashing is overloaded, retry later", e);
+        }
+
+        try {
+            return future.get(hashingTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            meterRegistry.counter("ticketflix.password.hashing.rejected", "reason", "timeout").increment();
+            throw new TaskRejectedException("Password hashing timed out, retry later", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new TaskRejectedException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
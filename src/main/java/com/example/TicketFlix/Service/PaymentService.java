@@ -12,8 +12,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.annotation.PostConstruct;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.util.Optional;
@@ -39,9 +42,19 @@ public class PaymentService {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     private static final String IDEMPOTENCY_KEY_PREFIX = "payment::idempotency::";
     private static final int IDEMPOTENCY_TTL_HOURS = 24;
 
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
     /**
      * Process payment with idempotency and payload hash verification
      * 
@@ -57,9 +70,14 @@ public class PaymentService {
         String idempotencyKey = paymentRequestDTO.getIdempotencyKey();
         String payloadHash = generatePayloadHash(paymentRequestDTO);
 
-        // Check idempotency in Redis first (fast lookup)
+        // Check idempotency in Redis first (fast lookup); the database below is authoritative if Redis is unavailable
         String redisKey = IDEMPOTENCY_KEY_PREFIX + idempotencyKey;
-        String cachedPaymentData = redisTemplate.opsForValue().get(redisKey);
+        String cachedPaymentData = null;
+        try {
+            cachedPaymentData = redisTemplate.opsForValue().get(redisKey);
+        } catch (Exception e) {
+            log.warn("Idempotency lookup in Redis failed, checking the database: {}", e.getMessage());
+        }
 
         if (cachedPaymentData != null) {
             log.info("Idempotency key found in cache: {}", idempotencyKey);
@@ -125,7 +143,12 @@ public class PaymentService {
                 .status(Payment.PaymentStatus.PENDING)
                 .build();
 
-        payment = paymentRepository.save(payment);
+        // The payment request goes out through the outbox, committed with the PENDING payment, so a payment
+        // is never left PENDING without a request to process it
+        transactionTemplate.executeWithoutResult(status -> {
+            paymentRepository.save(payment);
+            kafkaProducerService.stagePaymentRequest(paymentRequestDTO, paymentId, idempotencyKey);
+        });
 
         // Store idempotency key in Redis
         PaymentResponseDTO response = PaymentResponseDTO.builder()
@@ -150,11 +173,7 @@ public class PaymentService {
             log.warn("Failed to cache payment response in Redis: {}", e.getMessage());
         }
 
-        // Process payment asynchronously via Kafka
-        // This allows retry logic and prevents blocking the API
-        kafkaProducerService.publishPaymentRequest(paymentRequestDTO, paymentId, idempotencyKey);
-        
-        log.info("Payment request published to Kafka. Payment ID: {}, Idempotency Key: {}", paymentId, idempotencyKey);
+        log.info("Payment request staged for Kafka. Payment ID: {}, Idempotency Key: {}", paymentId, idempotencyKey);
 
         return response;
     }
@@ -263,12 +282,12 @@ public class PaymentService {
             log.warn("Failed to update payment cache: {}", e.getMessage());
         }
 
-        // Publish payment result event
-        kafkaProducerService.publishPaymentResultEvent(payment, paymentSuccess);
+        // Payment result event, committed with the payment through the outbox
+        kafkaProducerService.stagePaymentResultEvent(payment, paymentSuccess);
 
         // If payment successful and ticket booking requested, trigger ticket booking
         if (paymentSuccess && paymentRequestDTO.getTicketEntryDTO() != null) {
-            kafkaProducerService.publishTicketBookingRequest(paymentRequestDTO.getTicketEntryDTO(), true);
+            kafkaProducerService.stageTicketBookingRequest(paymentRequestDTO.getTicketEntryDTO(), true);
             log.info("Ticket booking triggered after successful payment for payment ID: {}", paymentId);
         }
 
@@ -301,6 +320,7 @@ public class PaymentService {
     /**
      * Get payment status by payment ID
      */
+    @Transactional(readOnly = true)
     public PaymentResponseDTO getPaymentStatus(String paymentId) throws Exception {
         Optional<Payment> paymentOptional = paymentRepository.findByPaymentId(paymentId);
         if (paymentOptional.isEmpty()) {
@@ -313,6 +333,7 @@ public class PaymentService {
     /**
      * Get payment by idempotency key
      */
+    @Transactional(readOnly = true)
     public PaymentResponseDTO getPaymentByIdempotencyKey(String idempotencyKey) throws Exception {
         Optional<Payment> paymentOptional = paymentRepository.findByIdempotencyKey(idempotencyKey);
         if (paymentOptional.isEmpty()) {
@@ -0,0 +1,191 @@
+package com.example.TicketFlix.Service;
+
+import com.example.TicketFlix.Cache.RedisCircuitBreaker;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets for the expensive endpoints, shared by all nodes through Redis (scripts/token_bucket.lua).
+ * Each node takes tokens from Redis in batches of local-share x capacity and spends them locally until
+ * the batch runs out or its lease ends, so most checks never reach Redis. A lease bounds how long a node
+ * can hold tokens that another node's clients might have used.
+ * While Redis is unavailable each node enforces the same limits on its own.
+ */
+@Service
+@Slf4j
+public class RateLimitService {
+
+    public static final String LOGIN = "login";
+    public static final String BOOKING = "booking";
+    public static final String PAYMENT = "payment";
+
+    private static final String KEY_PREFIX = "rate::";
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private RedisCircuitBreaker redisCircuitBreaker;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ticketflix.rate-limit.login.capacity:10}")
+    private long loginCapacity;
+
+    @Value("${ticketflix.rate-limit.login.refill-per-second:0.2}")
+    private double loginRefillPerSecond;
+
+    @Value("${ticketflix.rate-limit.booking.capacity:10}")
+    private long bookingCapacity;
+
+    @Value("${ticketflix.rate-limit.booking.refill-per-second:1}")
+    private double bookingRefillPerSecond;
+
+    @Value("${ticketflix.rate-limit.payment.capacity:10}")
+    private long paymentCapacity;
+
+    @Value("${ticketflix.rate-limit.payment.refill-per-second:1}")
+    private double paymentRefillPerSecond;
+
+    @Value("${ticketflix.rate-limit.local-share:0.2}")
+    private double localShare;
+
+    @Value("${ticketflix.rate-limit.local-lease:1s}")
+    private Duration localLease;
+
+    private final Map<String, Limit> limits = new LinkedHashMap<>();
+    private DefaultRedisScript<List<Long>> tokenBucketScript;
+    private Cache<String, AtomicLong> localTokens;
+    private Cache<String, LocalBucket> fallbackBuckets;
+
+    @PostConstruct
+    public void init() {
+        limits.put(LOGIN, new Limit(loginCapacity, loginRefillPerSecond));
+        limits.put(BOOKING, new Limit(bookingCapacity, bookingRefillPerSecond));
+        limits.put(PAYMENT, new Limit(paymentCapacity, paymentRefillPerSecond));
+        limits.forEach((route, limit) -> {
+            Gauge.builder("ticketflix.rate-limit.capacity", limit, Limit::getCapacity)
+                    .tag("route", route).register(meterRegistry);
+            Gauge.builder("ticketflix.rate-limit.refill-per-second", limit, Limit::getRefillPerSecond)
+                    .tag("route", route).register(meterRegistry);
+        });
+
+        // The script returns {granted, waitMillis}, which Redis hands back as a list of integers
+        @SuppressWarnings("unchecked")
+        Class<List<Long>> resultType = (Class<List<Long>>) (Class<?>) List.class;
+        tokenBucketScript = new DefaultRedisScript<>();
+        tokenBucketScript.setLocation(new ClassPathResource("scripts/token_bucket.lua"));
+        tokenBucketScript.setResultType(resultType);
+        localTokens = Caffeine.newBuilder().expireAfterWrite(localLease).build();
+        fallbackBuckets = Caffeine.newBuilder().maximumSize(100_000).expireAfterAccess(Duration.ofMinutes(10)).build();
+    }
+
+    /**
+     * Take one token for the client from the route's bucket.
+     * Returns 0 if the request may proceed, otherwise the number of milliseconds to wait before retrying.
+     */
+    public long tryAcquire(String route, String client) {
+        Limit limit = limits.get(route);
+        if (limit == null) {
+            throw new IllegalArgumentException("Unknown rate limit route: " + route);
+        }
+        String key = KEY_PREFIX + route + "::" + client;
+
+        AtomicLong local = localTokens.get(key, k -> new AtomicLong());
+        long waitMillis;
+        if (local.getAndUpdate(tokens -> tokens > 0 ? tokens - 1 : 0) > 0) {
+            waitMillis = 0;
+        } else {
+            waitMillis = acquireBatch(key, limit, local);
+        }
+        meterRegistry.counter("ticketflix.rate-limit.requests", "route", route,
+                "result", waitMillis == 0 ? "allowed" : "limited").increment();
+        return waitMillis;
+    }
+
+    /**
+     * Take up to a batch of tokens from Redis, keeping all but one for later requests on this node
+     */
+    private long acquireBatch(String key, Limit limit, AtomicLong local) {
+        if (redisCircuitBreaker.isOpen()) {
+            return acquireLocally(key, limit);
+        }
+        long batch = Math.max(1, (long) (limit.getCapacity() * localShare));
+        try {
+            List<Long> result = redisTemplate.execute(tokenBucketScript, List.of(key),
+                    String.valueOf(limit.getCapacity()), String.valueOf(limit.getRefillPerSecond() / 1000),
+                    String.valueOf(batch));
+            if (result == null || result.size() != 2) {
+                return acquireLocally(key, limit);
+            }
+            long granted = result.get(0);
+            if (granted == 0) {
+                return Math.max(1, result.get(1));
+            }
+            local.addAndGet(granted - 1);
+            return 0;
+        } catch (Exception e) {
+            log.warn("Rate limit check for {} failed, enforcing locally: {}", key, e.getMessage());
+            return acquireLocally(key, limit);
+        }
+    }
+
+    private long acquireLocally(String key, Limit limit) {
+        meterRegistry.counter("ticketflix.rate-limit.local-fallback").increment();
+        return fallbackBuckets.get(key, k -> new LocalBucket(limit)).tryAcquire();
+    }
+
+    @Getter
+    private static class Limit {
+        private final double capacity;
+        private final double refillPerSecond;
+
+        Limit(long capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+
+    /**
+     * Same algorithm as the Lua script, for one node on its own
+     */
+    private static class LocalBucket {
+        private final Limit limit;
+        private double tokens;
+        private long updatedAt = System.nanoTime();
+
+        LocalBucket(Limit limit) {
+            this.limit = limit;
+            this.tokens = limit.getCapacity();
+        }
+
+        synchronized long tryAcquire() {
+            long now = System.nanoTime();
+            tokens = Math.min(limit.getCapacity(), tokens + (now - updatedAt) / 1e9 * limit.getRefillPerSecond());
+            updatedAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / limit.getRefillPerSecond() * 1000);
+        }
+    }
+}
@@ -1,13 +1,29 @@
 package com.example.TicketFlix.Service;
 
+import com.example.TicketFlix.Cache.RedisCircuitBreaker;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Booking counters and the trending movies sorted set. While Redis is unavailable, counter changes are
+ * buffered per movie on this node and replayed when the Redis circuit closes again; trending reads
+ * return nothing rather than wait for Redis.
+ */
 @Service
+@Slf4j
 public class RedisService {
     private static final String MOVIE_BOOKING_KEY = "movie-";
     private static final String TRENDING_MOVIE_KEY = "trending::movie::count";
@@ -15,23 +31,93 @@ public class RedisService {
     @Autowired
     RedisTemplate<String, String> redisTemplate;
 
+    @Autowired
+    RedisCircuitBreaker redisCircuitBreaker;
+
+    @Autowired
+    @Qualifier("cacheWriteExecutor")
+    ThreadPoolTaskExecutor cacheWriteExecutor;
+
+    private final Map<String, AtomicLong> pendingCounterDeltas = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void registerFlushOnRecovery() {
+        redisCircuitBreaker.addCloseListener(() -> {
+            try {
+                cacheWriteExecutor.execute(this::flushPendingCounters);
+            } catch (TaskRejectedException e) {
+                // Left buffered; the next counter update for each movie carries its backlog
+                log.debug("Cache write queue full, deferring buffered trending updates");
+            }
+        });
+    }
+
     public void increaseMovieCounter(String movieName) {
-        String key = MOVIE_BOOKING_KEY + movieName;
-        Long current = redisTemplate.opsForValue().increment(key);
-        redisTemplate.opsForZSet().add(TRENDING_MOVIE_KEY, movieName, current);
+        applyCounterDelta(movieName, 1);
     }
 
     public void decreaseCounter(String movieName) {
-        String key = MOVIE_BOOKING_KEY + movieName;
-        Long current = redisTemplate.opsForValue().decrement(key);
+        applyCounterDelta(movieName, -1);
+    }
 
-        if(current > 0){
-            redisTemplate.opsForZSet().add(TRENDING_MOVIE_KEY,movieName,current);
+    private void applyCounterDelta(String movieName, long delta) {
+        if (redisCircuitBreaker.isOpen()) {
+            buffer(movieName, delta);
+            return;
+        }
+        // Carry anything buffered for this movie along with this update
+        AtomicLong pending = pendingCounterDeltas.remove(movieName);
+        long total = delta + (pending != null ? pending.get() : 0);
+        try {
+            writeCounter(movieName, total);
+        } catch (Exception e) {
+            buffer(movieName, total);
+            log.warn("Failed to update trending counter for {}, buffered locally: {}", movieName, e.getMessage());
+        }
+    }
+
+    private void writeCounter(String movieName, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        Long current = redisTemplate.opsForValue().increment(MOVIE_BOOKING_KEY + movieName, delta);
+        if (current != null && current > 0) {
+            redisTemplate.opsForZSet().add(TRENDING_MOVIE_KEY, movieName, current);
         } else {
             redisTemplate.opsForZSet().remove(TRENDING_MOVIE_KEY, movieName);
         }
     }
+
+    private void buffer(String movieName, long delta) {
+        pendingCounterDeltas.computeIfAbsent(movieName, name -> new AtomicLong()).addAndGet(delta);
+    }
+
+    /**
+     * Replay counter changes buffered while the Redis circuit was open
+     */
+    void flushPendingCounters() {
+        for (String movieName : pendingCounterDeltas.keySet()) {
+            if (redisCircuitBreaker.isOpen()) {
+                return;
+            }
+            AtomicLong pending = pendingCounterDeltas.remove(movieName);
+            if (pending == null) {
+                continue;
+            }
+            try {
+                writeCounter(movieName, pending.get());
+            } catch (Exception e) {
+                buffer(movieName, pending.get());
+                log.warn("Failed to flush buffered trending counter for {}: {}", movieName, e.getMessage());
+                return;
+            }
+        }
+    }
+
     public Set<String> getTrendingMovies(int limit) {
+        if (redisCircuitBreaker.isOpen()) {
+            return Collections.emptySet();
+        }
         return redisTemplate.opsForZSet().reverseRange(TRENDING_MOVIE_KEY, 0, limit - 1);
     }
 
@@ -39,6 +125,9 @@ public class RedisService {
      * Get trending movies with their booking counts
      */
     public Set<ZSetOperations.TypedTuple<String>> getTrendingMoviesWithCounts(int limit) {
+        if (redisCircuitBreaker.isOpen()) {
+            return Collections.emptySet();
+        }
         return redisTemplate.opsForZSet().reverseRangeWithScores(TRENDING_MOVIE_KEY, 0, limit - 1);
     }
 
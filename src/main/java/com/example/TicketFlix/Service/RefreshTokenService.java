@@ -0,0 +1,86 @@
+package com.example.TicketFlix.Service;
+
+import com.example.TicketFlix.Exception.AuthenticationException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-use, rotating refresh tokens. Each login starts a family whose only valid refresh token id is
+ * kept at "auth:refresh-family::<familyId>" until the refresh lifetime set at login runs out. Redeeming
+ * a token swaps in its successor atomically (scripts/rotate_refresh_token.lua); presenting a token that
+ * was already redeemed means it leaked, so the family is deleted and the session ends for everyone.
+ */
+@Service
+@Slf4j
+public class RefreshTokenService {
+
+    private static final String FAMILY_KEY_PREFIX = "auth:refresh-family::";
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private DefaultRedisScript<Long> rotateScript;
+
+    @PostConstruct
+    public void init() {
+        rotateScript = new DefaultRedisScript<>();
+        rotateScript.setLocation(new ClassPathResource("scripts/rotate_refresh_token.lua"));
+        rotateScript.setResultType(Long.class);
+    }
+
+    /**
+     * Start a session and return its first refresh token
+     */
+    public String startFamily(String email, int userId, String familyId) {
+        String tokenId = UUID.randomUUID().toString();
+        redisTemplate.opsForValue().set(FAMILY_KEY_PREFIX + familyId, tokenId,
+                jwtService.getRefreshExpirationMillis(), TimeUnit.MILLISECONDS);
+        return jwtService.generateRefreshToken(email, userId, familyId, tokenId);
+    }
+
+    /**
+     * Redeem a verified refresh token for its successor. Throws if the token was already redeemed
+     * or its session has ended.
+     */
+    public String rotate(VerifiedToken refreshToken) throws AuthenticationException {
+        String successorId = UUID.randomUUID().toString();
+        Long result = redisTemplate.execute(rotateScript, List.of(FAMILY_KEY_PREFIX + refreshToken.getFamilyId()),
+                refreshToken.getTokenId(), successorId);
+        if (result == null) {
+            throw new IllegalStateException("Refresh token rotation returned no result");
+        }
+        if (result == 1) {
+            meterRegistry.counter("ticketflix.auth.refresh", "result", "rotated").increment();
+            return jwtService.generateRefreshToken(refreshToken.getEmail(), refreshToken.getUserId(),
+                    refreshToken.getFamilyId(), successorId);
+        }
+        if (result == -1) {
+            meterRegistry.counter("ticketflix.auth.refresh", "result", "reused").increment();
+            log.warn("Refresh token reuse detected for user {}, ending session {}",
+                    refreshToken.getUserId(), refreshToken.getFamilyId());
+            throw new AuthenticationException("Refresh token already used; please log in again");
+        }
+        meterRegistry.counter("ticketflix.auth.refresh", "result", "unknown-session").increment();
+        throw new AuthenticationException("Session has ended; please log in again");
+    }
+
+    public void revokeFamily(String familyId) {
+        redisTemplate.delete(FAMILY_KEY_PREFIX + familyId);
+    }
+}
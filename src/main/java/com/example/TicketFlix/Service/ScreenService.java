@@ -1,5 +1,8 @@
 package com.example.TicketFlix.Service;
 
+import com.example.TicketFlix.Cache.CacheInvalidationService;
+import com.example.TicketFlix.Cache.SingleFlightLoader;
+import com.example.TicketFlix.Cache.TwoLevelCache;
 import com.example.TicketFlix.Convertors.ScreenConvertor;
 import com.example.TicketFlix.EntryDTOs.ScreenEntryDTO;
 import com.example.TicketFlix.Genres.SeatType;
@@ -8,18 +11,18 @@ import com.example.TicketFlix.Models.Theater;
 import com.example.TicketFlix.Models.TheaterSeats;
 import com.example.TicketFlix.Kafka.KafkaProducerService;
 import com.example.TicketFlix.Repository.ScreenRepository;
+import com.example.TicketFlix.Repository.ShowRepository;
 import com.example.TicketFlix.Repository.TheaterRepository;
 import com.example.TicketFlix.Response.ScreenResponseDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,12 +36,21 @@ public class ScreenService {
     private TheaterRepository theaterRepository;
 
     @Autowired
-    private RedisTemplate<String, String> redisTemplate;
+    private ShowRepository showRepository;
+
+    @Autowired
+    private TwoLevelCache twoLevelCache;
+
+    @Autowired
+    private SingleFlightLoader singleFlightLoader;
 
     @Autowired
     private KafkaProducerService kafkaProducerService;
 
+    private static final String SCREEN_CACHE = "screen";
     private static final String SCREEN_CACHE_KEY = "screen::";
+    private static final String THEATER_CACHE = "theater";
+    private static final String THEATER_CACHE_KEY = "theater::";
     private static final int CACHE_TTL_HOURS = 24;
 
     /**
@@ -92,6 +104,8 @@ public class ScreenService {
         theater.setScreenList(screenList);
         theaterRepository.save(theater);
 
+        invalidateTheaterCache(theater.getId());
+
         log.info("Screen created successfully - ID: {}, Name: {}, Theater: {}", 
                 screen.getId(), screen.getName(), theater.getName());
         return "Screen added successfully";
@@ -132,6 +146,7 @@ public class ScreenService {
     /**
      * Get all screens
      */
+    @Transactional(readOnly = true)
     public List<ScreenResponseDTO> getAllScreens() throws Exception {
         List<Screen> screens = screenRepository.findAll();
         return screens.stream()
@@ -142,36 +157,22 @@ public class ScreenService {
     /**
      * Get screen by ID (with Redis caching)
      */
+    @Transactional(readOnly = true)
     public ScreenResponseDTO getScreenById(int screenId) throws Exception {
-        // Check Redis cache first
-        String cacheKey = SCREEN_CACHE_KEY + screenId;
-        String cachedData = redisTemplate.opsForValue().get(cacheKey);
-
-        if (cachedData != null) {
-            log.info("Screen found in cache for ID: {}", screenId);
-        }
-
-        Optional<Screen> screenOptional = screenRepository.findById(screenId);
-        if (screenOptional.isEmpty()) {
-            throw new Exception("Screen not found with id: " + screenId);
-        }
-
-        Screen screen = screenOptional.get();
-        ScreenResponseDTO screenResponseDTO = ScreenConvertor.convertEntityToDto(screen);
-
-        // Cache the screen data
-        try {
-            redisTemplate.opsForValue().set(cacheKey, screen.getName(), CACHE_TTL_HOURS, TimeUnit.HOURS);
-        } catch (Exception e) {
-            log.warn("Failed to cache screen data: {}", e.getMessage());
-        }
-
-        return screenResponseDTO;
+        return singleFlightLoader.load(SCREEN_CACHE, SCREEN_CACHE_KEY + screenId, ScreenResponseDTO.class,
+                Duration.ofHours(CACHE_TTL_HOURS), () -> {
+            Optional<Screen> screenOptional = screenRepository.findById(screenId);
+            if (screenOptional.isEmpty()) {
+                throw new Exception("Screen not found with id: " + screenId);
+            }
+            return ScreenConvertor.convertEntityToDto(screenOptional.get());
+        });
     }
 
     /**
      * Get all screens by theater ID
      */
+    @Transactional(readOnly = true)
     public List<ScreenResponseDTO> getScreensByTheater(int theaterId) throws Exception {
         Optional<Theater> theaterOptional = theaterRepository.findById(theaterId);
         if (theaterOptional.isEmpty()) {
@@ -215,11 +216,9 @@ public class ScreenService {
 
         screenRepository.save(screen);
 
-        // Invalidate cache
-        try {
-            redisTemplate.delete(SCREEN_CACHE_KEY + screenId);
-        } catch (Exception e) {
-            log.warn("Failed to invalidate screen cache: {}", e.getMessage());
+        invalidateScreenCache(screenId);
+        if (screen.getTheater() != null) {
+            invalidateTheaterCache(screen.getTheater().getId());
         }
 
         log.info("Screen updated successfully - ID: {}, Name: {}", screen.getId(), screen.getName());
@@ -236,8 +235,7 @@ public class ScreenService {
         }
 
         // Check if screen has shows scheduled
-        Screen screen = screenOptional.get();
-        if (screen.getShowList() != null && !screen.getShowList().isEmpty()) {
+        if (showRepository.existsByScreenId(screenId)) {
             throw new Exception("Cannot delete screen with scheduled shows. Please cancel all shows first.");
         }
 
@@ -275,15 +273,43 @@ public class ScreenService {
 
         screenRepository.delete(screen);
 
-        // Invalidate cache
-        try {
-            redisTemplate.delete(SCREEN_CACHE_KEY + screenId);
-        } catch (Exception e) {
-            log.warn("Failed to invalidate screen cache: {}", e.getMessage());
+        invalidateScreenCache(screenId);
+        if (theater != null) {
+            invalidateTheaterCache(theater.getId());
         }
 
         log.info("Screen deleted successfully - ID: {}", screenId);
         return "Screen deleted successfully";
     }
-}
 
+    /**
+     * Drop the cached screens of a theater, whose responses carry the theater name (called by Kafka consumer)
+     */
+    public void invalidateScreensOfTheater(int theaterId) {
+        for (Integer screenId : screenRepository.findIdsByTheaterId(theaterId)) {
+            invalidateScreenCache(screenId);
+        }
+    }
+
+    private void invalidateScreenCache(int screenId) {
+        // After commit, so a concurrent read cannot cache the screen as it was before this transaction
+        CacheInvalidationService.afterCommit(() -> {
+            try {
+                twoLevelCache.evict(SCREEN_CACHE, SCREEN_CACHE_KEY + screenId);
+            } catch (Exception e) {
+                log.warn("Failed to invalidate screen cache: {}", e.getMessage());
+            }
+        });
+    }
+
+    private void invalidateTheaterCache(int theaterId) {
+        // Theater responses carry seat counts summed over their screens
+        CacheInvalidationService.afterCommit(() -> {
+            try {
+                twoLevelCache.evict(THEATER_CACHE, THEATER_CACHE_KEY + theaterId);
+            } catch (Exception e) {
+                log.warn("Failed to invalidate theater cache: {}", e.getMessage());
+            }
+        });
+    }
+}
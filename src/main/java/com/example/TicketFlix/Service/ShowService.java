@@ -1,22 +1,39 @@
 package com.example.TicketFlix.Service;
 
+import com.example.TicketFlix.Cache.CacheInvalidationService;
+import com.example.TicketFlix.Cache.ExistenceFilter;
+import com.example.TicketFlix.Cache.RedisDtoCache;
+import com.example.TicketFlix.Cache.SingleFlightLoader;
 import com.example.TicketFlix.Convertors.ShowConvertor;
 import com.example.TicketFlix.EntryDTOs.ShowEntryDTO;
+import com.example.TicketFlix.Exception.ValidationException;
+import com.example.TicketFlix.Genres.Language;
 import com.example.TicketFlix.Genres.SeatType;
+import com.example.TicketFlix.Genres.ShowType;
 import com.example.TicketFlix.Kafka.KafkaProducerService;
 import com.example.TicketFlix.Models.*;
 import com.example.TicketFlix.Repository.MovieRepository;
 import com.example.TicketFlix.Repository.ShowRepository;
 import com.example.TicketFlix.Repository.TheaterRepository;
+import com.example.TicketFlix.Response.ShowSearchResponseDTO;
+import com.example.TicketFlix.Response.ShowSearchResultDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -35,13 +52,28 @@ public class ShowService {
     com.example.TicketFlix.Repository.ScreenRepository screenRepository;
 
     @Autowired
-    RedisTemplate<String, String> redisTemplate;
+    RedisDtoCache redisDtoCache;
+
+    @Autowired
+    SingleFlightLoader singleFlightLoader;
+
+    @Autowired
+    ExistenceFilter existenceFilter;
 
     @Autowired
     KafkaProducerService kafkaProducerService;
 
+    @Autowired
+    CacheInvalidationService cacheInvalidationService;
+
+    private static final String SHOW_CACHE = "show";
     private static final String SHOW_CACHE_KEY = "show::";
+    private static final String SHOW_SEARCH_CACHE = "show-search";
     private static final int CACHE_TTL_HOURS = 24;
+    private static final int SEARCH_CACHE_TTL_MINUTES = 5;
+    private static final int DEFAULT_SEARCH_PAGE_SIZE = 20;
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    private static final int MAX_SEARCH_RANGE_DAYS = 14;
 
     public String addShow(ShowEntryDTO showEntryDTO) throws Exception {
         // Validate movie and theater exist
@@ -101,6 +133,7 @@ public class ShowService {
         return "Show deletion request submitted successfully";
     }
 
+    @Transactional(readOnly = true)
     public List<ShowEntryDTO> getAllShows() throws Exception {
         List<Show> shows = showRepository.findAll();
         // Optimized: Use Stream API for cleaner code
@@ -109,34 +142,23 @@ public class ShowService {
                 .collect(java.util.stream.Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public ShowEntryDTO getShowById(int showId) throws Exception {
-        // Check Redis cache first
-        String cacheKey = SHOW_CACHE_KEY + showId;
-        String cachedData = redisTemplate.opsForValue().get(cacheKey);
-        
-        if (cachedData != null) {
-            log.info("Show found in cache for ID: {}", showId);
-        }
-
-        Optional<Show> showOptional = showRepository.findById(showId);
-        if (showOptional.isEmpty()) {
-            throw new Exception("Show not found with id: " + showId);
-        }
-
-        Show show = showOptional.get();
-        ShowEntryDTO showEntryDTO = ShowConvertor.convertEntityToDto(show);
-
-        // Cache the show data
-        try {
-            String cacheValue = show.getMovie() != null ? show.getMovie().getMovieName() : "unknown";
-            redisTemplate.opsForValue().set(cacheKey, cacheValue, CACHE_TTL_HOURS, TimeUnit.HOURS);
-        } catch (Exception e) {
-            log.warn("Failed to cache show data: {}", e.getMessage());
-        }
-
-        return showEntryDTO;
+        return singleFlightLoader.load(SHOW_CACHE, SHOW_CACHE_KEY + showId, ShowEntryDTO.class,
+                Duration.ofHours(CACHE_TTL_HOURS), () -> {
+            if (!existenceFilter.mightExist(ExistenceFilter.SHOW, showId)) {
+                throw new Exception("Show not found with id: " + showId);
+            }
+            Optional<Show> showOptional = showRepository.findById(showId);
+            if (showOptional.isEmpty()) {
+                existenceFilter.recordMissing(ExistenceFilter.SHOW, showId);
+                throw new Exception("Show not found with id: " + showId);
+            }
+            return ShowConvertor.convertEntityToDto(showOptional.get());
+        });
     }
 
+    @Transactional(readOnly = true)
     public List<ShowEntryDTO> getShowsByMovie(int movieId) throws Exception {
         Optional<Movie> movieOptional = movieRepository.findById(movieId);
         if (movieOptional.isEmpty()) {
@@ -151,22 +173,134 @@ public class ShowService {
                 .collect(java.util.stream.Collectors.toList());
     }
 
+    /**
+     * Show ids come from the database, the DTOs from the per-show cache with misses loaded in one IN query
+     */
+    @Transactional(readOnly = true)
     public List<ShowEntryDTO> getShowsByTheater(int theaterId) throws Exception {
-        Optional<Theater> theaterOptional = theaterRepository.findById(theaterId);
-        if (theaterOptional.isEmpty()) {
+        List<Integer> showIds = showRepository.findIdsByTheaterId(theaterId);
+        if (showIds.isEmpty() && !theaterRepository.existsById(theaterId)) {
             throw new Exception("Theater not found with id: " + theaterId);
         }
 
-        Theater theater = theaterOptional.get();
-        List<Show> shows = theater.getShowList();
-        // Optimized: Use Stream API for cleaner code
-        return shows.stream()
-                .map(ShowConvertor::convertEntityToDto)
-                .collect(java.util.stream.Collectors.toList());
+        return singleFlightLoader.loadAll(SHOW_CACHE, SHOW_CACHE_KEY, showIds, ShowEntryDTO.class,
+                Duration.ofHours(CACHE_TTL_HOURS),
+                ids -> showRepository.findAllForDtoByIdIn(ids).stream()
+                        .collect(Collectors.toMap(Show::getId, ShowConvertor::convertEntityToDto)));
+    }
+
+    /**
+     * Search shows in a city over a date range, optionally narrowed by movie, language and format.
+     * Uses keyset paging on (date, time, id); single-day searches are cached per (city, date).
+     */
+    @Transactional(readOnly = true)
+    public ShowSearchResponseDTO searchShows(String city, LocalDate fromDate, LocalDate toDate, Integer movieId,
+                                             Language language, ShowType showType, String cursor, Integer size) throws ValidationException {
+        if (!StringUtils.hasText(city)) {
+            throw new ValidationException("city", "City is required");
+        }
+        if (fromDate == null) {
+            throw new ValidationException("fromDate", "From date is required");
+        }
+        LocalDate endDate = toDate != null ? toDate : fromDate;
+        if (endDate.isBefore(fromDate)) {
+            throw new ValidationException("toDate", "To date must not be before from date");
+        }
+        if (ChronoUnit.DAYS.between(fromDate, endDate) >= MAX_SEARCH_RANGE_DAYS) {
+            throw new ValidationException("toDate", "Date range cannot exceed " + MAX_SEARCH_RANGE_DAYS + " days");
+        }
+        int pageSize = size != null ? size : DEFAULT_SEARCH_PAGE_SIZE;
+        if (pageSize <= 0 || pageSize > MAX_SEARCH_PAGE_SIZE) {
+            throw new ValidationException("size", "Page size must be between 1 and " + MAX_SEARCH_PAGE_SIZE);
+        }
+        // The city is matched exactly against the indexed theater location, so it is cached exactly as given
+        String normalizedCity = city.trim();
+
+        // Only single-day searches ("what's on today") are cached; wider ranges go straight to the indexed query
+        String cacheKey = fromDate.equals(endDate)
+                ? buildSearchCacheKey(normalizedCity, fromDate, movieId, language, showType, cursor, pageSize)
+                : null;
+        if (cacheKey != null) {
+            ShowSearchResponseDTO cached = redisDtoCache.get(SHOW_SEARCH_CACHE, cacheKey, ShowSearchResponseDTO.class);
+            if (cached != null) {
+                log.debug("Show search served from cache: {}", cacheKey);
+                return cached;
+            }
+        }
+
+        // Fetch one extra row to know whether another page exists
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<ShowSearchResultDTO> rows;
+        if (StringUtils.hasText(cursor)) {
+            SearchCursor after = decodeCursor(cursor);
+            rows = showRepository.searchShowsAfter(normalizedCity, fromDate, endDate, movieId, language, showType,
+                    after.date, after.time, after.id, limit);
+        } else {
+            rows = showRepository.searchShows(normalizedCity, fromDate, endDate, movieId, language, showType, limit);
+        }
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = new ArrayList<>(rows.subList(0, pageSize));
+            nextCursor = encodeCursor(rows.get(pageSize - 1));
+        }
+
+        ShowSearchResponseDTO response = ShowSearchResponseDTO.builder()
+                .shows(rows)
+                .nextCursor(nextCursor)
+                .build();
+
+        if (cacheKey != null) {
+            redisDtoCache.put(SHOW_SEARCH_CACHE, cacheKey, response, Duration.ofMinutes(SEARCH_CACHE_TTL_MINUTES));
+        }
+        return response;
+    }
+
+    private String buildSearchCacheKey(String city, LocalDate date, Integer movieId, Language language,
+                                       ShowType showType, String cursor, int size) {
+        return cacheInvalidationService.generationKey(SHOW_SEARCH_CACHE, city + "::" + date + "::"
+                + (movieId != null ? movieId : "*") + ":"
+                + (language != null ? language.name() : "*") + ":"
+                + (showType != null ? showType.name() : "*") + ":"
+                + (StringUtils.hasText(cursor) ? cursor : "first") + ":" + size);
+    }
+
+    /**
+     * Drop every cached search page; called whenever a show or theater changes
+     */
+    public void invalidateSearchCache() {
+        cacheInvalidationService.bumpGeneration(SHOW_SEARCH_CACHE);
+    }
+
+    private String encodeCursor(ShowSearchResultDTO last) {
+        String raw = last.getShowDate() + "|" + last.getShowTime() + "|" + last.getShowId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private SearchCursor decodeCursor(String cursor) throws ValidationException {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            return new SearchCursor(LocalDate.parse(parts[0]), LocalTime.parse(parts[1]), Integer.parseInt(parts[2]));
+        } catch (Exception e) {
+            throw new ValidationException("cursor", "Invalid cursor");
+        }
+    }
+
+    private static class SearchCursor {
+        private final LocalDate date;
+        private final LocalTime time;
+        private final int id;
+
+        private SearchCursor(LocalDate date, LocalTime time, int id) {
+            this.date = date;
+            this.time = time;
+            this.id = id;
+        }
     }
 
     // This method is called by Kafka consumer to actually create show
-    @org.springframework.transaction.annotation.Transactional
+    @Transactional
     public String createShowInDB(ShowEntryDTO showEntryDTO) {
         // Create a showEntity
         Show show = ShowConvertor.convertDtoToEntity(showEntryDTO);
@@ -204,6 +338,7 @@ public class ShowService {
         show.setListOfShowSeats(showSeatList);
 
         show = showRepository.save(show);
+        existenceFilter.recordCreated(ExistenceFilter.SHOW, show.getId());
 
         //Now we  also need to update the parent entities
         List<Show> showList = movie.getShowList();
@@ -1,5 +1,6 @@
 package com.example.TicketFlix.Service;
 
+import com.example.TicketFlix.Cache.SingleFlightLoader;
 import com.example.TicketFlix.Convertors.TheaterConvertor;
 import com.example.TicketFlix.EntryDTOs.TheaterEntryDTO;
 import com.example.TicketFlix.Kafka.KafkaProducerService;
@@ -7,12 +8,12 @@ import com.example.TicketFlix.Models.Theater;
 import com.example.TicketFlix.Repository.TheaterRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
 
 @Service
 @Slf4j
@@ -22,11 +23,12 @@ public class TheaterService {
     TheaterRepository theaterRepository;
 
     @Autowired
-    RedisTemplate<String, String> redisTemplate;
+    SingleFlightLoader singleFlightLoader;
 
     @Autowired
     KafkaProducerService kafkaProducerService;
 
+    private static final String THEATER_CACHE = "theater";
     private static final String THEATER_CACHE_KEY = "theater::";
     private static final int CACHE_TTL_HOURS = 24;
 
@@ -61,6 +63,7 @@ public class TheaterService {
         return "Theater deletion request submitted successfully";
     }
 
+    @Transactional(readOnly = true)
     public List<TheaterEntryDTO> getAllTheaters() throws Exception {
         List<Theater> theaters = theaterRepository.findAll();
         // Optimized: Use Stream API for cleaner code
@@ -69,35 +72,20 @@ public class TheaterService {
                 .collect(java.util.stream.Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public TheaterEntryDTO getTheaterById(int theaterId) throws Exception {
-        // Check Redis cache first
-        String cacheKey = THEATER_CACHE_KEY + theaterId;
-        String cachedData = redisTemplate.opsForValue().get(cacheKey);
-        
-        if (cachedData != null) {
-            log.info("Theater found in cache for ID: {}", theaterId);
-        }
-
-        Optional<Theater> theaterOptional = theaterRepository.findById(theaterId);
-        if (theaterOptional.isEmpty()) {
-            throw new Exception("Theater not found with id: " + theaterId);
-        }
-
-        Theater theater = theaterOptional.get();
-        TheaterEntryDTO theaterEntryDTO = TheaterConvertor.convertEntityToDto(theater);
-
-        // Cache the theater data
-        try {
-            redisTemplate.opsForValue().set(cacheKey, theater.getName(), CACHE_TTL_HOURS, TimeUnit.HOURS);
-        } catch (Exception e) {
-            log.warn("Failed to cache theater data: {}", e.getMessage());
-        }
-
-        return theaterEntryDTO;
+        return singleFlightLoader.load(THEATER_CACHE, THEATER_CACHE_KEY + theaterId, TheaterEntryDTO.class,
+                Duration.ofHours(CACHE_TTL_HOURS), () -> {
+            Optional<Theater> theaterOptional = theaterRepository.findById(theaterId);
+            if (theaterOptional.isEmpty()) {
+                throw new Exception("Theater not found with id: " + theaterId);
+            }
+            return TheaterConvertor.convertEntityToDto(theaterOptional.get());
+        });
     }
 
     // This method is called by Kafka consumer to actually create theater
-    @org.springframework.transaction.annotation.Transactional
+    @Transactional
     public String createTheaterInDB(TheaterEntryDTO theaterEntryDTO) {
         Theater theater = TheaterConvertor.convertDtoToEntity(theaterEntryDTO);
         theaterRepository.save(theater);
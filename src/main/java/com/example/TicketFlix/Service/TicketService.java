@@ -1,5 +1,11 @@
 package com.example.TicketFlix.Service;
 
+import com.example.TicketFlix.Cache.CacheInvalidationService;
+import com.example.TicketFlix.Cache.ExistenceFilter;
+import com.example.TicketFlix.Cache.RedisCircuitBreaker;
+import com.example.TicketFlix.Cache.RedisDtoCache;
+import com.example.TicketFlix.Cache.SingleFlightLoader;
+import com.example.TicketFlix.Cache.TwoLevelCache;
 import com.example.TicketFlix.Convertors.TicketConvertor;
 import com.example.TicketFlix.EntryDTOs.DeleteTicketEntryDTO;
 import com.example.TicketFlix.EntryDTOs.TicketEntryDTO;
@@ -7,27 +13,31 @@ import com.example.TicketFlix.Exception.BusinessException;
 import com.example.TicketFlix.Exception.ConcurrencyException;
 import com.example.TicketFlix.Exception.ResourceNotFoundException;
 import com.example.TicketFlix.Exception.ValidationException;
+import com.example.TicketFlix.Exception.ServiceUnavailableException;
 import com.example.TicketFlix.Kafka.KafkaProducerService;
 import com.example.TicketFlix.Models.Show;
 import com.example.TicketFlix.Models.ShowSeat;
 import com.example.TicketFlix.Models.Ticket;
 import com.example.TicketFlix.Models.User;
 import com.example.TicketFlix.Repository.ShowRepository;
+import com.example.TicketFlix.Repository.ShowSeatRepository;
 import com.example.TicketFlix.Repository.TicketRepository;
 import com.example.TicketFlix.Repository.UserRepository;
 import com.example.TicketFlix.Response.TicketResponseDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
+import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -44,6 +54,9 @@ public class TicketService {
     @Autowired
     private ShowRepository showRepository;
 
+    @Autowired
+    private ShowSeatRepository showSeatRepository;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -57,19 +70,41 @@ public class TicketService {
     private KafkaProducerService kafkaProducerService;
 
     @Autowired
-    private RedisTemplate<String, String> redisTemplate;
+    private RedisDtoCache redisDtoCache;
+
+    @Autowired
+    private TwoLevelCache twoLevelCache;
+
+    @Autowired
+    private SingleFlightLoader singleFlightLoader;
+
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Autowired
+    private ExistenceFilter existenceFilter;
+
+    @Autowired
+    private RedisCircuitBreaker redisCircuitBreaker;
 
+    @Value("${ticketflix.cache.ticket-ttl:12h}")
+    private Duration ticketCacheTtl;
+
+    private static final String TICKET_CACHE = "ticket";
+    private static final String USER_TICKETS_CACHE = "user-tickets";
     private static final String TICKET_CACHE_KEY = "ticket::";
     private static final String USER_TICKETS_CACHE_KEY = "user-tickets::";
-    private static final String SHOW_TICKETS_CACHE_KEY = "show-tickets::";
-    private static final int CACHE_TTL_HOURS = 12;
+    private static final int DEFAULT_PAGE_SIZE = 50;
     private static final long LOCK_WAIT_TIME = 10;
     private static final long LOCK_LEASE_TIME = 30;
 
+    private enum SeatLocks { ACQUIRED, CONTENDED, REDIS_UNAVAILABLE }
+
     /**
      * Book tickets with improved concurrency control
      */
-    public String addTicket(TicketEntryDTO ticketEntryDTO) throws ValidationException, ConcurrencyException, BusinessException {
+    public String addTicket(TicketEntryDTO ticketEntryDTO)
+            throws ValidationException, ConcurrencyException, BusinessException, ServiceUnavailableException {
         validateTicketBookingRequest(ticketEntryDTO);
 
         List<String> requestedSeats = ticketEntryDTO.getRequestedSeats();
@@ -83,17 +118,19 @@ public class TicketService {
 
         try {
             // Acquire locks in sorted order to prevent deadlocks
-            if (!acquireSeatsLocks(sortedSeats, lockKeyPrefix, locks)) {
+            SeatLocks seatLocks = acquireSeatsLocks(sortedSeats, lockKeyPrefix, locks);
+            if (seatLocks == SeatLocks.CONTENDED) {
                 throw new ConcurrencyException("Unable to acquire locks for seats: " + String.join(", ", requestedSeats));
             }
 
-            // Validate seat availability
+            // Validate seat availability; this read is advisory, the consumer arbitrates with row locks
             if (!areSeatsAvailable(ticketEntryDTO)) {
                 throw new BusinessException("One or more requested seats are not available");
             }
 
-            // Publish booking request to Kafka for asynchronous processing
-            kafkaProducerService.publishTicketBookingRequest(ticketEntryDTO, true);
+            // Publish booking request to Kafka for asynchronous processing, confirmed while the seats are still locked
+            kafkaProducerService.awaitDelivery(kafkaProducerService.publishTicketBookingRequest(ticketEntryDTO, true),
+                    "Ticket booking request");
 
             log.info("Ticket booking request submitted successfully for user: {}, show: {}, seats: {}",
                     ticketEntryDTO.getUserId(), ticketEntryDTO.getShowId(), requestedSeats);
@@ -109,14 +146,16 @@ public class TicketService {
     /**
      * Cancel ticket with improved validation
      */
-    public String cancelTicket(DeleteTicketEntryDTO deleteRequest) throws ResourceNotFoundException, ValidationException {
+    public String cancelTicket(DeleteTicketEntryDTO deleteRequest)
+            throws ResourceNotFoundException, ValidationException, ServiceUnavailableException {
         validateTicketCancellationRequest(deleteRequest);
 
         Ticket ticket = ticketRepository.findById(deleteRequest.getTicketId())
                 .orElseThrow(() -> new ResourceNotFoundException("Ticket", String.valueOf(deleteRequest.getTicketId())));
 
-        // Publish cancellation request to Kafka
-        kafkaProducerService.publishTicketCancellationRequest(deleteRequest.getTicketId());
+        // Publish cancellation request to Kafka, confirmed before the client is told it was submitted
+        kafkaProducerService.awaitDelivery(kafkaProducerService.publishTicketCancellationRequest(deleteRequest.getTicketId()),
+                "Ticket cancellation request");
 
         log.info("Ticket cancellation request submitted for ticket: {}", deleteRequest.getTicketId());
         return "Ticket cancellation request submitted successfully. You will receive confirmation shortly.";
@@ -125,6 +164,7 @@ public class TicketService {
     /**
      * Get tickets with improved caching and pagination support
      */
+    @Transactional(readOnly = true)
     public List<TicketResponseDTO> getAllTickets(int page, int size) {
         // For large datasets, consider using pagination at repository level
         List<Ticket> tickets = ticketRepository.findAll();
@@ -139,23 +179,31 @@ public class TicketService {
     /**
      * Get ticket by ID with caching
      */
+    @Transactional(readOnly = true)
     public TicketResponseDTO getTicketById(int ticketId) throws ResourceNotFoundException {
         String cacheKey = TICKET_CACHE_KEY + ticketId;
 
         // Try to get from cache first
-        TicketResponseDTO cachedTicket = getCachedTicket(cacheKey);
+        TicketResponseDTO cachedTicket = twoLevelCache.get(TICKET_CACHE, cacheKey, TicketResponseDTO.class);
         if (cachedTicket != null) {
             log.debug("Ticket found in cache: {}", ticketId);
             return cachedTicket;
         }
 
-        Ticket ticket = ticketRepository.findById(ticketId)
-                .orElseThrow(() -> new ResourceNotFoundException("Ticket", String.valueOf(ticketId)));
+        if (!existenceFilter.mightExist(ExistenceFilter.TICKET, ticketId)) {
+            throw new ResourceNotFoundException("Ticket", String.valueOf(ticketId));
+        }
+        Optional<Ticket> ticketOptional = ticketRepository.findById(ticketId);
+        if (ticketOptional.isEmpty()) {
+            existenceFilter.recordMissing(ExistenceFilter.TICKET, ticketId);
+            throw new ResourceNotFoundException("Ticket", String.valueOf(ticketId));
+        }
+        Ticket ticket = ticketOptional.get();
 
         TicketResponseDTO responseDTO = TicketConvertor.convertEntityToDto(ticket);
 
-        // Cache the result asynchronously
-        CompletableFuture.runAsync(() -> cacheTicket(cacheKey, responseDTO));
+        // Cache the result, tagged so user/show/theater changes can drop it
+        twoLevelCache.put(TICKET_CACHE, cacheKey, responseDTO, ticketCacheTtl, ticketTags(ticket));
 
         return responseDTO;
     }
@@ -163,6 +211,7 @@ public class TicketService {
     /**
      * Get tickets by user with improved performance
      */
+    @Transactional(readOnly = true)
     public List<TicketResponseDTO> getTicketsByUser(int userId, int page, int size) throws ResourceNotFoundException {
         // Validate user exists
         if (!userRepository.existsById(userId)) {
@@ -172,21 +221,22 @@ public class TicketService {
         String cacheKey = USER_TICKETS_CACHE_KEY + userId + ":" + page + ":" + size;
 
         // Check cache first
-        List<TicketResponseDTO> cachedTickets = getCachedTicketList(cacheKey);
+        List<TicketResponseDTO> cachedTickets = redisDtoCache.getList(USER_TICKETS_CACHE, cacheKey, TicketResponseDTO.class);
         if (cachedTickets != null) {
             log.debug("User tickets found in cache: {}", userId);
             return cachedTickets;
         }
 
-        // Query without pagination for now - using existing method
-        List<Ticket> tickets = ticketRepository.findByUserId(userId);
+        // Newest first, paged in the database
+        List<Ticket> tickets = ticketRepository.findByUserId(userId, PageRequest.of(page, size));
 
         List<TicketResponseDTO> responseList = tickets.stream()
                 .map(TicketConvertor::convertEntityToDto)
                 .collect(Collectors.toList());
 
-        // Cache result asynchronously
-        CompletableFuture.runAsync(() -> cacheTicketList(cacheKey, responseList));
+        // Cache result asynchronously; every page is tagged with the user so a booking drops them all
+        redisDtoCache.putAsync(USER_TICKETS_CACHE, cacheKey, responseList, ticketCacheTtl,
+                CacheInvalidationService.userTag(userId));
 
         return responseList;
     }
@@ -206,12 +256,20 @@ public class TicketService {
             List<String> sortedSeats = new ArrayList<>(requestedSeats);
             Collections.sort(sortedSeats);
 
-            if (!acquireSeatsLocks(sortedSeats, lockKeyPrefix, locks)) {
+            // Redis locks only turn away contended bookings early; without Redis the row locks below still arbitrate
+            SeatLocks seatLocks = acquireSeatsLocks(sortedSeats, lockKeyPrefix, locks);
+            if (seatLocks == SeatLocks.CONTENDED) {
                 throw new ConcurrencyException("Unable to acquire locks for database transaction");
             }
+            if (seatLocks == SeatLocks.REDIS_UNAVAILABLE) {
+                log.info("Redis unavailable, booking seats {} of show {} under database locks only",
+                        sortedSeats, ticketEntryDTO.getShowId());
+            }
 
-            // Re-validate seat availability
-            if (!areSeatsAvailable(ticketEntryDTO)) {
+            // Row locks on the requested seats serialize competing bookings until this transaction commits,
+            // whatever each node's Redis circuit says, so the seats are re-checked under them
+            List<ShowSeat> lockedSeats = showSeatRepository.lockSeatsForBooking(ticketEntryDTO.getShowId(), sortedSeats);
+            if (lockedSeats.stream().anyMatch(ShowSeat::isBooked)) {
                 throw new BusinessException("Seats are no longer available");
             }
 
@@ -228,6 +286,7 @@ public class TicketService {
             // Create and save ticket
             Ticket ticket = createTicketEntity(show, user, requestedSeats, totalAmount);
             ticket = ticketRepository.save(ticket);
+            existenceFilter.recordCreated(ExistenceFilter.TICKET, ticket.getId());
 
             // Update relationships
             updateShowAndUserRelationships(show, user, ticket);
@@ -235,7 +294,7 @@ public class TicketService {
             // Update analytics and send notifications
             handlePostBookingOperations(ticket, user);
 
-            // Invalidate relevant caches
+            // Invalidate relevant caches once the booking is committed
             invalidateTicketCaches(ticket);
 
             log.info("Ticket created successfully: {}", ticket.getTicketId());
@@ -287,28 +346,46 @@ public class TicketService {
         }
     }
 
-    private boolean acquireSeatsLocks(List<String> seats, String lockKeyPrefix, Map<String, RLock> locks) {
+    /**
+     * Lock the seats in Redis. REDIS_UNAVAILABLE means the Redis circuit is open or Redis failed mid-way,
+     * and the seats are arbitrated by the database row locks alone.
+     */
+    private SeatLocks acquireSeatsLocks(List<String> seats, String lockKeyPrefix, Map<String, RLock> locks) {
         for (String seat : seats) {
+            if (!redisCircuitBreaker.tryAcquirePermission()) {
+                return SeatLocks.REDIS_UNAVAILABLE;
+            }
             String lockKey = lockKeyPrefix + seat;
             RLock lock = redissonClient.getLock(lockKey);
 
+            long start = System.nanoTime();
             try {
                 boolean acquired = lock.tryLock(LOCK_WAIT_TIME, LOCK_LEASE_TIME, TimeUnit.SECONDS);
+                // Time spent waiting for another booking is contention, not Redis latency
+                redisCircuitBreaker.onSuccess(0);
                 if (!acquired) {
                     log.warn("Failed to acquire lock for seat: {}", seat);
-                    return false;
+                    return SeatLocks.CONTENDED;
                 }
                 locks.put(seat, lock);
+            } catch (RedisException e) {
+                redisCircuitBreaker.onError(System.nanoTime() - start);
+                log.warn("Redis lock for seat {} failed, falling back to database arbitration: {}", seat, e.getMessage());
+                return SeatLocks.REDIS_UNAVAILABLE;
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 log.error("Interrupted while acquiring lock for seat: {}", seat);
-                return false;
+                return SeatLocks.CONTENDED;
             }
         }
-        return true;
+        return SeatLocks.ACQUIRED;
     }
 
     private void releaseAllLocks(Map<String, RLock> locks) {
+        if (redisCircuitBreaker.isOpen()) {
+            // Leases expire on their own; do not wait on an unavailable Redis to release them
+            return;
+        }
         for (Map.Entry<String, RLock> entry : locks.entrySet()) {
             try {
                 if (entry.getValue().isHeldByCurrentThread()) {
@@ -321,16 +398,13 @@ public class TicketService {
     }
 
     private boolean areSeatsAvailable(TicketEntryDTO ticketEntryDTO) {
-        Show show = showRepository.findById(ticketEntryDTO.getShowId()).orElse(null);
-        if (show == null) {
+        if (!showRepository.existsById(ticketEntryDTO.getShowId())) {
             return false;
         }
 
+        // Count query instead of walking the lazy seat list, so this works outside a transaction
         Set<String> requestedSeats = new HashSet<>(ticketEntryDTO.getRequestedSeats());
-
-        return show.getListOfShowSeats().stream()
-                .filter(seat -> requestedSeats.contains(seat.getSeatNumber()))
-                .allMatch(seat -> !seat.isBooked());
+        return showSeatRepository.countBookedSeats(ticketEntryDTO.getShowId(), requestedSeats) == 0;
     }
 
     private int calculateAndBookSeats(Show show, List<String> requestedSeats) {
@@ -375,13 +449,12 @@ public class TicketService {
         // Update trending movies counter
         redisService.increaseMovieCounter(ticket.getMovieName());
 
-        // Publish analytics event
-        kafkaProducerService.publishTicketBookingEvent(ticket, user);
+        // Analytics event and email notification go out through the outbox, committed with the ticket
+        kafkaProducerService.stageTicketBookingEvent(ticket, user);
 
-        // Send email notification
         String subject = "Ticket Booking Confirmation - " + ticket.getMovieName();
         String body = buildConfirmationEmail(ticket, user);
-        kafkaProducerService.publishEmailNotification(user.getEmail(), subject, body);
+        kafkaProducerService.stageEmailNotification(user.getEmail(), subject, body);
     }
 
     private String buildConfirmationEmail(Ticket ticket, User user) {
@@ -405,48 +478,16 @@ public class TicketService {
     }
 
     private void invalidateTicketCaches(Ticket ticket) {
-        try {
-            redisTemplate.delete(TICKET_CACHE_KEY + ticket.getId());
-            redisTemplate.delete(USER_TICKETS_CACHE_KEY + ticket.getUser().getId() + ":*");
-            redisTemplate.delete(SHOW_TICKETS_CACHE_KEY + ticket.getShow().getId() + ":*");
-        } catch (Exception e) {
-            log.warn("Failed to invalidate caches for ticket: {}", ticket.getId(), e);
-        }
-    }
-
-    private TicketResponseDTO getCachedTicket(String cacheKey) {
-        // Implementation would depend on how you want to cache TicketResponseDTO
-        // For now, returning null to indicate cache miss
-        return null;
-    }
-
-    private List<TicketResponseDTO> getCachedTicketList(String cacheKey) {
-        // Implementation would depend on how you want to cache List<TicketResponseDTO>
-        // For now, returning null to indicate cache miss
-        return null;
-    }
-
-    private void cacheTicket(String cacheKey, TicketResponseDTO ticket) {
-        try {
-            // Implementation would serialize and cache the ticket
-            log.debug("Caching ticket: {}", cacheKey);
-        } catch (Exception e) {
-            log.warn("Failed to cache ticket: {}", cacheKey, e);
-        }
-    }
-
-    private void cacheTicketList(String cacheKey, List<TicketResponseDTO> tickets) {
-        try {
-            // Implementation would serialize and cache the ticket list
-            log.debug("Caching ticket list: {}", cacheKey);
-        } catch (Exception e) {
-            log.warn("Failed to cache ticket list: {}", cacheKey, e);
-        }
-    }
-
-    // Method expected by KafkaConsumerService
-    public String createTicketInDB(TicketEntryDTO ticketEntryDTO) throws Exception {
-        return addTicket(ticketEntryDTO);
+        int ticketId = ticket.getId();
+        int userId = ticket.getUser().getId();
+        CacheInvalidationService.afterCommit(() -> {
+            try {
+                twoLevelCache.evict(TICKET_CACHE, TICKET_CACHE_KEY + ticketId);
+                cacheInvalidationService.invalidateTags(CacheInvalidationService.userTag(userId));
+            } catch (Exception e) {
+                log.warn("Failed to invalidate caches for ticket: {}", ticketId, e);
+            }
+        });
     }
 
     // Method expected by KafkaConsumerService
@@ -457,22 +498,37 @@ public class TicketService {
     }
 
     // Method expected by Controller  
+    @Transactional(readOnly = true)
     public List<TicketResponseDTO> getTicketsByShow(int showId) throws Exception {
-        List<Ticket> tickets = ticketRepository.findByShowId(showId);
-        List<TicketResponseDTO> responseDTOs = new ArrayList<>();
-        for (Ticket ticket : tickets) {
-            responseDTOs.add(TicketConvertor.convertEntityToDto(ticket));
-        }
-        return responseDTOs;
+        // One query for the ids, one cache pass, and one IN query and one pipelined write for the misses
+        Map<Integer, String[]> tags = new HashMap<>();
+        return singleFlightLoader.loadAll(TICKET_CACHE, TICKET_CACHE_KEY, ticketRepository.findIdsByShowId(showId),
+                TicketResponseDTO.class, ticketCacheTtl, ids -> {
+                    Map<Integer, TicketResponseDTO> tickets = new HashMap<>();
+                    for (Ticket ticket : ticketRepository.findAllForDtoByIdIn(ids)) {
+                        tickets.put(ticket.getId(), TicketConvertor.convertEntityToDto(ticket));
+                        tags.put(ticket.getId(), ticketTags(ticket));
+                    }
+                    return tickets;
+                }, tags::get);
+    }
+
+    private static String[] ticketTags(Ticket ticket) {
+        return new String[]{
+                CacheInvalidationService.userTag(ticket.getUser().getId()),
+                CacheInvalidationService.showTag(ticket.getShow().getId()),
+                CacheInvalidationService.theaterTag(ticket.getShow().getTheater().getId())};
     }
 
     // Method overloads expected by Controller (no parameters)
+    @Transactional(readOnly = true)
     public List<TicketResponseDTO> getAllTickets() throws Exception {
-        return getAllTickets(0, 50); // Default to page 0, size 50
+        return getAllTickets(0, DEFAULT_PAGE_SIZE);
     }
 
     // Method overload expected by Controller (single userId parameter)
+    @Transactional(readOnly = true)
     public List<TicketResponseDTO> getTicketsByUser(int userId) throws Exception {
-        return getTicketsByUser(userId, 0, 50); // Default to page 0, size 50
+        return getTicketsByUser(userId, 0, DEFAULT_PAGE_SIZE);
     }
 }
\ No newline at end of file
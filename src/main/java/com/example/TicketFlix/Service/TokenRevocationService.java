@@ -0,0 +1,213 @@
+package com.example.TicketFlix.Service;
+
+import com.example.TicketFlix.Cache.LocalBloomFilter;
+import com.example.TicketFlix.Cache.RedisCircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revocation of outstanding JWTs, checked in memory on every authenticated request:
+ * - single tokens (logout): the jti goes into the "auth:revoked-tokens" sorted set, scored by token expiry,
+ *   and into a Bloom filter on every node. A Bloom hit is confirmed against Redis; a miss needs no I/O.
+ * - every token of a user (logout everywhere, deletion, password change): a "not before" time per user in
+ *   the "auth:not-before" hash, mirrored in full on every node. Tokens issued up to that millisecond are
+ *   rejected, so a login right after the revocation is not; tokens without JwtService's millisecond issue
+ *   time only have whole seconds, and are rejected up to the end of that second.
+ * Changes are broadcast on REVOCATION_CHANNEL; each node reloads both structures from Redis at startup
+ * and whenever the Redis circuit closes, in case it missed broadcasts meanwhile.
+ */
+@Service
+@Slf4j
+public class TokenRevocationService {
+
+    public static final String REVOCATION_CHANNEL = "ticketflix:token-revocation";
+
+    private static final String REVOKED_TOKENS_KEY = "auth:revoked-tokens";
+    private static final String NOT_BEFORE_KEY = "auth:not-before";
+    private static final String TOKEN_MESSAGE_PREFIX = "token|";
+    private static final String USER_MESSAGE_PREFIX = "user|";
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private RedisCircuitBreaker redisCircuitBreaker;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("cacheWriteExecutor")
+    private ThreadPoolTaskExecutor cacheWriteExecutor;
+
+    @Value("${ticketflix.auth.revocation.expected-revocations:100000}")
+    private long expectedRevocations;
+
+    @Value("${ticketflix.auth.revocation.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    // Longest lifetime of any token, after which a user's "not before" entry can no longer match anything
+    @Value("${jwt.refresh.expiration:604800000}")
+    private long maxTokenLifetimeMillis;
+
+    private volatile LocalBloomFilter revokedTokenIds;
+    private final Map<Integer, Long> notBeforeByUser = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        revokedTokenIds = new LocalBloomFilter(expectedRevocations, falsePositiveRate);
+        redisCircuitBreaker.addCloseListener(() -> {
+            try {
+                cacheWriteExecutor.execute(this::reload);
+            } catch (TaskRejectedException e) {
+                log.warn("Cache write queue full, token revocations not reloaded after Redis recovered");
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    public boolean isRevoked(VerifiedToken token) {
+        if (token.getUserId() != null && token.getIssuedAt() != null) {
+            Long notBefore = notBeforeByUser.get(token.getUserId());
+            if (notBefore != null && token.getIssuedAt().getTime() <= notBefore) {
+                return true;
+            }
+        }
+        if (token.getTokenId() == null || !revokedTokenIds.mightContain(token.getTokenId())) {
+            return false;
+        }
+        return confirmRevoked(token.getTokenId());
+    }
+
+    /**
+     * Revoke one token, e.g. on logout. Throws if Redis cannot record it, since other nodes would not see it.
+     */
+    public void revokeToken(VerifiedToken token) {
+        if (token.getTokenId() == null) {
+            // Issued before token ids existed; only revoking the user's tokens as a whole can reach it
+            if (token.getUserId() != null) {
+                revokeAllForUser(token.getUserId());
+            }
+            return;
+        }
+        long now = System.currentTimeMillis();
+        redisTemplate.opsForZSet().add(REVOKED_TOKENS_KEY, token.getTokenId(), token.getExpiration().getTime());
+        redisTemplate.opsForZSet().removeRangeByScore(REVOKED_TOKENS_KEY, Double.NEGATIVE_INFINITY, now);
+        synchronized (this) {
+            revokedTokenIds.put(token.getTokenId());
+        }
+        publish(TOKEN_MESSAGE_PREFIX + token.getTokenId());
+        meterRegistry.counter("ticketflix.auth.revocations", "scope", "token").increment();
+    }
+
+    /**
+     * Revoke every token issued to the user so far
+     */
+    public void revokeAllForUser(int userId) {
+        long notBefore = System.currentTimeMillis();
+        redisTemplate.opsForHash().put(NOT_BEFORE_KEY, String.valueOf(userId), String.valueOf(notBefore));
+        notBeforeByUser.merge(userId, notBefore, Math::max);
+        publish(USER_MESSAGE_PREFIX + userId + "|" + notBefore);
+        meterRegistry.counter("ticketflix.auth.revocations", "scope", "user").increment();
+    }
+
+    /**
+     * Handle a broadcast from RedisConfig's listener container: "token|<jti>" or "user|<userId>|<notBefore>"
+     */
+    public void onRevocationMessage(String message) {
+        try {
+            if (message.startsWith(TOKEN_MESSAGE_PREFIX)) {
+                synchronized (this) {
+                    revokedTokenIds.put(message.substring(TOKEN_MESSAGE_PREFIX.length()));
+                }
+            } else if (message.startsWith(USER_MESSAGE_PREFIX)) {
+                String[] parts = message.split("\\|");
+                notBeforeByUser.merge(Integer.parseInt(parts[1]), Long.parseLong(parts[2]), Math::max);
+            } else {
+                log.warn("Ignoring malformed token revocation message: {}", message);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Ignoring malformed token revocation message {}: {}", message, e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuild the Bloom filter from the unexpired revoked tokens and refresh the not-before map.
+     * Holds the lock while reading so broadcasts received meanwhile land in the new filter.
+     */
+    synchronized void reload() {
+        long now = System.currentTimeMillis();
+        try {
+            Set<String> tokenIds = redisTemplate.opsForZSet()
+                    .rangeByScore(REVOKED_TOKENS_KEY, now, Double.POSITIVE_INFINITY);
+            Map<Object, Object> notBefore = redisTemplate.opsForHash().entries(NOT_BEFORE_KEY);
+
+            LocalBloomFilter filter = new LocalBloomFilter(expectedRevocations, falsePositiveRate);
+            if (tokenIds != null) {
+                tokenIds.forEach(filter::put);
+            }
+            Map<Integer, Long> loaded = new HashMap<>();
+            for (Map.Entry<Object, Object> entry : notBefore.entrySet()) {
+                long at = Long.parseLong(entry.getValue().toString());
+                if (at < now - maxTokenLifetimeMillis) {
+                    redisTemplate.opsForHash().delete(NOT_BEFORE_KEY, entry.getKey());
+                } else {
+                    loaded.put(Integer.parseInt(entry.getKey().toString()), at);
+                }
+            }
+
+            revokedTokenIds = filter;
+            loaded.forEach((userId, at) -> notBeforeByUser.merge(userId, at, Math::max));
+            notBeforeByUser.values().removeIf(at -> at < now - maxTokenLifetimeMillis);
+            log.info("Loaded {} revoked tokens and {} user revocations",
+                    tokenIds != null ? tokenIds.size() : 0, loaded.size());
+        } catch (Exception e) {
+            log.warn("Failed to load token revocations, keeping the current set: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * A Bloom hit is either a revoked token or a false positive; only Redis can tell. While Redis is
+     * unreachable, hits are treated as revoked.
+     */
+    private boolean confirmRevoked(String tokenId) {
+        boolean revoked = true;
+        try {
+            if (!redisCircuitBreaker.isOpen()) {
+                revoked = redisTemplate.opsForZSet().score(REVOKED_TOKENS_KEY, tokenId) != null;
+            }
+        } catch (Exception e) {
+            log.warn("Failed to confirm revocation of token {}, rejecting it: {}", tokenId, e.getMessage());
+            revoked = true;
+        }
+        meterRegistry.counter("ticketflix.auth.revocation.bloom-hits", "revoked", String.valueOf(revoked)).increment();
+        return revoked;
+    }
+
+    private void publish(String message) {
+        try {
+            redisTemplate.convertAndSend(REVOCATION_CHANNEL, message);
+        } catch (Exception e) {
+            log.warn("Failed to broadcast token revocation: {}", e.getMessage());
+        }
+    }
+}
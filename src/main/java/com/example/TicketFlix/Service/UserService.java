@@ -7,11 +7,15 @@ import com.example.TicketFlix.Models.User;
 import com.example.TicketFlix.Repository.UserRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -26,6 +30,12 @@ public class UserService {
     @Autowired
     PasswordEncoder passwordEncoder;
 
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO user (name, age, email, mobile_number, address, password, role, enabled) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
     public String addUser(UserEntryDTO userEntryDTO) throws Exception, NullPointerException{
         if (userEntryDTO.getEmail() != null) {
             Optional<User> existingUser = userRepository.findByEmail(userEntryDTO.getEmail());
@@ -35,7 +45,7 @@ public class UserService {
         }
         
         // Publish user creation event to Kafka (consumer will handle DB persistence)
-        kafkaProducerService.publishUserCreationEvent(userEntryDTO);
+        kafkaProducerService.awaitDelivery(kafkaProducerService.publishUserCreationEvent(userEntryDTO), "User creation");
         log.info("User creation event published to Kafka for email: {}", userEntryDTO.getEmail());
         
         return "User creation request submitted successfully";
@@ -54,6 +64,7 @@ public class UserService {
         return "User deletion request submitted successfully";
     }
 
+    @Transactional(readOnly = true)
     public List<UserEntryDTO> getAllUsers() throws Exception {
         List<User> users = userRepository.findAll();
         // Optimized: Use Stream API for cleaner code
@@ -62,6 +73,7 @@ public class UserService {
                 .collect(java.util.stream.Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public UserEntryDTO getUserById(int userId) throws Exception {
         Optional<User> userOptional = userRepository.findById(userId);
         if (userOptional.isEmpty()) {
@@ -83,4 +95,22 @@ public class UserService {
         
         return "User update request submitted successfully";
     }
+
+    // Called by the batched Kafka consumer. Passwords must already be encoded and emails already checked;
+    // a taken email or mobile number fails the whole batch. Users are inserted with one JDBC batch (the
+    // IDENTITY ids rule out Hibernate insert batching) and read back with their generated ids.
+    @Transactional
+    public List<User> createUsersInDB(List<UserEntryDTO> userEntryDTOs) {
+        List<Object[]> rows = new ArrayList<>(userEntryDTOs.size());
+        for (UserEntryDTO userEntryDTO : userEntryDTOs) {
+            User user = UserConvertor.convertDtoToEntity(userEntryDTO);
+            rows.add(new Object[]{user.getName(), user.getAge(), user.getEmail(), user.getMobileNumber(),
+                    user.getAddress(), user.getPassword(), user.getRole().name(), user.isEnabled()});
+        }
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        jdbcTemplate.batchUpdate(INSERT_USER_SQL, rows);
+        return userRepository.findByEmailIn(userEntryDTOs.stream().map(UserEntryDTO::getEmail).collect(Collectors.toList()));
+    }
 }
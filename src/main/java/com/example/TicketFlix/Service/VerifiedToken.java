@@ -0,0 +1,38 @@
+package com.example.TicketFlix.Service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Date;
+
+/**
+ * Claims of a JWT whose signature and expiry have been checked by JwtService.verify. Immutable, so a
+ * verified token can be shared between requests presenting the same token.
+ */
+@Getter
+@AllArgsConstructor
+public final class VerifiedToken {
+
+    // jti; null for tokens issued before token ids were added
+    private final String tokenId;
+    private final String email;
+    private final Integer userId;
+    private final String role;
+    private final String type;
+    // Refresh token family of the session; null for tokens issued outside a session
+    private final String familyId;
+    private final Date issuedAt;
+    private final Date expiration;
+
+    public boolean isAccessToken() {
+        return "ACCESS".equals(type);
+    }
+
+    public boolean isRefreshToken() {
+        return "REFRESH".equals(type);
+    }
+
+    public boolean isExpired() {
+        return expiration.getTime() <= System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,20 @@
+-- Single-use refresh tokens: KEYS[1] holds the id of the only valid refresh token of a session (family).
+-- ARGV[1] presented token id, ARGV[2] id of the token replacing it.
+-- Returns 1 when rotated, 0 when the family is unknown (expired or logged out), and -1 when an already
+-- rotated token is presented again: the family is deleted, ending the session for whoever holds it.
+local current = redis.call('GET', KEYS[1])
+if not current then
+    return 0
+end
+if current ~= ARGV[1] then
+    redis.call('DEL', KEYS[1])
+    return -1
+end
+-- The family keeps the deadline set at login
+local ttl = redis.call('PTTL', KEYS[1])
+if ttl > 0 then
+    redis.call('SET', KEYS[1], ARGV[2], 'PX', ttl)
+else
+    redis.call('SET', KEYS[1], ARGV[2])
+end
+return 1
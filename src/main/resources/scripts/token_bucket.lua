@@ -0,0 +1,34 @@
+-- Token bucket: takes up to ARGV[3] tokens from the bucket at KEYS[1] in one atomic step.
+-- ARGV[1] capacity, ARGV[2] refill in tokens per millisecond, ARGV[3] tokens requested.
+-- Returns {tokens granted, milliseconds until one token is available when none were granted}.
+-- Time comes from the Redis server, so nodes with skewed clocks share one bucket consistently.
+redis.replicate_commands()
+
+local capacity = tonumber(ARGV[1])
+local refill_per_ms = tonumber(ARGV[2])
+local requested = tonumber(ARGV[3])
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+local tokens = tonumber(state[1])
+local ts = tonumber(state[2])
+if tokens == nil or ts == nil then
+    tokens = capacity
+    ts = now
+end
+
+tokens = math.min(capacity, tokens + math.max(0, now - ts) * refill_per_ms)
+local granted = math.min(requested, math.floor(tokens))
+tokens = tokens - granted
+
+redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(now))
+-- A full bucket carries no information, so keep the key only as long as it takes to refill
+redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / refill_per_ms) + 1000)
+
+local wait = 0
+if granted == 0 then
+    wait = math.ceil((1 - tokens) / refill_per_ms)
+end
+return {granted, wait}
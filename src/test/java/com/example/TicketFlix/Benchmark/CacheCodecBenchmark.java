@@ -0,0 +1,115 @@
+package com.example.TicketFlix.Benchmark;
+
+import com.example.TicketFlix.Cache.JacksonCacheSerializer;
+import com.example.TicketFlix.Genres.Language;
+import com.example.TicketFlix.Genres.ShowType;
+import com.example.TicketFlix.Response.ShowSearchResponseDTO;
+import com.example.TicketFlix.Response.ShowSearchResultDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Size and encode/decode latency of cached values: the pre-codec JSON strings against the framed
+ * JSON and Smile codecs, with and without deflate. Payloads are show search pages, the largest
+ * values we cache. Run the main method from the IDE, or with the test classpath:
+ * java -cp target/test-classes:target/classes:<test classpath> com.example.TicketFlix.Benchmark.CacheCodecBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheCodecBenchmark {
+
+    @Param({"legacy-json", "json", "smile", "smile-deflate"})
+    public String format;
+
+    @Param({"1", "20", "100"})
+    public int rows;
+
+    private ObjectMapper objectMapper;
+    private JacksonCacheSerializer serializer;
+    private ShowSearchResponseDTO value;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = new Jackson2ObjectMapperBuilder().build();
+        serializer = serializer(format);
+        value = searchPage(rows);
+        encoded = encode();
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        if (serializer == null) {
+            return objectMapper.writeValueAsString(value).getBytes(StandardCharsets.UTF_8);
+        }
+        return serializer.serialize("show-search", value);
+    }
+
+    @Benchmark
+    public ShowSearchResponseDTO decode() throws Exception {
+        if (serializer == null) {
+            return objectMapper.readValue(new String(encoded, StandardCharsets.UTF_8), ShowSearchResponseDTO.class);
+        }
+        return serializer.deserialize(encoded, ShowSearchResponseDTO.class);
+    }
+
+    private static JacksonCacheSerializer serializer(String format) {
+        if (format.equals("legacy-json")) {
+            return null;
+        }
+        JacksonCacheSerializer serializer = new JacksonCacheSerializer();
+        ReflectionTestUtils.setField(serializer, "objectMapper", new Jackson2ObjectMapperBuilder().build());
+        ReflectionTestUtils.setField(serializer, "objectMapperBuilder", new Jackson2ObjectMapperBuilder());
+        ReflectionTestUtils.setField(serializer, "defaultCodecName", format.startsWith("json") ? "json" : "smile");
+        ReflectionTestUtils.setField(serializer, "namespaceCodecNames", "");
+        ReflectionTestUtils.setField(serializer, "compressionThreshold", format.endsWith("-deflate") ? 0 : Integer.MAX_VALUE);
+        serializer.init();
+        return serializer;
+    }
+
+    private static ShowSearchResponseDTO searchPage(int rows) {
+        List<ShowSearchResultDTO> shows = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            shows.add(new ShowSearchResultDTO(1000 + i, LocalDate.of(2030, 1, 1 + i % 28), LocalTime.of(10 + i % 12, 30),
+                    ShowType.values()[i % ShowType.values().length], 40 + i % 5, "Movie " + (40 + i % 5),
+                    Language.values()[i % Language.values().length], 300 + i % 7, "Theater " + (300 + i % 7),
+                    "Mumbai", 900 + i, "Audi " + (i % 6 + 1)));
+        }
+        return ShowSearchResponseDTO.builder().shows(shows).nextCursor(rows > 1 ? "MjAzMC0wMS0wMXwxODozMHw0OQ" : null).build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("Encoded sizes (bytes)");
+        for (int rows : new int[]{1, 20, 100}) {
+            CacheCodecBenchmark sizes = new CacheCodecBenchmark();
+            sizes.rows = rows;
+            StringBuilder line = new StringBuilder(String.format("%4d rows:", rows));
+            for (String format : new String[]{"legacy-json", "json", "smile", "smile-deflate"}) {
+                sizes.format = format;
+                sizes.setUp();
+                line.append(String.format("  %s=%d", format, sizes.encoded.length));
+            }
+            System.out.println(line);
+        }
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(CacheCodecBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
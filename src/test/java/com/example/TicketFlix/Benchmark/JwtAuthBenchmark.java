@@ -0,0 +1,85 @@
+package com.example.TicketFlix.Benchmark;
+
+import com.example.TicketFlix.Service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token verification cost of one authenticated request, for a pool of users each reusing their token:
+ * - legacy: what the filter used to do, two parses (subject, then expiry), each decoding the secret and
+ *   building a new key and parser
+ * - verify: JwtService.verify with the verified-token cache disabled, one parse with the shared parser
+ * - verify-cached: JwtService.verify with the verified-token cache, one SHA-256 and a lookup
+ * Run the main method from the IDE, or with the test classpath:
+ * java -cp target/test-classes:target/classes:<test classpath> com.example.TicketFlix.Benchmark.JwtAuthBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthBenchmark {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(
+            "benchmark-secret-key-for-hs512-signatures-that-is-at-least-64-bytes-long".getBytes());
+
+    @Param({"legacy", "verify", "verify-cached"})
+    public String mode;
+
+    @Param({"1000"})
+    public int users;
+
+    private JwtService jwtService;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "expiration", 3600000L);
+        ReflectionTestUtils.setField(jwtService, "verifiedCacheMaxSize", mode.equals("verify-cached") ? 10000L : 0L);
+        tokens = new String[users];
+        for (int i = 0; i < users; i++) {
+            tokens[i] = jwtService.generateAccessToken("user" + i + "@example.com", i, "USER");
+        }
+    }
+
+    @Benchmark
+    public Object authenticate() {
+        String token = tokens[next];
+        next = (next + 1) % tokens.length;
+        if (mode.equals("legacy")) {
+            String email = legacyParse(token).getSubject();
+            boolean valid = !legacyParse(token).getExpiration().before(new Date());
+            return valid ? email : null;
+        }
+        return jwtService.verify(token);
+    }
+
+    private static Claims legacyParse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Base64.getDecoder().decode(SECRET)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(JwtAuthBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
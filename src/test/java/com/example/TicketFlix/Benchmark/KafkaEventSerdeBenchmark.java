@@ -0,0 +1,105 @@
+package com.example.TicketFlix.Benchmark;
+
+import com.example.TicketFlix.Config.KafkaConfig;
+import com.example.TicketFlix.EntryDTOs.UserEntryDTO;
+import com.example.TicketFlix.Events.EventEnvelope;
+import com.example.TicketFlix.Events.EventType;
+import com.example.TicketFlix.Kafka.EventEnvelopeDeserializer;
+import com.example.TicketFlix.Kafka.EventEnvelopeSerializer;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-message CPU and size of Kafka event values: the previous HashMap -> JSON string -> Map -> convertValue
+ * round trip against the Smile EventEnvelope serde. The payload is a user update event. Run the main method
+ * from the IDE, or with the test classpath:
+ * java -cp target/test-classes:target/classes:<test classpath> com.example.TicketFlix.Benchmark.KafkaEventSerdeBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KafkaEventSerdeBenchmark {
+
+    private static final String TOPIC = "user-update-events";
+
+    private ObjectMapper objectMapper;
+    private EventEnvelopeSerializer serializer;
+    private EventEnvelopeDeserializer deserializer;
+    private UserEntryDTO user;
+    private byte[] legacyMessage;
+    private byte[] envelopeMessage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new Jackson2ObjectMapperBuilder().build();
+        ObjectMapper smileMapper = KafkaConfig.eventMapper(new Jackson2ObjectMapperBuilder());
+        serializer = new EventEnvelopeSerializer(smileMapper);
+        deserializer = new EventEnvelopeDeserializer(smileMapper);
+        user = new UserEntryDTO();
+        user.setName("Asha Verma");
+        user.setAge(31);
+        user.setEmail("asha.verma@example.com");
+        user.setAddress("14 Marine Drive, Mumbai");
+        user.setMobileNumber("9876543210");
+        legacyMessage = legacyEncode();
+        envelopeMessage = envelopeEncode();
+    }
+
+    @Benchmark
+    public byte[] legacyEncode() {
+        try {
+            Map<String, Object> eventData = new HashMap<>();
+            eventData.put("userId", 7);
+            eventData.put("userEntryDTO", user);
+            eventData.put("timestamp", System.currentTimeMillis());
+            return objectMapper.writeValueAsString(eventData).getBytes(StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public UserEntryDTO legacyDecode() {
+        try {
+            String message = new String(legacyMessage, StandardCharsets.UTF_8);
+            Map<String, Object> eventData = objectMapper.readValue(message, new TypeReference<Map<String, Object>>() {});
+            return objectMapper.convertValue(eventData.get("userEntryDTO"), UserEntryDTO.class);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public byte[] envelopeEncode() {
+        return serializer.serialize(TOPIC, EventEnvelope.of(EventType.USER_UPDATE, 7, user));
+    }
+
+    @Benchmark
+    public Object envelopeDecode() {
+        return deserializer.deserialize(TOPIC, envelopeMessage).getPayload();
+    }
+
+    public static void main(String[] args) throws Exception {
+        KafkaEventSerdeBenchmark sizes = new KafkaEventSerdeBenchmark();
+        sizes.setUp();
+        System.out.printf("Encoded sizes (bytes): legacy-json=%d  smile-envelope=%d%n",
+                sizes.legacyMessage.length, sizes.envelopeMessage.length);
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(KafkaEventSerdeBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.TicketFlix.Cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationServiceTest {
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private CacheInvalidationService cacheInvalidationService;
+
+    @BeforeEach
+    void setUp() {
+        cacheInvalidationService = new CacheInvalidationService();
+        ReflectionTestUtils.setField(cacheInvalidationService, "redisTemplate", redisTemplate);
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void testTag_AddsKeyToEveryTagSetInOnePipeline() {
+        cacheInvalidationService.tag("ticket::1", Duration.ofHours(12),
+                CacheInvalidationService.userTag(7), CacheInvalidationService.showTag(3));
+
+        ArgumentCaptor<SessionCallback> callback = ArgumentCaptor.forClass(SessionCallback.class);
+        verify(redisTemplate).executePipelined(callback.capture());
+
+        RedisOperations operations = mock(RedisOperations.class);
+        SetOperations setOperations = mock(SetOperations.class);
+        when(operations.opsForSet()).thenReturn(setOperations);
+        callback.getValue().execute(operations);
+
+        verify(setOperations).add("cache-tag::user:7", "ticket::1");
+        verify(setOperations).add("cache-tag::show:3", "ticket::1");
+        verify(operations).expire("cache-tag::user:7", Duration.ofHours(12).toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testInvalidateTags_UnlinksMembersAndTagSetsTogether() {
+        when(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .thenReturn(List.of(Set.of("ticket::1", "user-tickets::7:0:50"), Set.of("user-tickets::7:1:50")));
+
+        cacheInvalidationService.invalidateTags(CacheInvalidationService.userTag(7), CacheInvalidationService.theaterTag(2));
+
+        ArgumentCaptor<Collection<String>> keys = ArgumentCaptor.forClass(Collection.class);
+        verify(redisTemplate).unlink(keys.capture());
+        assertEquals(Set.of("cache-tag::user:7", "cache-tag::theater:2", "ticket::1",
+                "user-tickets::7:0:50", "user-tickets::7:1:50"), Set.copyOf(keys.getValue()));
+        verify(redisTemplate, never()).delete(anyString());
+    }
+
+    @Test
+    void testBumpGeneration_MovesNamespaceKeysToNewGeneration() {
+        when(valueOperations.get("cache-gen::show-search")).thenReturn(null).thenReturn("1");
+
+        assertEquals("show-search::g0::pune", cacheInvalidationService.generationKey("show-search", "pune"));
+        cacheInvalidationService.bumpGeneration("show-search");
+        assertEquals("show-search::g1::pune", cacheInvalidationService.generationKey("show-search", "pune"));
+
+        verify(valueOperations).increment("cache-gen::show-search");
+    }
+
+    @Test
+    void testGenerationKey_RedisDown_FallsBackToGenerationZero() {
+        when(valueOperations.get(anyString())).thenThrow(new RuntimeException("connection refused"));
+
+        assertEquals("show-search::g0::pune", cacheInvalidationService.generationKey("show-search", "pune"));
+    }
+
+    @Test
+    void testAfterCommit_DefersInvalidationUntilTheTransactionCommits() {
+        AtomicInteger runs = new AtomicInteger();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            CacheInvalidationService.afterCommit(runs::incrementAndGet);
+            assertEquals(0, runs.get());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertEquals(1, runs.get());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testAfterCommit_WithoutTransaction_RunsAtOnce() {
+        AtomicInteger runs = new AtomicInteger();
+
+        CacheInvalidationService.afterCommit(runs::incrementAndGet);
+
+        assertEquals(1, runs.get());
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.TicketFlix.Cache;
+
+import com.example.TicketFlix.Repository.MovieRepository;
+import com.example.TicketFlix.Repository.ShowRepository;
+import com.example.TicketFlix.Repository.TicketRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RBloomFilter;
+import org.redisson.api.RedissonClient;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExistenceFilterTest {
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private RBloomFilter<Object> movieFilter;
+
+    @Mock
+    private MovieRepository movieRepository;
+
+    @Mock
+    private ShowRepository showRepository;
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExistenceFilter existenceFilter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        existenceFilter = new ExistenceFilter();
+        ReflectionTestUtils.setField(existenceFilter, "redissonClient", redissonClient);
+        ReflectionTestUtils.setField(existenceFilter, "redisTemplate", redisTemplate);
+        ReflectionTestUtils.setField(existenceFilter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(existenceFilter, "redisCircuitBreaker",
+                RedisCircuitBreakerTest.breaker(meterRegistry, Duration.ofSeconds(10)));
+        ReflectionTestUtils.setField(existenceFilter, "movieRepository", movieRepository);
+        ReflectionTestUtils.setField(existenceFilter, "showRepository", showRepository);
+        ReflectionTestUtils.setField(existenceFilter, "ticketRepository", ticketRepository);
+        ReflectionTestUtils.setField(existenceFilter, "expectedInsertions", 1000L);
+        ReflectionTestUtils.setField(existenceFilter, "falsePositiveRate", 0.01);
+        ReflectionTestUtils.setField(existenceFilter, "negativeTtl", Duration.ofSeconds(60));
+        ReflectionTestUtils.setField(existenceFilter, "readyTtl", Duration.ofSeconds(5));
+
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(redissonClient.getBloomFilter("bloom::movie")).thenReturn(movieFilter);
+    }
+
+    @Test
+    void testMightExist_ReadyFilterRejectsUnknownId() {
+        when(redisTemplate.hasKey("missing::movie::999")).thenReturn(false);
+        when(redisTemplate.hasKey("bloom-ready::movie")).thenReturn(true);
+        when(movieFilter.contains(999)).thenReturn(false);
+
+        assertFalse(existenceFilter.mightExist(ExistenceFilter.MOVIE, 999));
+        assertEquals(1.0, meterRegistry.get("ticketflix.bloom.rejections").tag("filter", "movie").counter().count());
+    }
+
+    @Test
+    void testMightExist_ReadyFlagDroppedByAnotherNode_StopsTrustingFilterAfterReadyTtl() {
+        ReflectionTestUtils.setField(existenceFilter, "readyTtl", Duration.ZERO);
+        when(redisTemplate.hasKey("missing::movie::999")).thenReturn(false);
+        when(redisTemplate.hasKey("bloom-ready::movie")).thenReturn(true, false);
+        when(movieFilter.contains(999)).thenReturn(false);
+
+        assertFalse(existenceFilter.mightExist(ExistenceFilter.MOVIE, 999));
+        // Another node distrusted the filter and a restart is rebuilding it
+        assertTrue(existenceFilter.mightExist(ExistenceFilter.MOVIE, 999));
+        verify(movieFilter, times(1)).contains(999);
+    }
+
+    @Test
+    void testMightExist_FilterNotReady_AllowsLookup() {
+        when(redisTemplate.hasKey(anyString())).thenReturn(false);
+
+        assertTrue(existenceFilter.mightExist(ExistenceFilter.MOVIE, 999));
+        verify(movieFilter, never()).contains(any());
+    }
+
+    @Test
+    void testRecordMissing_NegativeEntryShortCircuitsUntilCreated() {
+        existenceFilter.recordMissing(ExistenceFilter.MOVIE, 42);
+        verify(valueOperations).set("missing::movie::42", "1", Duration.ofSeconds(60));
+
+        when(redisTemplate.hasKey("missing::movie::42")).thenReturn(true);
+        assertFalse(existenceFilter.mightExist(ExistenceFilter.MOVIE, 42));
+
+        existenceFilter.recordCreated(ExistenceFilter.MOVIE, 42);
+        verify(redisTemplate).delete(List.of("missing::movie::42"));
+        verify(movieFilter).add(List.of(42));
+    }
+
+    @Test
+    void testRecordCreated_FailedAddStopsTrustingFilter() {
+        when(redisTemplate.hasKey("missing::movie::7")).thenReturn(false);
+        when(redisTemplate.hasKey("bloom-ready::movie")).thenReturn(true);
+        when(movieFilter.contains(7)).thenReturn(false);
+        assertFalse(existenceFilter.mightExist(ExistenceFilter.MOVIE, 7));
+        when(movieFilter.add(List.of(7))).thenThrow(new RuntimeException("timeout"));
+
+        existenceFilter.recordCreated(ExistenceFilter.MOVIE, 7);
+
+        // The ready flag is still there (its delete is a no-op on the mock), but the filter is no longer consulted
+        assertTrue(existenceFilter.mightExist(ExistenceFilter.MOVIE, 7));
+        verify(movieFilter, times(1)).contains(7);
+        verify(redisTemplate).delete("bloom-ready::movie");
+        verify(movieFilter).delete();
+    }
+
+    @Test
+    void testMightExist_RedisDown_AllowsLookup() {
+        when(redisTemplate.hasKey(anyString())).thenThrow(new RuntimeException("connection refused"));
+
+        assertTrue(existenceFilter.mightExist(ExistenceFilter.MOVIE, 1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testInitialize_PopulatesNewFilterAndMarksReady() {
+        when(movieFilter.tryInit(1000L, 0.01)).thenReturn(true);
+        when(movieFilter.getFalseProbability()).thenReturn(0.01);
+        when(movieRepository.findIdsAfter(eq(0), any(Pageable.class))).thenReturn(List.of(1, 2, 3));
+        RBloomFilter<Object> otherFilter = mock(RBloomFilter.class);
+        when(redissonClient.getBloomFilter("bloom::show")).thenReturn(otherFilter);
+        when(redissonClient.getBloomFilter("bloom::ticket")).thenReturn(otherFilter);
+
+        existenceFilter.initialize();
+
+        verify(movieFilter).add(List.of(1, 2, 3));
+        verify(valueOperations).set("bloom-ready::movie", "1");
+        verify(valueOperations, never()).set(eq("bloom-ready::show"), anyString());
+        assertEquals(0.01, meterRegistry.get("ticketflix.bloom.false.positive.rate").tag("filter", "movie").gauge().value(), 0.0);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.TicketFlix.Cache;
+
+import com.example.TicketFlix.Genres.Language;
+import com.example.TicketFlix.Genres.ShowType;
+import com.example.TicketFlix.Response.ShowSearchResponseDTO;
+import com.example.TicketFlix.Response.ShowSearchResultDTO;
+import com.example.TicketFlix.Response.TicketResponseDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JacksonCacheSerializerTest {
+
+    static JacksonCacheSerializer serializer(String namespaceCodecs, int compressionThreshold) {
+        JacksonCacheSerializer serializer = new JacksonCacheSerializer();
+        ReflectionTestUtils.setField(serializer, "objectMapper", new Jackson2ObjectMapperBuilder().build());
+        ReflectionTestUtils.setField(serializer, "objectMapperBuilder", new Jackson2ObjectMapperBuilder());
+        ReflectionTestUtils.setField(serializer, "defaultCodecName", "smile");
+        ReflectionTestUtils.setField(serializer, "namespaceCodecNames", namespaceCodecs);
+        ReflectionTestUtils.setField(serializer, "compressionThreshold", compressionThreshold);
+        serializer.init();
+        return serializer;
+    }
+
+    private TicketResponseDTO ticket() {
+        TicketResponseDTO dto = new TicketResponseDTO();
+        dto.setId(1);
+        dto.setMovieName("Movie 1");
+        dto.setShowDate(LocalDate.of(2030, 1, 1));
+        return dto;
+    }
+
+    private ShowSearchResponseDTO searchPage(int rows) {
+        List<ShowSearchResultDTO> shows = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            shows.add(new ShowSearchResultDTO(i, LocalDate.of(2030, 1, 1), LocalTime.of(18, 30), ShowType._2D,
+                    7, "Interstellar", Language.ENGLISH, 3, "PVR Phoenix", "Mumbai", 11, "Audi 1"));
+        }
+        return ShowSearchResponseDTO.builder().shows(shows).nextCursor("MjAzMC0wMS0wMXwxODozMHw0OQ").build();
+    }
+
+    @Test
+    void testDefaultCodec_SmileRoundTripSmallerThanJson() throws Exception {
+        JacksonCacheSerializer serializer = serializer("", Integer.MAX_VALUE);
+
+        byte[] payload = serializer.serialize("show-search", searchPage(20));
+
+        assertEquals(JacksonCacheSerializer.SMILE_CODEC_ID, payload[0]);
+        assertEquals(0, payload[1]);
+        assertTrue(payload.length < new Jackson2ObjectMapperBuilder().build().writeValueAsBytes(searchPage(20)).length);
+        assertEquals(searchPage(20), serializer.deserialize(payload, ShowSearchResponseDTO.class));
+    }
+
+    @Test
+    void testNamespaceOverride_WritesJson() throws Exception {
+        JacksonCacheSerializer serializer = serializer("ticket=json, show-search=smile", Integer.MAX_VALUE);
+
+        byte[] payload = serializer.serialize("ticket", ticket());
+
+        assertEquals(JacksonCacheSerializer.JSON_CODEC_ID, payload[0]);
+        assertTrue(new String(payload, 2, payload.length - 2, StandardCharsets.UTF_8).contains("\"movieName\":\"Movie 1\""));
+        assertEquals(ticket(), serializer.deserialize(payload, TicketResponseDTO.class));
+    }
+
+    @Test
+    void testLargeValue_DeflatedAboveThreshold() throws Exception {
+        JacksonCacheSerializer compressing = serializer("", 256);
+
+        byte[] compressed = compressing.serialize("show-search", searchPage(50));
+        byte[] uncompressed = serializer("", Integer.MAX_VALUE).serialize("show-search", searchPage(50));
+
+        assertEquals(1, compressed[1]);
+        assertTrue(compressed.length < uncompressed.length / 2);
+        assertEquals(searchPage(50), compressing.deserialize(compressed, ShowSearchResponseDTO.class));
+        // Reads follow the header, not this node's threshold
+        assertEquals(searchPage(50), serializer("", Integer.MAX_VALUE).deserialize(compressed, ShowSearchResponseDTO.class));
+    }
+
+    @Test
+    void testUnframedJson_ReadAsLegacyPayload() throws Exception {
+        JacksonCacheSerializer serializer = serializer("", 1024);
+
+        List<TicketResponseDTO> tickets = serializer.deserializeList(
+                "[{\"id\":1},{\"id\":2}]".getBytes(StandardCharsets.UTF_8), TicketResponseDTO.class);
+
+        assertEquals(2, tickets.size());
+    }
+
+    @Test
+    void testCorruptPayloadsAndUnknownCodecs_Rejected() throws Exception {
+        JacksonCacheSerializer serializer = serializer("", 256);
+        byte[] truncated = Arrays.copyOf(serializer.serialize("show-search", searchPage(50)), 40);
+
+        assertThrows(IOException.class, () -> serializer.deserialize(new byte[]{9, 0, 1}, TicketResponseDTO.class));
+        assertThrows(IOException.class, () -> serializer.deserialize(truncated, ShowSearchResponseDTO.class));
+        assertThrows(IllegalStateException.class, () -> serializer("ticket=avro", 1024));
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.TicketFlix.Cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RedisCircuitBreakerTest {
+
+    private static final byte[] KEY = "k".getBytes(StandardCharsets.UTF_8);
+
+    @Mock
+    private RedisConnectionFactory connectionFactory;
+
+    @Mock
+    private RedisConnection connection;
+
+    @Mock
+    private RedisStringCommands stringCommands;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RedisCircuitBreaker breaker;
+
+    static RedisCircuitBreaker breaker(MeterRegistry meterRegistry, Duration openDuration) {
+        RedisCircuitBreaker breaker = new RedisCircuitBreaker();
+        ReflectionTestUtils.setField(breaker, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(breaker, "failureThreshold", 3);
+        ReflectionTestUtils.setField(breaker, "slowCallThreshold", Duration.ofMillis(500));
+        ReflectionTestUtils.setField(breaker, "openDuration", openDuration);
+        breaker.registerMetrics();
+        return breaker;
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        breaker = breaker(meterRegistry, Duration.ofMinutes(1));
+    }
+
+    private double transitions(String from, String to) {
+        return meterRegistry.get("ticketflix.redis.circuit.transitions").tag("from", from).tag("to", to).counter().count();
+    }
+
+    private void trip() {
+        for (int i = 0; i < 3; i++) {
+            breaker.onError(0);
+        }
+    }
+
+    @Test
+    void testConsecutiveFailures_OpenCircuitAndRejectCalls() {
+        breaker.onError(0);
+        breaker.onError(0);
+        breaker.onSuccess(0);
+        breaker.onError(0);
+        assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.onError(0);
+        breaker.onError(0);
+
+        assertTrue(breaker.isOpen());
+        assertFalse(breaker.tryAcquirePermission());
+        assertThrows(RedisCircuitOpenException.class, () -> breaker.execute(() -> "never called"));
+        assertEquals(1.0, transitions("closed", "open"));
+        assertEquals(2.0, meterRegistry.get("ticketflix.redis.circuit.state").gauge().value());
+        assertEquals(2.0, meterRegistry.get("ticketflix.redis.circuit.rejected").counter().count());
+    }
+
+    @Test
+    void testSlowCalls_CountAsFailures() {
+        for (int i = 0; i < 3; i++) {
+            breaker.onSuccess(TimeUnit.SECONDS.toNanos(2));
+        }
+
+        assertTrue(breaker.isOpen());
+    }
+
+    @Test
+    void testAfterOpenDuration_SingleProbeClosesCircuit() {
+        breaker = breaker(meterRegistry, Duration.ZERO);
+        AtomicInteger closed = new AtomicInteger();
+        breaker.addCloseListener(closed::incrementAndGet);
+        trip();
+
+        assertTrue(breaker.tryAcquirePermission());
+        assertEquals(RedisCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onSuccess(0);
+
+        assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(1, closed.get());
+        assertEquals(1.0, transitions("open", "half_open"));
+        assertEquals(1.0, transitions("half_open", "closed"));
+    }
+
+    @Test
+    void testFailedProbe_ReopensCircuit() {
+        breaker = breaker(meterRegistry, Duration.ofMillis(50));
+        trip();
+        assertFalse(breaker.tryAcquirePermission());
+
+        await(Duration.ofMillis(60));
+        assertTrue(breaker.tryAcquirePermission());
+        // Only one probe per half-open period
+        assertFalse(breaker.tryAcquirePermission());
+        breaker.onError(0);
+
+        assertTrue(breaker.isOpen());
+        assertEquals(1.0, transitions("half_open", "open"));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void testConnectionFactory_RecordsCommandsAndFailsFastWhenOpen() {
+        when(connectionFactory.getConnection()).thenReturn(connection);
+        when(connection.stringCommands()).thenReturn(stringCommands);
+        when(connection.get(any(byte[].class))).thenThrow(new RedisConnectionFailureException("timeout"));
+        when(stringCommands.get(any(byte[].class))).thenThrow(new RedisConnectionFailureException("timeout"));
+        RedisConnectionFactory factory = new CircuitBreakingRedisConnectionFactory(connectionFactory, breaker);
+
+        assertThrows(RedisConnectionFailureException.class, () -> factory.getConnection().get(KEY));
+        assertThrows(RedisConnectionFailureException.class, () -> factory.getConnection().stringCommands().get(KEY));
+        factory.getConnection().close();
+        assertFalse(breaker.isOpen());
+        assertThrows(RedisConnectionFailureException.class, () -> factory.getConnection().get(KEY));
+
+        assertTrue(breaker.isOpen());
+        assertThrows(RedisCircuitOpenException.class, factory::getConnection);
+        verify(connectionFactory, times(4)).getConnection();
+    }
+
+    private void await(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
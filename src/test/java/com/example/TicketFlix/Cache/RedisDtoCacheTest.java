@@ -0,0 +1,169 @@
+package com.example.TicketFlix.Cache;
+
+import com.example.TicketFlix.Response.TicketResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RedisDtoCacheTest {
+
+    @Mock
+    private RedisTemplate<String, byte[]> redisBinaryTemplate;
+
+    @Mock
+    private ValueOperations<String, byte[]> valueOperations;
+
+    @Mock
+    private ThreadPoolTaskExecutor cacheWriteExecutor;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CacheMetrics cacheMetrics;
+    private RedisDtoCache redisDtoCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cacheMetrics = new CacheMetrics();
+        ReflectionTestUtils.setField(cacheMetrics, "meterRegistry", meterRegistry);
+
+        JacksonCacheSerializer serializer = JacksonCacheSerializerTest.serializer("", 1024);
+
+        redisDtoCache = new RedisDtoCache();
+        ReflectionTestUtils.setField(redisDtoCache, "redisBinaryTemplate", redisBinaryTemplate);
+        ReflectionTestUtils.setField(redisDtoCache, "cacheSerializer", serializer);
+        ReflectionTestUtils.setField(redisDtoCache, "cacheMetrics", cacheMetrics);
+        ReflectionTestUtils.setField(redisDtoCache, "cacheWriteExecutor", cacheWriteExecutor);
+        ReflectionTestUtils.setField(redisDtoCache, "redisCircuitBreaker",
+                RedisCircuitBreakerTest.breaker(meterRegistry, Duration.ofSeconds(10)));
+
+        lenient().when(redisBinaryTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    private TicketResponseDTO ticket(int id) {
+        TicketResponseDTO dto = new TicketResponseDTO();
+        dto.setId(id);
+        dto.setMovieName("Movie " + id);
+        dto.setShowDate(LocalDate.of(2030, 1, 1));
+        return dto;
+    }
+
+    @Test
+    void testPutThenGet_RoundTripsDtoAndCountsHit() {
+        // Arrange
+        ArgumentCaptor<byte[]> payload = ArgumentCaptor.forClass(byte[].class);
+        redisDtoCache.put("ticket", "ticket::1", ticket(1), Duration.ofHours(12));
+        verify(valueOperations).set(eq("ticket::1"), payload.capture(),
+                eq(Duration.ofHours(12).toMillis()), eq(TimeUnit.MILLISECONDS));
+        when(valueOperations.get("ticket::1")).thenReturn(payload.getValue());
+
+        // Act
+        TicketResponseDTO cached = redisDtoCache.get("ticket", "ticket::1", TicketResponseDTO.class);
+
+        // Assert
+        assertEquals(1, cached.getId());
+        assertEquals(LocalDate.of(2030, 1, 1), cached.getShowDate());
+        assertEquals(1.0, cacheMetrics.hitRatio("ticket"));
+        assertEquals(payload.getValue().length,
+                meterRegistry.get("ticketflix.cache.payload.bytes").tag("cache", "ticket").summary().totalAmount());
+    }
+
+    @Test
+    void testGetList_MissThenHit_TracksHitRatio() {
+        when(valueOperations.get("user-tickets::7:0:50"))
+                .thenReturn(null)
+                .thenReturn("[{\"id\":1},{\"id\":2}]".getBytes(StandardCharsets.UTF_8));
+
+        assertNull(redisDtoCache.getList("user-tickets", "user-tickets::7:0:50", TicketResponseDTO.class));
+        List<TicketResponseDTO> cached = redisDtoCache.getList("user-tickets", "user-tickets::7:0:50", TicketResponseDTO.class);
+
+        assertEquals(2, cached.size());
+        assertEquals(0.5, cacheMetrics.hitRatio("user-tickets"));
+        assertEquals(0.5, meterRegistry.get("ticketflix.cache.hit.ratio").tag("cache", "user-tickets").gauge().value());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testPutAllThenGetAll_OnePipelineAndOneMget() {
+        // Run the pipeline callback against the mocked template so the individual SETs can be captured
+        when(redisBinaryTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation ->
+                ((SessionCallback<Object>) invocation.getArgument(0)).execute(redisBinaryTemplate));
+        Map<String, TicketResponseDTO> tickets = new LinkedHashMap<>();
+        tickets.put("ticket::1", ticket(1));
+        tickets.put("ticket::2", ticket(2));
+        redisDtoCache.putAll("ticket", tickets, Duration.ofHours(12));
+
+        ArgumentCaptor<byte[]> payloads = ArgumentCaptor.forClass(byte[].class);
+        verify(redisBinaryTemplate, times(1)).executePipelined(any(SessionCallback.class));
+        verify(valueOperations, times(2)).set(anyString(), payloads.capture(), eq(Duration.ofHours(12).toMillis()),
+                eq(TimeUnit.MILLISECONDS));
+        List<String> keys = List.of("ticket::1", "ticket::3", "ticket::2");
+        when(valueOperations.multiGet(keys)).thenReturn(Arrays.asList(payloads.getAllValues().get(0), null,
+                payloads.getAllValues().get(1)));
+
+        Map<String, TicketResponseDTO> cached = redisDtoCache.getAll("ticket", keys, TicketResponseDTO.class);
+
+        assertEquals(2, cached.size());
+        assertEquals(2, cached.get("ticket::2").getId());
+        assertFalse(cached.containsKey("ticket::3"));
+        verify(valueOperations, never()).get(anyString());
+        assertEquals(2.0 / 3, cacheMetrics.hitRatio("ticket"), 1e-9);
+    }
+
+    @Test
+    void testOpenCircuit_ReadsMissAndWritesSkippedWithoutCallingRedis() {
+        RedisCircuitBreaker breaker = RedisCircuitBreakerTest.breaker(meterRegistry, Duration.ofMinutes(1));
+        for (int i = 0; i < 3; i++) {
+            breaker.onError(0);
+        }
+        ReflectionTestUtils.setField(redisDtoCache, "redisCircuitBreaker", breaker);
+
+        assertNull(redisDtoCache.get("ticket", "ticket::1", TicketResponseDTO.class));
+        assertTrue(redisDtoCache.getAll("ticket", List.of("ticket::1", "ticket::2"), TicketResponseDTO.class).isEmpty());
+        redisDtoCache.putAsync("ticket", "ticket::1", ticket(1), Duration.ofHours(1));
+
+        verifyNoInteractions(redisBinaryTemplate, cacheWriteExecutor);
+        assertEquals(0.0, cacheMetrics.hitRatio("ticket"));
+    }
+
+    @Test
+    void testGet_RedisFailure_IsTreatedAsMiss() {
+        when(valueOperations.get(anyString())).thenThrow(new RuntimeException("connection refused"));
+
+        assertNull(redisDtoCache.get("ticket", "ticket::1", TicketResponseDTO.class));
+        assertEquals(1.0, meterRegistry.get("ticketflix.cache.requests")
+                .tag("cache", "ticket").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void testPutAsync_QueueFull_DropsWriteWithoutThrowing() {
+        doThrow(new TaskRejectedException("queue full")).when(cacheWriteExecutor).execute(any(Runnable.class));
+
+        assertDoesNotThrow(() -> redisDtoCache.putAsync("ticket", "ticket::1", ticket(1), Duration.ofHours(1)));
+        assertEquals(1.0, meterRegistry.get("ticketflix.cache.writes.dropped").tag("cache", "ticket").counter().count());
+        verifyNoInteractions(valueOperations);
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.TicketFlix.Cache;
+
+import com.example.TicketFlix.Response.ScreenResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SingleFlightLoaderTest {
+
+    private static final Duration TTL = Duration.ofHours(24);
+
+    @Mock
+    private TwoLevelCache twoLevelCache;
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ThreadPoolTaskExecutor refreshExecutor;
+    private SingleFlightLoader singleFlightLoader;
+
+    @BeforeEach
+    void setUp() {
+        refreshExecutor = new ThreadPoolTaskExecutor();
+        refreshExecutor.setCorePoolSize(1);
+        refreshExecutor.initialize();
+
+        singleFlightLoader = new SingleFlightLoader();
+        ReflectionTestUtils.setField(singleFlightLoader, "twoLevelCache", twoLevelCache);
+        ReflectionTestUtils.setField(singleFlightLoader, "redisTemplate", redisTemplate);
+        ReflectionTestUtils.setField(singleFlightLoader, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(singleFlightLoader, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(singleFlightLoader, "cacheRefreshExecutor", refreshExecutor);
+        ReflectionTestUtils.setField(singleFlightLoader, "waitTimeout", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(singleFlightLoader, "leaseTtl", Duration.ofSeconds(3));
+    }
+
+    @AfterEach
+    void tearDown() {
+        refreshExecutor.shutdown();
+    }
+
+    private ScreenResponseDTO screen(String name) {
+        return ScreenResponseDTO.builder().id(1).name(name).build();
+    }
+
+    @Test
+    void testConcurrentMisses_LoadOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CacheLoader<ScreenResponseDTO> loader = () -> {
+            loads.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return screen("Audi 1");
+        };
+
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        List<Future<ScreenResponseDTO>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(callers.submit(() -> singleFlightLoader.load("screen", "screen::1", ScreenResponseDTO.class, TTL, loader)));
+        }
+        Thread.sleep(200);
+        release.countDown();
+
+        for (Future<ScreenResponseDTO> result : results) {
+            assertEquals("Audi 1", result.get(5, TimeUnit.SECONDS).getName());
+        }
+        callers.shutdown();
+        assertEquals(1, loads.get());
+        verify(twoLevelCache, times(1)).put(eq("screen"), eq("screen::1"), any(), eq(TTL));
+    }
+
+    @Test
+    void testEntryInRefreshWindow_ServedStaleWhileReloading() throws Exception {
+        when(twoLevelCache.getEntry("screen", "screen::1", ScreenResponseDTO.class))
+                .thenReturn(new CacheEntry<>(screen("Stale"), System.currentTimeMillis() - 1000));
+        CountDownLatch refreshed = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            refreshed.countDown();
+            return null;
+        }).when(twoLevelCache).put(eq("screen"), eq("screen::1"), any(), eq(TTL));
+
+        ScreenResponseDTO served = singleFlightLoader.load("screen", "screen::1", ScreenResponseDTO.class, TTL,
+                () -> screen("Fresh"));
+
+        assertEquals("Stale", served.getName());
+        assertTrue(refreshed.await(5, TimeUnit.SECONDS));
+        verify(twoLevelCache).put(eq("screen"), eq("screen::1"),
+                argThat(value -> "Fresh".equals(((ScreenResponseDTO) value).getName())), eq(TTL));
+    }
+
+    @Test
+    void testFreshEntry_ServedWithoutLoading() throws Exception {
+        when(twoLevelCache.getEntry("screen", "screen::1", ScreenResponseDTO.class))
+                .thenReturn(new CacheEntry<>(screen("Cached"), System.currentTimeMillis() + 60_000));
+
+        ScreenResponseDTO served = singleFlightLoader.load("screen", "screen::1", ScreenResponseDTO.class, TTL,
+                () -> fail("loader must not run"));
+
+        assertEquals("Cached", served.getName());
+        verify(twoLevelCache, never()).put(anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    void testLoaderFailure_PropagatesAndIsNotCached() {
+        Exception thrown = assertThrows(Exception.class, () -> singleFlightLoader.load("screen", "screen::404",
+                ScreenResponseDTO.class, TTL, () -> {
+                    throw new Exception("Screen not found with id: 404");
+                }));
+
+        assertEquals("Screen not found with id: 404", thrown.getMessage());
+        verify(twoLevelCache, never()).put(anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    void testDistributedLease_HeldElsewhere_WaitsForOtherNodesValue() throws Exception {
+        ReflectionTestUtils.setField(singleFlightLoader, "distributedLease", true);
+        @SuppressWarnings("unchecked")
+        ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq("cache-lease::screen::1"), anyString(), anyLong(), eq(TimeUnit.MILLISECONDS)))
+                .thenReturn(false);
+        when(twoLevelCache.getRemoteEntry("screen::1", ScreenResponseDTO.class))
+                .thenReturn(null)
+                .thenReturn(new CacheEntry<>(screen("Loaded elsewhere"), Long.MAX_VALUE));
+
+        ScreenResponseDTO served = singleFlightLoader.load("screen", "screen::1", ScreenResponseDTO.class, TTL,
+                () -> fail("another node holds the lease"));
+
+        assertEquals("Loaded elsewhere", served.getName());
+    }
+
+    @Test
+    void testLoadAll_LoadsMissesAndDueEntriesInOneCall() throws Exception {
+        long future = System.currentTimeMillis() + TTL.toMillis();
+        when(twoLevelCache.getAllEntries(eq("screen"), eq(List.of("screen::1", "screen::2", "screen::3", "screen::4")),
+                eq(ScreenResponseDTO.class))).thenReturn(Map.of(
+                "screen::1", new CacheEntry<>(screen("Audi 1"), future),
+                "screen::3", new CacheEntry<>(screen("Audi 3 stale"), 0L)));
+        List<List<Integer>> loaderCalls = new ArrayList<>();
+        BulkCacheLoader<ScreenResponseDTO> loader = ids -> {
+            loaderCalls.add(ids);
+            // Screen 4 no longer exists
+            return Map.of(2, screen("Audi 2"), 3, screen("Audi 3"));
+        };
+
+        List<ScreenResponseDTO> screens = singleFlightLoader.loadAll("screen", "screen::", List.of(1, 2, 3, 4),
+                ScreenResponseDTO.class, TTL, loader);
+
+        assertEquals(List.of(List.of(2, 3, 4)), loaderCalls);
+        assertEquals(List.of("Audi 1", "Audi 2", "Audi 3"),
+                screens.stream().map(ScreenResponseDTO::getName).collect(Collectors.toList()));
+        verify(twoLevelCache).putAll("screen", Map.of("screen::2", screen("Audi 2"), "screen::3", screen("Audi 3")), TTL,
+                Map.of());
+    }
+
+    @Test
+    void testLoadAll_TagsLoadedEntries() throws Exception {
+        when(twoLevelCache.getAllEntries(eq("screen"), anyList(), eq(ScreenResponseDTO.class))).thenReturn(Map.of());
+        Map<Integer, String[]> tags = new HashMap<>();
+
+        singleFlightLoader.loadAll("screen", "screen::", List.of(1, 2), ScreenResponseDTO.class, TTL, ids -> {
+            tags.put(1, new String[]{"theater:7"});
+            return Map.of(1, screen("Audi 1"), 2, screen("Audi 2"));
+        }, tags::get);
+
+        verify(twoLevelCache).putAll(eq("screen"), anyMap(), eq(TTL), argThat(tagsByKey ->
+                tagsByKey.keySet().equals(Set.of("screen::1"))
+                        && Arrays.equals(new String[]{"theater:7"}, tagsByKey.get("screen::1"))));
+    }
+
+    @Test
+    void testLoadAll_AllCached_SkipsLoader() throws Exception {
+        when(twoLevelCache.getAllEntries(eq("screen"), anyList(), eq(ScreenResponseDTO.class))).thenReturn(Map.of(
+                "screen::1", new CacheEntry<>(screen("Audi 1"), System.currentTimeMillis() + TTL.toMillis())));
+
+        List<ScreenResponseDTO> screens = singleFlightLoader.loadAll("screen", "screen::", List.of(1),
+                ScreenResponseDTO.class, TTL, ids -> fail("loader should not run"));
+
+        assertEquals(1, screens.size());
+        verify(twoLevelCache, never()).putAll(anyString(), anyMap(), any(), anyMap());
+    }
+}
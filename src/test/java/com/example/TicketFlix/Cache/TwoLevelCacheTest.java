@@ -0,0 +1,138 @@
+package com.example.TicketFlix.Cache;
+
+import com.example.TicketFlix.Response.ScreenResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TwoLevelCacheTest {
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private RedisTemplate<String, byte[]> redisBinaryTemplate;
+
+    @Mock
+    private ValueOperations<String, byte[]> valueOperations;
+
+    @Mock
+    private RedisDtoCache redisDtoCache;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TwoLevelCache twoLevelCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        CacheMetrics cacheMetrics = new CacheMetrics();
+        ReflectionTestUtils.setField(cacheMetrics, "meterRegistry", meterRegistry);
+
+        JacksonCacheSerializer serializer = JacksonCacheSerializerTest.serializer("", 1024);
+
+        twoLevelCache = new TwoLevelCache();
+        ReflectionTestUtils.setField(twoLevelCache, "redisTemplate", redisTemplate);
+        ReflectionTestUtils.setField(twoLevelCache, "redisBinaryTemplate", redisBinaryTemplate);
+        ReflectionTestUtils.setField(twoLevelCache, "cacheSerializer", serializer);
+        ReflectionTestUtils.setField(twoLevelCache, "redisDtoCache", redisDtoCache);
+        ReflectionTestUtils.setField(twoLevelCache, "cacheMetrics", cacheMetrics);
+        ReflectionTestUtils.setField(twoLevelCache, "redisCircuitBreaker",
+                RedisCircuitBreakerTest.breaker(meterRegistry, Duration.ofSeconds(10)));
+        ReflectionTestUtils.setField(twoLevelCache, "l1MaxSize", 100L);
+        ReflectionTestUtils.setField(twoLevelCache, "l1Ttl", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(twoLevelCache, "refreshAheadRatio", 0.1);
+
+        lenient().when(redisBinaryTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    private byte[] json(String payload) {
+        return payload.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private double levelCount(String level, String result) {
+        return meterRegistry.get("ticketflix.cache.level.requests")
+                .tag("cache", "screen").tag("level", level).tag("result", result).counter().count();
+    }
+
+    @Test
+    void testGet_L2HitPromotesToL1() {
+        when(valueOperations.get("screen::4")).thenReturn(json("{\"value\":{\"id\":4,\"name\":\"Audi 4\"},\"refreshAt\":0}"));
+
+        ScreenResponseDTO first = twoLevelCache.get("screen", "screen::4", ScreenResponseDTO.class);
+        ScreenResponseDTO second = twoLevelCache.get("screen", "screen::4", ScreenResponseDTO.class);
+
+        assertEquals("Audi 4", first.getName());
+        assertSame(first, second);
+        verify(valueOperations, times(1)).get("screen::4");
+        assertEquals(1.0, levelCount("l1", "hit"));
+        assertEquals(1.0, levelCount("l2", "hit"));
+        assertEquals(2, meterRegistry.get("ticketflix.cache.level.latency").tag("level", "l1").timer().count());
+    }
+
+    @Test
+    void testPut_ServesFromL1AndWritesL2Asynchronously() {
+        ScreenResponseDTO screen = ScreenResponseDTO.builder().id(5).name("Audi 5").build();
+
+        twoLevelCache.put("screen", "screen::5", screen, Duration.ofHours(24));
+
+        assertSame(screen, twoLevelCache.get("screen", "screen::5", ScreenResponseDTO.class));
+        verify(redisDtoCache).putAsync(eq("screen"), eq("screen::5"),
+                argThat(entry -> ((CacheEntry<?>) entry).getValue() == screen), eq(Duration.ofHours(24)));
+        verifyNoInteractions(valueOperations);
+    }
+
+    @Test
+    void testEvict_ClearsBothLevelsAndBroadcasts() {
+        twoLevelCache.put("screen", "screen::6", ScreenResponseDTO.builder().id(6).build(), Duration.ofHours(24));
+
+        twoLevelCache.evict("screen", "screen::6");
+
+        assertNull(twoLevelCache.get("screen", "screen::6", ScreenResponseDTO.class));
+        verify(redisDtoCache).evict("screen::6");
+        verify(redisTemplate).convertAndSend(TwoLevelCache.INVALIDATION_CHANNEL, "screen|screen::6");
+    }
+
+    @Test
+    void testOnInvalidationMessage_DropsOnlyLocalCopy() {
+        twoLevelCache.put("screen", "screen::7", ScreenResponseDTO.builder().id(7).build(), Duration.ofHours(24));
+
+        twoLevelCache.onInvalidationMessage("screen|screen::7");
+        twoLevelCache.onInvalidationMessage("malformed");
+
+        assertNull(twoLevelCache.get("screen", "screen::7", ScreenResponseDTO.class));
+        verify(redisDtoCache, never()).evict(anyString());
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    void testGetEntry_RefreshDueInLastTenthOfTtl() {
+        twoLevelCache.put("screen", "screen::8", ScreenResponseDTO.builder().id(8).build(), Duration.ofHours(10));
+
+        CacheEntry<ScreenResponseDTO> entry = twoLevelCache.getEntry("screen", "screen::8", ScreenResponseDTO.class);
+
+        long now = System.currentTimeMillis();
+        assertFalse(entry.isRefreshDue(now + Duration.ofHours(8).toMillis()));
+        assertTrue(entry.isRefreshDue(now + Duration.ofHours(9).toMillis() + 1000));
+    }
+
+    @Test
+    void testGet_UnwrappedLegacyPayloadIsAMiss() {
+        when(valueOperations.get("screen::9")).thenReturn(json("{\"id\":9,\"name\":\"Audi 9\"}"));
+
+        assertNull(twoLevelCache.get("screen", "screen::9", ScreenResponseDTO.class));
+    }
+}
@@ -0,0 +1,389 @@
+package com.example.TicketFlix.Controller;
+
+import com.example.TicketFlix.Genres.Genre;
+import com.example.TicketFlix.Genres.Language;
+import com.example.TicketFlix.Genres.SeatType;
+import com.example.TicketFlix.Genres.ShowType;
+import com.example.TicketFlix.Models.*;
+import com.example.TicketFlix.Repository.*;
+import com.example.TicketFlix.Service.JwtService;
+import com.example.TicketFlix.TestConfig;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs every endpoint against seeded H2 data with open-session-in-view disabled.
+ * Any lazy collection touched after the service transaction has closed fails with
+ * LazyInitializationException, which the controllers turn into a non-2xx response.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+@Import(TestConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@WithMockUser(roles = "ADMIN")
+class ReadEndpointsWithoutOsivTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private TheaterRepository theaterRepository;
+
+    @Autowired
+    private ScreenRepository screenRepository;
+
+    @Autowired
+    private ShowRepository showRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Value("${spring.jpa.open-in-view}")
+    private boolean openInView;
+
+    private Movie movie;
+    private Theater theater;
+    private Screen screen;
+    private Screen emptyScreen;
+    private Show show;
+    private User user;
+    private Ticket ticket;
+    private Payment payment;
+
+    @BeforeAll
+    void seed() {
+        movie = movieRepository.save(Movie.builder()
+                .movieName("Osiv Test Movie")
+                .genre(Genre.values()[0])
+                .language(Language.values()[0])
+                .rating(8.1)
+                .duration(2.5)
+                .build());
+
+        theater = new Theater();
+        theater.setName("Osiv Test Theater");
+        theater.setLocation("Osiv City");
+        theater = theaterRepository.save(theater);
+
+        screen = Screen.builder().name("Screen 1").screenNumber(1).theater(theater).build();
+        List<TheaterSeats> seats = new ArrayList<>();
+        seats.add(TheaterSeats.builder().seatNumber("A1").seatType(SeatType.CLASSIC).screen(screen).build());
+        seats.add(TheaterSeats.builder().seatNumber("B1").seatType(SeatType.PREMIUM).screen(screen).build());
+        screen.setTheaterSeatsList(seats);
+        screen = screenRepository.save(screen);
+
+        emptyScreen = screenRepository.save(Screen.builder().name("Screen 2").screenNumber(2).theater(theater).build());
+
+        show = Show.builder()
+                .showDate(LocalDate.now().plusDays(1))
+                .showTime(LocalTime.of(18, 30))
+                .showType(ShowType.values()[0])
+                .movie(movie)
+                .theater(theater)
+                .screen(screen)
+                .build();
+        List<ShowSeat> showSeats = new ArrayList<>();
+        for (TheaterSeats seat : seats) {
+            ShowSeat showSeat = new ShowSeat();
+            showSeat.setSeatNumber(seat.getSeatNumber());
+            showSeat.setSeatType(seat.getSeatType());
+            showSeat.setPrice(seat.getSeatType() == SeatType.CLASSIC ? 200 : 350);
+            showSeat.setShow(show);
+            showSeats.add(showSeat);
+        }
+        show.setListOfShowSeats(showSeats);
+        show = showRepository.save(show);
+
+        user = userRepository.save(User.builder()
+                .name("Osiv User")
+                .age(30)
+                .email("osiv.user@example.com")
+                .mobileNumber("9000000001")
+                .password("encoded")
+                .enabled(true)
+                .build());
+
+        ticket = ticketRepository.save(Ticket.builder()
+                .movieName(movie.getMovieName())
+                .theaterName(theater.getName())
+                .showDate(show.getShowDate())
+                .showTime(show.getShowTime())
+                .bookedSeat("A1")
+                .totalAmount(200)
+                .ticketId("osiv-ticket-1")
+                .user(user)
+                .show(show)
+                .build());
+
+        payment = paymentRepository.save(Payment.builder()
+                .paymentId("osiv-payment-1")
+                .idempotencyKey("osiv-key-1")
+                .payloadHash("hash")
+                .user(user)
+                .amount(200)
+                .paymentMethod("UPI")
+                .status(Payment.PaymentStatus.SUCCESS)
+                .build());
+    }
+
+    @Test
+    void openSessionInViewIsDisabled() {
+        assertFalse(openInView);
+    }
+
+    // Movies
+
+    @Test
+    void getAllMovies() throws Exception {
+        mockMvc.perform(get("/movies/get-all")).andExpect(status().isOk());
+    }
+
+    @Test
+    void getMovieById() throws Exception {
+        mockMvc.perform(get("/movies/get/{id}", movie.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.movieName").value(movie.getMovieName()));
+    }
+
+    @Test
+    void getTrendingMovies() throws Exception {
+        when(redisTemplate.opsForZSet().reverseRange(anyString(), anyLong(), anyLong()))
+                .thenReturn(new LinkedHashSet<>(List.of(movie.getMovieName())));
+        mockMvc.perform(get("/movies/trending")).andExpect(status().isOk());
+    }
+
+    @Test
+    void getTrendingMoviesWithCounts() throws Exception {
+        mockMvc.perform(get("/movies/trending-with-counts")).andExpect(status().isOk());
+    }
+
+    // Theaters
+
+    @Test
+    void getAllTheaters() throws Exception {
+        mockMvc.perform(get("/theater/get-all")).andExpect(status().isOk());
+    }
+
+    @Test
+    void getTheaterById() throws Exception {
+        mockMvc.perform(get("/theater/get/{id}", theater.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.classicSeatsCount").value(1))
+                .andExpect(jsonPath("$.data.premiumSeatsCount").value(1));
+    }
+
+    // Screens
+
+    @Test
+    void getAllScreens() throws Exception {
+        mockMvc.perform(get("/screens/get-all")).andExpect(status().isOk());
+    }
+
+    @Test
+    void getScreenById() throws Exception {
+        mockMvc.perform(get("/screens/get/{id}", screen.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.classicSeatsCount").value(1));
+    }
+
+    @Test
+    void getScreensByTheater() throws Exception {
+        mockMvc.perform(get("/screens/get-by-theater/{id}", theater.getId())).andExpect(status().isOk());
+    }
+
+    @Test
+    void deleteScreenWithShowsIsRejected() throws Exception {
+        mockMvc.perform(delete("/screens/delete/{id}", screen.getId()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Cannot delete screen with scheduled shows. Please cancel all shows first."));
+    }
+
+    @Test
+    void deleteScreenWithoutShowsIsAccepted() throws Exception {
+        mockMvc.perform(delete("/screens/delete/{id}", emptyScreen.getId())).andExpect(status().isAccepted());
+    }
+
+    // Shows
+
+    @Test
+    void getAllShows() throws Exception {
+        mockMvc.perform(get("/shows/get-all")).andExpect(status().isOk());
+    }
+
+    @Test
+    void getShowById() throws Exception {
+        mockMvc.perform(get("/shows/get/{id}", show.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.classSeatPrice").value(200))
+                .andExpect(jsonPath("$.data.premiumSeatPrice").value(350));
+    }
+
+    @Test
+    void getShowsByMovie() throws Exception {
+        mockMvc.perform(get("/shows/get-by-movie/{id}", movie.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1));
+    }
+
+    @Test
+    void getShowsByTheater() throws Exception {
+        mockMvc.perform(get("/shows/get-by-theater/{id}", theater.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1));
+    }
+
+    @Test
+    void searchShows() throws Exception {
+        mockMvc.perform(get("/shows/search")
+                        .param("city", theater.getLocation())
+                        .param("fromDate", show.getShowDate().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.shows[0].showId").value(show.getId()));
+    }
+
+    @Test
+    void addShowValidatesAgainstScreen() throws Exception {
+        String body = "{\"localDate\":\"" + show.getShowDate() + "\",\"localTime\":\"21:00:00\"," +
+                "\"movieId\":" + movie.getId() + ",\"theaterId\":" + theater.getId() + "," +
+                "\"screenId\":" + screen.getId() + ",\"classSeatPrice\":200,\"premiumSeatPrice\":350}";
+        mockMvc.perform(post("/shows/add").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isAccepted());
+    }
+
+    // Tickets
+
+    @Test
+    void getAllTickets() throws Exception {
+        mockMvc.perform(get("/tickets/get-all")).andExpect(status().isOk());
+    }
+
+    @Test
+    void getTicketById() throws Exception {
+        mockMvc.perform(get("/tickets/get/{id}", ticket.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.userEmail").value(user.getEmail()));
+    }
+
+    @Test
+    void getTicketByTicketId() throws Exception {
+        mockMvc.perform(get("/tickets/get-by-ticket-id/{id}", String.valueOf(ticket.getId()))).andExpect(status().isOk());
+    }
+
+    @Test
+    void getTicketsByUser() throws Exception {
+        mockMvc.perform(get("/tickets/get-by-user/{id}", user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1));
+    }
+
+    @Test
+    void getTicketsByShow() throws Exception {
+        mockMvc.perform(get("/tickets/get-by-show/{id}", show.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1));
+    }
+
+    @Test
+    void bookTicketChecksSeatsWithoutLoadingShow() throws Exception {
+        RLock lock = mock(RLock.class);
+        when(lock.tryLock(anyLong(), anyLong(), eq(TimeUnit.SECONDS))).thenReturn(true);
+        when(redissonClient.getLock(anyString())).thenReturn(lock);
+
+        String body = "{\"showId\":" + show.getId() + ",\"userId\":" + user.getId() + ",\"requestedSeats\":[\"B1\"]}";
+        mockMvc.perform(post("/tickets/book").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isAccepted());
+    }
+
+    @Test
+    void cancelTicket() throws Exception {
+        mockMvc.perform(delete("/tickets/cancel-ticket")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ticketId\":" + ticket.getId() + "}"))
+                .andExpect(status().isAccepted());
+    }
+
+    // Users
+
+    @Test
+    void getAllUsers() throws Exception {
+        mockMvc.perform(get("/user/get-all")).andExpect(status().isOk());
+    }
+
+    @Test
+    void getUserById() throws Exception {
+        mockMvc.perform(get("/user/get/{id}", user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.email").value(user.getEmail()));
+    }
+
+    @Test
+    void getProfile() throws Exception {
+        String token = jwtService.generateAccessToken(user.getEmail(), user.getId(), user.getRole().name());
+        mockMvc.perform(get("/account/profile").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value(user.getEmail()));
+    }
+
+    // Payments
+
+    @Test
+    void getPaymentStatus() throws Exception {
+        mockMvc.perform(get("/payments/status/{id}", payment.getPaymentId())).andExpect(status().isOk());
+    }
+
+    @Test
+    void getPaymentByIdempotencyKey() throws Exception {
+        mockMvc.perform(get("/payments/status-by-key/{key}", payment.getIdempotencyKey())).andExpect(status().isOk());
+    }
+}
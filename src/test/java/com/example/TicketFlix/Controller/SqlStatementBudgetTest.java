@@ -0,0 +1,411 @@
+package com.example.TicketFlix.Controller;
+
+import com.example.TicketFlix.Cache.TwoLevelCache;
+import com.example.TicketFlix.Genres.Genre;
+import com.example.TicketFlix.Genres.Language;
+import com.example.TicketFlix.Genres.SeatType;
+import com.example.TicketFlix.Genres.ShowType;
+import com.example.TicketFlix.Models.*;
+import com.example.TicketFlix.Repository.*;
+import com.example.TicketFlix.SqlStatementCounterConfig;
+import com.example.TicketFlix.TestConfig;
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Enforces the SQL statement budgets in src/test/resources/sql-budgets.properties.
+ * Each endpoint runs once against a fixed data set (several rows per table, so an N+1
+ * shows up as a count that grows with the data) and fails if any statement type is over budget.
+ * Runs on its own in-memory database so rows seeded by other test classes don't change the counts.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties",
+        properties = "spring.datasource.url=jdbc:h2:mem:sqlbudget;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;NON_KEYWORDS=USER")
+@Import(TestConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@WithMockUser(roles = "ADMIN")
+class SqlStatementBudgetTest {
+
+    private static final String BUDGET_FILE = "sql-budgets.properties";
+    private static final String[] STATEMENT_TYPES = {"select", "insert", "update", "delete", "other"};
+    private static final int ROWS = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private TheaterRepository theaterRepository;
+
+    @Autowired
+    private ScreenRepository screenRepository;
+
+    @Autowired
+    private ShowRepository showRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TwoLevelCache twoLevelCache;
+
+    private Properties budgets;
+
+    private Movie movie;
+    private Theater theater;
+    private Screen screen;
+    private Screen emptyScreen;
+    private Show show;
+    private User user;
+    private Ticket ticket;
+    private Payment payment;
+
+    @BeforeAll
+    void seed() throws IOException {
+        budgets = PropertiesLoaderUtils.loadProperties(new ClassPathResource(BUDGET_FILE));
+
+        List<Movie> movies = new ArrayList<>();
+        for (int m = 0; m < ROWS; m++) {
+            movies.add(movieRepository.save(Movie.builder()
+                    .movieName("Budget Movie " + m)
+                    .genre(Genre.values()[0])
+                    .language(Language.values()[0])
+                    .rating(7.5)
+                    .duration(2.0)
+                    .build()));
+        }
+
+        List<User> users = new ArrayList<>();
+        for (int u = 0; u < ROWS; u++) {
+            users.add(userRepository.save(User.builder()
+                    .name("Budget User " + u)
+                    .age(28)
+                    .email("budget.user" + u + "@example.com")
+                    .mobileNumber("900000010" + u)
+                    .password(passwordEncoder.encode("Budget@Pass123"))
+                    .enabled(true)
+                    .build()));
+        }
+
+        for (int t = 0; t < ROWS; t++) {
+            Theater seededTheater = new Theater();
+            seededTheater.setName("Budget Theater " + t);
+            seededTheater.setLocation("Budget City");
+            seededTheater = theaterRepository.save(seededTheater);
+
+            for (int s = 0; s < ROWS; s++) {
+                Screen seededScreen = Screen.builder().name("Screen " + s).screenNumber(s + 1).theater(seededTheater).build();
+                List<TheaterSeats> seats = new ArrayList<>();
+                for (int n = 1; n <= 4; n++) {
+                    SeatType type = n <= 2 ? SeatType.CLASSIC : SeatType.PREMIUM;
+                    seats.add(TheaterSeats.builder().seatNumber((n <= 2 ? "A" : "B") + n).seatType(type).screen(seededScreen).build());
+                }
+                seededScreen.setTheaterSeatsList(seats);
+                seededScreen = screenRepository.save(seededScreen);
+
+                for (int m = 0; m < ROWS; m++) {
+                    Show seededShow = saveShow(movies.get(m), seededTheater, seededScreen, seats, LocalTime.of(10 + 3 * m, 0));
+                    for (User seededUser : users) {
+                        Ticket seededTicket = ticketRepository.save(Ticket.builder()
+                                .movieName(seededShow.getMovie().getMovieName())
+                                .theaterName(seededTheater.getName())
+                                .showDate(seededShow.getShowDate())
+                                .showTime(seededShow.getShowTime())
+                                .bookedSeat("A1")
+                                .totalAmount(200)
+                                .user(seededUser)
+                                .show(seededShow)
+                                .build());
+                        if (ticket == null) {
+                            ticket = seededTicket;
+                        }
+                    }
+                    if (show == null) {
+                        show = seededShow;
+                    }
+                }
+                if (screen == null) {
+                    screen = seededScreen;
+                }
+            }
+            if (theater == null) {
+                theater = seededTheater;
+            }
+        }
+        movie = movies.get(0);
+        user = users.get(0);
+
+        emptyScreen = screenRepository.save(Screen.builder().name("Empty").screenNumber(99).theater(theater).build());
+
+        payment = paymentRepository.save(Payment.builder()
+                .paymentId("budget-payment-1")
+                .idempotencyKey("budget-key-1")
+                .payloadHash("hash")
+                .user(user)
+                .amount(200)
+                .paymentMethod("UPI")
+                .status(Payment.PaymentStatus.SUCCESS)
+                .build());
+    }
+
+    private Show saveShow(Movie movie, Theater theater, Screen screen, List<TheaterSeats> seats, LocalTime time) {
+        Show newShow = Show.builder()
+                .showDate(LocalDate.now().plusDays(1))
+                .showTime(time)
+                .showType(ShowType.values()[0])
+                .movie(movie)
+                .theater(theater)
+                .screen(screen)
+                .build();
+        List<ShowSeat> showSeats = new ArrayList<>();
+        for (TheaterSeats seat : seats) {
+            ShowSeat showSeat = new ShowSeat();
+            showSeat.setSeatNumber(seat.getSeatNumber());
+            showSeat.setSeatType(seat.getSeatType());
+            showSeat.setPrice(seat.getSeatType() == SeatType.CLASSIC ? 200 : 350);
+            showSeat.setShow(newShow);
+            showSeats.add(showSeat);
+        }
+        newShow.setListOfShowSeats(showSeats);
+        return showRepository.save(newShow);
+    }
+
+    private void assertWithinBudget(String endpoint, RequestBuilder request) throws Exception {
+        QueryCountHolder.clear();
+        // A fast failure (404, 401, 500) would run under budget without exercising the endpoint
+        mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+        QueryCount count = QueryCountHolder.get(SqlStatementCounterConfig.DATASOURCE_NAME);
+        assertNotNull(count, "No statements were recorded; is the counting DataSource proxy installed?");
+
+        long[] actual = {count.getSelect(), count.getInsert(), count.getUpdate(), count.getDelete(), count.getOther()};
+        StringBuilder violations = new StringBuilder();
+        boolean budgeted = false;
+        for (int i = 0; i < STATEMENT_TYPES.length; i++) {
+            String value = budgets.getProperty(endpoint + "." + STATEMENT_TYPES[i]);
+            budgeted |= value != null;
+            long limit = value != null ? Long.parseLong(value.trim()) : 0;
+            if (actual[i] > limit) {
+                violations.append(String.format("%n  %s: %d > budget %d", STATEMENT_TYPES[i], actual[i], limit));
+            }
+        }
+        if (!budgeted) {
+            fail("No SQL budget defined for " + endpoint + " in " + BUDGET_FILE);
+        }
+        if (violations.length() > 0) {
+            fail("SQL budget exceeded for " + endpoint + ":" + violations);
+        }
+    }
+
+    // Movies
+
+    @Test
+    void moviesGetAll() throws Exception {
+        assertWithinBudget("movies.get-all", get("/movies/get-all"));
+    }
+
+    @Test
+    void moviesGet() throws Exception {
+        assertWithinBudget("movies.get", get("/movies/get/{id}", movie.getId()));
+    }
+
+    // Theaters
+
+    @Test
+    void theaterGetAll() throws Exception {
+        assertWithinBudget("theater.get-all", get("/theater/get-all"));
+    }
+
+    @Test
+    void theaterGet() throws Exception {
+        assertWithinBudget("theater.get", get("/theater/get/{id}", theater.getId()));
+    }
+
+    // Screens
+
+    @Test
+    void screensGetAll() throws Exception {
+        assertWithinBudget("screens.get-all", get("/screens/get-all"));
+    }
+
+    @Test
+    void screensGet() throws Exception {
+        assertWithinBudget("screens.get", get("/screens/get/{id}", screen.getId()));
+    }
+
+    @Test
+    void screensGetByTheater() throws Exception {
+        assertWithinBudget("screens.get-by-theater", get("/screens/get-by-theater/{id}", theater.getId()));
+    }
+
+    @Test
+    void screensDelete() throws Exception {
+        assertWithinBudget("screens.delete", delete("/screens/delete/{id}", emptyScreen.getId()));
+    }
+
+    // Shows
+
+    @Test
+    void showsGetAll() throws Exception {
+        assertWithinBudget("shows.get-all", get("/shows/get-all"));
+    }
+
+    @Test
+    void showsGet() throws Exception {
+        assertWithinBudget("shows.get", get("/shows/get/{id}", show.getId()));
+    }
+
+    @Test
+    void showsGetByMovie() throws Exception {
+        assertWithinBudget("shows.get-by-movie", get("/shows/get-by-movie/{id}", movie.getId()));
+    }
+
+    @Test
+    void showsGetByTheater() throws Exception {
+        assertWithinBudget("shows.get-by-theater", get("/shows/get-by-theater/{id}", theater.getId()));
+    }
+
+    @Test
+    void showsSearch() throws Exception {
+        assertWithinBudget("shows.search", get("/shows/search")
+                .param("city", theater.getLocation())
+                .param("fromDate", show.getShowDate().toString()));
+    }
+
+    @Test
+    void showsAdd() throws Exception {
+        String body = "{\"localDate\":\"" + show.getShowDate() + "\",\"localTime\":\"23:00:00\"," +
+                "\"movieId\":" + movie.getId() + ",\"theaterId\":" + theater.getId() + "," +
+                "\"screenId\":" + screen.getId() + ",\"classSeatPrice\":200,\"premiumSeatPrice\":350}";
+        assertWithinBudget("shows.add", post("/shows/add").contentType(MediaType.APPLICATION_JSON).content(body));
+    }
+
+    // Tickets
+
+    @Test
+    void ticketsGetAll() throws Exception {
+        assertWithinBudget("tickets.get-all", get("/tickets/get-all"));
+    }
+
+    @Test
+    void ticketsGet() throws Exception {
+        // Measure the database path, not a copy another endpoint left in the local cache
+        twoLevelCache.evictLocal("ticket", "ticket::" + ticket.getId());
+        assertWithinBudget("tickets.get", get("/tickets/get/{id}", ticket.getId()));
+    }
+
+    @Test
+    void ticketsGetByUser() throws Exception {
+        assertWithinBudget("tickets.get-by-user", get("/tickets/get-by-user/{id}", user.getId()));
+    }
+
+    @Test
+    void ticketsGetByShow() throws Exception {
+        assertWithinBudget("tickets.get-by-show", get("/tickets/get-by-show/{id}", show.getId()));
+    }
+
+    @Test
+    void ticketsBook() throws Exception {
+        RLock lock = mock(RLock.class);
+        when(lock.tryLock(anyLong(), anyLong(), eq(TimeUnit.SECONDS))).thenReturn(true);
+        when(redissonClient.getLock(anyString())).thenReturn(lock);
+
+        String body = "{\"showId\":" + show.getId() + ",\"userId\":" + user.getId() + ",\"requestedSeats\":[\"B3\",\"B4\"]}";
+        assertWithinBudget("tickets.book", post("/tickets/book").contentType(MediaType.APPLICATION_JSON).content(body));
+    }
+
+    @Test
+    void ticketsCancel() throws Exception {
+        assertWithinBudget("tickets.cancel-ticket", delete("/tickets/cancel-ticket")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ticketId\":" + ticket.getId() + "}"));
+    }
+
+    // Users and auth
+
+    @Test
+    void userGetAll() throws Exception {
+        assertWithinBudget("user.get-all", get("/user/get-all"));
+    }
+
+    @Test
+    void userGet() throws Exception {
+        assertWithinBudget("user.get", get("/user/get/{id}", user.getId()));
+    }
+
+    @Test
+    void authLogin() throws Exception {
+        String body = "{\"email\":\"" + user.getEmail() + "\",\"password\":\"Budget@Pass123\"}";
+        assertWithinBudget("auth.login", post("/auth/login").contentType(MediaType.APPLICATION_JSON).content(body));
+    }
+
+    @Test
+    void authRegister() throws Exception {
+        String body = "{\"name\":\"Budget Register\",\"age\":30,\"email\":\"budget.register@example.com\"," +
+                "\"mobileNumber\":\"9000000199\",\"password\":\"Budget@Pass123\"}";
+        assertWithinBudget("auth.register", post("/auth/register").contentType(MediaType.APPLICATION_JSON).content(body));
+    }
+
+    // Payments
+
+    @Test
+    void paymentsStatus() throws Exception {
+        assertWithinBudget("payments.status", get("/payments/status/{id}", payment.getPaymentId()));
+    }
+
+    @Test
+    void paymentsStatusByKey() throws Exception {
+        assertWithinBudget("payments.status-by-key", get("/payments/status-by-key/{key}", payment.getIdempotencyKey()));
+    }
+}
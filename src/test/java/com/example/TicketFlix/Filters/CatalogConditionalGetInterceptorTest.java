@@ -0,0 +1,127 @@
+package com.example.TicketFlix.Filters;
+
+import com.example.TicketFlix.Cache.CatalogVersions;
+import com.example.TicketFlix.Response.ApiResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogConditionalGetInterceptorTest {
+
+    @Mock
+    private CatalogVersions catalogVersions;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CatalogConditionalGetInterceptor interceptor;
+    private CatalogCacheHeadersAdvice advice;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        interceptor = new CatalogConditionalGetInterceptor();
+        ReflectionTestUtils.setField(interceptor, "catalogVersions", catalogVersions);
+        ReflectionTestUtils.setField(interceptor, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(interceptor, "maxAge", Duration.ofSeconds(60));
+        ReflectionTestUtils.setField(interceptor, "staleWhileRevalidate", Duration.ofSeconds(30));
+
+        advice = new CatalogCacheHeadersAdvice();
+        ReflectionTestUtils.setField(advice, "catalogConditionalGetInterceptor", interceptor);
+    }
+
+    private MockHttpServletRequest get(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+
+    private HttpHeaders writeBody(MockHttpServletRequest request, ApiResponse<?> body) {
+        ServletServerHttpResponse response = new ServletServerHttpResponse(new MockHttpServletResponse());
+        advice.beforeBodyWrite(body, null, MediaType.APPLICATION_JSON, null,
+                new ServletServerHttpRequest(request), response);
+        return response.getHeaders();
+    }
+
+    @Test
+    void testMatchingIfNoneMatch_NotModifiedWithoutRunningController() {
+        when(catalogVersions.current(CatalogVersions.MOVIES)).thenReturn(OptionalLong.of(7));
+        MockHttpServletRequest request = get("/movies/get/3");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "W/\"shows-2\", W/\"movies-7\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(interceptor.preHandle(request, response, null));
+
+        assertEquals(304, response.getStatus());
+        assertEquals("W/\"movies-7\"", response.getHeader(HttpHeaders.ETAG));
+        assertEquals("max-age=60, private, stale-while-revalidate=30",
+                response.getHeader(HttpHeaders.CACHE_CONTROL));
+        assertEquals(HttpHeaders.AUTHORIZATION, response.getHeader(HttpHeaders.VARY));
+        assertEquals(1.0, meterRegistry.get("ticketflix.http.not-modified").tag("collection", "movies").counter().count());
+    }
+
+    @Test
+    void testStaleIfNoneMatch_SuccessfulBodyGetsNewValidator() {
+        when(catalogVersions.current(CatalogVersions.SHOWS)).thenReturn(OptionalLong.of(8));
+        MockHttpServletRequest request = get("/shows/search");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "W/\"shows-7\"");
+
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), null));
+
+        HttpHeaders headers = writeBody(request, ApiResponse.success("page", "ok"));
+        assertEquals("W/\"shows-8\"", headers.getETag());
+        assertEquals("max-age=60, private, stale-while-revalidate=30", headers.getCacheControl());
+        assertEquals(List.of(HttpHeaders.AUTHORIZATION), headers.getVary());
+    }
+
+    @Test
+    void testFailedResponse_NoCachingHeaders() {
+        when(catalogVersions.current(CatalogVersions.THEATERS)).thenReturn(OptionalLong.of(1));
+        MockHttpServletRequest request = get("/theater/get/404");
+
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), null));
+
+        HttpHeaders headers = writeBody(request, ApiResponse.error("Theater not found", "NOT_FOUND"));
+        assertNull(headers.getETag());
+        assertNull(headers.getCacheControl());
+    }
+
+    @Test
+    void testVersionUnreadable_NoValidatorIssued() {
+        when(catalogVersions.current(CatalogVersions.SCREENS)).thenReturn(OptionalLong.empty());
+        MockHttpServletRequest request = get("/screens/get-all");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "*");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(request, response, null));
+
+        assertEquals(200, response.getStatus());
+        assertNull(writeBody(request, ApiResponse.success("screens", "ok")).getETag());
+    }
+
+    @Test
+    void testNonCatalogRequests_Ignored() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(get("/movies/trending"), response, null));
+        assertTrue(interceptor.preHandle(get("/shows/bulk-schedule/job-1"), response, null));
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest("PUT", "/movies/update/1"), response, null));
+
+        verify(catalogVersions, never()).current(anyString());
+    }
+}
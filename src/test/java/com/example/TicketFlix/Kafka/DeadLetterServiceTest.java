@@ -0,0 +1,161 @@
+package com.example.TicketFlix.Kafka;
+
+import com.example.TicketFlix.EntryDTOs.UserEntryDTO;
+import com.example.TicketFlix.Events.EventEnvelope;
+import com.example.TicketFlix.Events.EventType;
+import com.example.TicketFlix.Exception.ValidationException;
+import com.example.TicketFlix.Response.DeadLetterReplayResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeadLetterServiceTest {
+
+    private static final String TARGET_TOPIC = EventType.USER_CREATION.getTopic();
+    private static final String DEAD_LETTER_TOPIC = TARGET_TOPIC + "-unbatched-dlt";
+    private static final TopicPartition PARTITION = new TopicPartition(DEAD_LETTER_TOPIC, 0);
+
+    @Mock
+    private ConsumerFactory<String, EventEnvelope<?>> consumerFactory;
+
+    @Mock
+    private EventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReplayConsumer consumer;
+    private DeadLetterService deadLetterService;
+
+    // Stays open after the replay so the committed offsets can be checked
+    private static class ReplayConsumer extends MockConsumer<String, EventEnvelope<?>> {
+        ReplayConsumer() {
+            super(OffsetResetStrategy.EARLIEST);
+        }
+
+        @Override
+        public synchronized void close() {
+        }
+
+        @Override
+        public synchronized void close(Duration timeout) {
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        consumer = new ReplayConsumer();
+        deadLetterService = new DeadLetterService();
+        ReflectionTestUtils.setField(deadLetterService, "consumerFactory", consumerFactory);
+        ReflectionTestUtils.setField(deadLetterService, "eventPublisher", eventPublisher);
+        ReflectionTestUtils.setField(deadLetterService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(deadLetterService, "replayTimeout", Duration.ofSeconds(5));
+    }
+
+    private static EventEnvelope<?> envelope(String email) {
+        return EventEnvelope.of(EventType.USER_CREATION, null, UserEntryDTO.builder().email(email).build());
+    }
+
+    private void deadLetters(EventEnvelope<?>... values) {
+        deadLetters(0, values);
+    }
+
+    private void deadLetters(int emptyPolls, EventEnvelope<?>... values) {
+        when(consumerFactory.createConsumer(eq(DeadLetterService.REPLAY_GROUP), isNull(), isNull(), any(Properties.class)))
+                .thenReturn(consumer);
+        consumer.updatePartitions(DEAD_LETTER_TOPIC, List.of(new PartitionInfo(DEAD_LETTER_TOPIC, 0, null, null, null)));
+        consumer.updateBeginningOffsets(Map.of(PARTITION, 0L));
+        consumer.updateEndOffsets(Map.of(PARTITION, (long) values.length));
+        for (int i = 0; i < emptyPolls; i++) {
+            consumer.schedulePollTask(() -> {
+            });
+        }
+        consumer.schedulePollTask(() -> {
+            for (int i = 0; i < values.length; i++) {
+                consumer.addRecord(new ConsumerRecord<>(DEAD_LETTER_TOPIC, 0, i, "key-" + i, values[i]));
+            }
+        });
+    }
+
+    private void acknowledged() {
+        when(eventPublisher.publish(eq(TARGET_TOPIC), anyString(), any())).thenReturn(CompletableFuture.completedFuture(
+                new RecordMetadata(new TopicPartition(TARGET_TOPIC, 0), 0, 0, 0, 0, 0)));
+    }
+
+    private long committedOffset() {
+        OffsetAndMetadata committed = consumer.committed(Set.of(PARTITION)).get(PARTITION);
+        return committed != null ? committed.offset() : 0;
+    }
+
+    @Test
+    void testReplay_PublishesDeadLettersToOriginalTopicAndCommits() throws Exception {
+        EventEnvelope<?> first = envelope("a@test.com");
+        EventEnvelope<?> second = envelope("b@test.com");
+        deadLetters(first, null, second);
+        acknowledged();
+
+        DeadLetterReplayResponseDTO response = deadLetterService.replay(DEAD_LETTER_TOPIC, 100);
+
+        assertEquals(TARGET_TOPIC, response.getTargetTopic());
+        assertEquals(2, response.getReplayed());
+        assertEquals(1, response.getSkipped());
+        verify(eventPublisher).publish(TARGET_TOPIC, "key-0", first);
+        verify(eventPublisher).publish(TARGET_TOPIC, "key-2", second);
+        assertEquals(3, committedOffset());
+        assertEquals(2.0, meterRegistry.get("ticketflix.kafka.dead-letters.replayed").counter().count());
+    }
+
+    @Test
+    void testReplay_StopsAtMaxRecordsAndLeavesTheRestUncommitted() throws Exception {
+        deadLetters(envelope("a@test.com"), envelope("b@test.com"), envelope("c@test.com"));
+        acknowledged();
+
+        DeadLetterReplayResponseDTO response = deadLetterService.replay(DEAD_LETTER_TOPIC, 2);
+
+        assertEquals(2, response.getReplayed());
+        verify(eventPublisher, times(2)).publish(eq(TARGET_TOPIC), anyString(), any());
+        assertEquals(2, committedOffset());
+    }
+
+    @Test
+    void testReplay_KeepsPollingPastEmptyPollsUntilTheEndOffsets() throws Exception {
+        deadLetters(2, envelope("a@test.com"), envelope("b@test.com"));
+        acknowledged();
+
+        DeadLetterReplayResponseDTO response = deadLetterService.replay(DEAD_LETTER_TOPIC, 100);
+
+        assertEquals(2, response.getReplayed());
+        assertEquals(2, committedOffset());
+    }
+
+    @Test
+    void testReplay_RejectsTopicsThatAreNotDeadLetterTopics() {
+        assertThrows(ValidationException.class, () -> deadLetterService.replay(TARGET_TOPIC, 10));
+        assertThrows(ValidationException.class, () -> deadLetterService.replay(DEAD_LETTER_TOPIC, 0));
+
+        verifyNoInteractions(consumerFactory, eventPublisher);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.TicketFlix.Kafka;
+
+import com.example.TicketFlix.Config.KafkaConfig;
+import com.example.TicketFlix.EntryDTOs.ShowEntryDTO;
+import com.example.TicketFlix.EntryDTOs.UserEntryDTO;
+import com.example.TicketFlix.Events.EventEnvelope;
+import com.example.TicketFlix.Events.EventType;
+import com.example.TicketFlix.Genres.ShowType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventEnvelopeSerdeTest {
+
+    private final ObjectMapper smileMapper = KafkaConfig.eventMapper(new Jackson2ObjectMapperBuilder());
+    private final EventEnvelopeSerializer serializer = new EventEnvelopeSerializer(smileMapper);
+    private final EventEnvelopeDeserializer deserializer = new EventEnvelopeDeserializer(smileMapper);
+
+    @Test
+    void testRoundTrip_PayloadIsTypedByTopic() {
+        UserEntryDTO user = new UserEntryDTO();
+        user.setName("Asha");
+        user.setEmail("asha@test.com");
+        user.setAge(30);
+        EventEnvelope<UserEntryDTO> sent = EventEnvelope.of(EventType.USER_UPDATE, 7, user);
+
+        EventEnvelope<?> received = deserializer.deserialize("user-update-events",
+                serializer.serialize("user-update-events", sent));
+
+        assertEquals(sent, received);
+        assertInstanceOf(UserEntryDTO.class, received.getPayload());
+        assertEquals(EventType.USER_UPDATE, received.getType());
+        assertEquals(1, received.getVersion());
+        assertEquals(7, received.getEntityId());
+    }
+
+    @Test
+    void testRoundTrip_DatesAndEmptyPayload() {
+        ShowEntryDTO show = new ShowEntryDTO();
+        show.setLocalDate(LocalDate.of(2030, 1, 1));
+        show.setLocalTime(LocalTime.of(18, 30));
+        show.setShowType(ShowType.values()[0]);
+        EventEnvelope<ShowEntryDTO> creation = EventEnvelope.of(EventType.SHOW_CREATION, null, show);
+        EventEnvelope<Void> deletion = EventEnvelope.of(EventType.SHOW_DELETION, 42, null);
+
+        assertEquals(creation, deserializer.deserialize("show-creation-events",
+                serializer.serialize("show-creation-events", creation)));
+        EventEnvelope<?> deleted = deserializer.deserialize("show-deletion-events",
+                serializer.serialize("show-deletion-events", deletion));
+        assertEquals(42, deleted.getEntityId());
+        assertNull(deleted.getPayload());
+    }
+
+    @Test
+    void testDeserialize_RejectsNewerSchemaVersion() {
+        EventEnvelope<Void> newer = EventEnvelope.of(EventType.SHOW_DELETION, 42, null);
+        newer.setVersion(EventType.SHOW_DELETION.getVersion() + 1);
+        byte[] data = serializer.serialize("show-deletion-events", newer);
+
+        SerializationException e = assertThrows(SerializationException.class,
+                () -> deserializer.deserialize("show-deletion-events", data));
+        assertTrue(e.getMessage().contains("newer than the supported version"));
+    }
+
+    @Test
+    void testTopicResolution_DerivedTopicsUseTheirSourceType() {
+        assertEquals(EventType.USER_CREATION, EventType.forTopic("user-creation-events"));
+        assertEquals(EventType.USER_CREATION, EventType.forTopic("user-creation-events-retry-0"));
+        assertEquals(EventType.EMAIL_NOTIFICATION, EventType.forTopic("email-notification-dlt"));
+        assertNull(EventType.forTopic("unknown-topic"));
+        assertThrows(SerializationException.class, () -> deserializer.deserialize("unknown-topic", new byte[]{1}));
+    }
+}
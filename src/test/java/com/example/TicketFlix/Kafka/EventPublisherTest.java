@@ -0,0 +1,130 @@
+package com.example.TicketFlix.Kafka;
+
+import com.example.TicketFlix.Events.EmailNotificationEvent;
+import com.example.TicketFlix.Events.EventEnvelope;
+import com.example.TicketFlix.Events.EventType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.NotLeaderOrFollowerException;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventPublisherTest {
+
+    private static final String TOPIC = EventType.EMAIL_NOTIFICATION.getTopic();
+
+    @Mock
+    private KafkaTemplate<String, EventEnvelope<?>> kafkaTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EventPublisher eventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        eventPublisher = new EventPublisher();
+        ReflectionTestUtils.setField(eventPublisher, "kafkaTemplate", kafkaTemplate);
+        ReflectionTestUtils.setField(eventPublisher, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(eventPublisher, "maxPendingSends", 1);
+        ReflectionTestUtils.setField(eventPublisher, "maxBlock", Duration.ofMillis(10));
+        eventPublisher.init();
+    }
+
+    private static EventEnvelope<?> envelope() {
+        return EventEnvelope.of(EventType.EMAIL_NOTIFICATION, null, new EmailNotificationEvent("a@test.com", "s", "b"));
+    }
+
+    private static SettableListenableFuture<SendResult<String, EventEnvelope<?>>> acknowledged() {
+        SettableListenableFuture<SendResult<String, EventEnvelope<?>>> future = new SettableListenableFuture<>();
+        future.set(new SendResult<>(new ProducerRecord<>(TOPIC, "a@test.com", envelope()),
+                new RecordMetadata(new TopicPartition(TOPIC, 0), 42, 0, 0, 0, 0)));
+        return future;
+    }
+
+    private static SettableListenableFuture<SendResult<String, EventEnvelope<?>>> failed(Exception e) {
+        SettableListenableFuture<SendResult<String, EventEnvelope<?>>> future = new SettableListenableFuture<>();
+        future.setException(e);
+        return future;
+    }
+
+    private double pending() {
+        return meterRegistry.get("ticketflix.kafka.publish.pending").gauge().value();
+    }
+
+    @Test
+    void testAcknowledgedSend_CompletesDelivery() throws Exception {
+        when(kafkaTemplate.send(eq(TOPIC), eq("a@test.com"), any())).thenReturn(acknowledged());
+
+        RecordMetadata metadata = eventPublisher.publish(TOPIC, "a@test.com", envelope()).get(5, TimeUnit.SECONDS);
+
+        assertEquals(42, metadata.offset());
+        assertEquals(1, meterRegistry.get("ticketflix.kafka.publish.latency").tag("result", "success").timer().count());
+        assertEquals(0.0, pending());
+    }
+
+    @Test
+    void testRetriableFailure_IsNotSentAgainAfterTheProducerGaveUp() {
+        when(kafkaTemplate.send(eq(TOPIC), eq("a@test.com"), any()))
+                .thenReturn(failed(new NotLeaderOrFollowerException("leader moved")));
+
+        CompletableFuture<RecordMetadata> delivery = eventPublisher.publish(TOPIC, "a@test.com", envelope());
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> delivery.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(NotLeaderOrFollowerException.class, e.getCause());
+        verify(kafkaTemplate, times(1)).send(anyString(), anyString(), any());
+        assertEquals(1.0, meterRegistry.get("ticketflix.kafka.publish.failures")
+                .tag("topic", TOPIC).tag("reason", "NotLeaderOrFollowerException").counter().count());
+        assertEquals(0.0, pending());
+    }
+
+    @Test
+    void testNonRetriableFailure_FailsWithoutRetry() {
+        when(kafkaTemplate.send(eq(TOPIC), anyString(), any())).thenReturn(failed(new RecordTooLargeException("too big")));
+
+        CompletableFuture<RecordMetadata> delivery = eventPublisher.publish(TOPIC, "a@test.com", envelope());
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> delivery.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RecordTooLargeException.class, e.getCause());
+        verify(kafkaTemplate, times(1)).send(anyString(), anyString(), any());
+        assertEquals(1.0, meterRegistry.get("ticketflix.kafka.publish.failures")
+                .tag("topic", TOPIC).tag("reason", "RecordTooLargeException").counter().count());
+        assertEquals(0.0, pending());
+    }
+
+    @Test
+    void testPendingLimit_RejectsSendsUntilOneCompletes() throws Exception {
+        SettableListenableFuture<SendResult<String, EventEnvelope<?>>> inFlight = new SettableListenableFuture<>();
+        when(kafkaTemplate.send(eq(TOPIC), anyString(), any())).thenReturn(inFlight).thenReturn(acknowledged());
+
+        CompletableFuture<RecordMetadata> first = eventPublisher.publish(TOPIC, "a@test.com", envelope());
+        CompletableFuture<RecordMetadata> rejected = eventPublisher.publish(TOPIC, "a@test.com", envelope());
+
+        assertTrue(rejected.isCompletedExceptionally());
+        assertEquals(1.0, meterRegistry.get("ticketflix.kafka.publish.failures").tag("reason", "backpressure").counter().count());
+        assertEquals(1.0, pending());
+
+        inFlight.set(acknowledged().get());
+        assertTrue(first.isDone());
+        assertNotNull(eventPublisher.publish(TOPIC, "a@test.com", envelope()).get(5, TimeUnit.SECONDS));
+    }
+}
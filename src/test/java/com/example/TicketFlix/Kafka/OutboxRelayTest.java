@@ -0,0 +1,188 @@
+package com.example.TicketFlix.Kafka;
+
+import com.example.TicketFlix.Events.EmailNotificationEvent;
+import com.example.TicketFlix.Events.EventEnvelope;
+import com.example.TicketFlix.Events.EventType;
+import com.example.TicketFlix.Models.OutboxEvent;
+import com.example.TicketFlix.Repository.OutboxEventRepository;
+import com.example.TicketFlix.TestConfig;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+@Import(TestConfig.class)
+class OutboxRelayTest {
+
+    private static final String TOPIC = EventType.EMAIL_NOTIFICATION.getTopic();
+
+    @Autowired
+    private TransactionalOutbox transactionalOutbox;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private KafkaTemplate<String, EventEnvelope<?>> kafkaTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAll();
+        ReflectionTestUtils.setField(outboxRelay, "batchSize", 500);
+        ReflectionTestUtils.setField(outboxRelay, "maxAge", Duration.ofHours(24));
+    }
+
+    private void failSendsTo(String address) {
+        SettableListenableFuture<SendResult<String, EventEnvelope<?>>> failed = new SettableListenableFuture<>();
+        failed.setException(new RecordTooLargeException("too big"));
+        doReturn(failed).when(kafkaTemplate).send(eq(TOPIC), eq(address), any());
+    }
+
+    private static EventEnvelope<?> email(String address) {
+        return EventEnvelope.of(EventType.EMAIL_NOTIFICATION, null, new EmailNotificationEvent(address, "subject", "body"));
+    }
+
+    private void stage(EventEnvelope<?>... envelopes) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (EventEnvelope<?> envelope : envelopes) {
+                EmailNotificationEvent notification = (EmailNotificationEvent) envelope.getPayload();
+                transactionalOutbox.append(TOPIC, notification.getEmail(), envelope);
+            }
+        });
+    }
+
+    private Map<String, OutboxEvent> eventsByKey() {
+        return outboxEventRepository.findAll().stream()
+                .collect(Collectors.toMap(OutboxEvent::getMessageKey, event -> event));
+    }
+
+    @Test
+    void testRelay_PublishesStagedEventsAndMarksThemSent() {
+        EventEnvelope<?> first = email("outbox-1@test.com");
+        EventEnvelope<?> second = email("outbox-2@test.com");
+        stage(first, second);
+
+        outboxRelay.drain();
+
+        verify(kafkaTemplate).send(eq(TOPIC), eq("outbox-1@test.com"),
+                argThat(envelope -> envelope.getEventId().equals(first.getEventId())));
+        verify(kafkaTemplate).send(eq(TOPIC), eq("outbox-2@test.com"),
+                argThat(envelope -> envelope.getEventId().equals(second.getEventId())
+                        && ((EmailNotificationEvent) envelope.getPayload()).getSubject().equals("subject")));
+        assertTrue(eventsByKey().values().stream().allMatch(event -> event.getSentAt() != null));
+    }
+
+    private void expireClaim(String key) {
+        OutboxEvent event = eventsByKey().get(key);
+        event.setClaimedUntil(new Date(System.currentTimeMillis() - 1));
+        outboxEventRepository.save(event);
+    }
+
+    @Test
+    void testRelay_RetriesFailedEventsAfterABackoff() {
+        failSendsTo("outbox-failing@test.com");
+        stage(email("outbox-failing@test.com"), email("outbox-3@test.com"));
+
+        outboxRelay.drain();
+        outboxRelay.drain();
+
+        Map<String, OutboxEvent> events = eventsByKey();
+        OutboxEvent failing = events.get("outbox-failing@test.com");
+        assertNull(failing.getSentAt());
+        assertNull(failing.getAbandonedAt());
+        assertTrue(failing.getClaimedUntil().after(new Date()));
+        assertEquals(1, failing.getAttempts(), "Not claimed again before its backoff ran out");
+        assertNotNull(events.get("outbox-3@test.com").getSentAt());
+    }
+
+    @Test
+    void testRelay_DoublesTheBackoffWithEveryAttemptWithoutAbandoning() {
+        failSendsTo("outbox-outage@test.com");
+        stage(email("outbox-outage@test.com"));
+
+        long delay = 0;
+        for (int attempt = 1; attempt <= 12; attempt++) {
+            long before = System.currentTimeMillis();
+            outboxRelay.drain();
+            OutboxEvent event = eventsByKey().get("outbox-outage@test.com");
+            delay = event.getClaimedUntil().getTime() - before;
+            assertEquals(attempt, event.getAttempts());
+            expireClaim("outbox-outage@test.com");
+        }
+
+        OutboxEvent event = eventsByKey().get("outbox-outage@test.com");
+        assertNull(event.getAbandonedAt());
+        assertNull(event.getSentAt());
+        // 1s doubled past the 5m cap by the twelfth attempt
+        assertTrue(delay >= Duration.ofMinutes(5).toMillis() && delay < Duration.ofMinutes(6).toMillis());
+    }
+
+    @Test
+    void testRelay_AbandonsFailedEventsOlderThanMaxAge() {
+        ReflectionTestUtils.setField(outboxRelay, "maxAge", Duration.ZERO);
+        failSendsTo("outbox-expired@test.com");
+        stage(email("outbox-expired@test.com"));
+
+        outboxRelay.drain();
+
+        OutboxEvent expired = eventsByKey().get("outbox-expired@test.com");
+        assertNull(expired.getSentAt());
+        assertNotNull(expired.getAbandonedAt());
+        assertEquals(1, expired.getAttempts());
+    }
+
+    @Test
+    void testRelay_AbandonsUndecodableEventsWithoutStoppingTheDrain() {
+        ReflectionTestUtils.setField(outboxRelay, "batchSize", 1);
+        outboxEventRepository.save(OutboxEvent.builder()
+                .topic(TOPIC)
+                .messageKey("outbox-garbage@test.com")
+                .payload(new byte[]{1, 2, 3})
+                .build());
+        stage(email("outbox-5@test.com"));
+
+        outboxRelay.drain();
+
+        Map<String, OutboxEvent> events = eventsByKey();
+        assertNotNull(events.get("outbox-garbage@test.com").getAbandonedAt());
+        assertNull(events.get("outbox-garbage@test.com").getSentAt());
+        assertNotNull(events.get("outbox-5@test.com").getSentAt());
+    }
+
+    @Test
+    void testAppend_RequiresTransaction() {
+        assertThrows(IllegalTransactionStateException.class,
+                () -> transactionalOutbox.append(TOPIC, "outbox-4@test.com", email("outbox-4@test.com")));
+        assertEquals(List.of(), outboxEventRepository.findAll());
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.TicketFlix.Service;
+
+import com.example.TicketFlix.EntryDTOs.BulkShowScheduleEntryDTO;
+import com.example.TicketFlix.Exception.ValidationException;
+import com.example.TicketFlix.Genres.Genre;
+import com.example.TicketFlix.Genres.Language;
+import com.example.TicketFlix.Genres.SeatType;
+import com.example.TicketFlix.Genres.ShowType;
+import com.example.TicketFlix.Models.Movie;
+import com.example.TicketFlix.Models.Screen;
+import com.example.TicketFlix.Models.Theater;
+import com.example.TicketFlix.Models.TheaterSeats;
+import com.example.TicketFlix.Repository.MovieRepository;
+import com.example.TicketFlix.Repository.ScreenRepository;
+import com.example.TicketFlix.Repository.ShowSeatRepository;
+import com.example.TicketFlix.Repository.TheaterRepository;
+import com.example.TicketFlix.Response.BulkShowScheduleStatusDTO;
+import com.example.TicketFlix.TestConfig;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+@Import(TestConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BulkShowScheduleServiceTest {
+
+    @Autowired
+    private BulkShowScheduleService bulkShowScheduleService;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private TheaterRepository theaterRepository;
+
+    @Autowired
+    private ScreenRepository screenRepository;
+
+    @Autowired
+    private ShowSeatRepository showSeatRepository;
+
+    private Movie movie;
+    private Theater theater;
+    private List<Screen> screens = new ArrayList<>();
+    private Screen otherTheaterScreen;
+
+    @BeforeAll
+    void seed() {
+        movie = movieRepository.save(Movie.builder()
+                .movieName("Bulk Schedule Movie")
+                .genre(Genre.values()[0])
+                .language(Language.values()[0])
+                .build());
+
+        theater = new Theater();
+        theater.setName("Bulk Multiplex");
+        theater.setLocation("Bulk City");
+        theater = theaterRepository.save(theater);
+
+        for (int s = 1; s <= 2; s++) {
+            screens.add(saveScreen(theater, s));
+        }
+
+        Theater otherTheater = new Theater();
+        otherTheater.setName("Other Theater");
+        otherTheater.setLocation("Bulk City");
+        otherTheaterScreen = saveScreen(theaterRepository.save(otherTheater), 1);
+    }
+
+    private Screen saveScreen(Theater owner, int number) {
+        Screen screen = Screen.builder().name("Bulk Screen " + number).screenNumber(number).theater(owner).build();
+        List<TheaterSeats> seats = new ArrayList<>();
+        seats.add(TheaterSeats.builder().seatNumber("A1").seatType(SeatType.CLASSIC).screen(screen).build());
+        seats.add(TheaterSeats.builder().seatNumber("A2").seatType(SeatType.CLASSIC).screen(screen).build());
+        seats.add(TheaterSeats.builder().seatNumber("B1").seatType(SeatType.PREMIUM).screen(screen).build());
+        seats.add(TheaterSeats.builder().seatNumber("B2").seatType(SeatType.PREMIUM).screen(screen).build());
+        screen.setTheaterSeatsList(seats);
+        return screenRepository.save(screen);
+    }
+
+    private BulkShowScheduleEntryDTO weekendSchedule() {
+        BulkShowScheduleEntryDTO request = new BulkShowScheduleEntryDTO();
+        request.setMovieId(movie.getId());
+        request.setTheaterId(theater.getId());
+        request.setScreenIds(List.of(screens.get(0).getId(), screens.get(1).getId()));
+        request.setStartDate(LocalDate.now().plusDays(1));
+        request.setEndDate(LocalDate.now().plusDays(3));
+        request.setShowTimes(List.of(LocalTime.of(12, 0), LocalTime.of(18, 0)));
+        request.setShowType(ShowType.values()[0]);
+        request.setClassSeatPrice(150);
+        request.setPremiumSeatPrice(300);
+        return request;
+    }
+
+    private BulkShowScheduleStatusDTO awaitCompletion(String jobId) throws Exception {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            BulkShowScheduleStatusDTO status = bulkShowScheduleService.getJobStatus(jobId);
+            if ("COMPLETED".equals(status.getStatus()) || "FAILED".equals(status.getStatus())) {
+                return status;
+            }
+            Thread.sleep(100);
+        }
+        fail("Bulk schedule " + jobId + " did not finish");
+        return null;
+    }
+
+    @Test
+    void schedulesEveryScreenDateAndTimeOnceAndSkipsExistingSlots() throws Exception {
+        BulkShowScheduleStatusDTO accepted = bulkShowScheduleService.scheduleShows(weekendSchedule());
+        assertEquals(12, accepted.getRequestedShows()); // 2 screens x 3 days x 2 times
+
+        BulkShowScheduleStatusDTO done = awaitCompletion(accepted.getJobId());
+        assertEquals("COMPLETED", done.getStatus(), done.getMessage());
+        assertEquals(12, done.getCreatedShows());
+        assertEquals(48, done.getCreatedSeats()); // 4 seats per screen
+        assertEquals(0, done.getSkippedShows());
+        assertEquals(48, showSeatRepository.findAll().stream()
+                .filter(seat -> seat.getShow().getMovie().getId() == movie.getId())
+                .count());
+
+        // Re-submitting the same recurrence must not double-book any screen
+        BulkShowScheduleStatusDTO rerun = awaitCompletion(bulkShowScheduleService.scheduleShows(weekendSchedule()).getJobId());
+        assertEquals("COMPLETED", rerun.getStatus(), rerun.getMessage());
+        assertEquals(0, rerun.getCreatedShows());
+        assertEquals(12, rerun.getSkippedShows());
+    }
+
+    @Test
+    void rejectsScreenFromAnotherTheater() {
+        BulkShowScheduleEntryDTO request = weekendSchedule();
+        request.setScreenIds(List.of(screens.get(0).getId(), otherTheaterScreen.getId()));
+
+        assertThrows(ValidationException.class, () -> bulkShowScheduleService.scheduleShows(request));
+    }
+
+    @Test
+    void rejectsScheduleLongerThanAMonth() {
+        BulkShowScheduleEntryDTO request = weekendSchedule();
+        request.setEndDate(request.getStartDate().plusDays(40));
+
+        assertThrows(ValidationException.class, () -> bulkShowScheduleService.scheduleShows(request));
+    }
+}
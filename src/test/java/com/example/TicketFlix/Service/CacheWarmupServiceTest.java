@@ -0,0 +1,162 @@
+package com.example.TicketFlix.Service;
+
+import com.example.TicketFlix.Repository.ShowRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheWarmupServiceTest {
+
+    @Mock
+    private ShowRepository showRepository;
+
+    @Mock
+    private MovieService movieService;
+
+    @Mock
+    private TheaterService theaterService;
+
+    @Mock
+    private ScreenService screenService;
+
+    @Mock
+    private ShowService showService;
+
+    private ThreadPoolTaskExecutor executor;
+    private CacheWarmupService cacheWarmupService;
+    private CacheWarmupHealthIndicator healthIndicator;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.initialize();
+
+        cacheWarmupService = new CacheWarmupService();
+        ReflectionTestUtils.setField(cacheWarmupService, "showRepository", showRepository);
+        ReflectionTestUtils.setField(cacheWarmupService, "movieService", movieService);
+        ReflectionTestUtils.setField(cacheWarmupService, "theaterService", theaterService);
+        ReflectionTestUtils.setField(cacheWarmupService, "screenService", screenService);
+        ReflectionTestUtils.setField(cacheWarmupService, "showService", showService);
+        ReflectionTestUtils.setField(cacheWarmupService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cacheWarmupService, "cacheWarmupExecutor", executor);
+        ReflectionTestUtils.setField(cacheWarmupService, "enabled", true);
+        ReflectionTestUtils.setField(cacheWarmupService, "horizon", Duration.ofHours(48));
+        ReflectionTestUtils.setField(cacheWarmupService, "maxShows", 5000);
+        ReflectionTestUtils.setField(cacheWarmupService, "timeout", Duration.ofSeconds(10));
+
+        healthIndicator = new CacheWarmupHealthIndicator();
+        ReflectionTestUtils.setField(healthIndicator, "cacheWarmupService", cacheWarmupService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    private Object[] show(int showId, int movieId, int theaterId, Integer screenId, String city, LocalDateTime startsAt) {
+        return new Object[]{showId, movieId, theaterId, screenId, city, startsAt.toLocalDate(), startsAt.toLocalTime()};
+    }
+
+    @Test
+    void testWarmUp_LoadsEachEntityOnceAndSkipsPastShows() throws Exception {
+        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1).withHour(12).withMinute(0).withSecond(0).withNano(0);
+        List<Object[]> schedule = new ArrayList<>();
+        schedule.add(show(1, 10, 100, 1000, "Mumbai", LocalDateTime.now().minusHours(1)));
+        schedule.add(show(2, 10, 100, 1000, "Mumbai", tomorrow));
+        schedule.add(show(3, 11, 100, null, "Mumbai", tomorrow.plusHours(3)));
+        schedule.add(show(4, 11, 200, 2000, "Pune", tomorrow));
+        when(showRepository.findScheduleBetween(any(), any(), any())).thenReturn(schedule);
+
+        cacheWarmupService.warmUp().get(5, TimeUnit.SECONDS);
+
+        verify(showService, never()).getShowById(1);
+        verify(showService).getShowById(2);
+        verify(showService).getShowById(3);
+        verify(showService).getShowById(4);
+        verify(movieService).getMovieById(10);
+        verify(movieService).getMovieById(11);
+        verify(theaterService).getTheaterById(100);
+        verify(theaterService).getTheaterById(200);
+        verify(screenService).getScreenById(1000);
+        verify(screenService).getScreenById(2000);
+        verify(showService).searchShows("Mumbai", tomorrow.toLocalDate(), tomorrow.toLocalDate(), null, null, null, null, null);
+        verify(showService).searchShows("Pune", tomorrow.toLocalDate(), tomorrow.toLocalDate(), null, null, null, null, null);
+        assertEquals(CacheWarmupService.State.COMPLETED, cacheWarmupService.getState());
+        assertEquals(11, cacheWarmupService.getLoaded());
+        assertEquals(Status.UP, healthIndicator.health().getStatus());
+    }
+
+    @Test
+    void testHealth_OutOfServiceUntilWarmUpFinishes() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(showRepository.findScheduleBetween(any(), any(), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+
+        assertEquals(Status.OUT_OF_SERVICE, healthIndicator.health().getStatus());
+        var warmUp = cacheWarmupService.warmUp();
+        assertEquals(Status.OUT_OF_SERVICE, healthIndicator.health().getStatus());
+
+        release.countDown();
+        warmUp.handle((ignored, error) -> null).get(5, TimeUnit.SECONDS);
+        assertEquals(Status.UP, healthIndicator.health().getStatus());
+    }
+
+    @Test
+    void testTimeout_ReportsReadyAndSkipsQueuedLoads() throws Exception {
+        ReflectionTestUtils.setField(cacheWarmupService, "timeout", Duration.ofMillis(200));
+        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1);
+        List<Object[]> schedule = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            schedule.add(show(i, 10 + i, 100, null, "Mumbai", tomorrow));
+        }
+        when(showRepository.findScheduleBetween(any(), any(), any())).thenReturn(schedule);
+        when(movieService.getMovieById(anyInt())).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            return null;
+        });
+
+        cacheWarmupService.warmUp().handle((ignored, error) -> null).get(5, TimeUnit.SECONDS);
+        executor.getThreadPoolExecutor().shutdown();
+        executor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS);
+
+        assertEquals(CacheWarmupService.State.TIMED_OUT, cacheWarmupService.getState());
+        assertEquals(Status.UP, healthIndicator.health().getStatus());
+        verify(movieService, atMost(8)).getMovieById(anyInt());
+        verify(showService, never()).getShowById(anyInt());
+    }
+
+    @Test
+    void testPlanFailure_ReportsReadyWithColdCaches() throws Exception {
+        when(showRepository.findScheduleBetween(any(LocalDate.class), any(LocalDate.class), any()))
+                .thenThrow(new IllegalStateException("database unavailable"));
+
+        cacheWarmupService.warmUp().handle((ignored, error) -> null).get(5, TimeUnit.SECONDS);
+
+        assertEquals(CacheWarmupService.State.FAILED, cacheWarmupService.getState());
+        assertEquals(Status.UP, healthIndicator.health().getStatus());
+    }
+}
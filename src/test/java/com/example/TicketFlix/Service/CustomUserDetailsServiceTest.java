@@ -0,0 +1,111 @@
+package com.example.TicketFlix.Service;
+
+import com.example.TicketFlix.Cache.CacheLoader;
+import com.example.TicketFlix.Cache.SingleFlightLoader;
+import com.example.TicketFlix.Cache.TwoLevelCache;
+import com.example.TicketFlix.Models.User;
+import com.example.TicketFlix.Repository.UserRepository;
+import com.example.TicketFlix.Service.CustomUserDetailsService.CustomUserPrincipal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomUserDetailsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SingleFlightLoader singleFlightLoader;
+
+    @Mock
+    private TwoLevelCache twoLevelCache;
+
+    private CustomUserDetailsService userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsService = new CustomUserDetailsService();
+        ReflectionTestUtils.setField(userDetailsService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(userDetailsService, "singleFlightLoader", singleFlightLoader);
+        ReflectionTestUtils.setField(userDetailsService, "twoLevelCache", twoLevelCache);
+        ReflectionTestUtils.setField(userDetailsService, "principalTtl", Duration.ofMinutes(15));
+    }
+
+    private static User user(String email, boolean enabled) {
+        User user = User.builder().id(7).name("Asha").email(email).password("$2a$hash").role(User.UserRole.ADMIN).build();
+        user.setEnabled(enabled);
+        return user;
+    }
+
+    @Test
+    void testLoadPrincipal_CachedPrincipalSkipsDatabase() throws Exception {
+        when(singleFlightLoader.load(eq("principal"), eq("principal::7"), eq(CustomUserPrincipal.class), any(), any()))
+                .thenReturn(new CustomUserPrincipal(7, "Asha", "asha@example.com", "ADMIN", true));
+
+        CustomUserPrincipal principal = userDetailsService.loadPrincipal(7, "asha@example.com");
+
+        assertEquals("ROLE_ADMIN", principal.getAuthorities().iterator().next().getAuthority());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testLoadPrincipal_MissLoadsUserWithoutPasswordHash() throws Exception {
+        when(userRepository.findById(7)).thenReturn(Optional.of(user("asha@example.com", true)));
+        when(singleFlightLoader.load(any(), any(), eq(CustomUserPrincipal.class), any(), any()))
+                .thenAnswer(invocation -> ((CacheLoader<CustomUserPrincipal>) invocation.getArgument(4)).load());
+
+        CustomUserPrincipal principal = userDetailsService.loadPrincipal(7, "asha@example.com");
+
+        assertEquals(7, principal.getUserId());
+        assertNull(principal.getPassword());
+    }
+
+    @Test
+    void testLoadPrincipal_StaleEmailReloadsThenRejectsMismatchedToken() throws Exception {
+        when(singleFlightLoader.load(any(), any(), eq(CustomUserPrincipal.class), any(), any()))
+                .thenReturn(new CustomUserPrincipal(7, "Asha", "old@example.com", "ADMIN", true));
+        when(userRepository.findById(7)).thenReturn(Optional.of(user("new@example.com", true)));
+
+        assertEquals("new@example.com", userDetailsService.loadPrincipal(7, "new@example.com").getEmail());
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadPrincipal(7, "other@example.com"));
+        verify(twoLevelCache, times(2)).put(eq("principal"), eq("principal::7"), any(CustomUserPrincipal.class), any());
+    }
+
+    @Test
+    void testLoadPrincipal_DisabledUserRejected() throws Exception {
+        when(singleFlightLoader.load(any(), any(), eq(CustomUserPrincipal.class), any(), any()))
+                .thenReturn(new CustomUserPrincipal(7, "Asha", "asha@example.com", "USER", false));
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadPrincipal(7, "asha@example.com"));
+    }
+
+    @Test
+    void testCachedPrincipal_RoundTripsWithoutPassword() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        byte[] json = objectMapper.writeValueAsBytes(new CustomUserPrincipal(user("asha@example.com", true)));
+        CustomUserPrincipal principal = objectMapper.readValue(json, CustomUserPrincipal.class);
+
+        assertFalse(new String(json).contains("hash"));
+        assertEquals(7, principal.getUserId());
+        assertEquals("asha@example.com", principal.getUsername());
+        assertEquals("ADMIN", principal.getRole());
+        assertTrue(principal.isEnabled());
+    }
+}
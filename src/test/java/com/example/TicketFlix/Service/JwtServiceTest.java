@@ -114,6 +114,20 @@ class JwtServiceTest {
         assertEquals("REFRESH", tokenType);
     }
 
+    @Test
+    void testVerify_IssuedAtHasMillisecondPrecision() {
+        // Arrange
+        long before = System.currentTimeMillis();
+        String token = jwtService.generateAccessToken("test@example.com", 1, "USER");
+        long after = System.currentTimeMillis();
+
+        // Act
+        long issuedAt = jwtService.verify(token).getIssuedAt().getTime();
+
+        // Assert
+        assertTrue(issuedAt >= before && issuedAt <= after);
+    }
+
     @Test
     void testValidateToken_ValidToken() {
         // Arrange
@@ -251,4 +265,39 @@ class JwtServiceTest {
             jwtService.extractEmail(malformedToken);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void testVerify_RepeatedTokenServedFromVerifiedCache() {
+        // Arrange
+        ReflectionTestUtils.setField(jwtService, "verifiedCacheMaxSize", 100L);
+        String token = jwtService.generateAccessToken("test@example.com", 7, "ADMIN");
+
+        // Act
+        VerifiedToken first = jwtService.verify(token);
+        VerifiedToken second = jwtService.verify(token);
+
+        // Assert
+        assertSame(first, second);
+        assertEquals("test@example.com", first.getEmail());
+        assertEquals(7, first.getUserId());
+        assertEquals("ADMIN", first.getRole());
+        assertTrue(first.isAccessToken());
+    }
+
+    @Test
+    void testVerify_TamperedOrExpiredTokenRejected() {
+        // Arrange
+        ReflectionTestUtils.setField(jwtService, "verifiedCacheMaxSize", 100L);
+        String token = jwtService.generateAccessToken("test@example.com", 1, "USER");
+        String[] parts = token.split("\\.");
+        String forged = jwtService.generateAccessToken("test@example.com", 1, "ADMIN").split("\\.")[1];
+        ReflectionTestUtils.setField(jwtService, "expiration", -1000L);
+        String expired = jwtService.generateAccessToken("test@example.com", 1, "USER");
+
+        // Act & Assert
+        jwtService.verify(token);
+        assertThrows(SecurityException.class, () -> jwtService.verify(parts[0] + "." + forged + "." + parts[2]));
+        assertThrows(SecurityException.class, () -> jwtService.verify(expired));
+        assertFalse(jwtService.validateAccessToken(expired));
+    }
+}
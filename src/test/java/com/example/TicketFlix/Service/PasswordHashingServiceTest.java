@@ -0,0 +1,116 @@
+package com.example.TicketFlix.Service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingServiceTest {
+
+    private ThreadPoolTaskExecutor executor;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.initialize();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    private PasswordHashingService service(int configuredCost, Duration targetLatency) {
+        PasswordHashingService service = new PasswordHashingService();
+        ReflectionTestUtils.setField(service, "passwordHashingExecutor", executor);
+        ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(service, "configuredCost", configuredCost);
+        ReflectionTestUtils.setField(service, "targetLatency", targetLatency);
+        ReflectionTestUtils.setField(service, "minCost", 10);
+        ReflectionTestUtils.setField(service, "maxCost", 14);
+        ReflectionTestUtils.setField(service, "hashingTimeout", Duration.ofSeconds(5));
+        service.init();
+        return service;
+    }
+
+    @Test
+    void testCalibrate_ClampsToConfiguredRange() {
+        assertEquals(10, service(0, Duration.ofNanos(1)).getCost());
+        assertEquals(14, service(0, Duration.ofHours(1)).getCost());
+    }
+
+    @Test
+    void testEncodeAndMatches_RunOnExecutorAndRecordLatency() {
+        PasswordHashingService service = service(5, Duration.ZERO);
+
+        String hash = service.encode("Secret@123");
+
+        assertTrue(hash.startsWith("$2a$05$"));
+        assertTrue(service.matches("Secret@123", hash));
+        assertFalse(service.matches("wrong", hash));
+        assertEquals(1, meterRegistry.get("ticketflix.password.hash").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("ticketflix.password.hash").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void testUpgradeEncoding_OnlyForLowerCost() {
+        PasswordHashingService service = service(6, Duration.ZERO);
+
+        assertTrue(service.upgradeEncoding(new BCryptPasswordEncoder(4).encode("pw")));
+        assertFalse(service.upgradeEncoding(new BCryptPasswordEncoder(6).encode("pw")));
+        assertFalse(service.upgradeEncoding(new BCryptPasswordEncoder(8).encode("pw")));
+    }
+
+    @Test
+    void testSaturatedExecutor_RejectsImmediately() throws Exception {
+        PasswordHashingService service = service(4, Duration.ZERO);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> awaitQuietly(release));
+        executor.execute(() -> awaitQuietly(release));
+
+        long start = System.nanoTime();
+        assertThrows(TaskRejectedException.class, () -> service.encode("Secret@123"));
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertEquals(1.0, meterRegistry.get("ticketflix.password.hashing.rejected").counter().count());
+        assertEquals(1.0, meterRegistry.get("ticketflix.password.hashing.queue-depth").gauge().value());
+        release.countDown();
+    }
+
+    @Test
+    void testEncodeOnCallerThread_SucceedsWhileExecutorIsSaturated() {
+        PasswordHashingService service = service(4, Duration.ZERO);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> awaitQuietly(release));
+        executor.execute(() -> awaitQuietly(release));
+
+        String hash = service.encodeOnCallerThread("Secret@123");
+
+        assertTrue(new BCryptPasswordEncoder().matches("Secret@123", hash));
+        assertEquals(1, meterRegistry.get("ticketflix.password.hash").tag("operation", "encode").timer().count());
+        release.countDown();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
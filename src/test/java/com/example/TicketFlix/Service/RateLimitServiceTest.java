@@ -0,0 +1,97 @@
+package com.example.TicketFlix.Service;
+
+import com.example.TicketFlix.Cache.RedisCircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitServiceTest {
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private RedisCircuitBreaker redisCircuitBreaker;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitService rateLimitService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimitService = new RateLimitService();
+        ReflectionTestUtils.setField(rateLimitService, "redisTemplate", redisTemplate);
+        ReflectionTestUtils.setField(rateLimitService, "redisCircuitBreaker", redisCircuitBreaker);
+        ReflectionTestUtils.setField(rateLimitService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(rateLimitService, "loginCapacity", 10L);
+        ReflectionTestUtils.setField(rateLimitService, "loginRefillPerSecond", 0.2);
+        ReflectionTestUtils.setField(rateLimitService, "bookingCapacity", 10L);
+        ReflectionTestUtils.setField(rateLimitService, "bookingRefillPerSecond", 1.0);
+        ReflectionTestUtils.setField(rateLimitService, "paymentCapacity", 10L);
+        ReflectionTestUtils.setField(rateLimitService, "paymentRefillPerSecond", 1.0);
+        ReflectionTestUtils.setField(rateLimitService, "localShare", 0.3);
+        ReflectionTestUtils.setField(rateLimitService, "localLease", Duration.ofMinutes(1));
+        rateLimitService.init();
+    }
+
+    private void redisReturns(List<List<Long>> results) {
+        var stubbing = when(redisTemplate.execute(ArgumentMatchers.<RedisScript<List<Long>>>any(),
+                eq(List.of("rate::booking::user:7")), any(), any(), any()));
+        for (List<Long> result : results) {
+            stubbing = stubbing.thenReturn(result);
+        }
+    }
+
+    @Test
+    void testBatchFromRedis_ServesFollowingRequestsLocally() {
+        redisReturns(List.of(List.of(3L, 0L), List.of(0L, 1500L)));
+
+        assertEquals(0, rateLimitService.tryAcquire(RateLimitService.BOOKING, "user:7"));
+        assertEquals(0, rateLimitService.tryAcquire(RateLimitService.BOOKING, "user:7"));
+        assertEquals(0, rateLimitService.tryAcquire(RateLimitService.BOOKING, "user:7"));
+        assertEquals(1500, rateLimitService.tryAcquire(RateLimitService.BOOKING, "user:7"));
+
+        // Batch of capacity x local-share = 3 tokens, requested twice
+        verify(redisTemplate, times(2)).execute(ArgumentMatchers.<RedisScript<List<Long>>>any(), anyList(),
+                eq("10.0"), eq("0.001"), eq("3"));
+        assertEquals(3.0, meterRegistry.get("ticketflix.rate-limit.requests")
+                .tag("route", "booking").tag("result", "allowed").counter().count());
+        assertEquals(1.0, meterRegistry.get("ticketflix.rate-limit.requests")
+                .tag("route", "booking").tag("result", "limited").counter().count());
+    }
+
+    @Test
+    void testCircuitOpen_EnforcesLimitOnThisNode() {
+        when(redisCircuitBreaker.isOpen()).thenReturn(true);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, rateLimitService.tryAcquire(RateLimitService.LOGIN, "ip:10.0.0.1"));
+        }
+        long wait = rateLimitService.tryAcquire(RateLimitService.LOGIN, "ip:10.0.0.1");
+
+        assertTrue(wait > 0 && wait <= 5000, "wait was " + wait);
+        assertEquals(0, rateLimitService.tryAcquire(RateLimitService.LOGIN, "ip:10.0.0.2"));
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void testLimitsExposedAsGauges() {
+        assertEquals(10.0, meterRegistry.get("ticketflix.rate-limit.capacity").tag("route", "payment").gauge().value());
+        assertEquals(0.2, meterRegistry.get("ticketflix.rate-limit.refill-per-second").tag("route", "login").gauge().value());
+    }
+}
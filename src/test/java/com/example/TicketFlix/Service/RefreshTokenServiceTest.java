@@ -0,0 +1,89 @@
+package com.example.TicketFlix.Service;
+
+import com.example.TicketFlix.Exception.AuthenticationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private JwtService jwtService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        refreshTokenService = new RefreshTokenService();
+        ReflectionTestUtils.setField(refreshTokenService, "redisTemplate", redisTemplate);
+        ReflectionTestUtils.setField(refreshTokenService, "jwtService", jwtService);
+        ReflectionTestUtils.setField(refreshTokenService, "meterRegistry", meterRegistry);
+        refreshTokenService.init();
+    }
+
+    private VerifiedToken refreshToken(String tokenId) {
+        return new VerifiedToken(tokenId, "user@test.com", 7, "USER", "REFRESH", "family-1",
+                new Date(), new Date(System.currentTimeMillis() + 60_000));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void rotationResult(long result) {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any())).thenReturn(result);
+    }
+
+    private double refreshes(String result) {
+        return meterRegistry.get("ticketflix.auth.refresh").tag("result", result).counter().count();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRotate_CurrentTokenIsSwappedForSuccessor() throws Exception {
+        rotationResult(1);
+        when(jwtService.generateRefreshToken(eq("user@test.com"), eq(7), eq("family-1"), anyString()))
+                .thenReturn("next-refresh-token");
+
+        assertEquals("next-refresh-token", refreshTokenService.rotate(refreshToken("token-1")));
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("auth:refresh-family::family-1")),
+                eq("token-1"), anyString());
+        assertEquals(1.0, refreshes("rotated"));
+    }
+
+    @Test
+    void testRotate_ReusedTokenEndsSession() {
+        rotationResult(-1);
+
+        assertThrows(AuthenticationException.class, () -> refreshTokenService.rotate(refreshToken("token-1")));
+
+        verify(jwtService, never()).generateRefreshToken(anyString(), anyInt(), anyString(), anyString());
+        assertEquals(1.0, refreshes("reused"));
+    }
+
+    @Test
+    void testRotate_UnknownSessionIsRejected() {
+        rotationResult(0);
+
+        assertThrows(AuthenticationException.class, () -> refreshTokenService.rotate(refreshToken("token-1")));
+
+        assertEquals(1.0, refreshes("unknown-session"));
+    }
+}
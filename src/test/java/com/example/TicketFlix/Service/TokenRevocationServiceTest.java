@@ -0,0 +1,123 @@
+package com.example.TicketFlix.Service;
+
+import com.example.TicketFlix.Cache.RedisCircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @Mock
+    private RedisCircuitBreaker redisCircuitBreaker;
+
+    @Mock
+    private ThreadPoolTaskExecutor cacheWriteExecutor;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tokenRevocationService = new TokenRevocationService();
+        ReflectionTestUtils.setField(tokenRevocationService, "redisTemplate", redisTemplate);
+        ReflectionTestUtils.setField(tokenRevocationService, "redisCircuitBreaker", redisCircuitBreaker);
+        ReflectionTestUtils.setField(tokenRevocationService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(tokenRevocationService, "cacheWriteExecutor", cacheWriteExecutor);
+        ReflectionTestUtils.setField(tokenRevocationService, "expectedRevocations", 1000L);
+        ReflectionTestUtils.setField(tokenRevocationService, "falsePositiveRate", 0.001);
+        ReflectionTestUtils.setField(tokenRevocationService, "maxTokenLifetimeMillis", 604800000L);
+        tokenRevocationService.init();
+    }
+
+    private static VerifiedToken token(String tokenId, int userId, long issuedAt) {
+        return new VerifiedToken(tokenId, "user@example.com", userId, "USER", "ACCESS", null,
+                new Date(issuedAt), new Date(issuedAt + 3600000));
+    }
+
+    @Test
+    void testUnrevokedToken_CheckedWithoutRedis() {
+        assertFalse(tokenRevocationService.isRevoked(token("jti-1", 7, System.currentTimeMillis())));
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void testRevokeToken_RecordedInRedisAndRejectedAfterConfirmation() {
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        VerifiedToken token = token("jti-1", 7, System.currentTimeMillis());
+
+        tokenRevocationService.revokeToken(token);
+        when(zSetOperations.score("auth:revoked-tokens", "jti-1")).thenReturn((double) token.getExpiration().getTime());
+
+        assertTrue(tokenRevocationService.isRevoked(token));
+        assertFalse(tokenRevocationService.isRevoked(token("jti-2", 7, System.currentTimeMillis())));
+        verify(zSetOperations).add("auth:revoked-tokens", "jti-1", token.getExpiration().getTime());
+        verify(redisTemplate).convertAndSend(TokenRevocationService.REVOCATION_CHANNEL, "token|jti-1");
+    }
+
+    @Test
+    void testBloomHitWhileCircuitOpen_TreatedAsRevoked() {
+        tokenRevocationService.onRevocationMessage("token|jti-1");
+        when(redisCircuitBreaker.isOpen()).thenReturn(true);
+
+        assertTrue(tokenRevocationService.isRevoked(token("jti-1", 7, System.currentTimeMillis())));
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void testUserRevocationBroadcast_RejectsTokensIssuedUpToThatMillisecond() {
+        long revokedAt = 1_700_000_000_500L;
+
+        tokenRevocationService.onRevocationMessage("user|7|" + revokedAt);
+
+        assertTrue(tokenRevocationService.isRevoked(token("a", 7, revokedAt - 60000)));
+        assertTrue(tokenRevocationService.isRevoked(token("b", 7, revokedAt)));
+        assertFalse(tokenRevocationService.isRevoked(token("c", 7, revokedAt + 1)));
+        assertFalse(tokenRevocationService.isRevoked(token("d", 8, revokedAt - 60000)));
+    }
+
+    @Test
+    void testReload_RebuildsFromRedisAndDropsExpiredUserEntries() {
+        long now = System.currentTimeMillis();
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+        when(zSetOperations.rangeByScore(eq("auth:revoked-tokens"), anyDouble(), eq(Double.POSITIVE_INFINITY)))
+                .thenReturn(Set.of("jti-1"));
+        when(hashOperations.entries("auth:not-before"))
+                .thenReturn(Map.of("7", String.valueOf(now), "8", String.valueOf(now - 700000000L)));
+        when(zSetOperations.score("auth:revoked-tokens", "jti-1")).thenReturn(1.0);
+
+        tokenRevocationService.reload();
+
+        assertTrue(tokenRevocationService.isRevoked(token("jti-1", 9, now)));
+        assertTrue(tokenRevocationService.isRevoked(token("x", 7, now - 1000)));
+        verify(hashOperations).delete("auth:not-before", "8");
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.TicketFlix.Service;
+
+import com.example.TicketFlix.EntryDTOs.UserEntryDTO;
+import com.example.TicketFlix.Models.User;
+import com.example.TicketFlix.Repository.UserRepository;
+import com.example.TicketFlix.TestConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+@Import(TestConfig.class)
+class UserServiceBatchTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private UserEntryDTO entry(String email, String mobileNumber) {
+        UserEntryDTO userEntryDTO = new UserEntryDTO();
+        userEntryDTO.setName("Batch " + email);
+        userEntryDTO.setAge(25);
+        userEntryDTO.setEmail(email);
+        userEntryDTO.setMobileNumber(mobileNumber);
+        userEntryDTO.setPassword("encoded-password");
+        return userEntryDTO;
+    }
+
+    @Test
+    void testCreateUsersInDB_InsertsBatchAndReturnsGeneratedIds() {
+        List<User> users = userService.createUsersInDB(List.of(
+                entry("batch-1@test.com", "7000000001"), entry("batch-2@test.com", "7000000002")));
+
+        assertEquals(2, users.size());
+        assertTrue(users.stream().allMatch(user -> user.getId() > 0 && user.isEnabled()
+                && user.getRole() == User.UserRole.USER));
+        assertEquals(Set.of("batch-1@test.com", "batch-2@test.com"),
+                users.stream().map(User::getEmail).collect(Collectors.toSet()));
+        assertEquals(Set.of("batch-1@test.com"),
+                userRepository.findExistingEmails(List.of("batch-1@test.com", "batch-unknown@test.com")));
+    }
+
+    @Test
+    void testCreateUsersInDB_ConstraintViolationRollsBackWholeBatch() {
+        userService.createUsersInDB(List.of(entry("batch-taken@test.com", "7000000010")));
+
+        assertThrows(DataIntegrityViolationException.class, () -> userService.createUsersInDB(List.of(
+                entry("batch-new@test.com", "7000000011"), entry("batch-taken@test.com", "7000000012"))));
+
+        assertTrue(userRepository.findByEmail("batch-new@test.com").isEmpty());
+    }
+}
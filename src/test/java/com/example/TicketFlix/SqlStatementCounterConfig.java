@@ -0,0 +1,34 @@
+package com.example.TicketFlix;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the test DataSource with datasource-proxy so every statement is counted per thread.
+ * Counts are read through net.ttddyy.dsproxy.QueryCountHolder.
+ */
+@TestConfiguration
+public class SqlStatementCounterConfig {
+
+    public static final String DATASOURCE_NAME = "ticketflix-test";
+
+    @Bean
+    public static BeanPostProcessor sqlCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource) {
+                    return ProxyDataSourceBuilder.create((DataSource) bean)
+                            .name(DATASOURCE_NAME)
+                            .countQuery()
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
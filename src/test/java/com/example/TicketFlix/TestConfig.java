@@ -1,25 +1,62 @@
 package com.example.TicketFlix;
 
+import com.example.TicketFlix.Events.EventEnvelope;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.mockito.Answers;
 import org.redisson.api.RedissonClient;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 /**
  * Test configuration to mock external dependencies
  */
 @TestConfiguration
+@Import(SqlStatementCounterConfig.class)
 public class TestConfig {
 
     @MockBean
     private RedissonClient redissonClient;
 
-    @MockBean
-    private KafkaTemplate<String, Object> kafkaTemplate;
+    // Deep stubs so opsForValue()/opsForZSet() return mocks and every cache lookup is a miss
+    @MockBean(name = "redisTemplate", answer = Answers.RETURNS_DEEP_STUBS)
+    private RedisTemplate<String, String> redisTemplate;
+
+    @MockBean(name = "redisBinaryTemplate", answer = Answers.RETURNS_DEEP_STUBS)
+    private RedisTemplate<String, byte[]> redisBinaryTemplate;
 
     @MockBean
     private JavaMailSender javaMailSender;
+
+    /**
+     * Every send is acknowledged at once, so request paths that wait for Kafka go through
+     */
+    @Bean
+    @Primary
+    @SuppressWarnings("unchecked")
+    public KafkaTemplate<String, EventEnvelope<?>> acknowledgingKafkaTemplate() {
+        KafkaTemplate<String, EventEnvelope<?>> kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(anyString(), any(), any())).thenAnswer(invocation -> {
+            ProducerRecord<String, EventEnvelope<?>> record = new ProducerRecord<>(invocation.getArgument(0),
+                    invocation.getArgument(1), invocation.getArgument(2));
+            SettableListenableFuture<SendResult<String, EventEnvelope<?>>> future = new SettableListenableFuture<>();
+            future.set(new SendResult<>(record, new RecordMetadata(new TopicPartition(record.topic(), 0), 0, 0, 0, 0, 0)));
+            return future;
+        });
+        return kafkaTemplate;
+    }
 }
\ No newline at end of file